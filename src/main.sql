@@ -67,7 +67,8 @@ CREATE TABLE IF NOT EXISTS customers (
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
     INDEX idx_email (email),
     INDEX idx_phone (phone),
-    INDEX idx_id_number (id_number)
+    INDEX idx_id_number (id_number),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- 4. ROOM TYPES TABLE
@@ -80,7 +81,8 @@ CREATE TABLE IF NOT EXISTS room_types (
     amenities TEXT, -- JSON array of amenities
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
-    INDEX idx_type_name (type_name)
+    INDEX idx_type_name (type_name),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- 5. ROOMS TABLE
@@ -96,7 +98,8 @@ CREATE TABLE IF NOT EXISTS rooms (
     FOREIGN KEY (room_type_id) REFERENCES room_types(room_type_id) ON DELETE RESTRICT,
     INDEX idx_room_number (room_number),
     INDEX idx_status (status),
-    INDEX idx_room_type (room_type_id)
+    INDEX idx_room_type (room_type_id),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- 6. SERVICES TABLE (Additional hotel services)
@@ -132,7 +135,8 @@ CREATE TABLE IF NOT EXISTS reservations (
     INDEX idx_room (room_id),
     INDEX idx_status (status),
     INDEX idx_check_in (check_in_date),
-    INDEX idx_check_out (check_out_date)
+    INDEX idx_check_out (check_out_date),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- 8. PAYMENTS TABLE
@@ -150,7 +154,8 @@ CREATE TABLE IF NOT EXISTS payments (
     FOREIGN KEY (reservation_id) REFERENCES reservations(reservation_id) ON DELETE CASCADE,
     INDEX idx_reservation (reservation_id),
     INDEX idx_payment_status (payment_status),
-    INDEX idx_payment_date (payment_date)
+    INDEX idx_payment_date (payment_date),
+    INDEX idx_updated_at (updated_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
 -- 9. STAFF TABLE
@@ -183,6 +188,7 @@ CREATE TABLE IF NOT EXISTS reports (
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     FOREIGN KEY (generated_by) REFERENCES users(user_id) ON DELETE RESTRICT,
     INDEX idx_report_type (report_type),
+    INDEX idx_report_range (report_type, start_date, end_date),
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
@@ -202,6 +208,44 @@ CREATE TABLE IF NOT EXISTS activity_logs (
     INDEX idx_created_at (created_at)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- 12. DAILY STATS TABLE (pre-aggregated per night and room type, maintained by the application)
+CREATE TABLE IF NOT EXISTS daily_stats (
+    stat_date DATE NOT NULL,
+    room_type_id INT NOT NULL,
+    rooms_available INT NOT NULL DEFAULT 0,
+    rooms_sold INT NOT NULL DEFAULT 0,
+    room_revenue DECIMAL(12, 2) NOT NULL DEFAULT 0, -- stay value spread evenly over its nights
+    adr DECIMAL(10, 2) NOT NULL DEFAULT 0, -- room_revenue / rooms_sold
+    revpar DECIMAL(10, 2) NOT NULL DEFAULT 0, -- room_revenue / rooms_available
+    payments_collected DECIMAL(12, 2) NOT NULL DEFAULT 0, -- completed payments by payment day
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    PRIMARY KEY (stat_date, room_type_id),
+    FOREIGN KEY (room_type_id) REFERENCES room_types(room_type_id) ON DELETE CASCADE,
+    INDEX idx_room_type_date (room_type_id, stat_date)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- 13. JOURNAL REPLAYS TABLE (offline journal entries already replayed, written in the replay transaction)
+CREATE TABLE IF NOT EXISTS journal_replays (
+    entry_id VARCHAR(36) PRIMARY KEY,
+    state VARCHAR(20) NOT NULL, -- APPLIED, CONFLICT, FAILED
+    message VARCHAR(500),
+    replayed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+-- ============================================
+-- MIGRATIONS (existing installs; CREATE TABLE IF NOT EXISTS skips tables that are already there)
+-- ============================================
+
+-- Change checks and delta refreshes filter or aggregate on updated_at
+CREATE INDEX IF NOT EXISTS idx_updated_at ON customers (updated_at);
+CREATE INDEX IF NOT EXISTS idx_updated_at ON room_types (updated_at);
+CREATE INDEX IF NOT EXISTS idx_updated_at ON rooms (updated_at);
+CREATE INDEX IF NOT EXISTS idx_updated_at ON reservations (updated_at);
+CREATE INDEX IF NOT EXISTS idx_updated_at ON payments (updated_at);
+
+-- Cached report lookups by type and period
+CREATE INDEX IF NOT EXISTS idx_report_range ON reports (report_type, start_date, end_date);
+
 -- ============================================
 -- INITIAL DATA
 -- ============================================
@@ -7,18 +7,20 @@ import java.awt.Component;
 import java.awt.Cursor;
 import java.awt.Dimension;
 import java.awt.Font;
+import java.awt.Graphics;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.awt.image.BufferedImage;
-import java.io.InputStream;
 import java.io.RandomAccessFile;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileLock;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Supplier;
 
-import javax.imageio.ImageIO;
 import javax.swing.BoxLayout;
 import javax.swing.JButton;
 import javax.swing.JFrame;
@@ -27,15 +29,19 @@ import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.SwingConstants;
 import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
 
 import com.formdev.flatlaf.FlatLightLaf;
-import com.hotelmanager.dao.AuthUserDAO;
+import com.hotelmanager.cache.OfflineJournal;
+import com.hotelmanager.cache.WarmStartSnapshot;
 import com.hotelmanager.model.User;
+import com.hotelmanager.service.DailyStatsService;
 import com.hotelmanager.ui.CustomersPanel;
 import com.hotelmanager.ui.DashboardPanel;
 import com.hotelmanager.ui.LoginPanel;
 import com.hotelmanager.ui.PaymentsPanel;
+import com.hotelmanager.ui.RefreshScheduler;
 import com.hotelmanager.ui.RegistrationPanel;
 import com.hotelmanager.ui.ReportsPanel;
 import com.hotelmanager.ui.ReservationsPanel;
@@ -44,7 +50,9 @@ import com.hotelmanager.ui.SettingsPanel;
 import com.hotelmanager.ui.UIFactory;
 import com.hotelmanager.util.AuthDBConnection;
 import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.JournalDBConnection;
 import com.hotelmanager.util.Logger;
+import com.hotelmanager.util.StartupTrace;
 
 /**
  * Main Swing Application for Hotel Manager Pro
@@ -59,6 +67,7 @@ public class HotelManagerApp extends JFrame {
     private CardLayout cardLayout;
     private JPanel mainPanel;
     private JPanel sidebarPanel;
+    private JPanel contentPanel;
     
     // Panels
     private LoginPanel loginPanel;
@@ -72,6 +81,7 @@ public class HotelManagerApp extends JFrame {
     private SettingsPanel settingsPanel;
     
     private User currentUser;
+    private Runnable afterFirstPaint;
     private static final String LOGIN_CARD = "LOGIN";
     private static final String REGISTER_CARD = "REGISTER";
     private static final String MAIN_CARD = "MAIN";
@@ -79,23 +89,27 @@ public class HotelManagerApp extends JFrame {
     public HotelManagerApp() {
         instance = this;
         instanceRunning = true;
-        initializeDatabase();
         initializeUI();
+        OfflineJournal.getInstance().setRejectionListener(
+            rejected -> SwingUtilities.invokeLater(() -> showRejectedWrites(rejected)));
     }
     
-    private void initializeDatabase() {
-        try {
-            AuthDBConnection.initialize();
-            AuthDBConnection.getInstance().initializeDatabase();
-            DBConnection.initialize();
-            DBConnection.getInstance().initializeDatabase();
-            Logger.info("Database connections initialized - Auth (SQLite) and Business (MariaDB)");
-        } catch (Exception e) {
-            Logger.error("Failed to initialize database", e);
-            JOptionPane.showMessageDialog(null, 
-                "Failed to initialize database: " + e.getMessage(),
-                "Database Error", JOptionPane.ERROR_MESSAGE);
+    /**
+     * Tell the user which writes made offline were dropped when the journal was replayed
+     */
+    private void showRejectedWrites(List<String> rejected) {
+        int shown = Math.min(rejected.size(), 10);
+        StringBuilder text = new StringBuilder(rejected.size() == 1
+            ? "A change made while offline could not be saved:\n\n"
+            : rejected.size() + " changes made while offline could not be saved:\n\n");
+        for (String line : rejected.subList(0, shown)) {
+            text.append("- ").append(line).append('\n');
         }
+        if (rejected.size() > shown) {
+            text.append("... and ").append(rejected.size() - shown).append(" more, see the log\n");
+        }
+        text.append("\nPlease check these records and enter the changes again if needed.");
+        JOptionPane.showMessageDialog(this, text.toString(), "Offline Changes Not Saved", JOptionPane.WARNING_MESSAGE);
     }
     
     private void initializeUI() {
@@ -109,7 +123,23 @@ public class HotelManagerApp extends JFrame {
         loadApplicationIcon();
         
         cardLayout = new CardLayout();
-        mainPanel = new JPanel(cardLayout);
+        mainPanel = new JPanel(cardLayout) {
+            private boolean painted;
+            
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                // Closes the startup trace; later sequences end on the main container's paint
+                if (!painted) {
+                    painted = true;
+                    StartupTrace.firstPaint();
+                    if (afterFirstPaint != null) {
+                        SwingUtilities.invokeLater(afterFirstPaint);
+                        afterFirstPaint = null;
+                    }
+                }
+            }
+        };
         
         loginPanel = new LoginPanel(this);
         registrationPanel = new RegistrationPanel(this);
@@ -117,8 +147,6 @@ public class HotelManagerApp extends JFrame {
         mainPanel.add(loginPanel, LOGIN_CARD);
         mainPanel.add(registrationPanel, REGISTER_CARD);
         
-        checkAdminAndShowLogin();
-        
         add(mainPanel);
         
         addWindowListener(new WindowAdapter() {
@@ -129,18 +157,18 @@ public class HotelManagerApp extends JFrame {
         });
     }
     
-    private void checkAdminAndShowLogin() {
-        try {
-            AuthUserDAO authUserDAO = new AuthUserDAO();
-            if (!authUserDAO.adminExists()) {
-                cardLayout.show(mainPanel, REGISTER_CARD);
-            } else {
-                cardLayout.show(mainPanel, LOGIN_CARD);
-            }
-        } catch (Exception e) {
-            Logger.error("Error checking admin existence", e);
-            cardLayout.show(mainPanel, LOGIN_CARD);
-        }
+    /**
+     * Run once after the window first painted; call on the EDT before showing it
+     */
+    void onFirstPaint(Runnable action) {
+        afterFirstPaint = action;
+    }
+    
+    /**
+     * Open on registration until an admin account exists, otherwise on login
+     */
+    void showStartCard(boolean adminExists) {
+        cardLayout.show(mainPanel, adminExists ? LOGIN_CARD : REGISTER_CARD);
     }
     
     public void showLogin() {
@@ -153,32 +181,29 @@ public class HotelManagerApp extends JFrame {
     
     public void showMainApp() {
         mainPanel.removeAll();
+        RefreshScheduler.getInstance().clear();
         
-        JPanel mainContainer = new JPanel(new BorderLayout());
+        JPanel mainContainer = new JPanel(new BorderLayout()) {
+            @Override
+            public void paint(Graphics g) {
+                super.paint(g);
+                StartupTrace.firstPaint();
+            }
+        };
         
         sidebarPanel = createSidebar();
         mainContainer.add(sidebarPanel, BorderLayout.WEST);
-        
-        JPanel contentPanel = new JPanel(new CardLayout());
-        
-        dashboardPanel = new DashboardPanel(this);
-        roomsPanel = new RoomsPanel(this);
-        reservationsPanel = new ReservationsPanel(this);
-        customersPanel = new CustomersPanel(this);
-        paymentsPanel = new PaymentsPanel(this);
-        reportsPanel = new ReportsPanel(this);
-        settingsPanel = new SettingsPanel(this);
-        
-        contentPanel.add(dashboardPanel, "DASHBOARD");
-        contentPanel.add(roomsPanel, "ROOMS");
-        contentPanel.add(reservationsPanel, "RESERVATIONS");
-        contentPanel.add(customersPanel, "CUSTOMERS");
-        contentPanel.add(paymentsPanel, "PAYMENTS");
-        contentPanel.add(reportsPanel, "REPORTS");
-        contentPanel.add(settingsPanel, "SETTINGS");
-        
-        CardLayout contentCardLayout = (CardLayout) contentPanel.getLayout();
-        contentCardLayout.show(contentPanel, "DASHBOARD");
+        StartupTrace.mark("sidebar built");
+        
+        // Only the dashboard is built now; the other sections are built on first navigation
+        contentPanel = new JPanel(new CardLayout());
+        roomsPanel = null;
+        reservationsPanel = null;
+        customersPanel = null;
+        paymentsPanel = null;
+        reportsPanel = null;
+        settingsPanel = null;
+        dashboardPanel = addSection("DASHBOARD", () -> new DashboardPanel(this));
         
         mainContainer.add(contentPanel, BorderLayout.CENTER);
         mainPanel.add(mainContainer, MAIN_CARD);
@@ -187,7 +212,51 @@ public class HotelManagerApp extends JFrame {
         
         cardLayout.show(mainPanel, MAIN_CARD);
         
-        dashboardPanel.refreshData();
+        // Render the last known state first, then reconcile against the database off the EDT
+        WarmStartSnapshot snapshot = WarmStartSnapshot.load();
+        if (snapshot != null) {
+            dashboardPanel.applySnapshot(snapshot);
+        }
+        StartupTrace.mark("warm start applied");
+        syncWarmStartSnapshot();
+        RefreshScheduler.getInstance().show(dashboardPanel);
+        DailyStatsService.getInstance().startBackfillIfEmpty();
+    }
+    
+    /**
+     * Build a section's panel and add it to the content cards
+     */
+    private <P extends JPanel> P addSection(String card, Supplier<P> factory) {
+        long start = System.nanoTime();
+        P panel = factory.get();
+        contentPanel.add(panel, card);
+        Logger.info(String.format("Built %s panel in %d ms", card, (System.nanoTime() - start) / 1_000_000));
+        return panel;
+    }
+    
+    private void syncWarmStartSnapshot() {
+        new SwingWorker<WarmStartSnapshot, Void>() {
+            @Override
+            protected WarmStartSnapshot doInBackground() throws Exception {
+                WarmStartSnapshot fresh = WarmStartSnapshot.capture();
+                fresh.save();
+                return fresh;
+            }
+            
+            @Override
+            protected void done() {
+                try {
+                    WarmStartSnapshot fresh = get();
+                    if (dashboardPanel != null) {
+                        dashboardPanel.applySnapshot(fresh);
+                    }
+                } catch (ExecutionException e) {
+                    Logger.error("Error syncing dashboard with database", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
     }
     
     private JPanel createSidebar() {
@@ -342,53 +411,62 @@ public class HotelManagerApp extends JFrame {
     }
     
     private void navigateTo(String section) {
-        Component[] components = mainPanel.getComponents();
-        for (Component comp : components) {
-            if (comp instanceof JPanel) {
-                JPanel mainContainer = (JPanel) comp;
-                if (mainContainer.getLayout() instanceof BorderLayout) {
-                    Component centerComp = ((BorderLayout) mainContainer.getLayout())
-                        .getLayoutComponent(BorderLayout.CENTER);
-                    if (centerComp != null && centerComp instanceof JPanel) {
-                        JPanel contentPanel = (JPanel) centerComp;
-                        CardLayout cl = (CardLayout) contentPanel.getLayout();
-                        
-                        switch (section) {
-                            case "Dashboard":
-                                cl.show(contentPanel, "DASHBOARD");
-                                dashboardPanel.refreshData();
-                                break;
-                            case "Rooms":
-                                cl.show(contentPanel, "ROOMS");
-                                roomsPanel.refreshData();
-                                break;
-                            case "Reservations":
-                                cl.show(contentPanel, "RESERVATIONS");
-                                reservationsPanel.refreshData();
-                                break;
-                            case "Customers":
-                                cl.show(contentPanel, "CUSTOMERS");
-                                customersPanel.refreshData();
-                                break;
-                            case "Payments":
-                                cl.show(contentPanel, "PAYMENTS");
-                                paymentsPanel.refreshData();
-                                break;
-                            case "Reports":
-                                cl.show(contentPanel, "REPORTS");
-                                reportsPanel.refreshData();
-                                break;
-                            case "Settings":
-                                cl.show(contentPanel, "SETTINGS");
-                                settingsPanel.refreshData();
-                                break;
-                            case "Help":
-                                showHelpDialog();
-                                break;
-                        }
-                    }
+        if (contentPanel == null) {
+            return;
+        }
+        CardLayout cl = (CardLayout) contentPanel.getLayout();
+        
+        switch (section) {
+            case "Dashboard":
+                cl.show(contentPanel, "DASHBOARD");
+                RefreshScheduler.getInstance().show(dashboardPanel);
+                break;
+            case "Rooms":
+                if (roomsPanel == null) {
+                    roomsPanel = addSection("ROOMS", () -> new RoomsPanel(this));
                 }
-            }
+                cl.show(contentPanel, "ROOMS");
+                RefreshScheduler.getInstance().show(roomsPanel);
+                break;
+            case "Reservations":
+                if (reservationsPanel == null) {
+                    reservationsPanel = addSection("RESERVATIONS", () -> new ReservationsPanel(this));
+                }
+                cl.show(contentPanel, "RESERVATIONS");
+                RefreshScheduler.getInstance().show(reservationsPanel);
+                break;
+            case "Customers":
+                if (customersPanel == null) {
+                    customersPanel = addSection("CUSTOMERS", () -> new CustomersPanel(this));
+                }
+                cl.show(contentPanel, "CUSTOMERS");
+                RefreshScheduler.getInstance().show(customersPanel);
+                break;
+            case "Payments":
+                if (paymentsPanel == null) {
+                    paymentsPanel = addSection("PAYMENTS", () -> new PaymentsPanel(this));
+                }
+                cl.show(contentPanel, "PAYMENTS");
+                RefreshScheduler.getInstance().show(paymentsPanel);
+                break;
+            case "Reports":
+                if (reportsPanel == null) {
+                    reportsPanel = addSection("REPORTS", () -> new ReportsPanel(this));
+                }
+                cl.show(contentPanel, "REPORTS");
+                RefreshScheduler.getInstance().show(reportsPanel);
+                break;
+            case "Settings":
+                if (settingsPanel == null) {
+                    settingsPanel = addSection("SETTINGS", () -> new SettingsPanel(this));
+                }
+                cl.show(contentPanel, "SETTINGS");
+                RefreshScheduler.getInstance().show(null);
+                settingsPanel.refreshData();
+                break;
+            case "Help":
+                showHelpDialog();
+                break;
         }
     }
     
@@ -408,6 +486,7 @@ public class HotelManagerApp extends JFrame {
         
         DBConnection.getInstance().closeConnection();
         AuthDBConnection.getInstance().closeConnection();
+        JournalDBConnection.getInstance().closeConnection();
         Logger.info("Application closing - resources cleaned up");
         
         instanceRunning = false;
@@ -430,7 +509,9 @@ public class HotelManagerApp extends JFrame {
             }
             currentUser = null;
             
+            RefreshScheduler.getInstance().clear();
             mainPanel.removeAll();
+            contentPanel = null;
             mainPanel.add(loginPanel, LOGIN_CARD);
             mainPanel.add(registrationPanel, REGISTER_CARD);
             cardLayout.show(mainPanel, LOGIN_CARD);
@@ -442,6 +523,7 @@ public class HotelManagerApp extends JFrame {
     public void loginSuccess(User user) {
         this.currentUser = user;
         Logger.info("User logged in: " + user.getUsername());
+        StartupTrace.mark("authenticated");
         showMainApp();
     }
     
@@ -459,17 +541,12 @@ public class HotelManagerApp extends JFrame {
     }
     
     private void loadApplicationIcon() {
-        try {
-            InputStream iconStream = getClass().getResourceAsStream("/icons/UPC_BRAND.png");
-            if (iconStream != null) {
-                BufferedImage image = ImageIO.read(iconStream);
-                setIconImage(image);
-                Logger.info("Application icon loaded successfully");
-            } else {
-                Logger.warn("Application icon not found in resources");
-            }
-        } catch (Exception e) {
-            Logger.error("Failed to load application icon", e);
+        BufferedImage image = UIFactory.getImage(UIFactory.LOGO_RESOURCE);
+        if (image != null) {
+            setIconImage(image);
+            Logger.info("Application icon loaded successfully");
+        } else {
+            Logger.warn("Application icon not found in resources");
         }
     }
     
@@ -586,15 +663,20 @@ public class HotelManagerApp extends JFrame {
             return;
         }
         
+        // Databases, images and classes load in the background while the look and feel installs
+        StartupOrchestrator startup = new StartupOrchestrator();
+        startup.start();
+        
         try {
             FlatLightLaf.install();
         } catch (Exception e) {
             System.err.println("Failed to install FlatLaf: " + e.getMessage());
         }
+        StartupTrace.mark("look and feel");
         
         SwingUtilities.invokeLater(() -> {
             HotelManagerApp app = new HotelManagerApp();
-            app.setVisible(true);
+            startup.showWhenReady(app);
             
             Runtime.getRuntime().addShutdownHook(new Thread(() -> {
                 releaseLock();
@@ -0,0 +1,162 @@
+package com.hotelmanager;
+
+import java.sql.Connection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import javax.swing.JOptionPane;
+import javax.swing.SwingUtilities;
+
+import com.hotelmanager.cache.OfflineJournal;
+import com.hotelmanager.cache.WarmStartSnapshot;
+import com.hotelmanager.dao.AuthUserDAO;
+import com.hotelmanager.service.ReportScheduler;
+import com.hotelmanager.ui.CustomersPanel;
+import com.hotelmanager.ui.DashboardPanel;
+import com.hotelmanager.ui.LoginPanel;
+import com.hotelmanager.ui.PaymentsPanel;
+import com.hotelmanager.ui.RefreshScheduler;
+import com.hotelmanager.ui.RegistrationPanel;
+import com.hotelmanager.ui.ReportsPanel;
+import com.hotelmanager.ui.ReservationsPanel;
+import com.hotelmanager.ui.RoomsPanel;
+import com.hotelmanager.ui.SettingsPanel;
+import com.hotelmanager.ui.UIFactory;
+import com.hotelmanager.util.AuthDBConnection;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.JournalDBConnection;
+import com.hotelmanager.util.Logger;
+import com.hotelmanager.util.StartupTrace;
+
+/**
+ * Runs the independent startup steps concurrently while the look and feel installs and the
+ * window is built: auth storage (SQLite), the business database and offline journal, image
+ * decoding and class preloading. The window is shown as soon as auth storage knows whether to
+ * open on login or registration; the business database keeps connecting in the background.
+ * Each phase is logged with its start and end since launch, the main path through StartupTrace.
+ */
+final class StartupOrchestrator {
+
+    // Classes of the main window, loaded while the user types their password
+    private static final List<Class<?>> PRELOAD = List.of(
+        DashboardPanel.class, RoomsPanel.class, ReservationsPanel.class, CustomersPanel.class,
+        PaymentsPanel.class, ReportsPanel.class, SettingsPanel.class, RefreshScheduler.class,
+        WarmStartSnapshot.class);
+
+    private final long startNanos = System.nanoTime();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final ExecutorService executor = Executors.newFixedThreadPool(4, runnable -> {
+        Thread thread = new Thread(runnable, "startup-" + threadCount.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    private CompletableFuture<Boolean> adminExists;
+    private CompletableFuture<Void> business;
+
+    /**
+     * Start the background phases; call first thing in main, before any Swing work
+     */
+    void start() {
+        StartupTrace.begin("startup");
+        adminExists = phase("auth storage", () -> {
+            AuthDBConnection.initialize();
+            AuthDBConnection.getInstance().initializeDatabase();
+            try {
+                return new AuthUserDAO().adminExists();
+            } catch (Exception e) {
+                Logger.error("Error checking admin existence", e);
+                return true;
+            }
+        });
+        business = phase("business database", () -> {
+            DBConnection.initialize();
+            DBConnection.getInstance().initializeDatabase();
+            // Open the first pooled connection now so the first screen after login does not wait for it
+            try (Connection connection = DBConnection.getInstance().getConnection()) {
+                if (connection.isValid(2)) {
+                    Logger.info("Business database connection warmed up");
+                } else {
+                    Logger.warn("Business database connection not valid at startup");
+                }
+            } catch (Exception e) {
+                Logger.warn("Business database not reachable at startup: " + e.getMessage());
+            }
+            JournalDBConnection.getInstance().initializeDatabase();
+            OfflineJournal.getInstance().resumePending();
+            return null;
+        });
+        CompletableFuture<Void> images = phase("images", () -> {
+            UIFactory.getImage(UIFactory.LOGO_RESOURCE);
+            UIFactory.getImage(LoginPanel.BACKGROUND_RESOURCE);
+            UIFactory.getImage(RegistrationPanel.BACKGROUND_RESOURCE);
+            return null;
+        });
+        CompletableFuture<Void> classes = phase("classes", () -> {
+            for (Class<?> type : PRELOAD) {
+                try {
+                    Class.forName(type.getName(), true, type.getClassLoader());
+                } catch (ClassNotFoundException | LinkageError e) {
+                    Logger.warn("Could not preload " + type.getName() + ": " + e.getMessage());
+                }
+            }
+            return null;
+        });
+
+        adminExists.exceptionally(e -> {
+            databaseFailed(e);
+            return null;
+        });
+        business.exceptionally(e -> {
+            databaseFailed(e);
+            return null;
+        });
+        CompletableFuture.allOf(adminExists, business, images, classes).whenComplete((result, e) -> {
+            Logger.info(String.format("Startup phases finished in %d ms", elapsedMillis()));
+            executor.shutdown();
+        });
+    }
+
+    /**
+     * Show the window on the first card once auth storage is ready; call on the EDT
+     */
+    void showWhenReady(HotelManagerApp app) {
+        StartupTrace.mark("window built");
+        // Scheduled reports compete with the first screens for pooled connections, so they wait for both
+        app.onFirstPaint(() -> business.thenRun(() -> ReportScheduler.getInstance().start()));
+        adminExists.whenComplete((exists, e) -> SwingUtilities.invokeLater(() -> {
+            StartupTrace.mark("auth storage ready");
+            app.showStartCard(exists == null || exists);
+            app.setVisible(true);
+            StartupTrace.mark("window shown");
+        }));
+    }
+
+    private <T> CompletableFuture<T> phase(String name, Supplier<T> step) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = elapsedMillis();
+            try {
+                T result = step.get();
+                Logger.info(String.format("Startup phase %s: %d-%d ms", name, start, elapsedMillis()));
+                return result;
+            } catch (RuntimeException e) {
+                Logger.error(String.format("Startup phase %s failed after %d ms", name, elapsedMillis() - start), e);
+                throw e;
+            }
+        }, executor);
+    }
+
+    private long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    private static void databaseFailed(Throwable e) {
+        Throwable cause = e.getCause() != null ? e.getCause() : e;
+        SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(null,
+            "Failed to initialize database: " + cause.getMessage(),
+            "Database Error", JOptionPane.ERROR_MESSAGE));
+    }
+}
@@ -0,0 +1,69 @@
+package com.hotelmanager.analytics;
+
+/**
+ * Largest-Triangle-Three-Buckets downsampling for line charts. Keeps the first and last
+ * points and, from each bucket in between, the point forming the largest triangle with the
+ * previously kept point and the average of the next bucket - peaks and dips survive even
+ * when thousands of points are reduced to one per pixel.
+ */
+public final class Downsampler {
+
+    private Downsampler() {
+    }
+
+    /**
+     * Indexes of at most threshold points to plot, in ascending order; all of them when the series is smaller
+     */
+    public static int[] lttb(int[] x, double[] y, int length, int threshold) {
+        if (length <= threshold || length <= 2) {
+            int[] all = new int[length];
+            for (int i = 0; i < length; i++) {
+                all[i] = i;
+            }
+            return all;
+        }
+        if (threshold < 3) {
+            return new int[]{0, length - 1};
+        }
+
+        int[] selected = new int[threshold];
+        int kept = 0;
+        selected[kept++] = 0;
+        double bucketSize = (double) (length - 2) / (threshold - 2);
+        int previous = 0;
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            int start = (int) Math.floor(bucket * bucketSize) + 1;
+            int end = (int) Math.floor((bucket + 1) * bucketSize) + 1;
+
+            // Average of the next bucket (the last point for the final bucket)
+            int nextStart = end;
+            int nextEnd = Math.min((int) Math.floor((bucket + 2) * bucketSize) + 1, length);
+            double averageX = 0;
+            double averageY = 0;
+            int nextCount = Math.max(1, nextEnd - nextStart);
+            for (int i = nextStart; i < nextStart + nextCount && i < length; i++) {
+                averageX += x[i];
+                averageY += y[i];
+            }
+            averageX /= nextCount;
+            averageY /= nextCount;
+
+            double pointX = x[previous];
+            double pointY = y[previous];
+            double largestArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // Twice the triangle area; only the comparison matters
+                double area = Math.abs((pointX - averageX) * (y[i] - pointY) - (pointX - x[i]) * (averageY - pointY));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            selected[kept++] = chosen;
+            previous = chosen;
+        }
+        selected[kept] = length - 1;
+        return selected;
+    }
+}
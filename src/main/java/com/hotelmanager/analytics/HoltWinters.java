@@ -0,0 +1,91 @@
+package com.hotelmanager.analytics;
+
+/**
+ * Additive Holt-Winters (triple exponential smoothing) with a damped trend, updated one
+ * observation at a time. The first two seasons seed level, trend and seasonal offsets;
+ * until then forecasts are the running mean. State is a handful of doubles, so every
+ * update and forecast is O(1) per step and nothing is ever retrained.
+ */
+class HoltWinters {
+
+    private final int period;
+    private final double alpha;
+    private final double beta;
+    private final double gamma;
+    // Trend damping, so a 90-day horizon does not extrapolate a short-term slope
+    private final double phi;
+
+    private final double[] season;
+    private final double[] warmup;
+    private double level;
+    private double trend;
+    private double sum;
+    private long count;
+
+    HoltWinters(int period, double alpha, double beta, double gamma, double phi) {
+        this.period = period;
+        this.alpha = alpha;
+        this.beta = beta;
+        this.gamma = gamma;
+        this.phi = phi;
+        this.season = new double[period];
+        this.warmup = new double[period * 2];
+    }
+
+    void update(double value) {
+        if (count < warmup.length) {
+            warmup[(int) count] = value;
+            sum += value;
+            count++;
+            if (count == warmup.length) {
+                initialize();
+            }
+            return;
+        }
+        int slot = (int) (count % period);
+        double previousLevel = level;
+        level = alpha * (value - season[slot]) + (1 - alpha) * (level + phi * trend);
+        trend = beta * (level - previousLevel) + (1 - beta) * phi * trend;
+        season[slot] = gamma * (value - level) + (1 - gamma) * season[slot];
+        count++;
+    }
+
+    /**
+     * Value expected the given number of steps after the last observation (1 = next)
+     */
+    double forecast(int steps) {
+        if (count == 0) {
+            return 0;
+        }
+        if (count < warmup.length) {
+            return sum / count;
+        }
+        int slot = (int) ((count + steps - 1) % period);
+        double damping = phi == 1 ? steps : phi * (1 - Math.pow(phi, steps)) / (1 - phi);
+        return level + damping * trend + season[slot];
+    }
+
+    double level() {
+        return count < warmup.length ? (count == 0 ? 0 : sum / count) : level;
+    }
+
+    long observations() {
+        return count;
+    }
+
+    private void initialize() {
+        double first = 0;
+        double second = 0;
+        for (int i = 0; i < period; i++) {
+            first += warmup[i];
+            second += warmup[period + i];
+        }
+        first /= period;
+        second /= period;
+        level = second;
+        trend = (second - first) / period;
+        for (int i = 0; i < period; i++) {
+            season[i] = ((warmup[i] - first) + (warmup[period + i] - second)) / 2;
+        }
+    }
+}
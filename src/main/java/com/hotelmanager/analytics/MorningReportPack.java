@@ -0,0 +1,271 @@
+package com.hotelmanager.analytics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.hotelmanager.export.ExportFormat;
+import com.hotelmanager.export.RowWriter;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * The managers' morning pack: occupancy, revenue by room type and payment mix for the month
+ * to date, plus today's arrivals and departures. The reports are independent, so they run in
+ * parallel on a fork/join pool half as wide as the connection pool - each holds one pooled
+ * connection while it queries, and the rest stay free for the screens. Every report is written to a CSV file and recorded in the
+ * reports table under MORNING_&lt;name&gt;; a pack whose reports all succeeded leaves a marker
+ * file next to them, so completion does not depend on the reports rows.
+ */
+public class MorningReportPack {
+
+    private static final int FETCH_SIZE = 1000;
+    // reports.report_data is a TEXT column
+    private static final int MAX_STORED_DATA = 65_535;
+
+    private static final String COMPLETE_MARKER = ".complete";
+
+    private static final String OCCUPYING_STATUSES = "('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT')";
+
+    private static final List<ReportColumn> ROOM_TYPE_REVENUE_COLUMNS = List.of(
+        ReportColumn.text("Room Type"), ReportColumn.integer("Rooms"), ReportColumn.integer("Nights Sold"),
+        ReportColumn.percent("Occupancy"), ReportColumn.money("Revenue"), ReportColumn.money("ADR"),
+        ReportColumn.money("RevPAR"));
+
+    private static final List<ReportColumn> GUEST_LIST_COLUMNS = List.of(
+        ReportColumn.integer("Reservation"), ReportColumn.text("Guest"), ReportColumn.text("Phone"),
+        ReportColumn.text("Room"), ReportColumn.text("Room Type"), ReportColumn.date("Check-in"),
+        ReportColumn.date("Check-out"), ReportColumn.integer("Guests"), ReportColumn.text("Status"),
+        ReportColumn.money("Total"));
+
+    private static final String GUEST_LIST_SQL =
+        "SELECT res.reservation_id, CONCAT(c.first_name, ' ', c.last_name), c.phone, r.room_number, rt.type_name, "
+        + "res.check_in_date, res.check_out_date, res.number_of_guests, res.status, res.total_amount "
+        + "FROM reservations res JOIN customers c ON c.customer_id = res.customer_id "
+        + "JOIN rooms r ON r.room_id = res.room_id JOIN room_types rt ON rt.room_type_id = r.room_type_id ";
+
+    /**
+     * Outcome of one report of the pack
+     */
+    public record Result(String reportType, Path file, long rows, long elapsedMillis) {
+    }
+
+    private final ReportEngine engine = new ReportEngine();
+
+    /**
+     * Whether every report of the pack for a business date was written to an output directory
+     */
+    public static boolean isComplete(LocalDate businessDate, Path outputDir) {
+        return Files.isRegularFile(outputDir.resolve(businessDate.toString()).resolve(COMPLETE_MARKER));
+    }
+
+    /**
+     * Run the whole pack for a business date; month-to-date reports cover the 1st up to the day before
+     */
+    public List<Result> run(LocalDate businessDate, Path outputDir, String requestedBy) throws Exception {
+        LocalDate periodTo = businessDate.minusDays(1);
+        LocalDate periodFrom = periodTo.withDayOfMonth(1);
+        Path dir = outputDir.resolve(businessDate.toString());
+        Files.createDirectories(dir);
+
+        List<Callable<Result>> jobs = List.of(
+            () -> serverReport(ServerReport.OCCUPANCY, periodFrom, periodTo, dir, requestedBy),
+            () -> roomTypeRevenue(periodFrom, periodTo, dir, requestedBy),
+            () -> serverReport(ServerReport.PAYMENTS_BY_METHOD, periodFrom, periodTo, dir, requestedBy),
+            () -> guestList("ARRIVALS", "WHERE res.check_in_date = ? AND res.status IN ('PENDING', 'CONFIRMED') "
+                + "ORDER BY r.room_number", businessDate, dir, requestedBy),
+            () -> guestList("DEPARTURES", "WHERE res.check_out_date = ? AND res.status = 'CHECKED_IN' "
+                + "ORDER BY r.room_number", businessDate, dir, requestedBy));
+
+        int parallelism = Math.max(1, Math.min(jobs.size(), DBConnection.getInstance().getPoolSize() / 2));
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        long start = System.nanoTime();
+        List<Result> results = new ArrayList<>();
+        try {
+            List<Exception> failures = new ArrayList<>();
+            for (Future<Result> future : pool.invokeAll(jobs)) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+                    Logger.error("Morning report failed", cause);
+                    failures.add(cause);
+                }
+            }
+            long wallMillis = (System.nanoTime() - start) / 1_000_000;
+            long sumMillis = 0;
+            for (Result result : results) {
+                sumMillis += result.elapsedMillis();
+            }
+            Logger.info(String.format("Morning report pack for %s: %d of %d reports in %d ms wall clock "
+                + "(%d ms of report time, parallelism %d) -> %s", businessDate, results.size(), jobs.size(),
+                wallMillis, sumMillis, parallelism, dir));
+            if (!failures.isEmpty()) {
+                throw failures.get(0);
+            }
+            Files.writeString(dir.resolve(COMPLETE_MARKER), LocalDateTime.now().toString());
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    private Result serverReport(ServerReport report, LocalDate from, LocalDate to, Path dir,
+                                String requestedBy) throws Exception {
+        long start = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>();
+        engine.stream(report.getSql(), report.isProcedure(), report.getColumns(),
+            ps -> report.bind(ps, from, to), rows::add);
+        return finish(report.name(), report.getColumns(), rows, from, to, dir, requestedBy, start);
+    }
+
+    /**
+     * Nights sold, revenue, ADR and RevPAR per room type; stays are streamed into primitive arrays
+     * and the per-night spread is summed with fork/join on the calling pool
+     */
+    private Result roomTypeRevenue(LocalDate from, LocalDate to, Path dir, String requestedBy) throws Exception {
+        long start = System.nanoTime();
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay() + 1;
+        List<String> typeNames = new ArrayList<>();
+        List<Integer> roomCounts = new ArrayList<>();
+        Map<Integer, Integer> typeIndexById = new HashMap<>();
+
+        int[] typeIndex = new int[1024];
+        int[] checkIn = new int[1024];
+        int[] checkOut = new int[1024];
+        long[] totalCents = new long[1024];
+        int count = 0;
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            String inventorySql = "SELECT rt.room_type_id, rt.type_name, COUNT(r.room_id) FROM room_types rt "
+                + "LEFT JOIN rooms r ON r.room_type_id = rt.room_type_id "
+                + "GROUP BY rt.room_type_id, rt.type_name ORDER BY rt.type_name";
+            try (PreparedStatement ps = conn.prepareStatement(inventorySql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    typeIndexById.put(rs.getInt(1), typeNames.size());
+                    typeNames.add(rs.getString(2));
+                    roomCounts.add(rs.getInt(3));
+                }
+            }
+
+            String staySql = "SELECT r.room_type_id, res.check_in_date, res.check_out_date, res.total_amount "
+                + "FROM reservations res JOIN rooms r ON r.room_id = res.room_id "
+                + "WHERE res.status IN " + OCCUPYING_STATUSES + " AND res.check_in_date < ? AND res.check_out_date > ?";
+            try (PreparedStatement ps = conn.prepareStatement(staySql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setDate(1, Date.valueOf(to.plusDays(1)));
+                ps.setDate(2, Date.valueOf(from));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer index = typeIndexById.get(rs.getInt(1));
+                        if (index == null) {
+                            continue;
+                        }
+                        if (count == typeIndex.length) {
+                            int capacity = count * 2;
+                            typeIndex = Arrays.copyOf(typeIndex, capacity);
+                            checkIn = Arrays.copyOf(checkIn, capacity);
+                            checkOut = Arrays.copyOf(checkOut, capacity);
+                            totalCents = Arrays.copyOf(totalCents, capacity);
+                        }
+                        typeIndex[count] = index;
+                        checkIn[count] = (int) rs.getDate(2).toLocalDate().toEpochDay();
+                        checkOut[count] = (int) rs.getDate(3).toLocalDate().toEpochDay();
+                        totalCents[count] = Money.centsOf(rs.getBigDecimal(4));
+                        count++;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error reading stays for room type revenue", e);
+            throw e;
+        }
+
+        // invoke() forks into the pool running this report, or the common pool when called directly
+        long[] totals = new StayRevenueTask(typeIndex, checkIn, checkOut, totalCents, count,
+            typeNames.size(), fromDay, toDay).invoke();
+
+        int days = toDay - fromDay;
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < typeNames.size(); i++) {
+            long rooms = roomCounts.get(i);
+            long nights = totals[i * 2];
+            long revenue = totals[i * 2 + 1];
+            long roomNights = rooms * days;
+            BigDecimal occupancy = roomNights > 0
+                ? BigDecimal.valueOf(nights * 100).divide(BigDecimal.valueOf(roomNights), 2, RoundingMode.HALF_UP)
+                : BigDecimal.ZERO;
+            rows.add(new Object[]{typeNames.get(i), rooms, nights, occupancy, revenue,
+                nights > 0 ? Math.round((double) revenue / nights) : 0L,
+                roomNights > 0 ? Math.round((double) revenue / roomNights) : 0L});
+        }
+        return finish("ROOM_TYPE_REVENUE", ROOM_TYPE_REVENUE_COLUMNS, rows, from, to, dir, requestedBy, start);
+    }
+
+    private Result guestList(String name, String where, LocalDate date, Path dir, String requestedBy) throws Exception {
+        long start = System.nanoTime();
+        List<Object[]> rows = new ArrayList<>();
+        engine.stream(GUEST_LIST_SQL + where, false, GUEST_LIST_COLUMNS,
+            ps -> ps.setDate(1, Date.valueOf(date)), rows::add);
+        return finish(name, GUEST_LIST_COLUMNS, rows, date, date, dir, requestedBy, start);
+    }
+
+    /**
+     * Write the report file and record it in the reports table; the rows are stored only when they fit
+     */
+    private Result finish(String name, List<ReportColumn> columns, List<Object[]> rows, LocalDate from,
+                          LocalDate to, Path dir, String requestedBy, long start) throws Exception {
+        Path file = dir.resolve(name.toLowerCase() + "." + ExportFormat.CSV.getExtension());
+        try (RowWriter writer = ExportFormat.CSV.open(file, columns)) {
+            for (Object[] row : rows) {
+                writer.writeRow(row);
+            }
+        }
+        String data = ReportCache.encode(columns, to.isBefore(LocalDate.now()), new long[0], rows);
+        ReportCache.getInstance().save("MORNING_" + name, from, to,
+            data.length() <= MAX_STORED_DATA ? data : null, file.toAbsolutePath().toString(), requestedBy);
+
+        Result result = new Result("MORNING_" + name, file, rows.size(), (System.nanoTime() - start) / 1_000_000);
+        Logger.info("Morning report " + name + ": " + rows.size() + " rows in " + result.elapsedMillis() + " ms");
+        return result;
+    }
+
+    /**
+     * Headless entry point, e.g. for cron: [business date] [output directory]
+     */
+    public static void main(String[] args) {
+        LocalDate date = args.length > 0 ? LocalDate.parse(args[0]) : LocalDate.now();
+        Path dir = Paths.get(args.length > 1 ? args[1] : "reports");
+        int status = 0;
+        try {
+            DBConnection.initialize();
+            new MorningReportPack().run(date, dir, null);
+        } catch (Exception e) {
+            Logger.error("Morning report pack failed", e);
+            status = 1;
+        } finally {
+            DBConnection.getInstance().closeConnection();
+        }
+        System.exit(status);
+    }
+}
@@ -0,0 +1,330 @@
+package com.hotelmanager.analytics;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.hotelmanager.dao.WriteEvents;
+import com.hotelmanager.model.ReservationRow;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Occupancy forecast per room type for the next 90 nights, from on-the-books reservations,
+ * pickup curves (reservations.created_at against each stay night) and Holt-Winters smoothing
+ * of nightly rooms sold. The first use builds the models from two years of reservations;
+ * after that reservation writes adjust the books and each night that passes is folded in
+ * with one small query, so the models are never retrained.
+ */
+public class OccupancyForecaster {
+
+    private static OccupancyForecaster instance;
+
+    private static final int HISTORY_DAYS = 730;
+    // Beyond this many missed nights a rebuild is cheaper than catching up night by night
+    private static final int MAX_CATCH_UP_NIGHTS = 31;
+    private static final int FETCH_SIZE = 1000;
+    private static final String OCCUPYING_STATUSES = "('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT')";
+
+    /**
+     * Expected rooms sold per room type and night, starting at the first forecast day
+     */
+    public record Forecast(LocalDate start, List<String> roomTypes, int[] capacities, int[][] onTheBooks,
+                           double[][] rooms, long elapsedNanos) {
+
+        /**
+         * Average forecast occupancy (0-100) of a room type over the first nights of the horizon
+         */
+        public double occupancy(int type, int nights) {
+            if (capacities[type] == 0 || nights <= 0) {
+                return 0;
+            }
+            double sold = 0;
+            for (int i = 0; i < nights && i < rooms[type].length; i++) {
+                sold += rooms[type][i];
+            }
+            return sold * 100.0 / ((double) capacities[type] * Math.min(nights, rooms[type].length));
+        }
+
+        public int bookedNights(int type, int nights) {
+            int booked = 0;
+            for (int i = 0; i < nights && i < onTheBooks[type].length; i++) {
+                booked += onTheBooks[type][i];
+            }
+            return booked;
+        }
+    }
+
+    // Serializes builds and catch-ups; the model state below is guarded by this instance
+    private final Object buildLock = new Object();
+    private List<String> typeNames;
+    private List<RoomTypeForecast> models;
+    private Map<Integer, Integer> typeIndexByType;
+    private Map<Integer, Integer> typeIndexByRoom;
+    private boolean stale = true;
+    private boolean building;
+    private boolean missedDuringBuild;
+
+    private OccupancyForecaster() {
+        WriteEvents.subscribe((table, operation) -> {
+            if ("rooms".equals(table) || "room_types".equals(table)) {
+                // Room counts per type are the forecast's capacities
+                invalidate();
+            }
+        });
+    }
+
+    public static OccupancyForecaster getInstance() {
+        if (instance == null) {
+            synchronized (OccupancyForecaster.class) {
+                if (instance == null) {
+                    instance = new OccupancyForecaster();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Rooms or room types changed, or writes bypassed the hooks; rebuild on next use
+     */
+    public synchronized void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Forecast from today; builds or catches up the models first. Call off the EDT. The queries
+     * run outside the model lock, so reservation writes do not wait for a build.
+     */
+    public Forecast forecast() throws SQLException {
+        synchronized (buildLock) {
+            int today = (int) LocalDate.now().toEpochDay();
+            boolean rebuild;
+            synchronized (this) {
+                rebuild = stale || models == null || models.isEmpty()
+                    || today - models.get(0).getFirstOpenDay() > MAX_CATCH_UP_NIGHTS;
+                if (rebuild) {
+                    stale = false;
+                    building = true;
+                    missedDuringBuild = false;
+                }
+            }
+            if (rebuild) {
+                build(today);
+            }
+            catchUp(today);
+            return snapshot(today);
+        }
+    }
+
+    private synchronized Forecast snapshot(int today) {
+        long start = System.nanoTime();
+        int types = models.size();
+        int[] capacities = new int[types];
+        int[][] booked = new int[types][RoomTypeForecast.HORIZON];
+        double[][] rooms = new double[types][RoomTypeForecast.HORIZON];
+        for (int t = 0; t < types; t++) {
+            RoomTypeForecast model = models.get(t);
+            capacities[t] = model.getCapacity();
+            model.forecast(rooms[t]);
+            for (int l = 0; l < RoomTypeForecast.HORIZON; l++) {
+                booked[t][l] = model.onTheBooks(today + l);
+            }
+        }
+        return new Forecast(LocalDate.ofEpochDay(today), List.copyOf(typeNames), capacities, booked, rooms,
+            System.nanoTime() - start);
+    }
+
+    /**
+     * Move a reservation's nights on the books; either side may be null (insert or delete)
+     */
+    public synchronized void bookingChanged(ReservationRow before, ReservationRow after) {
+        if (building) {
+            missedDuringBuild = true;
+        }
+        if (stale || models == null) {
+            return;
+        }
+        if (!book(before, -1) || !book(after, 1)) {
+            stale = true;
+        }
+    }
+
+    private boolean book(ReservationRow stay, int delta) {
+        if (stay == null || !isOccupying(stay.status()) || stay.checkInDate() == null || stay.checkOutDate() == null) {
+            return true;
+        }
+        Integer type = typeIndexByRoom.get(stay.roomId());
+        if (type == null) {
+            return false;
+        }
+        RoomTypeForecast model = models.get(type);
+        int last = (int) stay.checkOutDate().toEpochDay();
+        for (int night = (int) stay.checkInDate().toEpochDay(); night < last; night++) {
+            model.book(night, delta);
+        }
+        return true;
+    }
+
+    private static boolean isOccupying(ReservationStatus status) {
+        return status == ReservationStatus.CONFIRMED || status == ReservationStatus.CHECKED_IN
+            || status == ReservationStatus.CHECKED_OUT;
+    }
+
+    private void build(int today) throws SQLException {
+        long start = System.nanoTime();
+        int historyStart = today - HISTORY_DAYS;
+        List<String> names = new ArrayList<>();
+        List<Integer> capacities = new ArrayList<>();
+        Map<Integer, Integer> indexByType = new HashMap<>();
+        Map<Integer, Integer> indexByRoom = new HashMap<>();
+        List<RoomTypeForecast> built = new ArrayList<>();
+        int reservations = 0;
+
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            String inventorySql = "SELECT rt.room_type_id, rt.type_name, COUNT(r.room_id) FROM room_types rt "
+                + "LEFT JOIN rooms r ON r.room_type_id = rt.room_type_id "
+                + "GROUP BY rt.room_type_id, rt.type_name ORDER BY rt.type_name";
+            try (PreparedStatement ps = conn.prepareStatement(inventorySql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    indexByType.put(rs.getInt(1), names.size());
+                    names.add(rs.getString(2));
+                    capacities.add(rs.getInt(3));
+                }
+            }
+            try (PreparedStatement ps = conn.prepareStatement("SELECT room_id, room_type_id FROM rooms");
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Integer type = indexByType.get(rs.getInt(2));
+                    if (type != null) {
+                        indexByRoom.put(rs.getInt(1), type);
+                    }
+                }
+            }
+            for (int capacity : capacities) {
+                built.add(new RoomTypeForecast(capacity, today));
+            }
+
+            int[][] sold = new int[names.size()][HISTORY_DAYS];
+            String staySql = "SELECT res.room_id, res.check_in_date, res.check_out_date, res.created_at "
+                + "FROM reservations res WHERE res.status IN " + OCCUPYING_STATUSES + " AND res.check_out_date > ?";
+            try (PreparedStatement ps = conn.prepareStatement(staySql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setDate(1, Date.valueOf(LocalDate.ofEpochDay(historyStart)));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer type = indexByRoom.get(rs.getInt(1));
+                        if (type == null) {
+                            continue;
+                        }
+                        RoomTypeForecast model = built.get(type);
+                        int checkIn = (int) rs.getDate(2).toLocalDate().toEpochDay();
+                        int checkOut = (int) rs.getDate(3).toLocalDate().toEpochDay();
+                        Timestamp created = rs.getTimestamp(4);
+                        int createdDay = created != null ? (int) created.toLocalDateTime().toLocalDate().toEpochDay() : checkIn;
+                        for (int night = Math.max(checkIn, historyStart); night < checkOut; night++) {
+                            if (night < today) {
+                                sold[type][night - historyStart]++;
+                                model.recordLead(night - createdDay);
+                            } else {
+                                model.book(night, 1);
+                            }
+                        }
+                        reservations++;
+                    }
+                }
+            }
+            for (int t = 0; t < built.size(); t++) {
+                for (int d = 0; d < HISTORY_DAYS; d++) {
+                    built.get(t).observe(sold[t][d], historyStart + d);
+                }
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                stale = true;
+                building = false;
+            }
+            Logger.error("Error building occupancy forecast", e);
+            throw e;
+        }
+
+        synchronized (this) {
+            typeNames = names;
+            models = built;
+            typeIndexByType = indexByType;
+            typeIndexByRoom = indexByRoom;
+            building = false;
+            if (missedDuringBuild) {
+                // A booking changed after its rows were read; it is only in the discarded models
+                stale = true;
+            }
+        }
+        Logger.info(String.format("Occupancy forecast built for %d room types from %,d reservations in %d ms",
+            names.size(), reservations, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Close every night that has passed since the models were last used; only the forecast
+     * caller closes nights, so the open day can be read without the model lock
+     */
+    private void catchUp(int today) throws SQLException {
+        List<RoomTypeForecast> models;
+        Map<Integer, Integer> typeIndexByType;
+        synchronized (this) {
+            models = this.models;
+            typeIndexByType = this.typeIndexByType;
+        }
+        if (models.isEmpty()) {
+            return;
+        }
+        String sql = "SELECT r.room_type_id, DATEDIFF(?, DATE(res.created_at)) FROM reservations res "
+            + "JOIN rooms r ON r.room_id = res.room_id "
+            + "WHERE res.status IN " + OCCUPYING_STATUSES + " AND res.check_in_date <= ? AND res.check_out_date > ?";
+        while (models.get(0).getFirstOpenDay() < today) {
+            int night = models.get(0).getFirstOpenDay();
+            int[] sold = new int[models.size()];
+            int[][] leads = new int[models.size()][];
+            for (int t = 0; t < models.size(); t++) {
+                leads[t] = new int[Math.max(1, models.get(t).getCapacity())];
+            }
+            try (Connection conn = DBConnection.getInstance().getConnection();
+                 PreparedStatement ps = conn.prepareStatement(sql)) {
+                Date date = Date.valueOf(LocalDate.ofEpochDay(night));
+                ps.setDate(1, date);
+                ps.setDate(2, date);
+                ps.setDate(3, date);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer type = typeIndexByType.get(rs.getInt(1));
+                        if (type == null) {
+                            continue;
+                        }
+                        if (sold[type] == leads[type].length) {
+                            leads[type] = Arrays.copyOf(leads[type], sold[type] * 2);
+                        }
+                        leads[type][sold[type]++] = rs.getInt(2);
+                    }
+                }
+            } catch (SQLException e) {
+                Logger.error("Error closing forecast night " + LocalDate.ofEpochDay(night), e);
+                throw e;
+            }
+            synchronized (this) {
+                for (int t = 0; t < models.size(); t++) {
+                    models.get(t).closeNight(sold[t], leads[t], sold[t]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,382 @@
+package com.hotelmanager.analytics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Persists {@link ServerReport} results in the reports table, keyed by report type and date range.
+ * Mergeable reports are cached per calendar month: a month computed after it ended is stored as
+ * closed and never recomputed, while a month computed while still open is reused until the
+ * watermarks (row count and latest updated_at) of the report's source tables move, and then only
+ * that month is recomputed. An open result is recomputed once after its month ends so that the
+ * final figures are what gets stored as closed. Other reports are cached for the exact range under
+ * the same rules.
+ */
+public class ReportCache {
+
+    private static ReportCache instance;
+
+    private static final int FORMAT_VERSION = 2;
+
+    private final ReportEngine engine = new ReportEngine();
+    // Business users.user_id by login name, for reports.generated_by
+    private final Map<String, Integer> userIds = new HashMap<>();
+
+    public static ReportCache getInstance() {
+        if (instance == null) {
+            synchronized (ReportCache.class) {
+                if (instance == null) {
+                    instance = new ReportCache();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Produce the report for an inclusive date range from cached and freshly computed periods
+     */
+    public ReportRun run(ServerReport report, LocalDate from, LocalDate to, String requestedBy,
+                         ReportEngine.RowSink sink) throws Exception {
+        LocalDateTime executedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        LocalDate openFrom = LocalDate.now().withDayOfMonth(1);
+        long[] watermarks = null;
+        int cached = 0;
+        int computed = 0;
+
+        List<List<Object[]>> parts = new ArrayList<>();
+        for (LocalDate[] segment : segments(report, from, to)) {
+            LocalDate segmentFrom = segment[0];
+            LocalDate segmentTo = segment[1];
+            boolean closed = segmentTo.isBefore(openFrom);
+            CachedResult entry = load(report, segmentFrom, segmentTo);
+            if (entry != null && !closed && watermarks == null) {
+                watermarks = watermarks(report);
+            }
+            // A closed period's result counts only if it was computed after the period ended
+            if (entry != null && (closed ? entry.closed : Arrays.equals(entry.watermarks, watermarks))) {
+                parts.add(entry.rows);
+                cached++;
+                continue;
+            }
+
+            // Read the watermarks before the query so changes made while it runs are seen next time
+            if (watermarks == null) {
+                watermarks = watermarks(report);
+            }
+            List<Object[]> rows = new ArrayList<>();
+            engine.stream(report.getSql(), report.isProcedure(), report.getColumns(),
+                ps -> report.bind(ps, segmentFrom, segmentTo), rows::add);
+            store(report, segmentFrom, segmentTo, closed, watermarks, rows, requestedBy);
+            parts.add(rows);
+            computed++;
+        }
+
+        List<Object[]> rows = parts.size() == 1 ? parts.get(0) : merge(report, parts);
+        for (Object[] row : rows) {
+            sink.accept(row);
+        }
+        ReportRun run = new ReportRun(report, from, to, rows.size(), (System.nanoTime() - start) / 1_000_000,
+            executedAt, cached, computed);
+        Logger.info("Report executed - " + run.describe());
+        return run;
+    }
+
+    /**
+     * Calendar-month pieces of the range for mergeable reports, otherwise the range itself
+     */
+    private static List<LocalDate[]> segments(ServerReport report, LocalDate from, LocalDate to) {
+        List<LocalDate[]> segments = new ArrayList<>();
+        if (!report.isMergeable()) {
+            segments.add(new LocalDate[]{from, to});
+            return segments;
+        }
+        LocalDate segmentFrom = from;
+        while (!segmentFrom.isAfter(to)) {
+            LocalDate monthEnd = segmentFrom.withDayOfMonth(segmentFrom.lengthOfMonth());
+            LocalDate segmentTo = monthEnd.isBefore(to) ? monthEnd : to;
+            segments.add(new LocalDate[]{segmentFrom, segmentTo});
+            segmentFrom = segmentTo.plusDays(1);
+        }
+        return segments;
+    }
+
+    /**
+     * Combine per-period rows: equal keys are summed, the result is ordered by key
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static List<Object[]> merge(ServerReport report, List<List<Object[]>> parts) {
+        int keys = report.getKeyColumns();
+        List<ReportColumn> columns = report.getColumns();
+        Map<List<Object>, Object[]> merged = new LinkedHashMap<>();
+        for (List<Object[]> part : parts) {
+            for (Object[] row : part) {
+                List<Object> key = Arrays.asList(Arrays.copyOf(row, keys));
+                Object[] total = merged.get(key);
+                if (total == null) {
+                    merged.put(key, row.clone());
+                    continue;
+                }
+                for (int i = keys; i < row.length; i++) {
+                    ReportColumn.Kind kind = columns.get(i).kind();
+                    if ((kind == ReportColumn.Kind.INTEGER || kind == ReportColumn.Kind.MONEY) && row[i] != null) {
+                        total[i] = total[i] == null ? row[i] : (Long) total[i] + (Long) row[i];
+                    }
+                }
+            }
+        }
+        List<Object[]> rows = new ArrayList<>(merged.values());
+        Comparator<Object[]> order = (a, b) -> 0;
+        for (int i = 0; i < keys; i++) {
+            int index = i;
+            order = order.thenComparing(row -> (Comparable) row[index], Comparator.nullsFirst(Comparator.naturalOrder()));
+        }
+        rows.sort(order);
+        return rows;
+    }
+
+    /**
+     * Row count and latest change time of every source table
+     */
+    private long[] watermarks(ServerReport report) throws SQLException {
+        List<String> tables = report.getSourceTables();
+        StringBuilder sql = new StringBuilder();
+        for (String table : tables) {
+            if (sql.length() > 0) {
+                sql.append(" UNION ALL ");
+            }
+            sql.append("SELECT COUNT(*), MAX(updated_at) FROM ").append(table);
+        }
+        long[] watermarks = new long[tables.size() * 2];
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString());
+             ResultSet rs = ps.executeQuery()) {
+            int i = 0;
+            while (rs.next() && i < watermarks.length) {
+                Timestamp latest = rs.getTimestamp(2);
+                watermarks[i++] = rs.getLong(1);
+                watermarks[i++] = latest != null ? latest.getTime() : 0L;
+            }
+        }
+        return watermarks;
+    }
+
+    private CachedResult load(ServerReport report, LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT report_data FROM reports WHERE report_type = ? AND start_date = ? AND end_date = ? "
+            + "ORDER BY report_id DESC LIMIT 1";
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setString(1, report.name());
+            ps.setDate(2, Date.valueOf(from));
+            ps.setDate(3, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next() || rs.getString(1) == null) {
+                    return null;
+                }
+                return decode(report, rs.getString(1));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            Logger.warn("Ignoring unreadable cached " + report.name() + " report: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replace the cached result for the range; failures only cost a recomputation later
+     */
+    private void store(ServerReport report, LocalDate from, LocalDate to, boolean closed, long[] watermarks,
+                       List<Object[]> rows, String requestedBy) {
+        try {
+            save(report.name(), from, to, encode(report.getColumns(), closed, watermarks, rows), null, requestedBy);
+        } catch (SQLException | IOException e) {
+            Logger.warn("Could not cache " + report.name() + " report: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Replace the reports row for a type and range
+     */
+    void save(String reportType, LocalDate from, LocalDate to, String data, String filePath,
+              String requestedBy) throws SQLException {
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            Integer userId = resolveUser(conn, requestedBy);
+            if (userId == null) {
+                Logger.warn("No business user to record as author of " + reportType + " report");
+                return;
+            }
+            conn.setAutoCommit(false);
+            try (PreparedStatement delete = conn.prepareStatement(
+                    "DELETE FROM reports WHERE report_type = ? AND start_date = ? AND end_date = ?");
+                 PreparedStatement insert = conn.prepareStatement("INSERT INTO reports "
+                    + "(report_type, generated_by, start_date, end_date, report_data, file_path) VALUES (?, ?, ?, ?, ?, ?)")) {
+                delete.setString(1, reportType);
+                delete.setDate(2, Date.valueOf(from));
+                delete.setDate(3, Date.valueOf(to));
+                delete.executeUpdate();
+                insert.setString(1, reportType);
+                insert.setInt(2, userId);
+                insert.setDate(3, Date.valueOf(from));
+                insert.setDate(4, Date.valueOf(to));
+                insert.setString(5, data);
+                insert.setString(6, filePath);
+                insert.executeUpdate();
+                conn.commit();
+            }
+        }
+    }
+
+    /**
+     * The business users row of the requesting login, falling back to the first account
+     */
+    private synchronized Integer resolveUser(Connection conn, String username) throws SQLException {
+        String key = username != null ? username : "";
+        Integer userId = userIds.get(key);
+        if (userId != null) {
+            return userId;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT user_id FROM users WHERE username = ? UNION ALL SELECT MIN(user_id) FROM users")) {
+            ps.setString(1, key);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    if (!rs.wasNull()) {
+                        userIds.put(key, id);
+                        return id;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    // ---- encoding: deflated, typed binary rows, Base64 for the TEXT column ----
+
+    /**
+     * Encode a result; closed marks one computed after its period ended, which is never recomputed
+     */
+    static String encode(List<ReportColumn> columns, boolean closed, long[] watermarks, List<Object[]> rows)
+            throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeByte(columns.size());
+            out.writeBoolean(closed);
+            out.writeByte(watermarks.length);
+            for (long watermark : watermarks) {
+                out.writeLong(watermark);
+            }
+            out.writeInt(rows.size());
+            for (Object[] row : rows) {
+                for (int i = 0; i < columns.size(); i++) {
+                    Object value = row[i];
+                    out.writeBoolean(value != null);
+                    if (value == null) {
+                        continue;
+                    }
+                    switch (columns.get(i).kind()) {
+                        case INTEGER:
+                        case MONEY:
+                            out.writeLong((Long) value);
+                            break;
+                        case PERCENT:
+                            out.writeUTF(((BigDecimal) value).toPlainString());
+                            break;
+                        case DATE:
+                            out.writeLong(((LocalDate) value).toEpochDay());
+                            break;
+                        case TIMESTAMP:
+                            out.writeLong(((LocalDateTime) value).toEpochSecond(ZoneOffset.UTC));
+                            break;
+                        default:
+                            out.writeUTF(value.toString());
+                    }
+                }
+            }
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    private static CachedResult decode(ServerReport report, String data) throws IOException {
+        List<ReportColumn> columns = report.getColumns();
+        byte[] bytes = Base64.getDecoder().decode(data);
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(bytes)))) {
+            if (in.readByte() != FORMAT_VERSION || in.readByte() != columns.size()) {
+                return null;
+            }
+            boolean closed = in.readBoolean();
+            long[] watermarks = new long[in.readByte()];
+            for (int i = 0; i < watermarks.length; i++) {
+                watermarks[i] = in.readLong();
+            }
+            int count = in.readInt();
+            List<Object[]> rows = new ArrayList<>(count);
+            for (int r = 0; r < count; r++) {
+                Object[] row = new Object[columns.size()];
+                for (int i = 0; i < row.length; i++) {
+                    if (!in.readBoolean()) {
+                        continue;
+                    }
+                    switch (columns.get(i).kind()) {
+                        case INTEGER:
+                        case MONEY:
+                            row[i] = in.readLong();
+                            break;
+                        case PERCENT:
+                            row[i] = new BigDecimal(in.readUTF());
+                            break;
+                        case DATE:
+                            row[i] = LocalDate.ofEpochDay(in.readLong());
+                            break;
+                        case TIMESTAMP:
+                            row[i] = LocalDateTime.ofEpochSecond(in.readLong(), 0, ZoneOffset.UTC);
+                            break;
+                        default:
+                            row[i] = in.readUTF();
+                    }
+                }
+                rows.add(row);
+            }
+            return new CachedResult(closed, watermarks, rows);
+        }
+    }
+
+    private static final class CachedResult {
+        final boolean closed;
+        final long[] watermarks;
+        final List<Object[]> rows;
+
+        CachedResult(boolean closed, long[] watermarks, List<Object[]> rows) {
+            this.closed = closed;
+            this.watermarks = watermarks;
+            this.rows = rows;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.hotelmanager.analytics;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+import com.hotelmanager.model.Money;
+
+/**
+ * One column of a server-side report: how to read it from the result set and how to display it
+ */
+public record ReportColumn(String label, Kind kind) {
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    public enum Kind {
+        TEXT, INTEGER, MONEY, PERCENT, DATE, TIMESTAMP
+    }
+
+    public static ReportColumn text(String label) {
+        return new ReportColumn(label, Kind.TEXT);
+    }
+
+    public static ReportColumn integer(String label) {
+        return new ReportColumn(label, Kind.INTEGER);
+    }
+
+    public static ReportColumn money(String label) {
+        return new ReportColumn(label, Kind.MONEY);
+    }
+
+    public static ReportColumn percent(String label) {
+        return new ReportColumn(label, Kind.PERCENT);
+    }
+
+    public static ReportColumn date(String label) {
+        return new ReportColumn(label, Kind.DATE);
+    }
+
+    public static ReportColumn timestamp(String label) {
+        return new ReportColumn(label, Kind.TIMESTAMP);
+    }
+
+    /**
+     * Typed value: String, Long, Long cents, BigDecimal percent, LocalDate or LocalDateTime (null stays null)
+     */
+    public Object read(ResultSet rs, int index) throws SQLException {
+        switch (kind) {
+            case INTEGER: {
+                long value = rs.getLong(index);
+                return rs.wasNull() ? null : value;
+            }
+            case MONEY: {
+                BigDecimal value = rs.getBigDecimal(index);
+                return value != null ? Money.centsOf(value) : null;
+            }
+            case PERCENT:
+                return rs.getBigDecimal(index);
+            case DATE: {
+                Date value = rs.getDate(index);
+                return value != null ? value.toLocalDate() : null;
+            }
+            case TIMESTAMP: {
+                Timestamp value = rs.getTimestamp(index);
+                return value != null ? value.toLocalDateTime() : null;
+            }
+            default:
+                return rs.getString(index);
+        }
+    }
+
+    public String format(Object value) {
+        if (value == null) {
+            return kind == Kind.MONEY ? Money.format(0L) : "";
+        }
+        switch (kind) {
+            case MONEY:
+                return Money.format((Long) value);
+            case PERCENT:
+                return String.format("%.1f%%", ((BigDecimal) value).doubleValue());
+            case DATE:
+                return ((LocalDate) value).toString();
+            case TIMESTAMP:
+                return ((LocalDateTime) value).format(TIMESTAMP_FORMAT);
+            default:
+                return value.toString();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.hotelmanager.analytics;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Runs {@link ServerReport}s and streams each result row to a sink as it is read,
+ * so the caller never holds the whole result set. Meant to be called off the EDT;
+ * interrupting the calling thread cancels the statement.
+ */
+public class ReportEngine {
+
+    private static final int FETCH_SIZE = 500;
+
+    @FunctionalInterface
+    public interface RowSink {
+        void accept(Object[] row) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface StatementBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * Execute the report for an inclusive date range
+     */
+    public ReportRun run(ServerReport report, LocalDate from, LocalDate to, RowSink sink) throws Exception {
+        LocalDateTime executedAt = LocalDateTime.now();
+        long start = System.nanoTime();
+        int rowCount;
+        try {
+            rowCount = (int) stream(report.getSql(), report.isProcedure(), report.getColumns(),
+                ps -> report.bind(ps, from, to), sink);
+        } catch (SQLException e) {
+            Logger.error("Error running report: " + report.getTitle(), e);
+            throw e;
+        }
+        ReportRun run = new ReportRun(report, from, to, rowCount, (System.nanoTime() - start) / 1_000_000, executedAt, 0, 1);
+        Logger.info("Report executed - " + run.describe());
+        return run;
+    }
+
+    /**
+     * Read a query through a forward-only cursor, handing each typed row to the sink
+     */
+    public long stream(String sql, boolean procedure, List<ReportColumn> columns, StatementBinder binder,
+                       RowSink sink) throws Exception {
+        long rowCount = 0;
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = procedure ? conn.prepareCall(sql) : conn.prepareStatement(sql)) {
+            ps.setFetchSize(FETCH_SIZE);
+            binder.bind(ps);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        ps.cancel();
+                        throw new CancellationException("Query cancelled");
+                    }
+                    Object[] row = new Object[columns.size()];
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = columns.get(i).read(rs, i + 1);
+                    }
+                    sink.accept(row);
+                    rowCount++;
+                }
+            }
+        }
+        return rowCount;
+    }
+
+    /**
+     * Run a single-value COUNT query, e.g. to size a progress bar
+     */
+    public long count(String sql) throws SQLException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.hotelmanager.analytics;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Metadata of one report execution
+ */
+public record ReportRun(ServerReport report, LocalDate from, LocalDate to, int rowCount,
+                        long elapsedMillis, LocalDateTime executedAt, int cachedSegments, int computedSegments) {
+
+    public String describe() {
+        String text = String.format("%s %s to %s: %d rows in %d ms", report.getTitle(), from, to, rowCount, elapsedMillis);
+        if (cachedSegments > 0) {
+            text += String.format(" (%d of %d periods cached)", cachedSegments, cachedSegments + computedSegments);
+        }
+        return text;
+    }
+}
@@ -0,0 +1,301 @@
+package com.hotelmanager.analytics;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import com.hotelmanager.dao.WriteEvents;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Columnar in-memory snapshot of reservations and their completed payments.
+ * Each reservation is one index across parallel primitive arrays (about 40 bytes
+ * per row instead of a full entity graph). Rows are kept sorted by id so updates
+ * are located by binary search; refreshes only pull rows past the last watermark.
+ */
+public class ReservationSnapshot {
+
+    private static volatile ReservationSnapshot instance;
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int PARALLEL_THRESHOLD = 50_000;
+
+    private int size;
+    private int[] ids = new int[0];
+    private int[] roomIds = new int[0];
+    private int[] customerIds = new int[0];
+    private int[] checkInDays = new int[0];
+    private int[] checkOutDays = new int[0];
+    private byte[] statuses = new byte[0];
+    private long[] totalCents = new long[0];
+    private long[] paidCents = new long[0];
+
+    private Timestamp reservationWatermark;
+    private Timestamp paymentWatermark;
+    private boolean loaded;
+
+    private ReservationSnapshot() {
+        WriteEvents.subscribe((table, operation) -> {
+            if ("DELETE".equals(operation)) {
+                // Watermarks cannot see deleted reservations or payments
+                invalidate();
+            }
+        });
+    }
+
+    public static ReservationSnapshot getInstance() {
+        if (instance == null) {
+            synchronized (ReservationSnapshot.class) {
+                if (instance == null) {
+                    instance = new ReservationSnapshot();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Load the snapshot on first use, otherwise apply changes since the last watermark
+     */
+    public synchronized void refresh() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            if (!loaded || hasDeletedRows(conn)) {
+                reset();
+                loadReservations(conn, null);
+                loadPayments(conn, null);
+                loaded = true;
+                Logger.info(String.format("Reservation snapshot loaded: %d rows in %d ms",
+                    size, (System.nanoTime() - start) / 1_000_000));
+            } else {
+                int changed = loadReservations(conn, reservationWatermark);
+                changed += loadPayments(conn, paymentWatermark);
+                if (changed > 0) {
+                    Logger.info(String.format("Reservation snapshot refreshed: %d changes in %d ms",
+                        changed, (System.nanoTime() - start) / 1_000_000));
+                }
+            }
+        }
+    }
+
+    /**
+     * Reload fully on the next refresh, e.g. after a delete
+     */
+    public synchronized void invalidate() {
+        loaded = false;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    // ---- aggregates ----
+
+    /**
+     * Reservation counts indexed by ReservationStatus ordinal
+     */
+    public synchronized int[] countByStatus() {
+        int[] counts = new int[ReservationStatus.values().length];
+        for (int i = 0; i < size; i++) {
+            counts[statuses[i]]++;
+        }
+        return counts;
+    }
+
+    public synchronized long sumPaidCents() {
+        return Money.sum(paidCents, 0, size);
+    }
+
+    /**
+     * Booked value of non-cancelled reservations arriving within [from, to]
+     */
+    public synchronized long sumBookedCents(LocalDate from, LocalDate to) {
+        int fromDay = (int) from.toEpochDay();
+        int toDay = (int) to.toEpochDay();
+        byte cancelled = (byte) ReservationStatus.CANCELLED.ordinal();
+        long total = 0L;
+        for (int i = 0; i < size; i++) {
+            int day = checkInDays[i];
+            if (day >= fromDay && day <= toDay && statuses[i] != cancelled) {
+                total = Money.add(total, totalCents[i]);
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Occupied room nights falling within [from, to) for stays that were or will be used
+     */
+    public synchronized long roomNights(LocalDate from, LocalDate to) {
+        final int fromDay = (int) from.toEpochDay();
+        final int toDay = (int) to.toEpochDay();
+        IntStream range = IntStream.range(0, size);
+        if (size >= PARALLEL_THRESHOLD) {
+            range = range.parallel();
+        }
+        return range.mapToLong(i -> {
+            if (!isOccupying(statuses[i])) {
+                return 0L;
+            }
+            int overlap = Math.min(checkOutDays[i], toDay) - Math.max(checkInDays[i], fromDay);
+            return overlap > 0 ? overlap : 0L;
+        }).sum();
+    }
+
+    public synchronized int countArrivals(LocalDate day) {
+        return countOnDay(checkInDays, (int) day.toEpochDay());
+    }
+
+    public synchronized int countDepartures(LocalDate day) {
+        return countOnDay(checkOutDays, (int) day.toEpochDay());
+    }
+
+    private int countOnDay(int[] column, int day) {
+        byte cancelled = (byte) ReservationStatus.CANCELLED.ordinal();
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (column[i] == day && statuses[i] != cancelled) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isOccupying(byte status) {
+        return status == ReservationStatus.CONFIRMED.ordinal()
+            || status == ReservationStatus.CHECKED_IN.ordinal()
+            || status == ReservationStatus.CHECKED_OUT.ordinal();
+    }
+
+    // ---- loading ----
+
+    private int loadReservations(Connection conn, Timestamp since) throws SQLException {
+        String sql = "SELECT reservation_id, room_id, customer_id, check_in_date, check_out_date, status, total_amount, updated_at "
+            + "FROM reservations" + (since != null ? " WHERE updated_at >= ?" : "") + " ORDER BY reservation_id";
+        int rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(FETCH_SIZE);
+            if (since != null) {
+                ps.setTimestamp(1, since);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int index = indexFor(rs.getInt(1));
+                    roomIds[index] = rs.getInt(2);
+                    customerIds[index] = rs.getInt(3);
+                    checkInDays[index] = toEpochDay(rs.getDate(4));
+                    checkOutDays[index] = toEpochDay(rs.getDate(5));
+                    statuses[index] = (byte) ReservationStatus.fromCode(rs.getString(6)).ordinal();
+                    totalCents[index] = Money.centsOf(rs.getBigDecimal(7));
+                    reservationWatermark = later(reservationWatermark, rs.getTimestamp(8));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int loadPayments(Connection conn, Timestamp since) throws SQLException {
+        String sql = "SELECT reservation_id, COALESCE(SUM(CASE WHEN payment_status = 'COMPLETED' THEN amount END), 0), MAX(updated_at) "
+            + "FROM payments"
+            + (since != null ? " WHERE reservation_id IN (SELECT reservation_id FROM payments WHERE updated_at >= ?)" : "")
+            + " GROUP BY reservation_id";
+        int rows = 0;
+        try (PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(FETCH_SIZE);
+            if (since != null) {
+                ps.setTimestamp(1, since);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    int index = Arrays.binarySearch(ids, 0, size, rs.getInt(1));
+                    if (index >= 0) {
+                        paidCents[index] = Money.centsOf(rs.getBigDecimal(2));
+                    }
+                    paymentWatermark = later(paymentWatermark, rs.getTimestamp(3));
+                    rows++;
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Watermarks cannot see deletes; the DAOs and journal replay invalidate the snapshot on their
+     * deletes, and this catches reservations deleted outside the application
+     */
+    private boolean hasDeletedRows(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("SELECT COUNT(*) FROM reservations");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() && rs.getInt(1) < size;
+        }
+    }
+
+    /**
+     * Locate the slot for an id, appending or inserting while keeping ids sorted
+     */
+    private int indexFor(int id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return index;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity(size + 1);
+        if (insertAt < size) {
+            int tail = size - insertAt;
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, tail);
+            System.arraycopy(roomIds, insertAt, roomIds, insertAt + 1, tail);
+            System.arraycopy(customerIds, insertAt, customerIds, insertAt + 1, tail);
+            System.arraycopy(checkInDays, insertAt, checkInDays, insertAt + 1, tail);
+            System.arraycopy(checkOutDays, insertAt, checkOutDays, insertAt + 1, tail);
+            System.arraycopy(statuses, insertAt, statuses, insertAt + 1, tail);
+            System.arraycopy(totalCents, insertAt, totalCents, insertAt + 1, tail);
+            System.arraycopy(paidCents, insertAt, paidCents, insertAt + 1, tail);
+        }
+        ids[insertAt] = id;
+        paidCents[insertAt] = 0L;
+        size++;
+        return insertAt;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= ids.length) {
+            return;
+        }
+        int capacity = Math.max(required, Math.max(1024, ids.length + (ids.length >> 1)));
+        ids = Arrays.copyOf(ids, capacity);
+        roomIds = Arrays.copyOf(roomIds, capacity);
+        customerIds = Arrays.copyOf(customerIds, capacity);
+        checkInDays = Arrays.copyOf(checkInDays, capacity);
+        checkOutDays = Arrays.copyOf(checkOutDays, capacity);
+        statuses = Arrays.copyOf(statuses, capacity);
+        totalCents = Arrays.copyOf(totalCents, capacity);
+        paidCents = Arrays.copyOf(paidCents, capacity);
+    }
+
+    private void reset() {
+        size = 0;
+        reservationWatermark = null;
+        paymentWatermark = null;
+    }
+
+    private static int toEpochDay(Date date) {
+        return date != null ? (int) date.toLocalDate().toEpochDay() : 0;
+    }
+
+    private static Timestamp later(Timestamp current, Timestamp candidate) {
+        if (candidate == null) {
+            return current;
+        }
+        return current == null || candidate.after(current) ? candidate : current;
+    }
+}
@@ -0,0 +1,588 @@
+package com.hotelmanager.analytics;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.hotelmanager.dao.WriteEvents;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * In-memory cube over reservations and completed payments for pivoting and drill-down.
+ * Each dimension member is dictionary-encoded into 10 bits of a long cell key; populated
+ * cells live in parallel primitive arrays behind an open-addressing key index, so a pivot
+ * is one pass over the cells with no boxing.
+ * <p>
+ * Bookings and nights are counted once per reservation, under the method of its first
+ * completed payment ("Unpaid" until there is one); revenue goes to each payment's own
+ * method. Month is the check-in month for all measures. New reservations, customers and
+ * payments are folded in as they are recorded; any other change marks the cube stale so
+ * the next use rebuilds it.
+ */
+public class RevenueCube {
+
+    private static RevenueCube instance;
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BITS = 10;
+    private static final int MAX_MEMBERS = (1 << BITS) - 1;
+    private static final String UNPAID = "Unpaid";
+    private static final String OTHER = "(other)";
+    private static final Set<String> FOLDED_IN_TABLES = Set.of("reservations", "customers", "payments");
+
+    public enum Dimension {
+        ROOM_TYPE("Room Type"),
+        FLOOR("Floor"),
+        MONTH("Month"),
+        PAYMENT_METHOD("Payment Method"),
+        STATUS("Status"),
+        COUNTRY("Country");
+
+        private final String label;
+
+        Dimension(String label) {
+            this.label = label;
+        }
+
+        private int shift() {
+            return ordinal() * BITS;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public enum Measure {
+        REVENUE("Revenue"),
+        NIGHTS("Nights"),
+        BOOKINGS("Bookings");
+
+        private final String label;
+
+        Measure(String label) {
+            this.label = label;
+        }
+
+        public String format(long value) {
+            return this == REVENUE ? Money.format(value) : String.format("%,d", value);
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    /**
+     * A pivoted slice: values[row][column], with totals; columns is null for a single measure column
+     */
+    public record Pivot(Dimension rows, Dimension columns, Measure measure, List<String> rowLabels,
+                        List<String> columnLabels, long[][] values, long[] rowTotals, long[] columnTotals,
+                        long grandTotal, long elapsedNanos) {
+    }
+
+    private final Object buildLock = new Object();
+    private Cells cells;
+    private volatile boolean stale = true;
+    private boolean building;
+    private boolean missedDuringBuild;
+    private LocalDateTime builtAt;
+
+    private RevenueCube() {
+        WriteEvents.subscribe((table, operation) -> {
+            if ("INSERT".equals(operation) && FOLDED_IN_TABLES.contains(table)) {
+                // The DAO hands the new row to reservationAdded, customerAdded or paymentRecorded
+                return;
+            }
+            invalidate();
+        });
+    }
+
+    public static RevenueCube getInstance() {
+        if (instance == null) {
+            synchronized (RevenueCube.class) {
+                if (instance == null) {
+                    instance = new RevenueCube();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isReady() {
+        return !stale;
+    }
+
+    public synchronized LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    /**
+     * Something other than a new reservation, customer or payment changed; the next {@link #ensureBuilt()} rebuilds
+     */
+    public void invalidate() {
+        stale = true;
+    }
+
+    /**
+     * Build the cube if it has never been built or was invalidated; call off the EDT
+     */
+    public void ensureBuilt() throws SQLException {
+        synchronized (buildLock) {
+            if (stale) {
+                build();
+            }
+        }
+    }
+
+    /**
+     * Full rebuild from the database; the previous cells stay queryable until the swap
+     */
+    public void build() throws SQLException {
+        synchronized (buildLock) {
+            rebuild();
+        }
+    }
+
+    private void rebuild() throws SQLException {
+        long start = System.nanoTime();
+        synchronized (this) {
+            stale = false;
+            building = true;
+            missedDuringBuild = false;
+        }
+        Cells fresh = new Cells();
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            String roomSql = "SELECT r.room_id, rt.type_name, r.floor FROM rooms r "
+                + "JOIN room_types rt ON rt.room_type_id = r.room_type_id";
+            try (PreparedStatement ps = conn.prepareStatement(roomSql);
+                 ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    fresh.addRoom(rs.getInt(1), rs.getString(2), rs.getInt(3));
+                }
+            }
+
+            try (PreparedStatement ps = conn.prepareStatement("SELECT customer_id, country FROM customers")) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        fresh.customerCountries.put(rs.getInt(1), rs.getString(2));
+                    }
+                }
+            }
+
+            String reservationSql = "SELECT reservation_id, room_id, customer_id, check_in_date, status, "
+                + "DATEDIFF(check_out_date, check_in_date) FROM reservations";
+            try (PreparedStatement ps = conn.prepareStatement(reservationSql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Date checkIn = rs.getDate(4);
+                        fresh.addReservation(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                            checkIn != null ? checkIn.toLocalDate() : null, rs.getString(5), Math.max(0, rs.getInt(6)));
+                    }
+                }
+            }
+
+            String paymentSql = "SELECT reservation_id, payment_method, amount FROM payments "
+                + "WHERE payment_status = 'COMPLETED' ORDER BY payment_date, payment_id";
+            try (PreparedStatement ps = conn.prepareStatement(paymentSql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        fresh.addPayment(rs.getInt(1), rs.getString(2), Money.centsOf(rs.getBigDecimal(3)));
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                stale = true;
+                building = false;
+            }
+            Logger.error("Error building revenue cube", e);
+            throw e;
+        }
+        synchronized (this) {
+            cells = fresh;
+            builtAt = LocalDateTime.now();
+            building = false;
+            if (missedDuringBuild) {
+                // A payment landed after its rows were read; it is only in the discarded cells
+                stale = true;
+            }
+        }
+        Logger.info(String.format("Revenue cube built: %,d cells from %,d reservations in %d ms",
+            fresh.size, fresh.reservationCount, (System.nanoTime() - start) / 1_000_000));
+    }
+
+    /**
+     * Fold a newly created reservation into the built cube as an unpaid booking
+     */
+    public synchronized void reservationAdded(int reservationId, int roomId, int customerId, LocalDate checkIn,
+                                              LocalDate checkOut, String status) {
+        if (building) {
+            missedDuringBuild = true;
+        }
+        if (cells == null) {
+            return;
+        }
+        int stayNights = (int) Math.max(0, ChronoUnit.DAYS.between(checkIn, checkOut));
+        if (!cells.addReservation(reservationId, roomId, customerId, checkIn, status, stayNights)) {
+            // Room or customer created after the build
+            stale = true;
+        }
+    }
+
+    /**
+     * Remember a new customer's country so their reservations can be folded in
+     */
+    public synchronized void customerAdded(int customerId, String country) {
+        if (building) {
+            missedDuringBuild = true;
+        }
+        if (cells != null) {
+            cells.customerCountries.put(customerId, country);
+        }
+    }
+
+    /**
+     * Fold a newly recorded payment into the built cube
+     */
+    public synchronized void paymentRecorded(int reservationId, String method, long amountCents, String status) {
+        if (!"COMPLETED".equals(status)) {
+            return;
+        }
+        if (building) {
+            missedDuringBuild = true;
+        }
+        if (cells == null) {
+            return;
+        }
+        if (!cells.addPayment(reservationId, method, amountCents)) {
+            // Reservation created after the build
+            stale = true;
+        }
+    }
+
+    /**
+     * Aggregate one measure by a row dimension and an optional column dimension, keeping only
+     * cells whose members match every filter
+     */
+    public synchronized Pivot pivot(Dimension rows, Dimension columns, Measure measure, Map<Dimension, String> filters) {
+        long start = System.nanoTime();
+        Cells c = cells != null ? cells : new Cells();
+
+        long filterMask = 0;
+        long filterValue = 0;
+        boolean matchesNothing = false;
+        for (Map.Entry<Dimension, String> filter : filters.entrySet()) {
+            Integer code = c.codes.get(filter.getKey()).get(filter.getValue());
+            if (code == null) {
+                matchesNothing = true;
+                break;
+            }
+            filterMask |= (long) MAX_MEMBERS << filter.getKey().shift();
+            filterValue |= (long) code << filter.getKey().shift();
+        }
+
+        int rowCount = c.labels.get(rows).size();
+        int columnCount = columns != null ? c.labels.get(columns).size() : 1;
+        long[] totals = new long[Math.max(1, rowCount * columnCount)];
+        boolean[] rowSeen = new boolean[Math.max(1, rowCount)];
+        boolean[] columnSeen = new boolean[columnCount];
+        long[] measureValues = c.revenue;
+        int[] measureCounts = measure == Measure.NIGHTS ? c.nights : c.bookings;
+        int rowShift = rows.shift();
+        int columnShift = columns != null ? columns.shift() : 0;
+        for (int i = 0; i < (matchesNothing ? 0 : c.size); i++) {
+            long key = c.keys[i];
+            if ((key & filterMask) != filterValue) {
+                continue;
+            }
+            int row = (int) (key >>> rowShift) & MAX_MEMBERS;
+            int column = columns != null ? (int) (key >>> columnShift) & MAX_MEMBERS : 0;
+            rowSeen[row] = true;
+            columnSeen[column] = true;
+            totals[row * columnCount + column] += measure == Measure.REVENUE ? measureValues[i] : measureCounts[i];
+        }
+
+        int[] rowOrder = order(c.labels.get(rows), rowSeen);
+        int[] columnOrder = columns != null ? order(c.labels.get(columns), columnSeen) : new int[]{0};
+        List<String> rowLabels = new ArrayList<>();
+        for (int row : rowOrder) {
+            rowLabels.add(c.labels.get(rows).get(row));
+        }
+        List<String> columnLabels = new ArrayList<>();
+        if (columns != null) {
+            for (int column : columnOrder) {
+                columnLabels.add(c.labels.get(columns).get(column));
+            }
+        } else {
+            columnLabels.add(measure.toString());
+        }
+
+        long[][] values = new long[rowOrder.length][columnOrder.length];
+        long[] rowTotals = new long[rowOrder.length];
+        long[] columnTotals = new long[columnOrder.length];
+        long grandTotal = 0;
+        for (int r = 0; r < rowOrder.length; r++) {
+            for (int k = 0; k < columnOrder.length; k++) {
+                long value = totals[rowOrder[r] * columnCount + columnOrder[k]];
+                values[r][k] = value;
+                rowTotals[r] += value;
+                columnTotals[k] += value;
+                grandTotal += value;
+            }
+        }
+        return new Pivot(rows, columns, measure, rowLabels, columns != null ? columnLabels : null,
+            values, rowTotals, columnTotals, grandTotal, System.nanoTime() - start);
+    }
+
+    /**
+     * Codes of the members present, sorted by label (numerically when both are numbers)
+     */
+    private static int[] order(List<String> labels, boolean[] seen) {
+        List<Integer> present = new ArrayList<>();
+        for (int i = 0; i < labels.size() && i < seen.length; i++) {
+            if (seen[i]) {
+                present.add(i);
+            }
+        }
+        Comparator<String> byLabel = (a, b) -> {
+            if (isNumber(a) && isNumber(b)) {
+                return Long.compare(Long.parseLong(a), Long.parseLong(b));
+            }
+            return a.compareToIgnoreCase(b);
+        };
+        present.sort((a, b) -> byLabel.compare(labels.get(a), labels.get(b)));
+        int[] order = new int[present.size()];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = present.get(i);
+        }
+        return order;
+    }
+
+    private static boolean isNumber(String label) {
+        int start = label.startsWith("-") ? 1 : 0;
+        if (label.length() == start || label.length() > 18) {
+            return false;
+        }
+        for (int i = start; i < label.length(); i++) {
+            if (!Character.isDigit(label.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dictionaries, sparse cells and the reference data and per-reservation attribution needed for
+     * incremental updates
+     */
+    private static final class Cells {
+        final Map<Dimension, List<String>> labels = new EnumMap<>(Dimension.class);
+        final Map<Dimension, Map<String, Integer>> codes = new EnumMap<>(Dimension.class);
+
+        // Reference data for composing a reservation's key: room -> room type and floor members
+        final Map<Integer, Long> roomKeys = new HashMap<>();
+        final Map<Integer, String> customerCountries = new HashMap<>();
+
+        // Cells: key -> slot in the measure arrays
+        final LongIntIndex cellIndex = new LongIntIndex();
+        long[] keys = new long[1024];
+        long[] revenue = new long[1024];
+        int[] nights = new int[1024];
+        int[] bookings = new int[1024];
+        int size;
+
+        // Reservations: id -> slot holding its key (without method) and nights
+        final LongIntIndex reservationIndex = new LongIntIndex();
+        long[] reservationKeys = new long[1024];
+        int[] reservationNights = new int[1024];
+        boolean[] reservationPaid = new boolean[1024];
+        int reservationCount;
+
+        Cells() {
+            for (Dimension dimension : Dimension.values()) {
+                labels.put(dimension, new ArrayList<>());
+                codes.put(dimension, new HashMap<>());
+            }
+        }
+
+        long encode(Dimension dimension, String member) {
+            String label = member == null || member.isBlank() ? "(none)" : member.trim();
+            Map<String, Integer> dictionary = codes.get(dimension);
+            Integer code = dictionary.get(label);
+            if (code == null) {
+                List<String> names = labels.get(dimension);
+                if (names.size() >= MAX_MEMBERS) {
+                    // The last code collects every member beyond the dictionary's capacity; once it
+                    // is taken the list holds MAX_MEMBERS + 1 names, so the guard must not test equality
+                    code = dictionary.computeIfAbsent(OTHER, k -> names.size());
+                    if (code == names.size()) {
+                        names.add(OTHER);
+                    }
+                } else {
+                    code = names.size();
+                    names.add(label);
+                }
+                dictionary.put(label, code);
+            }
+            return (long) code << dimension.shift();
+        }
+
+        void addRoom(int roomId, String typeName, int floor) {
+            roomKeys.put(roomId, encode(Dimension.ROOM_TYPE, typeName)
+                | encode(Dimension.FLOOR, Integer.toString(floor)));
+        }
+
+        /**
+         * Add a reservation as an unpaid booking; false when its room or customer is not in the cube
+         */
+        boolean addReservation(int reservationId, int roomId, int customerId, LocalDate checkIn, String status,
+                               int stayNights) {
+            Long roomKey = roomKeys.get(roomId);
+            if (roomKey == null || !customerCountries.containsKey(customerId)) {
+                return false;
+            }
+            long key = roomKey
+                | encode(Dimension.MONTH, checkIn != null ? checkIn.toString().substring(0, 7) : null)
+                | encode(Dimension.STATUS, status)
+                | encode(Dimension.COUNTRY, customerCountries.get(customerId));
+            addReservation(reservationId, key, stayNights);
+            return true;
+        }
+
+        private void addReservation(int reservationId, long key, int stayNights) {
+            if (reservationCount == reservationKeys.length) {
+                int capacity = reservationCount * 2;
+                reservationKeys = Arrays.copyOf(reservationKeys, capacity);
+                reservationNights = Arrays.copyOf(reservationNights, capacity);
+                reservationPaid = Arrays.copyOf(reservationPaid, capacity);
+            }
+            int slot = reservationCount++;
+            reservationKeys[slot] = key;
+            reservationNights[slot] = stayNights;
+            reservationIndex.put(reservationId, slot);
+            int cell = cell(key | encode(Dimension.PAYMENT_METHOD, UNPAID));
+            bookings[cell]++;
+            nights[cell] += stayNights;
+        }
+
+        /**
+         * Add a completed payment; false when the reservation is not in the cube
+         */
+        boolean addPayment(int reservationId, String method, long amountCents) {
+            int slot = reservationIndex.get(reservationId);
+            if (slot < 0) {
+                return false;
+            }
+            long key = reservationKeys[slot];
+            long methodKey = encode(Dimension.PAYMENT_METHOD, method);
+            if (!reservationPaid[slot]) {
+                // The first completed payment decides where the booking is counted
+                reservationPaid[slot] = true;
+                int unpaid = cell(key | encode(Dimension.PAYMENT_METHOD, UNPAID));
+                bookings[unpaid]--;
+                nights[unpaid] -= reservationNights[slot];
+                int paid = cell(key | methodKey);
+                bookings[paid]++;
+                nights[paid] += reservationNights[slot];
+            }
+            revenue[cell(key | methodKey)] += amountCents;
+            return true;
+        }
+
+        private int cell(long key) {
+            int slot = cellIndex.get(key);
+            if (slot >= 0) {
+                return slot;
+            }
+            if (size == keys.length) {
+                int capacity = size * 2;
+                keys = Arrays.copyOf(keys, capacity);
+                revenue = Arrays.copyOf(revenue, capacity);
+                nights = Arrays.copyOf(nights, capacity);
+                bookings = Arrays.copyOf(bookings, capacity);
+            }
+            slot = size++;
+            keys[slot] = key;
+            cellIndex.put(key, slot);
+            return slot;
+        }
+    }
+
+    /**
+     * Open-addressing long to int map with linear probing; get returns -1 when absent
+     */
+    private static final class LongIntIndex {
+        private long[] keys = new long[2048];
+        private int[] values = new int[2048];
+        private boolean[] used = new boolean[2048];
+        private int size;
+
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int i = hash(key) & mask; used[i]; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return values[i];
+                }
+            }
+            return -1;
+        }
+
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                grow();
+            }
+            int mask = keys.length - 1;
+            int i = hash(key) & mask;
+            while (used[i] && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (!used[i]) {
+                used[i] = true;
+                size++;
+            }
+            keys[i] = key;
+            values[i] = value;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            boolean[] oldUsed = used;
+            keys = new long[oldKeys.length * 2];
+            values = new int[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int hash(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.hotelmanager.analytics;
+
+/**
+ * Forecast state for one room type: a Holt-Winters model of nightly rooms sold, a histogram
+ * of booking lead times for realised nights (the pickup curve), and rooms on the books for
+ * upcoming nights. Bookings adjust the on-the-books counts, and closing a night feeds one
+ * observation to the smoother and its leads to the histogram - nothing is refit.
+ * <p>
+ * The forecast for a night h days out is the rooms already booked plus the share of a
+ * night's rooms usually booked later than h days ahead, applied to the expected rooms sold.
+ * That expectation averages the smoother with last year's same weekday, shifted by how far
+ * demand has moved over the year, since a weekly season alone lags the yearly cycle.
+ */
+class RoomTypeForecast {
+
+    static final int HORIZON = 90;
+    // On-the-books is tracked this far ahead; later bookings are picked up on the next rebuild
+    static final int BOOKING_WINDOW = 512;
+    private static final int SEASON = 7;
+    // Same weekday one year earlier
+    private static final int YEAR = 364;
+
+    private final int capacity;
+    private final HoltWinters smoother = new HoltWinters(SEASON, 0.25, 0.02, 0.15, 0.95);
+    // leadCounts[l] = realised room nights booked l days ahead; the last slot collects longer leads
+    private final long[] leadCounts = new long[HORIZON + 1];
+    // Realised rooms sold for the last YEAR nights, by night modulo YEAR
+    private final int[] lastYear = new int[YEAR];
+    private final double[] lastYearLevel = new double[YEAR];
+
+    private final int[] onTheBooks = new int[BOOKING_WINDOW];
+    private int firstOpenDay;
+
+    RoomTypeForecast(int capacity, int firstOpenDay) {
+        this.capacity = capacity;
+        this.firstOpenDay = firstOpenDay;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    int getFirstOpenDay() {
+        return firstOpenDay;
+    }
+
+    /**
+     * A booked room night was added (delta 1) or removed (delta -1)
+     */
+    void book(int night, int delta) {
+        if (night >= firstOpenDay && night < firstOpenDay + BOOKING_WINDOW) {
+            onTheBooks[Math.floorMod(night, BOOKING_WINDOW)] += delta;
+        }
+    }
+
+    int onTheBooks(int night) {
+        if (night < firstOpenDay || night >= firstOpenDay + BOOKING_WINDOW) {
+            return 0;
+        }
+        return onTheBooks[Math.floorMod(night, BOOKING_WINDOW)];
+    }
+
+    /**
+     * Seed the history with a realised night without touching the on-the-books window
+     */
+    void observe(int sold, int night) {
+        remember(sold, night);
+        smoother.update(sold);
+    }
+
+    private void remember(int sold, int night) {
+        int slot = Math.floorMod(night, YEAR);
+        lastYear[slot] = sold;
+        lastYearLevel[slot] = smoother.level();
+    }
+
+    void recordLead(int lead) {
+        leadCounts[Math.max(0, Math.min(lead, HORIZON))]++;
+    }
+
+    /**
+     * The first open night is over: learn from its final count and leads, and free its slot
+     */
+    void closeNight(int sold, int[] leads, int leadCount) {
+        remember(sold, firstOpenDay);
+        smoother.update(sold);
+        for (int i = 0; i < leadCount; i++) {
+            recordLead(leads[i]);
+        }
+        onTheBooks[Math.floorMod(firstOpenDay, BOOKING_WINDOW)] = 0;
+        firstOpenDay++;
+    }
+
+    /**
+     * Rooms sold on the same weekday a year before the night, averaged with the weeks either side
+     */
+    private double yearAgo(int night) {
+        int sold = 0;
+        int weeks = 0;
+        for (int week = -1; week <= 1; week++) {
+            int other = night + week * SEASON;
+            // Within a week of today the slot before already holds this year's night
+            if (other >= firstOpenDay) {
+                sold += lastYear[Math.floorMod(other, YEAR)];
+                weeks++;
+            }
+        }
+        return (double) sold / weeks;
+    }
+
+    /**
+     * Expected rooms sold for the next HORIZON nights starting at the first open day
+     */
+    double[] forecast(double[] out) {
+        long total = 0;
+        for (long count : leadCounts) {
+            total += count;
+        }
+        boolean yearOfHistory = smoother.observations() >= YEAR;
+        // How far demand has moved since this day last year
+        double shift = smoother.level() - lastYearLevel[Math.floorMod(firstOpenDay, YEAR)];
+        long stillToCome = 0;
+        for (int l = 0; l < HORIZON; l++) {
+            // Share of a night's rooms that are usually booked fewer than l days ahead
+            double unbooked = total > 0 ? (double) stillToCome / total : 1;
+            stillToCome += leadCounts[l];
+
+            double bySeries = smoother.forecast(l + 1);
+            if (yearOfHistory) {
+                // The weekly smoother lags the yearly cycle; last year's night brings it in
+                bySeries = (bySeries + yearAgo(firstOpenDay + l) + shift) / 2;
+            }
+            int booked = onTheBooks(firstOpenDay + l);
+            double expected = booked + unbooked * bySeries;
+            out[l] = Math.max(booked, Math.min(capacity, expected));
+        }
+        return out;
+    }
+}
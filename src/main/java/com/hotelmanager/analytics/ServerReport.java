@@ -0,0 +1,169 @@
+package com.hotelmanager.analytics;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Reports aggregated by the database over a date range - only the grouped rows cross the wire.
+ * Stored procedures take an inclusive end date; the GROUP BY queries use a half-open range
+ * so they can range-scan the date indexes. Mergeable reports filter on a single date column
+ * and are sorted by their key columns, so partial results for adjacent ranges add up.
+ */
+public enum ServerReport {
+
+    ROOM_REVENUE("Room Revenue",
+        "{CALL sp_get_room_revenue(?, ?)}",
+        true, 0, List.of("reservations", "rooms", "room_types"),
+        List.of(ReportColumn.text("Room"), ReportColumn.text("Room Type"),
+            ReportColumn.integer("Bookings"), ReportColumn.money("Revenue")),
+        (ps, from, to) -> {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+        }),
+
+    OCCUPANCY("Occupancy by Room Type",
+        "{CALL sp_get_occupancy_report(?, ?)}",
+        true, 0, List.of("reservations", "rooms", "room_types"),
+        List.of(ReportColumn.text("Room Type"), ReportColumn.integer("Rooms"),
+            ReportColumn.integer("Occupied"), ReportColumn.percent("Occupancy")),
+        (ps, from, to) -> {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+        }),
+
+    RESERVATIONS_BY_STATUS("Reservations by Status",
+        "SELECT status, COUNT(*) AS reservations, SUM(number_of_guests), "
+            + "SUM(DATEDIFF(check_out_date, check_in_date)), SUM(total_amount) "
+            + "FROM reservations WHERE check_in_date >= ? AND check_in_date < ? "
+            + "GROUP BY status ORDER BY status",
+        false, 1, List.of("reservations"),
+        List.of(ReportColumn.text("Status"), ReportColumn.integer("Reservations"),
+            ReportColumn.integer("Guests"), ReportColumn.integer("Room Nights"),
+            ReportColumn.money("Booked Value")),
+        ServerReport::bindHalfOpen),
+
+    ARRIVALS_BY_DAY("Arrivals by Day",
+        "SELECT check_in_date, COUNT(*), SUM(number_of_guests), SUM(total_amount) "
+            + "FROM reservations WHERE check_in_date >= ? AND check_in_date < ? AND status <> 'CANCELLED' "
+            + "GROUP BY check_in_date ORDER BY check_in_date",
+        false, 1, List.of("reservations"),
+        List.of(ReportColumn.date("Date"), ReportColumn.integer("Arrivals"),
+            ReportColumn.integer("Guests"), ReportColumn.money("Booked Value")),
+        ServerReport::bindHalfOpen),
+
+    PAYMENTS_BY_METHOD("Payments by Method",
+        "SELECT payment_method, payment_status, COUNT(*), SUM(amount) "
+            + "FROM payments WHERE payment_date >= ? AND payment_date < ? "
+            + "GROUP BY payment_method, payment_status ORDER BY payment_method, payment_status",
+        false, 2, List.of("payments"),
+        List.of(ReportColumn.text("Method"), ReportColumn.text("Status"),
+            ReportColumn.integer("Payments"), ReportColumn.money("Amount")),
+        ServerReport::bindHalfOpen),
+
+    TOP_CUSTOMERS("Top Customers by Booked Value",
+        "SELECT CONCAT(c.first_name, ' ', c.last_name), COUNT(*), "
+            + "SUM(DATEDIFF(r.check_out_date, r.check_in_date)), SUM(r.total_amount) AS booked "
+            + "FROM reservations r JOIN customers c ON c.customer_id = r.customer_id "
+            + "WHERE r.check_in_date >= ? AND r.check_in_date < ? AND r.status <> 'CANCELLED' "
+            + "GROUP BY c.customer_id, c.first_name, c.last_name ORDER BY booked DESC LIMIT 100",
+        false, 0, List.of("reservations", "customers"),
+        List.of(ReportColumn.text("Customer"), ReportColumn.integer("Reservations"),
+            ReportColumn.integer("Room Nights"), ReportColumn.money("Booked Value")),
+        ServerReport::bindHalfOpen);
+
+    /**
+     * Binds the date range, given with an inclusive end, to the statement parameters
+     */
+    @FunctionalInterface
+    interface RangeBinder {
+        void bind(PreparedStatement ps, LocalDate from, LocalDate to) throws SQLException;
+    }
+
+    private final String title;
+    private final String sql;
+    private final boolean procedure;
+    private final int keyColumns;
+    private final List<String> sourceTables;
+    private final List<ReportColumn> columns;
+    private final RangeBinder binder;
+
+    ServerReport(String title, String sql, boolean procedure, int keyColumns, List<String> sourceTables,
+                 List<ReportColumn> columns, RangeBinder binder) {
+        this.title = title;
+        this.sql = sql;
+        this.procedure = procedure;
+        this.keyColumns = keyColumns;
+        this.sourceTables = sourceTables;
+        this.columns = columns;
+        this.binder = binder;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public boolean isProcedure() {
+        return procedure;
+    }
+
+    /**
+     * Leading group-by columns when results for adjacent ranges can be merged by summing
+     * the remaining columns, 0 when the report must be computed over the whole range
+     */
+    public int getKeyColumns() {
+        return keyColumns;
+    }
+
+    public boolean isMergeable() {
+        return keyColumns > 0;
+    }
+
+    /**
+     * Tables whose changes can alter the result
+     */
+    public List<String> getSourceTables() {
+        return sourceTables;
+    }
+
+    public List<ReportColumn> getColumns() {
+        return columns;
+    }
+
+    public String[] getColumnLabels() {
+        String[] labels = new String[columns.size()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = columns.get(i).label();
+        }
+        return labels;
+    }
+
+    void bind(PreparedStatement ps, LocalDate from, LocalDate to) throws SQLException {
+        binder.bind(ps, from, to);
+    }
+
+    public static ServerReport fromTitle(String title) {
+        for (ServerReport report : values()) {
+            if (report.title.equals(title)) {
+                return report;
+            }
+        }
+        return null;
+    }
+
+    private static void bindHalfOpen(PreparedStatement ps, LocalDate from, LocalDate to) throws SQLException {
+        ps.setDate(1, Date.valueOf(from));
+        ps.setDate(2, Date.valueOf(to.plusDays(1)));
+    }
+
+    @Override
+    public String toString() {
+        return title;
+    }
+}
@@ -0,0 +1,86 @@
+package com.hotelmanager.analytics;
+
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork/join aggregation of stays into nights sold and room revenue per room type over a
+ * range of epoch days. Stays are held in parallel primitive arrays; each task sums a slice
+ * and halves it until it is small enough to scan directly. The stay value is spread evenly
+ * over its nights with the remainder cents on the first night, as daily_stats does.
+ */
+class StayRevenueTask extends RecursiveTask<long[]> {
+
+    private static final int SEQUENTIAL_THRESHOLD = 4096;
+
+    private final int[] typeIndex;
+    private final int[] checkIn;
+    private final int[] checkOut;
+    private final long[] totalCents;
+    private final int typeCount;
+    private final int fromDay;
+    private final int toDay;
+    private final int start;
+    private final int end;
+
+    /**
+     * @param fromDay first epoch day counted
+     * @param toDay   epoch day after the last one counted
+     */
+    StayRevenueTask(int[] typeIndex, int[] checkIn, int[] checkOut, long[] totalCents, int count,
+                    int typeCount, int fromDay, int toDay) {
+        this(typeIndex, checkIn, checkOut, totalCents, typeCount, fromDay, toDay, 0, count);
+    }
+
+    private StayRevenueTask(int[] typeIndex, int[] checkIn, int[] checkOut, long[] totalCents,
+                            int typeCount, int fromDay, int toDay, int start, int end) {
+        this.typeIndex = typeIndex;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+        this.totalCents = totalCents;
+        this.typeCount = typeCount;
+        this.fromDay = fromDay;
+        this.toDay = toDay;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Nights sold at [type * 2] and revenue cents at [type * 2 + 1]
+     */
+    @Override
+    protected long[] compute() {
+        if (end - start <= SEQUENTIAL_THRESHOLD) {
+            return scan();
+        }
+        int middle = (start + end) >>> 1;
+        StayRevenueTask left = new StayRevenueTask(typeIndex, checkIn, checkOut, totalCents,
+            typeCount, fromDay, toDay, start, middle);
+        StayRevenueTask right = new StayRevenueTask(typeIndex, checkIn, checkOut, totalCents,
+            typeCount, fromDay, toDay, middle, end);
+        left.fork();
+        long[] totals = right.compute();
+        long[] other = left.join();
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += other[i];
+        }
+        return totals;
+    }
+
+    private long[] scan() {
+        long[] totals = new long[typeCount * 2];
+        for (int i = start; i < end; i++) {
+            int nights = checkOut[i] - checkIn[i];
+            int first = Math.max(checkIn[i], fromDay);
+            int last = Math.min(checkOut[i], toDay);
+            if (nights <= 0 || first >= last) {
+                continue;
+            }
+            long perNight = totalCents[i] / nights;
+            long remainder = totalCents[i] - perNight * nights;
+            int type = typeIndex[i] * 2;
+            totals[type] += last - first;
+            totals[type + 1] += perNight * (last - first) + (first == checkIn[i] ? remainder : 0);
+        }
+        return totals;
+    }
+}
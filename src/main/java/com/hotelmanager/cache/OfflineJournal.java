@@ -0,0 +1,600 @@
+package com.hotelmanager.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import com.hotelmanager.analytics.OccupancyForecaster;
+import com.hotelmanager.analytics.ReservationSnapshot;
+import com.hotelmanager.analytics.RevenueCube;
+import com.hotelmanager.service.DailyStatsService;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.JournalDBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Write-behind journal for business writes made while MariaDB is unreachable.
+ * Writes are recorded as SQL plus bound parameters in a local SQLite table and
+ * replayed in order, in batches, once a background probe sees the server again.
+ * A journaled update or delete is skipped as a conflict when the server row
+ * changed after the version the client loaded it with; both sides of that check
+ * are server updated_at values. Entries that are not applied are handed to the
+ * rejection listener so the user learns about them. Every entry carries an id that
+ * replay records in journal_replays in the same MariaDB transaction as the write,
+ * so an entry is applied at most once even if the journal update after a commit
+ * is lost.
+ */
+public class OfflineJournal {
+
+    private static OfflineJournal instance;
+
+    private static final int REPLAY_BATCH_SIZE = 100;
+    private static final long PROBE_INTERVAL_SECONDS = 10L;
+
+    private static final String PENDING = "PENDING";
+    private static final String APPLIED = "APPLIED";
+    private static final String CONFLICT = "CONFLICT";
+    private static final String FAILED = "FAILED";
+
+    private volatile boolean offline;
+    private boolean replayTableChecked;
+    private Consumer<List<String>> rejectionListener;
+    // Rejections from replays that ran before a listener was set, e.g. at startup
+    private final List<String> unreported = new ArrayList<>();
+    private volatile long offlineSince;
+    private ScheduledExecutorService prober;
+    private ScheduledFuture<?> probe;
+
+    public static OfflineJournal getInstance() {
+        if (instance == null) {
+            synchronized (OfflineJournal.class) {
+                if (instance == null) {
+                    instance = new OfflineJournal();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Binds parameters onto a statement - lets the same binder run live or be recorded
+     */
+    @FunctionalInterface
+    public interface StatementBinder {
+        void bind(PreparedStatement ps) throws SQLException;
+    }
+
+    /**
+     * True when the exception means the server could not be reached, as opposed to a bad statement
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLTransientConnectionException || t instanceof SQLNonTransientConnectionException
+                    || t instanceof ConnectException || t instanceof SocketException) {
+                return true;
+            }
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public boolean isOffline() {
+        return offline;
+    }
+
+    public synchronized void markOffline(SQLException cause) {
+        if (offline) {
+            return;
+        }
+        Logger.warn("Business database unreachable, switching to offline mode: " + cause.getMessage());
+        enterOffline(PROBE_INTERVAL_SECONDS);
+    }
+
+    /**
+     * Replay entries left over from a previous session before new writes go to MariaDB
+     */
+    public synchronized void resumePending() {
+        try {
+            int pending = pendingCount();
+            if (pending > 0 && !offline) {
+                Logger.info("Offline journal has " + pending + " pending writes from a previous session");
+                enterOffline(0L);
+            }
+        } catch (SQLException e) {
+            Logger.error("Error reading offline journal", e);
+        }
+    }
+
+    private void enterOffline(long initialDelaySeconds) {
+        offline = true;
+        offlineSince = System.currentTimeMillis();
+        if (prober == null) {
+            prober = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "offline-journal-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        probe = prober.scheduleWithFixedDelay(this::probe, initialDelaySeconds, PROBE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Journal a write if offline; false means the caller should run it against MariaDB
+     */
+    public synchronized boolean appendIfOffline(String tableName, String keyColumn, int entityId, String operation,
+                                                String sql, StatementBinder binder, LocalDateTime baseVersion) throws SQLException {
+        if (!offline) {
+            return false;
+        }
+        String insert = "INSERT INTO journal (created_at, table_name, key_column, entity_id, operation, sql_text, params, "
+            + "base_version, entry_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        try (PreparedStatement ps = JournalDBConnection.getInstance().getConnection().prepareStatement(insert)) {
+            ps.setLong(1, System.currentTimeMillis());
+            ps.setString(2, tableName);
+            ps.setString(3, keyColumn);
+            ps.setInt(4, entityId);
+            ps.setString(5, operation);
+            ps.setString(6, sql);
+            ps.setBytes(7, encode(record(binder)));
+            // Without a loaded version (inserts, deletes by key) the write is applied unconditionally
+            if (operation.equals("INSERT") || baseVersion == null) {
+                ps.setNull(8, Types.BIGINT);
+            } else {
+                ps.setLong(8, toMillis(baseVersion));
+            }
+            ps.setString(9, UUID.randomUUID().toString());
+            ps.executeUpdate();
+        } catch (SQLException e) {
+            Logger.error("Error writing offline journal", e);
+            throw e;
+        }
+        Logger.info("Journaled offline " + operation + " on " + tableName + (entityId > 0 ? " #" + entityId : ""));
+        return true;
+    }
+
+    /**
+     * Receive the journaled writes a replay did not apply, as one line each; called on the
+     * replaying thread, first with any rejections from before the listener was set
+     */
+    public synchronized void setRejectionListener(Consumer<List<String>> listener) {
+        rejectionListener = listener;
+        if (listener != null && !unreported.isEmpty()) {
+            listener.accept(new ArrayList<>(unreported));
+            unreported.clear();
+        }
+    }
+
+    private synchronized void reportRejected(List<String> rejected) {
+        if (rejectionListener != null) {
+            rejectionListener.accept(rejected);
+        } else {
+            unreported.addAll(rejected);
+        }
+    }
+
+    public synchronized int pendingCount() throws SQLException {
+        try (PreparedStatement ps = JournalDBConnection.getInstance().getConnection()
+                .prepareStatement("SELECT COUNT(*) FROM journal WHERE state = 'PENDING'");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+
+    // ---- replay ----
+
+    private void probe() {
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            if (!conn.isValid(2)) {
+                return;
+            }
+        } catch (SQLException e) {
+            return;
+        }
+        try {
+            replay();
+            synchronized (this) {
+                // Writes keep going to the journal until it is fully drained, so ordering is preserved
+                if (pendingCount() == 0) {
+                    offline = false;
+                    probe.cancel(false);
+                    Logger.info(String.format("Business database reachable again after %d s, offline mode ended",
+                        (System.currentTimeMillis() - offlineSince) / 1000));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.warn("Offline journal replay interrupted: " + e.getMessage());
+        } catch (RuntimeException e) {
+            Logger.error("Unexpected error during offline journal replay", e);
+        }
+    }
+
+    /**
+     * Replay pending entries in order, one MariaDB transaction per batch.
+     * A crash between the MariaDB commit and the journal update reads that batch again;
+     * its entries are then found in journal_replays and take the recorded outcome
+     * instead of running twice.
+     */
+    public void replay() throws SQLException {
+        ensureReplayTable();
+        long start = System.nanoTime();
+        int applied = 0;
+        int conflicts = 0;
+        int failed = 0;
+        long maxLagMs = 0L;
+        long totalLagMs = 0L;
+        // Rows already written by this replay must not count as conflicting with later entries
+        Set<String> touched = new HashSet<>();
+        List<String> rejected = new ArrayList<>();
+
+        List<Entry> batch;
+        while (!(batch = readPending(REPLAY_BATCH_SIZE)).isEmpty()) {
+            try (Connection conn = DBConnection.getInstance().getConnection()) {
+                conn.setAutoCommit(false);
+                try {
+                    for (Entry entry : batch) {
+                        replayEntry(conn, entry, touched);
+                    }
+                    conn.commit();
+                } catch (SQLException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
+            long now = System.currentTimeMillis();
+            markReplayed(batch, now);
+            for (Entry entry : batch) {
+                switch (entry.state) {
+                    case APPLIED:
+                        applied++;
+                        break;
+                    case CONFLICT:
+                        conflicts++;
+                        rejected.add(entry.describe());
+                        break;
+                    default:
+                        failed++;
+                        rejected.add(entry.describe());
+                        break;
+                }
+                long lag = now - entry.createdAt;
+                maxLagMs = Math.max(maxLagMs, lag);
+                totalLagMs += lag;
+            }
+        }
+
+        int total = applied + conflicts + failed;
+        if (total > 0) {
+            double seconds = Math.max(1L, System.nanoTime() - start) / 1_000_000_000.0;
+            Logger.info(String.format(
+                "Offline journal replayed: %d applied, %d conflicts, %d failed in %.2f s (%.0f ops/s), lag avg %d s / max %d s",
+                applied, conflicts, failed, seconds, total / seconds, totalLagMs / total / 1000, maxLagMs / 1000));
+        }
+        if (!rejected.isEmpty()) {
+            reportRejected(rejected);
+        }
+        if (applied > 0) {
+            // Replayed SQL bypasses the DAO hooks, so rebuild the derived daily stats
+            DailyStatsService.getInstance().startBackfill(false);
+            RevenueCube.getInstance().invalidate();
+            OccupancyForecaster.getInstance().invalidate();
+            ReservationSnapshot.getInstance().invalidate();
+        }
+    }
+
+    private void replayEntry(Connection conn, Entry entry, Set<String> touched) throws SQLException {
+        if (alreadyReplayed(conn, entry)) {
+            return;
+        }
+        applyEntry(conn, entry, touched);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "INSERT INTO journal_replays (entry_id, state, message) VALUES (?, ?, ?)")) {
+            ps.setString(1, entry.entryId);
+            ps.setString(2, entry.state);
+            ps.setString(3, entry.message != null && entry.message.length() > 500
+                ? entry.message.substring(0, 500) : entry.message);
+            ps.executeUpdate();
+        }
+    }
+
+    /**
+     * Take the outcome recorded by an earlier replay whose journal update was lost
+     */
+    private boolean alreadyReplayed(Connection conn, Entry entry) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "SELECT state, message FROM journal_replays WHERE entry_id = ?")) {
+            ps.setString(1, entry.entryId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                entry.reject(rs.getString(1), rs.getString(2));
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Create the replay record table on servers set up before it was added to the schema
+     */
+    private void ensureReplayTable() throws SQLException {
+        if (replayTableChecked) {
+            return;
+        }
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS journal_replays ("
+                + "entry_id VARCHAR(36) PRIMARY KEY, "
+                + "state VARCHAR(20) NOT NULL, "
+                + "message VARCHAR(500), "
+                + "replayed_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP"
+                + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4");
+        }
+        replayTableChecked = true;
+    }
+
+    private void applyEntry(Connection conn, Entry entry, Set<String> touched) throws SQLException {
+        String rowKey = entry.tableName + "#" + entry.entityId;
+        if (entry.baseVersion != null && entry.entityId > 0 && !touched.contains(rowKey)) {
+            String check = "SELECT updated_at FROM " + entry.tableName + " WHERE " + entry.keyColumn + " = ?";
+            try (PreparedStatement ps = conn.prepareStatement(check)) {
+                ps.setInt(1, entry.entityId);
+                try (ResultSet rs = ps.executeQuery()) {
+                    if (!rs.next()) {
+                        entry.reject(CONFLICT, "Row no longer exists on the server");
+                        return;
+                    }
+                    Timestamp serverVersion = rs.getTimestamp(1);
+                    if (serverVersion != null && serverVersion.getTime() > entry.baseVersion) {
+                        entry.reject(CONFLICT, "Row changed on the server at " + serverVersion);
+                        return;
+                    }
+                }
+            }
+        }
+        try (PreparedStatement ps = conn.prepareStatement(entry.sql)) {
+            for (int i = 0; i < entry.params.length; i++) {
+                Object value = entry.params[i];
+                if (value == null) {
+                    ps.setNull(i + 1, Types.NULL);
+                } else {
+                    ps.setObject(i + 1, value);
+                }
+            }
+            ps.executeUpdate();
+            entry.state = APPLIED;
+            touched.add(rowKey);
+        } catch (SQLException e) {
+            if (isConnectionFailure(e)) {
+                throw e;
+            }
+            entry.reject(FAILED, e.getMessage());
+        }
+    }
+
+    private synchronized List<Entry> readPending(int limit) throws SQLException {
+        String sql = "SELECT seq, created_at, table_name, key_column, entity_id, operation, sql_text, params, base_version, "
+            + "entry_id FROM journal WHERE state = 'PENDING' ORDER BY seq LIMIT ?";
+        List<Entry> entries = new ArrayList<>();
+        try (PreparedStatement ps = JournalDBConnection.getInstance().getConnection().prepareStatement(sql)) {
+            ps.setInt(1, limit);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    Entry entry = new Entry();
+                    entry.seq = rs.getLong(1);
+                    entry.createdAt = rs.getLong(2);
+                    entry.tableName = rs.getString(3);
+                    entry.keyColumn = rs.getString(4);
+                    entry.entityId = rs.getInt(5);
+                    entry.operation = rs.getString(6);
+                    entry.sql = rs.getString(7);
+                    entry.params = decode(rs.getBytes(8));
+                    long base = rs.getLong(9);
+                    entry.baseVersion = rs.wasNull() ? null : base;
+                    entry.entryId = rs.getString(10);
+                    entries.add(entry);
+                }
+            }
+        }
+        return entries;
+    }
+
+    private synchronized void markReplayed(List<Entry> batch, long replayedAt) throws SQLException {
+        Connection conn = JournalDBConnection.getInstance().getConnection();
+        conn.setAutoCommit(false);
+        try (PreparedStatement ps = conn.prepareStatement(
+                "UPDATE journal SET state = ?, message = ?, replayed_at = ? WHERE seq = ?")) {
+            for (Entry entry : batch) {
+                ps.setString(1, entry.state);
+                ps.setString(2, entry.message);
+                ps.setLong(3, replayedAt);
+                ps.setLong(4, entry.seq);
+                ps.addBatch();
+                if (!APPLIED.equals(entry.state)) {
+                    Logger.warn("Offline " + entry.operation + " on " + entry.tableName + " #" + entry.entityId
+                        + " not replayed (" + entry.state + "): " + entry.message);
+                }
+            }
+            ps.executeBatch();
+            conn.commit();
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    // ---- parameter capture ----
+
+    /**
+     * Run a binder against a recording statement and return the parameters in index order
+     */
+    private static Object[] record(StatementBinder binder) throws SQLException {
+        TreeMap<Integer, Object> values = new TreeMap<>();
+        PreparedStatement recorder = (PreparedStatement) Proxy.newProxyInstance(
+            PreparedStatement.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+            (proxy, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    values.put((Integer) args[0], method.getName().equals("setNull") ? null : args[1]);
+                }
+                Class<?> type = method.getReturnType();
+                if (type == boolean.class) {
+                    return false;
+                }
+                if (type == int.class) {
+                    return 0;
+                }
+                if (type == long.class) {
+                    return 0L;
+                }
+                return null;
+            });
+        binder.bind(recorder);
+        Object[] params = new Object[values.isEmpty() ? 0 : values.lastKey()];
+        values.forEach((index, value) -> params[index - 1] = value);
+        return params;
+    }
+
+    private static byte[] encode(Object[] params) throws SQLException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(params.length);
+            for (Object value : params) {
+                if (value == null) {
+                    out.writeByte(0);
+                } else if (value instanceof Integer) {
+                    out.writeByte(1);
+                    out.writeInt((Integer) value);
+                } else if (value instanceof Long) {
+                    out.writeByte(2);
+                    out.writeLong((Long) value);
+                } else if (value instanceof BigDecimal) {
+                    out.writeByte(3);
+                    out.writeUTF(((BigDecimal) value).toPlainString());
+                } else if (value instanceof Date) {
+                    out.writeByte(4);
+                    out.writeLong(((Date) value).toLocalDate().toEpochDay());
+                } else if (value instanceof Timestamp) {
+                    out.writeByte(5);
+                    out.writeLong(((Timestamp) value).getTime());
+                } else if (value instanceof Boolean) {
+                    out.writeByte(6);
+                    out.writeBoolean((Boolean) value);
+                } else if (value instanceof Double) {
+                    out.writeByte(7);
+                    out.writeDouble((Double) value);
+                } else {
+                    out.writeByte(8);
+                    out.writeUTF(value.toString());
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Could not encode journal parameters", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Object[] decode(byte[] data) throws SQLException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            Object[] params = new Object[in.readInt()];
+            for (int i = 0; i < params.length; i++) {
+                switch (in.readByte()) {
+                    case 0:
+                        params[i] = null;
+                        break;
+                    case 1:
+                        params[i] = in.readInt();
+                        break;
+                    case 2:
+                        params[i] = in.readLong();
+                        break;
+                    case 3:
+                        params[i] = new BigDecimal(in.readUTF());
+                        break;
+                    case 4:
+                        params[i] = Date.valueOf(java.time.LocalDate.ofEpochDay(in.readLong()));
+                        break;
+                    case 5:
+                        params[i] = new Timestamp(in.readLong());
+                        break;
+                    case 6:
+                        params[i] = in.readBoolean();
+                        break;
+                    case 7:
+                        params[i] = in.readDouble();
+                        break;
+                    default:
+                        params[i] = in.readUTF();
+                        break;
+                }
+            }
+            return params;
+        } catch (IOException e) {
+            throw new SQLException("Could not decode journal parameters", e);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static final class Entry {
+        long seq;
+        String entryId;
+        long createdAt;
+        String tableName;
+        String keyColumn;
+        int entityId;
+        String operation;
+        String sql;
+        Object[] params;
+        Long baseVersion;
+        String state = PENDING;
+        String message;
+
+        void reject(String state, String message) {
+            this.state = state;
+            this.message = message;
+        }
+
+        String describe() {
+            return String.format("%s on %s%s made offline at %s was not applied (%s): %s",
+                operation, tableName, entityId > 0 ? " #" + entityId : "",
+                new Timestamp(createdAt).toLocalDateTime().withNano(0), state.toLowerCase(), message);
+        }
+    }
+}
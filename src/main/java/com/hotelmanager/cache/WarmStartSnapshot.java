@@ -0,0 +1,323 @@
+package com.hotelmanager.cache;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.hotelmanager.dao.HotelServiceDAO;
+import com.hotelmanager.dao.ReservationDAO;
+import com.hotelmanager.dao.RoomDAO;
+import com.hotelmanager.dao.RoomTypeDAO;
+import com.hotelmanager.model.HotelService;
+import com.hotelmanager.model.ReservationRow;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.model.Room;
+import com.hotelmanager.model.RoomStatus;
+import com.hotelmanager.model.RoomType;
+import com.hotelmanager.service.HeadlineStats;
+import com.hotelmanager.service.StatsService;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Versioned binary snapshot of reference data and dashboard counters.
+ * Written after every successful sync and read back on the next launch so the
+ * main window can render before the business database has answered.
+ */
+public final class WarmStartSnapshot {
+
+    private static final int MAGIC = 0x484D5753; // "HMWS"
+    // Bump whenever the layout or an enum persisted by ordinal changes
+    private static final int VERSION = 1;
+    private static final String FILE_NAME = "hotel_manager_warmstart.bin";
+
+    // Last snapshot loaded or captured in this session - the offline read cache
+    private static volatile WarmStartSnapshot current;
+
+    private final long createdAtMillis;
+    private final int totalReservations;
+    private final int totalCustomers;
+    private final long totalRevenueCents;
+    private final List<RoomType> roomTypes;
+    private final List<Room> rooms;
+    private final List<HotelService> services;
+    private final List<ReservationRow> activeReservations;
+
+    private WarmStartSnapshot(long createdAtMillis, int totalReservations, int totalCustomers, long totalRevenueCents,
+                              List<RoomType> roomTypes, List<Room> rooms, List<HotelService> services,
+                              List<ReservationRow> activeReservations) {
+        this.createdAtMillis = createdAtMillis;
+        this.totalReservations = totalReservations;
+        this.totalCustomers = totalCustomers;
+        this.totalRevenueCents = totalRevenueCents;
+        this.roomTypes = Collections.unmodifiableList(roomTypes);
+        this.rooms = Collections.unmodifiableList(rooms);
+        this.services = Collections.unmodifiableList(services);
+        this.activeReservations = Collections.unmodifiableList(activeReservations);
+    }
+
+    /**
+     * Read current data from the business database
+     */
+    public static WarmStartSnapshot capture() throws SQLException {
+        long start = System.nanoTime();
+        HeadlineStats stats = StatsService.getInstance().refresh();
+        WarmStartSnapshot snapshot = new WarmStartSnapshot(
+            System.currentTimeMillis(),
+            stats.totalReservations(),
+            stats.totalCustomers(),
+            stats.totalRevenueCents(),
+            new RoomTypeDAO().findAll(),
+            new RoomDAO().findAll(),
+            new HotelServiceDAO().findAll(),
+            new ReservationDAO().findActiveRows());
+        current = snapshot;
+        Logger.info(String.format("Warm-start snapshot captured in %d ms", (System.nanoTime() - start) / 1_000_000));
+        return snapshot;
+    }
+
+    /**
+     * Read the snapshot file left by the previous run, or null if missing or from another version.
+     * The file is read into a heap buffer rather than mapped: a mapping stays open until the
+     * buffer is collected, and Windows refuses to replace a mapped file when save() runs.
+     */
+    public static WarmStartSnapshot load() {
+        Path path = getPath();
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                Logger.warn("Ignoring warm-start snapshot with unknown format: " + path);
+                return null;
+            }
+            WarmStartSnapshot snapshot = read(buffer);
+            current = snapshot;
+            Logger.info(String.format("Warm-start snapshot loaded in %d ms (%d rooms, %d active reservations)",
+                (System.nanoTime() - start) / 1_000_000, snapshot.rooms.size(), snapshot.activeReservations.size()));
+            return snapshot;
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            Logger.warn("Could not read warm-start snapshot: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Write to a temporary file and move it into place so a crash never leaves a torn snapshot
+     */
+    public void save() {
+        Path path = getPath();
+        Path temp = path.resolveSibling(FILE_NAME + ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                write(out);
+            }
+            try {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            Logger.warn("Could not save warm-start snapshot: " + e.getMessage());
+        }
+    }
+
+    public static WarmStartSnapshot current() {
+        return current;
+    }
+
+    private static Path getPath() {
+        return Paths.get(System.getProperty("user.dir"), FILE_NAME);
+    }
+
+    // ---- accessors ----
+
+    public long getCreatedAtMillis() {
+        return createdAtMillis;
+    }
+
+    public int getTotalRooms() {
+        return rooms.size();
+    }
+
+    public int getAvailableRooms() {
+        int available = 0;
+        for (Room room : rooms) {
+            if (room.getStatus() == RoomStatus.AVAILABLE) {
+                available++;
+            }
+        }
+        return available;
+    }
+
+    public int getTotalReservations() {
+        return totalReservations;
+    }
+
+    public int getTotalCustomers() {
+        return totalCustomers;
+    }
+
+    public long getTotalRevenueCents() {
+        return totalRevenueCents;
+    }
+
+    public List<RoomType> getRoomTypes() {
+        return roomTypes;
+    }
+
+    public List<Room> getRooms() {
+        return rooms;
+    }
+
+    public List<HotelService> getServices() {
+        return services;
+    }
+
+    public List<ReservationRow> getActiveReservations() {
+        return activeReservations;
+    }
+
+    // ---- encoding ----
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(createdAtMillis);
+        out.writeInt(totalReservations);
+        out.writeInt(totalCustomers);
+        out.writeLong(totalRevenueCents);
+
+        out.writeInt(roomTypes.size());
+        for (RoomType type : roomTypes) {
+            out.writeInt(type.getId());
+            writeString(out, type.getTypeName());
+            out.writeLong(type.getBasePriceCents());
+            out.writeInt(type.getMaxOccupancy());
+        }
+
+        out.writeInt(rooms.size());
+        for (Room room : rooms) {
+            out.writeInt(room.getId());
+            writeString(out, room.getRoomNumber());
+            out.writeInt(room.getFloor());
+            out.writeInt(room.getRoomTypeId());
+            out.writeByte(room.getStatus() != null ? room.getStatus().ordinal() : RoomStatus.AVAILABLE.ordinal());
+            writeString(out, room.getDescription());
+        }
+
+        out.writeInt(services.size());
+        for (HotelService service : services) {
+            out.writeInt(service.getId());
+            writeString(out, service.getServiceName());
+            out.writeLong(service.getPriceCents());
+            out.writeBoolean(service.isActive());
+        }
+
+        out.writeInt(activeReservations.size());
+        for (ReservationRow row : activeReservations) {
+            out.writeInt(row.id());
+            out.writeInt(row.customerId());
+            out.writeInt(row.roomId());
+            out.writeLong(row.checkInDate() != null ? row.checkInDate().toEpochDay() : Long.MIN_VALUE);
+            out.writeLong(row.checkOutDate() != null ? row.checkOutDate().toEpochDay() : Long.MIN_VALUE);
+            out.writeInt(row.numberOfGuests());
+            out.writeLong(row.totalAmountCents());
+            out.writeByte(row.status().ordinal());
+        }
+    }
+
+    private static WarmStartSnapshot read(ByteBuffer in) {
+        long createdAt = in.getLong();
+        int totalReservations = in.getInt();
+        int totalCustomers = in.getInt();
+        long totalRevenueCents = in.getLong();
+
+        int count = in.getInt();
+        List<RoomType> roomTypes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            RoomType type = new RoomType(in.getInt());
+            type.setTypeName(readString(in));
+            type.setBasePriceCents(in.getLong());
+            type.setMaxOccupancy(in.getInt());
+            roomTypes.add(type);
+        }
+
+        count = in.getInt();
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Room room = new Room(in.getInt());
+            room.setRoomNumber(readString(in));
+            room.setFloor(in.getInt());
+            room.setRoomTypeId(in.getInt());
+            room.setStatus(RoomStatus.fromOrdinal(in.get()));
+            room.setDescription(readString(in));
+            rooms.add(room);
+        }
+
+        count = in.getInt();
+        List<HotelService> services = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            HotelService service = new HotelService(in.getInt());
+            service.setServiceName(readString(in));
+            service.setPriceCents(in.getLong());
+            service.setActive(in.get() != 0);
+            services.add(service);
+        }
+
+        count = in.getInt();
+        List<ReservationRow> active = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            active.add(new ReservationRow(
+                in.getInt(),
+                in.getInt(),
+                in.getInt(),
+                readDate(in.getLong()),
+                readDate(in.getLong()),
+                in.getInt(),
+                in.getLong(),
+                ReservationStatus.fromOrdinal(in.get())));
+        }
+
+        return new WarmStartSnapshot(createdAt, totalReservations, totalCustomers, totalRevenueCents,
+            roomTypes, rooms, services, active);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static LocalDate readDate(long epochDay) {
+        return epochDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -5,19 +5,56 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.hotelmanager.cache.OfflineJournal;
+import com.hotelmanager.cache.WarmStartSnapshot;
+import com.hotelmanager.model.BaseEntity;
+import com.hotelmanager.model.DataVersion;
+import com.hotelmanager.model.Money;
 import com.hotelmanager.util.DBConnection;
 import com.hotelmanager.util.Logger;
 
 public abstract class BaseDAO<T> {
     
+    private static final int STREAM_FETCH_SIZE = 1000;
+    
     // Abstract method to get primary key column name - must be implemented by each DAO
     public abstract String getPrimaryKeyColumn();
     
     protected Connection getConnection() throws SQLException {
-        return DBConnection.getInstance().getConnection();
+        OfflineJournal journal = OfflineJournal.getInstance();
+        if (journal.isOffline()) {
+            // Fail fast instead of waiting out a connect timeout on every call
+            throw new SQLTransientConnectionException("Business database is offline", "08001");
+        }
+        try {
+            return DBConnection.getInstance().getConnection();
+        } catch (SQLException e) {
+            if (OfflineJournal.isConnectionFailure(e)) {
+                journal.markOffline(e);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Tables whose writes are journaled locally while the business database is offline
+     */
+    protected boolean isJournaled() {
+        return false;
+    }
+    
+    /**
+     * Reference data from the last warm-start snapshot while the business database is offline
+     */
+    protected static WarmStartSnapshot offlineCache() {
+        return OfflineJournal.getInstance().isOffline() ? WarmStartSnapshot.current() : null;
     }
     
     public abstract T mapResultSet(ResultSet rs) throws SQLException;
@@ -34,10 +71,14 @@ public abstract class BaseDAO<T> {
     
     public int insert(T entity) throws SQLException {
         String sql = getInsertSQL();
+        if (journal("INSERT", sql, 0, null, ps -> setInsertParameters(ps, entity))) {
+            return 0;
+        }
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql, PreparedStatement.RETURN_GENERATED_KEYS)) {
             setInsertParameters(ps, entity);
             ps.executeUpdate();
+            WriteEvents.publish(getTableName(), "INSERT");
             
             try (ResultSet rs = ps.getGeneratedKeys()) {
                 if (rs.next()) {
@@ -45,6 +86,9 @@ public abstract class BaseDAO<T> {
                 }
             }
         } catch (SQLException e) {
+            if (journalAfterFailure(e, "INSERT", sql, 0, null, ps -> setInsertParameters(ps, entity))) {
+                return 0;
+            }
             Logger.error("Error inserting into " + getTableName(), e);
             throw e;
         }
@@ -52,29 +96,63 @@ public abstract class BaseDAO<T> {
     }
     
     public boolean update(T entity) throws SQLException {
-        String sql = getUpdateSQL();
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            setUpdateParameters(ps, entity);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            Logger.error("Error updating " + getTableName(), e);
-            throw e;
-        }
+        return executeWrite("UPDATE", getUpdateSQL(), idOf(entity), versionOf(entity),
+            "Error updating " + getTableName(), ps -> setUpdateParameters(ps, entity));
     }
     
     public boolean delete(int id) throws SQLException {
         String sql = "DELETE FROM " + getTableName() + " WHERE " + getPrimaryKeyColumn() + " = ?";
+        return executeWrite("DELETE", sql, id, null, "Error deleting from " + getTableName(), ps -> ps.setInt(1, id));
+    }
+    
+    /**
+     * Run a single-row write, journaling it instead when the business database is offline
+     */
+    protected boolean executeWrite(String operation, String sql, int entityId, LocalDateTime baseVersion,
+                                   String errorMessage, OfflineJournal.StatementBinder binder) throws SQLException {
+        if (journal(operation, sql, entityId, baseVersion, binder)) {
+            return true;
+        }
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setInt(1, id);
-            return ps.executeUpdate() > 0;
+            binder.bind(ps);
+            boolean changed = ps.executeUpdate() > 0;
+            if (changed) {
+                WriteEvents.publish(getTableName(), operation);
+            }
+            return changed;
         } catch (SQLException e) {
-            Logger.error("Error deleting from " + getTableName(), e);
+            if (journalAfterFailure(e, operation, sql, entityId, baseVersion, binder)) {
+                return true;
+            }
+            Logger.error(errorMessage, e);
             throw e;
         }
     }
     
+    private boolean journal(String operation, String sql, int entityId, LocalDateTime baseVersion,
+                            OfflineJournal.StatementBinder binder) throws SQLException {
+        return isJournaled() && OfflineJournal.getInstance().appendIfOffline(
+            getTableName(), getPrimaryKeyColumn(), entityId, operation, sql, binder, baseVersion);
+    }
+    
+    private boolean journalAfterFailure(SQLException e, String operation, String sql, int entityId,
+                                        LocalDateTime baseVersion, OfflineJournal.StatementBinder binder) throws SQLException {
+        if (!isJournaled() || !OfflineJournal.isConnectionFailure(e)) {
+            return false;
+        }
+        OfflineJournal.getInstance().markOffline(e);
+        return journal(operation, sql, entityId, baseVersion, binder);
+    }
+    
+    private static int idOf(Object entity) {
+        return entity instanceof BaseEntity ? ((BaseEntity) entity).getId() : 0;
+    }
+    
+    private static LocalDateTime versionOf(Object entity) {
+        return entity instanceof BaseEntity ? ((BaseEntity) entity).getUpdatedAt() : null;
+    }
+    
     public T findById(int id) throws SQLException {
         String sql = "SELECT * FROM " + getTableName() + " WHERE " + getPrimaryKeyColumn() + " = ?";
         try (Connection conn = getConnection();
@@ -108,6 +186,68 @@ public abstract class BaseDAO<T> {
         return list;
     }
     
+    /**
+     * Rows with the given primary keys, in no particular order, e.g. one page of a paged table.
+     * Lookups by key read straight from the primary key index, where LIMIT/OFFSET paging would
+     * walk every row before the page.
+     */
+    public List<T> findByIds(int[] ids) throws SQLException {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        String sql = "SELECT * FROM " + getTableName() + " WHERE " + getPrimaryKeyColumn() + " IN (" + placeholders(ids.length) + ")";
+        return executeQuery(sql, this::mapResultSet, boxed(ids));
+    }
+    
+    /**
+     * Row count and last update of this table and the given joined tables, in one round trip.
+     * Null while a table was updated within the last second: updated_at has second precision,
+     * so a further write in the same second could leave the version unchanged.
+     */
+    public DataVersion getDataVersion(String... joinedTables) throws SQLException {
+        StringBuilder sql = new StringBuilder("SELECT UNIX_TIMESTAMP(NOW())");
+        List<String> tables = new ArrayList<>();
+        tables.add(getTableName());
+        Collections.addAll(tables, joinedTables);
+        for (String table : tables) {
+            sql.append(", (SELECT COUNT(*) FROM ").append(table)
+                .append("), (SELECT COALESCE(UNIX_TIMESTAMP(MAX(updated_at)), 0) FROM ").append(table).append(')');
+        }
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql.toString());
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            long now = rs.getLong(1);
+            List<Long> marks = new ArrayList<>();
+            for (int column = 2; column <= 1 + 2 * tables.size(); column += 2) {
+                long lastUpdate = rs.getLong(column + 1);
+                if (lastUpdate >= now - 1) {
+                    return null;
+                }
+                marks.add(rs.getLong(column));
+                marks.add(lastUpdate);
+            }
+            return new DataVersion(marks);
+        } catch (SQLException e) {
+            Logger.error("Error reading data version of " + getTableName(), e);
+            throw e;
+        }
+    }
+    
+    protected static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+    
+    protected static Object[] boxed(int[] values) {
+        Object[] boxed = new Object[values.length];
+        for (int i = 0; i < values.length; i++) {
+            boxed[i] = values[i];
+        }
+        return boxed;
+    }
+    
     public List<T> executeQuery(String sql, QueryCallback<T> callback) throws SQLException {
         List<T> list = new ArrayList<>();
         try (Connection conn = getConnection();
@@ -140,6 +280,62 @@ public abstract class BaseDAO<T> {
         return list;
     }
     
+    /**
+     * Read a DECIMAL(10, 2) column as exact cents
+     */
+    protected static long readCents(ResultSet rs, String column) throws SQLException {
+        return Money.centsOf(rs.getBigDecimal(column));
+    }
+    
+    protected static long readCents(ResultSet rs, int columnIndex) throws SQLException {
+        return Money.centsOf(rs.getBigDecimal(columnIndex));
+    }
+    
+    protected static void setCents(PreparedStatement ps, int index, long cents) throws SQLException {
+        ps.setBigDecimal(index, Money.toBigDecimal(cents));
+    }
+    
+    /**
+     * Run a query that maps to a projection type rather than the DAO entity
+     */
+    protected <R> List<R> executeRowQuery(String sql, QueryCallback<R> callback, Object... params) throws SQLException {
+        List<R> list = new ArrayList<>();
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            setParameters(ps, params);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    list.add(callback.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error executing query", e);
+            throw e;
+        }
+        return list;
+    }
+
+    /**
+     * Run a projection query and hand each row to the sink as it is read, fetched in batches
+     * so that large tables are never held as a list
+     */
+    protected <R> void streamRowQuery(String sql, QueryCallback<R> callback, Consumer<R> sink, Object... params)
+            throws SQLException {
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            setParameters(ps, params);
+            ps.setFetchSize(STREAM_FETCH_SIZE);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    sink.accept(callback.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error streaming query", e);
+            throw e;
+        }
+    }
+
     private void setParameters(PreparedStatement ps, Object... params) throws SQLException {
         if (params != null) {
             for (int i = 0; i < params.length; i++) {
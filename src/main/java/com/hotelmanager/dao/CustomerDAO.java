@@ -5,7 +5,9 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.hotelmanager.analytics.RevenueCube;
 import com.hotelmanager.model.Customer;
 import com.hotelmanager.util.Logger;
 
@@ -102,6 +104,15 @@ public class CustomerDAO extends BaseDAO<Customer> {
         ps.setInt(11, customer.getId());
     }
     
+    @Override
+    public int insert(Customer customer) throws SQLException {
+        int id = super.insert(customer);
+        if (id > 0) {
+            RevenueCube.getInstance().customerAdded(id, customer.getCountry());
+        }
+        return id;
+    }
+    
     public Customer findByIdNumber(String idNumber) throws SQLException {
         String sql = "SELECT * FROM customers WHERE id_number = ?";
         try (Connection conn = getConnection();
@@ -135,6 +146,26 @@ public class CustomerDAO extends BaseDAO<Customer> {
         });
     }
     
+    /**
+     * Hand every customer to the sink in key order without keeping them, with only the columns
+     * the customers table shows
+     */
+    public void streamListRows(Consumer<Customer> sink) throws SQLException {
+        String sql = "SELECT customer_id, first_name, last_name, email, phone, id_type, id_number "
+            + "FROM customers ORDER BY customer_id";
+        streamRowQuery(sql, rs -> {
+            Customer c = new Customer();
+            c.setId(rs.getInt("customer_id"));
+            c.setFirstName(rs.getString("first_name"));
+            c.setLastName(rs.getString("last_name"));
+            c.setEmail(rs.getString("email"));
+            c.setPhone(rs.getString("phone"));
+            c.setIdType(rs.getString("id_type"));
+            c.setIdNumber(rs.getString("id_number"));
+            return c;
+        }, sink);
+    }
+    
     /**
      * Get total count of customers
      */
@@ -0,0 +1,94 @@
+package com.hotelmanager.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.hotelmanager.cache.WarmStartSnapshot;
+import com.hotelmanager.model.HotelService;
+
+public class HotelServiceDAO extends BaseDAO<HotelService> {
+    
+    @Override
+    public HotelService mapResultSet(ResultSet rs) throws SQLException {
+        HotelService service = new HotelService();
+        service.setId(rs.getInt("service_id"));
+        service.setServiceName(rs.getString("service_name"));
+        service.setDescription(rs.getString("description"));
+        service.setPriceCents(readCents(rs, "price"));
+        service.setActive(rs.getBoolean("is_active"));
+        
+        // Safely handle nullable timestamps
+        java.sql.Timestamp createdAtTs = rs.getTimestamp("created_at");
+        if (createdAtTs != null) {
+            service.setCreatedAt(createdAtTs.toLocalDateTime());
+        }
+        
+        java.sql.Timestamp updatedAtTs = rs.getTimestamp("updated_at");
+        if (updatedAtTs != null) {
+            service.setUpdatedAt(updatedAtTs.toLocalDateTime());
+        }
+        
+        return service;
+    }
+    
+    @Override
+    public String getTableName() {
+        return "services";
+    }
+    
+    @Override
+    public String getPrimaryKeyColumn() {
+        return "service_id";
+    }
+    
+    @Override
+    public String getInsertSQL() {
+        return "INSERT INTO services (service_name, description, price, is_active) VALUES (?, ?, ?, ?)";
+    }
+    
+    @Override
+    public String getUpdateSQL() {
+        return "UPDATE services SET service_name = ?, description = ?, price = ?, is_active = ? WHERE service_id = ?";
+    }
+    
+    @Override
+    public void setInsertParameters(PreparedStatement ps, HotelService service) throws SQLException {
+        ps.setString(1, service.getServiceName());
+        ps.setString(2, service.getDescription());
+        setCents(ps, 3, service.getPriceCents());
+        ps.setBoolean(4, service.isActive());
+    }
+    
+    @Override
+    public void setUpdateParameters(PreparedStatement ps, HotelService service) throws SQLException {
+        ps.setString(1, service.getServiceName());
+        ps.setString(2, service.getDescription());
+        setCents(ps, 3, service.getPriceCents());
+        ps.setBoolean(4, service.isActive());
+        ps.setInt(5, service.getId());
+    }
+    
+    public List<HotelService> findActive() throws SQLException {
+        String sql = "SELECT * FROM services WHERE is_active = TRUE ORDER BY service_name";
+        return executeQuery(sql, this::mapResultSet);
+    }
+    
+    /**
+     * Falls back to the warm-start snapshot while the business database is offline
+     */
+    @Override
+    public List<HotelService> findAll() throws SQLException {
+        try {
+            return super.findAll();
+        } catch (SQLException e) {
+            WarmStartSnapshot cached = offlineCache();
+            if (cached == null) {
+                throw e;
+            }
+            return new ArrayList<>(cached.getServices());
+        }
+    }
+}
@@ -1,13 +1,18 @@
 package com.hotelmanager.dao;
 
 import java.sql.Connection;
-import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.hotelmanager.analytics.RevenueCube;
 import com.hotelmanager.model.Payment;
+import com.hotelmanager.model.PaymentStatus;
+import com.hotelmanager.service.DailyStatsService;
 import com.hotelmanager.util.Logger;
 
 public class PaymentDAO extends BaseDAO<Payment> {
@@ -18,7 +23,7 @@ public class PaymentDAO extends BaseDAO<Payment> {
         p.setId(rs.getInt("payment_id"));
         p.setReservationId(rs.getInt("reservation_id"));
         p.setPaymentMethod(rs.getString("payment_method"));
-        p.setAmount(rs.getDouble("amount"));
+        p.setAmountCents(readCents(rs, "amount"));
         p.setPaymentStatusCode(rs.getString("payment_status"));
         p.setTransactionId(rs.getString("transaction_id"));
         
@@ -46,6 +51,11 @@ public class PaymentDAO extends BaseDAO<Payment> {
 @Override
     public String getTableName() { return "payments"; }
     
+    @Override
+    protected boolean isJournaled() {
+        return true;
+    }
+    
     @Override
     public String getPrimaryKeyColumn() {
         return "payment_id";
@@ -65,7 +75,7 @@ public class PaymentDAO extends BaseDAO<Payment> {
     public void setInsertParameters(PreparedStatement ps, Payment p) throws SQLException {
         ps.setInt(1, p.getReservationId());
         ps.setString(2, p.getPaymentMethod());
-        ps.setDouble(3, p.getAmount());
+        setCents(ps, 3, p.getAmountCents());
         ps.setString(4, p.getPaymentStatusCode());
         ps.setString(5, p.getTransactionId());
         ps.setString(6, p.getNotes());
@@ -75,7 +85,7 @@ public class PaymentDAO extends BaseDAO<Payment> {
     public void setUpdateParameters(PreparedStatement ps, Payment p) throws SQLException {
         ps.setInt(1, p.getReservationId());
         ps.setString(2, p.getPaymentMethod());
-        ps.setDouble(3, p.getAmount());
+        setCents(ps, 3, p.getAmountCents());
         ps.setString(4, p.getPaymentStatusCode());
         ps.setString(5, p.getTransactionId());
         ps.setString(6, p.getNotes());
@@ -87,43 +97,109 @@ public class PaymentDAO extends BaseDAO<Payment> {
         return executeQuery(sql, this::mapResultSet, reservationId);
     }
     
-    public boolean updateStatus(int paymentId, String status) throws SQLException {
+    @Override
+    public int insert(Payment p) throws SQLException {
+        int id = super.insert(p);
+        // payment_date defaults to the insert time
+        DailyStatsService.getInstance().paymentDaysChanged(List.of(LocalDate.now()));
+        if (id > 0) {
+            RevenueCube.getInstance().paymentRecorded(p.getReservationId(), p.getPaymentMethod(),
+                p.getAmountCents(), p.getPaymentStatusCode());
+        }
+        return id;
+    }
+    
+    @Override
+    public boolean update(Payment p) throws SQLException {
+        boolean changed = super.update(p);
+        if (changed) {
+            DailyStatsService.getInstance().paymentChanged(p.getId());
+        }
+        return changed;
+    }
+    
+    @Override
+    public boolean delete(int id) throws SQLException {
+        DailyStatsService dailyStats = DailyStatsService.getInstance();
+        List<LocalDate> days = dailyStats.paymentDaysOf(id, false);
+        boolean changed = super.delete(id);
+        if (changed) {
+            dailyStats.paymentDaysChanged(days);
+        }
+        return changed;
+    }
+    
+    /**
+     * Set a payment's status; baseVersion is the updated_at the caller loaded the row with
+     */
+    public boolean updateStatus(int paymentId, String status, LocalDateTime baseVersion) throws SQLException {
         String sql = "UPDATE payments SET payment_status = ? WHERE payment_id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        boolean changed = executeWrite("UPDATE", sql, paymentId, baseVersion, "Error updating payment status", ps -> {
             ps.setString(1, status);
             ps.setInt(2, paymentId);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            Logger.error("Error updating payment status", e);
-            throw e;
+        });
+        if (changed) {
+            DailyStatsService.getInstance().paymentChanged(paymentId);
         }
+        return changed;
     }
     
-    public double getTotalRevenue() throws SQLException {
+    /**
+     * Exact sum of completed payments, in cents
+     */
+    public long getTotalRevenueCents() throws SQLException {
         String sql = "SELECT COALESCE(SUM(amount), 0) FROM payments WHERE payment_status = 'COMPLETED'";
         try (Connection conn = getConnection();
              PreparedStatement ps = conn.prepareStatement(sql);
              ResultSet rs = ps.executeQuery()) {
             if (rs.next()) {
-                return rs.getDouble(1);
+                return readCents(rs, 1);
             }
         }
-        return 0.0;
+        return 0L;
     }
     
-    public double getTotalRevenueByDateRange(java.time.LocalDate startDate, java.time.LocalDate endDate) throws SQLException {
-        String sql = "SELECT COALESCE(SUM(amount), 0) FROM payments WHERE payment_status = 'COMPLETED' AND payment_date BETWEEN ? AND ?";
+    /**
+     * Hand every payment to the sink in key order without keeping them, with only the columns
+     * the payments table shows
+     */
+    public void streamListRows(Consumer<Payment> sink) throws SQLException {
+        String sql = "SELECT payment_id, reservation_id, amount, payment_method, payment_status, payment_date, transaction_id "
+            + "FROM payments ORDER BY payment_id";
+        streamRowQuery(sql, this::mapListRow, sink);
+    }
+    
+    private Payment mapListRow(ResultSet rs) throws SQLException {
+        Payment p = new Payment();
+        p.setId(rs.getInt("payment_id"));
+        p.setReservationId(rs.getInt("reservation_id"));
+        p.setPaymentMethod(rs.getString("payment_method"));
+        p.setAmountCents(readCents(rs, "amount"));
+        p.setPaymentStatusCode(rs.getString("payment_status"));
+        p.setTransactionId(rs.getString("transaction_id"));
+        java.sql.Timestamp paymentDateTs = rs.getTimestamp("payment_date");
+        if (paymentDateTs != null) {
+            p.setPaymentDate(paymentDateTs.toLocalDateTime());
+        }
+        return p;
+    }
+    
+    /**
+     * Number of payments in each status, indexed by PaymentStatus ordinal
+     */
+    public int[] countByStatus() throws SQLException {
+        String sql = "SELECT payment_status, COUNT(*) FROM payments GROUP BY payment_status";
+        int[] counts = new int[PaymentStatus.values().length];
         try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
-            ps.setDate(1, Date.valueOf(startDate));
-            ps.setDate(2, Date.valueOf(endDate));
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    return rs.getDouble(1);
-                }
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                counts[PaymentStatus.fromCode(rs.getString(1)).ordinal()] += rs.getInt(2);
             }
+        } catch (SQLException e) {
+            Logger.error("Error counting payments by status", e);
+            throw e;
         }
-        return 0.0;
+        return counts;
     }
 }
@@ -5,14 +5,31 @@ import java.sql.Date;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
+import com.hotelmanager.analytics.OccupancyForecaster;
+import com.hotelmanager.analytics.RevenueCube;
 import com.hotelmanager.model.Reservation;
+import com.hotelmanager.model.ReservationListRow;
+import com.hotelmanager.model.ReservationRow;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.service.DailyStatsService;
+import com.hotelmanager.service.RoomStatusFeed;
 import com.hotelmanager.util.Logger;
 
 public class ReservationDAO extends BaseDAO<Reservation> {
     
+    private static final String LIST_ROW_SQL = "SELECT res.reservation_id, res.customer_id, res.room_id, res.check_in_date, "
+        + "res.check_out_date, res.number_of_guests, res.total_amount, res.status, "
+        + "CONCAT(c.first_name, ' ', c.last_name) AS customer_name, rm.room_number, res.updated_at "
+        + "FROM reservations res LEFT JOIN customers c ON c.customer_id = res.customer_id "
+        + "LEFT JOIN rooms rm ON rm.room_id = res.room_id";
+    
     @Override
     public Reservation mapResultSet(ResultSet rs) throws SQLException {
         Reservation res = new Reservation();
@@ -33,7 +50,7 @@ public class ReservationDAO extends BaseDAO<Reservation> {
         }
         
         res.setNumberOfGuests(rs.getInt("number_of_guests"));
-        res.setTotalAmount(rs.getDouble("total_amount"));
+        res.setTotalAmountCents(readCents(rs, "total_amount"));
         res.setStatusCode(rs.getString("status"));
         res.setNotes(rs.getString("notes"));
         
@@ -54,6 +71,11 @@ public class ReservationDAO extends BaseDAO<Reservation> {
 @Override
     public String getTableName() { return "reservations"; }
     
+    @Override
+    protected boolean isJournaled() {
+        return true;
+    }
+    
     @Override
     public String getPrimaryKeyColumn() {
         return "reservation_id";
@@ -77,7 +99,7 @@ public class ReservationDAO extends BaseDAO<Reservation> {
         ps.setDate(4, Date.valueOf(res.getCheckInDate()));
         ps.setDate(5, Date.valueOf(res.getCheckOutDate()));
         ps.setInt(6, res.getNumberOfGuests());
-        ps.setDouble(7, res.getTotalAmount());
+        setCents(ps, 7, res.getTotalAmountCents());
         ps.setString(8, res.getStatusCode());
         ps.setString(9, res.getNotes());
     }
@@ -90,23 +112,104 @@ public class ReservationDAO extends BaseDAO<Reservation> {
         ps.setDate(4, Date.valueOf(res.getCheckInDate()));
         ps.setDate(5, Date.valueOf(res.getCheckOutDate()));
         ps.setInt(6, res.getNumberOfGuests());
-        ps.setDouble(7, res.getTotalAmount());
+        setCents(ps, 7, res.getTotalAmountCents());
         ps.setString(8, res.getStatusCode());
         ps.setString(9, res.getNotes());
         ps.setInt(10, res.getId());
     }
     
-    public boolean updateStatus(int reservationId, String status) throws SQLException {
+    @Override
+    public int insert(Reservation res) throws SQLException {
+        int id = super.insert(res);
+        DailyStatsService.getInstance().staysChanged(res.getCheckInDate(), res.getCheckOutDate());
+        if (id > 0) {
+            OccupancyForecaster.getInstance().bookingChanged(null, rowOf(res, id, res.getStatus()));
+            RevenueCube.getInstance().reservationAdded(id, res.getRoomId(), res.getCustomerId(),
+                res.getCheckInDate(), res.getCheckOutDate(), res.getStatusCode());
+            RoomStatusFeed.getInstance().roomsChanged(res.getRoomId());
+        }
+        return id;
+    }
+    
+    @Override
+    public boolean update(Reservation res) throws SQLException {
+        DailyStatsService dailyStats = DailyStatsService.getInstance();
+        ReservationRow before = dailyStats.stayOf(res.getId());
+        boolean changed = super.update(res);
+        if (changed) {
+            dailyStats.staysChanged(before);
+            dailyStats.staysChanged(res.getCheckInDate(), res.getCheckOutDate());
+            forecastChanged(before, rowOf(res, res.getId(), res.getStatus()));
+            roomsChanged(before, res.getRoomId());
+        }
+        return changed;
+    }
+    
+    @Override
+    public boolean delete(int id) throws SQLException {
+        DailyStatsService dailyStats = DailyStatsService.getInstance();
+        ReservationRow before = dailyStats.stayOf(id);
+        // Payments cascade with the reservation, so their days change too
+        List<LocalDate> paymentDays = dailyStats.paymentDaysOf(id, true);
+        boolean changed = super.delete(id);
+        if (changed) {
+            dailyStats.staysChanged(before);
+            dailyStats.paymentDaysChanged(paymentDays);
+            forecastChanged(before, null);
+            roomsChanged(before, 0);
+        }
+        return changed;
+    }
+    
+    /**
+     * Set a reservation's status; baseVersion is the updated_at the caller loaded the row with,
+     * checked against the server when the write is journaled offline
+     */
+    public boolean updateStatus(int reservationId, String status, LocalDateTime baseVersion) throws SQLException {
         String sql = "UPDATE reservations SET status = ? WHERE reservation_id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        DailyStatsService dailyStats = DailyStatsService.getInstance();
+        ReservationRow before = dailyStats.stayOf(reservationId);
+        boolean changed = executeWrite("UPDATE", sql, reservationId, baseVersion, "Error updating reservation status", ps -> {
             ps.setString(1, status);
             ps.setInt(2, reservationId);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            Logger.error("Error updating reservation status", e);
-            throw e;
+        });
+        if (changed) {
+            dailyStats.staysChanged(before);
+            forecastChanged(before, before != null ? new ReservationRow(before.id(), before.customerId(),
+                before.roomId(), before.checkInDate(), before.checkOutDate(), before.numberOfGuests(),
+                before.totalAmountCents(), ReservationStatus.fromCode(status)) : null);
+            roomsChanged(before, 0);
+        }
+        return changed;
+    }
+    
+    /**
+     * Tell the room views which rooms' bookings changed: the stay's room before the write and,
+     * if it moved or is new, its room after
+     */
+    private static void roomsChanged(ReservationRow before, int roomIdAfter) {
+        int roomIdBefore = before != null ? before.roomId() : 0;
+        if (roomIdBefore > 0 && roomIdAfter > 0 && roomIdBefore != roomIdAfter) {
+            RoomStatusFeed.getInstance().roomsChanged(roomIdBefore, roomIdAfter);
+        } else if (roomIdBefore > 0 || roomIdAfter > 0) {
+            RoomStatusFeed.getInstance().roomsChanged(Math.max(roomIdBefore, roomIdAfter));
+        }
+    }
+    
+    /**
+     * Move the stay on the forecast's books; without the previous state it can only be rebuilt
+     */
+    private static void forecastChanged(ReservationRow before, ReservationRow after) {
+        if (before == null) {
+            OccupancyForecaster.getInstance().invalidate();
+            return;
         }
+        OccupancyForecaster.getInstance().bookingChanged(before, after);
+    }
+    
+    private static ReservationRow rowOf(Reservation res, int id, ReservationStatus status) {
+        return new ReservationRow(id, res.getCustomerId(), res.getRoomId(), res.getCheckInDate(),
+            res.getCheckOutDate(), res.getNumberOfGuests(), res.getTotalAmountCents(), status);
     }
     
     public boolean isRoomAvailable(int roomId, LocalDate checkIn, LocalDate checkOut) throws SQLException {
@@ -125,7 +228,7 @@ public class ReservationDAO extends BaseDAO<Reservation> {
         return false;
     }
     
-    public List<Reservation> findByStatus(com.hotelmanager.model.ReservationStatus status) throws SQLException {
+    public List<Reservation> findByStatus(ReservationStatus status) throws SQLException {
         String sql = "SELECT * FROM reservations WHERE status = ? ORDER BY created_at DESC";
         return executeQuery(sql, this::mapResultSet, status.getCode());
     }
@@ -140,6 +243,90 @@ public class ReservationDAO extends BaseDAO<Reservation> {
         return executeQuery(sql, this::mapResultSet, startDate, endDate);
     }
     
+    public List<ReservationRow> findActiveRows() throws SQLException {
+        String sql = "SELECT reservation_id, customer_id, room_id, check_in_date, check_out_date, number_of_guests, total_amount, status "
+            + "FROM reservations WHERE status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') ORDER BY check_in_date";
+        return executeRowQuery(sql, this::mapRow);
+    }
+    
+    /**
+     * Open stays that touch a day: arriving, in house or departing that day. Limited to the given
+     * rooms unless roomIds is null.
+     */
+    public List<ReservationRow> findStaysOn(LocalDate day, int[] roomIds) throws SQLException {
+        String sql = "SELECT reservation_id, customer_id, room_id, check_in_date, check_out_date, number_of_guests, total_amount, status "
+            + "FROM reservations WHERE status IN ('PENDING', 'CONFIRMED', 'CHECKED_IN') AND check_in_date <= ? AND check_out_date >= ?";
+        if (roomIds == null) {
+            return executeRowQuery(sql, this::mapRow, day, day);
+        }
+        if (roomIds.length == 0) {
+            return new ArrayList<>();
+        }
+        Object[] params = new Object[roomIds.length + 2];
+        params[0] = day;
+        params[1] = day;
+        System.arraycopy(boxed(roomIds), 0, params, 2, roomIds.length);
+        return executeRowQuery(sql + " AND room_id IN (" + placeholders(roomIds.length) + ")", this::mapRow, params);
+    }
+    
+    /**
+     * Hand every reservation as the reservations table shows it, with the customer name and room
+     * number joined in, to the sink in key order without keeping them
+     */
+    public void streamListRows(Consumer<ReservationListRow> sink) throws SQLException {
+        streamRowQuery(LIST_ROW_SQL + " ORDER BY res.reservation_id", this::mapListRow, sink);
+    }
+    
+    /**
+     * Number of reservations in each status, indexed by ReservationStatus ordinal
+     */
+    public int[] countByStatus() throws SQLException {
+        String sql = "SELECT status, COUNT(*) FROM reservations GROUP BY status";
+        int[] counts = new int[ReservationStatus.values().length];
+        try (Connection conn = getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                counts[ReservationStatus.fromCode(rs.getString(1)).ordinal()] += rs.getInt(2);
+            }
+        } catch (SQLException e) {
+            Logger.error("Error counting reservations by status", e);
+            throw e;
+        }
+        return counts;
+    }
+    
+    /**
+     * The reservations table rows with the given keys, in no particular order
+     */
+    public List<ReservationListRow> findListRowsByIds(int[] ids) throws SQLException {
+        if (ids.length == 0) {
+            return new ArrayList<>();
+        }
+        return executeRowQuery(LIST_ROW_SQL + " WHERE res.reservation_id IN (" + placeholders(ids.length) + ")",
+            this::mapListRow, boxed(ids));
+    }
+    
+    private ReservationListRow mapListRow(ResultSet rs) throws SQLException {
+        Timestamp updatedAt = rs.getTimestamp("updated_at");
+        return new ReservationListRow(mapRow(rs), rs.getString("customer_name"), rs.getString("room_number"),
+            updatedAt != null ? updatedAt.toLocalDateTime() : null);
+    }
+    
+    public ReservationRow mapRow(ResultSet rs) throws SQLException {
+        Date checkIn = rs.getDate("check_in_date");
+        Date checkOut = rs.getDate("check_out_date");
+        return new ReservationRow(
+            rs.getInt("reservation_id"),
+            rs.getInt("customer_id"),
+            rs.getInt("room_id"),
+            checkIn != null ? checkIn.toLocalDate() : null,
+            checkOut != null ? checkOut.toLocalDate() : null,
+            rs.getInt("number_of_guests"),
+            readCents(rs, "total_amount"),
+            ReservationStatus.fromCode(rs.getString("status")));
+    }
+    
     /**
      * Get total count of reservations
      */
@@ -4,10 +4,15 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 
+import com.hotelmanager.cache.WarmStartSnapshot;
 import com.hotelmanager.model.Room;
 import com.hotelmanager.model.RoomStatus;
+import com.hotelmanager.service.DailyStatsService;
+import com.hotelmanager.service.RoomStatusFeed;
 import com.hotelmanager.util.Logger;
 
 public class RoomDAO extends BaseDAO<Room> {
@@ -52,6 +57,11 @@ public class RoomDAO extends BaseDAO<Room> {
         return "rooms";
     }
     
+    @Override
+    protected boolean isJournaled() {
+        return true;
+    }
+    
     @Override
     public String getPrimaryKeyColumn() {
         return "room_id";
@@ -134,17 +144,50 @@ public class RoomDAO extends BaseDAO<Room> {
         return executeQuery(sql, this::mapResultSet);
     }
     
-    public boolean updateStatus(int roomId, RoomStatus status) throws SQLException {
+    /**
+     * Set a room's status; baseVersion is the updated_at the caller loaded the row with
+     */
+    public boolean updateStatus(int roomId, RoomStatus status, LocalDateTime baseVersion) throws SQLException {
         String sql = "UPDATE rooms SET status = ? WHERE room_id = ?";
-        try (Connection conn = getConnection();
-             PreparedStatement ps = conn.prepareStatement(sql)) {
+        boolean changed = executeWrite("UPDATE", sql, roomId, baseVersion, "Error updating room status", ps -> {
             ps.setString(1, status.getCode());
             ps.setInt(2, roomId);
-            return ps.executeUpdate() > 0;
-        } catch (SQLException e) {
-            Logger.error("Error updating room status", e);
-            throw e;
+        });
+        if (changed) {
+            RoomStatusFeed.getInstance().roomStatusChanged(roomId, status);
+        }
+        return changed;
+    }
+    
+    @Override
+    public int insert(Room room) throws SQLException {
+        int id = super.insert(room);
+        if (id > 0) {
+            RoomStatusFeed.getInstance().roomsChanged(id);
+            DailyStatsService.getInstance().inventoryChanged();
+        }
+        return id;
+    }
+    
+    @Override
+    public boolean update(Room room) throws SQLException {
+        boolean changed = super.update(room);
+        if (changed) {
+            RoomStatusFeed.getInstance().roomsChanged(room.getId());
+            // The room may have moved to another type
+            DailyStatsService.getInstance().inventoryChanged();
+        }
+        return changed;
+    }
+    
+    @Override
+    public boolean delete(int id) throws SQLException {
+        boolean changed = super.delete(id);
+        if (changed) {
+            RoomStatusFeed.getInstance().roomsChanged(id);
+            DailyStatsService.getInstance().inventoryChanged();
         }
+        return changed;
     }
     
     /**
@@ -176,4 +219,33 @@ public class RoomDAO extends BaseDAO<Room> {
         }
         return 0;
     }
+    
+    /**
+     * Falls back to the warm-start snapshot while the business database is offline
+     */
+    @Override
+    public List<Room> findAll() throws SQLException {
+        try {
+            return super.findAll();
+        } catch (SQLException e) {
+            WarmStartSnapshot cached = offlineCache();
+            if (cached == null) {
+                throw e;
+            }
+            return new ArrayList<>(cached.getRooms());
+        }
+    }
+    
+    @Override
+    public Room findById(int id) throws SQLException {
+        try {
+            return super.findById(id);
+        } catch (SQLException e) {
+            WarmStartSnapshot cached = offlineCache();
+            if (cached == null) {
+                throw e;
+            }
+            return cached.getRooms().stream().filter(room -> room.getId() == id).findFirst().orElse(null);
+        }
+    }
 }
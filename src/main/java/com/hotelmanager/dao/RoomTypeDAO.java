@@ -4,8 +4,12 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
+import com.hotelmanager.cache.WarmStartSnapshot;
 import com.hotelmanager.model.RoomType;
+import com.hotelmanager.service.DailyStatsService;
 import com.hotelmanager.util.Logger;
 
 public class RoomTypeDAO extends BaseDAO<RoomType> {
@@ -16,7 +20,7 @@ public class RoomTypeDAO extends BaseDAO<RoomType> {
         rt.setId(rs.getInt("room_type_id"));
         rt.setTypeName(rs.getString("type_name"));
         rt.setDescription(rs.getString("description"));
-        rt.setBasePrice(rs.getDouble("base_price"));
+        rt.setBasePriceCents(readCents(rs, "base_price"));
         rt.setMaxOccupancy(rs.getInt("max_occupancy"));
         rt.setAmenities(rs.getString("amenities"));
         
@@ -58,7 +62,7 @@ public class RoomTypeDAO extends BaseDAO<RoomType> {
     public void setInsertParameters(PreparedStatement ps, RoomType rt) throws SQLException {
         ps.setString(1, rt.getTypeName());
         ps.setString(2, rt.getDescription());
-        ps.setDouble(3, rt.getBasePrice());
+        setCents(ps, 3, rt.getBasePriceCents());
         ps.setInt(4, rt.getMaxOccupancy());
         ps.setString(5, rt.getAmenities());
     }
@@ -67,7 +71,7 @@ public class RoomTypeDAO extends BaseDAO<RoomType> {
     public void setUpdateParameters(PreparedStatement ps, RoomType rt) throws SQLException {
         ps.setString(1, rt.getTypeName());
         ps.setString(2, rt.getDescription());
-        ps.setDouble(3, rt.getBasePrice());
+        setCents(ps, 3, rt.getBasePriceCents());
         ps.setInt(4, rt.getMaxOccupancy());
         ps.setString(5, rt.getAmenities());
         ps.setInt(6, rt.getId());
@@ -89,4 +93,51 @@ public class RoomTypeDAO extends BaseDAO<RoomType> {
         }
         return null;
     }
+    
+    @Override
+    public int insert(RoomType rt) throws SQLException {
+        int id = super.insert(rt);
+        if (id > 0) {
+            DailyStatsService.getInstance().inventoryChanged();
+        }
+        return id;
+    }
+    
+    @Override
+    public boolean delete(int id) throws SQLException {
+        boolean changed = super.delete(id);
+        if (changed) {
+            DailyStatsService.getInstance().inventoryChanged();
+        }
+        return changed;
+    }
+    
+    /**
+     * Falls back to the warm-start snapshot while the business database is offline
+     */
+    @Override
+    public List<RoomType> findAll() throws SQLException {
+        try {
+            return super.findAll();
+        } catch (SQLException e) {
+            WarmStartSnapshot cached = offlineCache();
+            if (cached == null) {
+                throw e;
+            }
+            return new ArrayList<>(cached.getRoomTypes());
+        }
+    }
+    
+    @Override
+    public RoomType findById(int id) throws SQLException {
+        try {
+            return super.findById(id);
+        } catch (SQLException e) {
+            WarmStartSnapshot cached = offlineCache();
+            if (cached == null) {
+                throw e;
+            }
+            return cached.getRoomTypes().stream().filter(type -> type.getId() == id).findFirst().orElse(null);
+        }
+    }
 }
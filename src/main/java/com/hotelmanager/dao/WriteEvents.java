@@ -0,0 +1,35 @@
+package com.hotelmanager.dao;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Announces successful DAO writes so caches derived from the business tables can drop what
+ * they hold without the DAO layer knowing about them. Writes queued in the offline journal
+ * are not announced; the replay invalidates the caches itself.
+ */
+public final class WriteEvents {
+
+    /**
+     * Called on the writing thread after the statement changed at least one row
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void written(String table, String operation);
+    }
+
+    private static final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    private WriteEvents() {
+    }
+
+    public static void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    static void publish(String table, String operation) {
+        for (Listener listener : listeners) {
+            listener.written(table, operation);
+        }
+    }
+}
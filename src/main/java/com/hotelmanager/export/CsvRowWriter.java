@@ -0,0 +1,97 @@
+package com.hotelmanager.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import com.hotelmanager.analytics.ReportColumn;
+import com.hotelmanager.model.Money;
+
+/**
+ * RFC 4180 CSV through a buffered NIO writer; amounts are written as plain decimals. Text that a
+ * spreadsheet would read as a formula (leading =, +, -, @, tab or carriage return) is prefixed
+ * with an apostrophe, since names, emails and notes are typed in by guests and staff.
+ */
+class CsvRowWriter implements RowWriter {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final List<ReportColumn> columns;
+    private final BufferedWriter out;
+
+    CsvRowWriter(Path path, List<ReportColumn> columns) throws IOException {
+        this.columns = columns;
+        this.out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8), BUFFER_SIZE);
+        // Byte order mark so spreadsheet programs detect UTF-8
+        out.write('\uFEFF');
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeField(columns.get(i).label());
+        }
+        out.write("\r\n");
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            Object value = values[i];
+            if (value == null) {
+                continue;
+            }
+            switch (columns.get(i).kind()) {
+                case MONEY:
+                    out.write(Money.toPlainString((Long) value));
+                    break;
+                case PERCENT:
+                    out.write(((BigDecimal) value).toPlainString());
+                    break;
+                case TIMESTAMP:
+                    out.write(((LocalDateTime) value).format(TIMESTAMP_FORMAT));
+                    break;
+                case INTEGER:
+                case DATE:
+                    out.write(value.toString());
+                    break;
+                default:
+                    writeField(value.toString());
+            }
+        }
+        out.write("\r\n");
+    }
+
+    private void writeField(String text) throws IOException {
+        if (!text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\r' || c == '\n';
+        }
+        if (!quote) {
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
@@ -0,0 +1,36 @@
+package com.hotelmanager.export;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+import com.hotelmanager.analytics.ReportColumn;
+
+/**
+ * File formats an export can be written in
+ */
+public enum ExportFormat {
+
+    CSV("csv", "CSV file (*.csv)"),
+    XLSX("xlsx", "Excel workbook (*.xlsx)");
+
+    private final String extension;
+    private final String description;
+
+    ExportFormat(String extension, String description) {
+        this.extension = extension;
+        this.description = description;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public RowWriter open(Path path, List<ReportColumn> columns) throws IOException {
+        return this == XLSX ? new XlsxRowWriter(path, columns) : new CsvRowWriter(path, columns);
+    }
+}
@@ -0,0 +1,98 @@
+package com.hotelmanager.export;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import com.hotelmanager.analytics.ReportCache;
+import com.hotelmanager.analytics.ReportColumn;
+import com.hotelmanager.analytics.ReportEngine;
+import com.hotelmanager.analytics.ReportRun;
+import com.hotelmanager.analytics.ServerReport;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Streams database cursors into export files one row at a time, so memory stays flat
+ * whatever the table size. Runs on the caller's thread; interrupting it stops the export
+ * and removes the partial file.
+ */
+public final class Exporter {
+
+    private static final int PROGRESS_INTERVAL = 1000;
+
+    private static final ReportEngine engine = new ReportEngine();
+
+    @FunctionalInterface
+    public interface Progress {
+        void rowsWritten(long rows);
+    }
+
+    @FunctionalInterface
+    private interface Body {
+        long write(ReportEngine.RowSink sink) throws Exception;
+    }
+
+    private Exporter() {
+    }
+
+    public static long countRows(TableExport table) throws Exception {
+        return engine.count(table.getCountSql());
+    }
+
+    public static long exportTable(TableExport table, Path path, ExportFormat format, Progress progress) throws Exception {
+        return export(path, format, table.getColumns(), progress,
+            sink -> engine.stream(table.getSql(), false, table.getColumns(), ps -> { }, sink));
+    }
+
+    public static long exportReport(ServerReport report, LocalDate from, LocalDate to, String requestedBy, Path path,
+                                    ExportFormat format, Progress progress) throws Exception {
+        return export(path, format, report.getColumns(), progress, sink -> {
+            ReportRun run = ReportCache.getInstance().run(report, from, to, requestedBy, sink);
+            return run.rowCount();
+        });
+    }
+
+    /**
+     * Export rows that are already in memory, e.g. a small summary report
+     */
+    public static long exportRows(List<ReportColumn> columns, List<Object[]> rows, Path path, ExportFormat format,
+                                  Progress progress) throws Exception {
+        return export(path, format, columns, progress, sink -> {
+            for (Object[] row : rows) {
+                sink.accept(row);
+            }
+            return rows.size();
+        });
+    }
+
+    private static long export(Path path, ExportFormat format, List<ReportColumn> columns, Progress progress,
+                               Body body) throws Exception {
+        long start = System.nanoTime();
+        long rows;
+        try (RowWriter writer = format.open(path, columns)) {
+            long[] written = new long[1];
+            rows = body.write(row -> {
+                writer.writeRow(row);
+                if (++written[0] % PROGRESS_INTERVAL == 0) {
+                    progress.rowsWritten(written[0]);
+                }
+            });
+        } catch (Exception e) {
+            deletePartial(path);
+            throw e;
+        }
+        progress.rowsWritten(rows);
+        Logger.info(String.format("Exported %d rows to %s in %d ms", rows, path, (System.nanoTime() - start) / 1_000_000));
+        return rows;
+    }
+
+    private static void deletePartial(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            Logger.warn("Could not remove partial export " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.hotelmanager.export;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Streaming sink for typed rows - the header is written when the writer is opened
+ */
+public interface RowWriter extends Closeable {
+
+    void writeRow(Object[] values) throws IOException;
+}
@@ -0,0 +1,67 @@
+package com.hotelmanager.export;
+
+import java.util.List;
+
+import com.hotelmanager.analytics.ReportColumn;
+
+/**
+ * Full-table exports behind the table panels. Lookups (room type, customer name, room number)
+ * are joined server side instead of being resolved row by row.
+ */
+public enum TableExport {
+
+    ROOMS("rooms",
+        "SELECT r.room_id, r.room_number, r.floor, rt.type_name, r.status, rt.base_price, r.description "
+            + "FROM rooms r JOIN room_types rt ON rt.room_type_id = r.room_type_id ORDER BY r.room_number",
+        List.of(ReportColumn.integer("ID"), ReportColumn.text("Room Number"), ReportColumn.integer("Floor"),
+            ReportColumn.text("Room Type"), ReportColumn.text("Status"), ReportColumn.money("Price per Night"),
+            ReportColumn.text("Description"))),
+
+    RESERVATIONS("reservations",
+        "SELECT res.reservation_id, CONCAT(c.first_name, ' ', c.last_name), rm.room_number, res.check_in_date, "
+            + "res.check_out_date, res.number_of_guests, res.total_amount, res.status "
+            + "FROM reservations res JOIN customers c ON c.customer_id = res.customer_id "
+            + "JOIN rooms rm ON rm.room_id = res.room_id ORDER BY res.reservation_id",
+        List.of(ReportColumn.integer("ID"), ReportColumn.text("Customer"), ReportColumn.text("Room"),
+            ReportColumn.date("Check In"), ReportColumn.date("Check Out"), ReportColumn.integer("Guests"),
+            ReportColumn.money("Total"), ReportColumn.text("Status"))),
+
+    CUSTOMERS("customers",
+        "SELECT customer_id, first_name, last_name, email, phone, id_type, id_number FROM customers ORDER BY customer_id",
+        List.of(ReportColumn.integer("ID"), ReportColumn.text("First Name"), ReportColumn.text("Last Name"),
+            ReportColumn.text("Email"), ReportColumn.text("Phone"), ReportColumn.text("ID Type"),
+            ReportColumn.text("ID Number"))),
+
+    PAYMENTS("payments",
+        "SELECT payment_id, reservation_id, amount, payment_method, payment_status, payment_date, transaction_id "
+            + "FROM payments ORDER BY payment_id",
+        List.of(ReportColumn.integer("ID"), ReportColumn.integer("Reservation"), ReportColumn.money("Amount"),
+            ReportColumn.text("Method"), ReportColumn.text("Status"), ReportColumn.timestamp("Date"),
+            ReportColumn.text("Transaction ID")));
+
+    private final String tableName;
+    private final String sql;
+    private final List<ReportColumn> columns;
+
+    TableExport(String tableName, String sql, List<ReportColumn> columns) {
+        this.tableName = tableName;
+        this.sql = sql;
+        this.columns = columns;
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public String getCountSql() {
+        return "SELECT COUNT(*) FROM " + tableName;
+    }
+
+    public List<ReportColumn> getColumns() {
+        return columns;
+    }
+}
@@ -0,0 +1,224 @@
+package com.hotelmanager.export;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import com.hotelmanager.analytics.ReportColumn;
+import com.hotelmanager.model.Money;
+
+/**
+ * Minimal SpreadsheetML writer that streams rows straight into the zipped sheet XML,
+ * so memory use does not depend on the row count. Inline strings avoid a shared-string
+ * table; a new sheet is started when one reaches Excel's row limit.
+ */
+class XlsxRowWriter implements RowWriter {
+
+    private static final int MAX_ROWS_PER_SHEET = 1_048_576;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Day 0 of the 1900 date system as Excel counts it
+    private static final long EXCEL_EPOCH_DAY = LocalDate.of(1899, 12, 30).toEpochDay();
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String PKG_REL_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+    // Indexes into cellXfs of styles.xml
+    private static final int STYLE_HEADER = 1;
+    private static final int STYLE_MONEY = 2;
+    private static final int STYLE_DATE = 3;
+    private static final int STYLE_TIMESTAMP = 4;
+
+    private final List<ReportColumn> columns;
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private int sheetCount;
+    private int rowsInSheet;
+
+    XlsxRowWriter(Path path, List<ReportColumn> columns) throws IOException {
+        this.columns = columns;
+        this.zip = new ZipOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), BUFFER_SIZE);
+        startSheet();
+    }
+
+    @Override
+    public void writeRow(Object[] values) throws IOException {
+        if (rowsInSheet == MAX_ROWS_PER_SHEET) {
+            endSheet();
+            startSheet();
+        }
+        out.write("<row>");
+        for (int i = 0; i < values.length; i++) {
+            writeCell(columns.get(i).kind(), values[i]);
+        }
+        out.write("</row>\n");
+        rowsInSheet++;
+    }
+
+    private void writeCell(ReportColumn.Kind kind, Object value) throws IOException {
+        if (value == null) {
+            out.write("<c/>");
+            return;
+        }
+        switch (kind) {
+            case INTEGER:
+                writeNumber(value.toString(), 0);
+                break;
+            case MONEY:
+                writeNumber(Money.toPlainString((Long) value), STYLE_MONEY);
+                break;
+            case PERCENT:
+                writeNumber(((BigDecimal) value).toPlainString(), 0);
+                break;
+            case DATE:
+                writeNumber(Long.toString(((LocalDate) value).toEpochDay() - EXCEL_EPOCH_DAY), STYLE_DATE);
+                break;
+            case TIMESTAMP: {
+                LocalDateTime time = (LocalDateTime) value;
+                double serial = time.toLocalDate().toEpochDay() - EXCEL_EPOCH_DAY
+                    + time.toLocalTime().toSecondOfDay() / 86_400.0;
+                writeNumber(Double.toString(serial), STYLE_TIMESTAMP);
+                break;
+            }
+            default:
+                writeText(value.toString(), 0);
+        }
+    }
+
+    private void writeNumber(String number, int style) throws IOException {
+        out.write(style != 0 ? "<c s=\"" + style + "\"><v>" : "<c><v>");
+        out.write(number);
+        out.write("</v></c>");
+    }
+
+    private void writeText(String text, int style) throws IOException {
+        out.write(style != 0 ? "<c t=\"inlineStr\" s=\"" + style + "\"><is><t xml:space=\"preserve\">"
+            : "<c t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+        escape(text);
+        out.write("</t></is></c>");
+    }
+
+    private void escape(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '&': out.write("&amp;"); break;
+                case '<': out.write("&lt;"); break;
+                case '>': out.write("&gt;"); break;
+                case '"': out.write("&quot;"); break;
+                default:
+                    // Control characters other than tab and newlines are not allowed in XML 1.0
+                    if (c >= 0x20 || c == '\t' || c == '\n' || c == '\r') {
+                        out.write(c);
+                    }
+            }
+        }
+    }
+
+    private void startSheet() throws IOException {
+        sheetCount++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        out.write(XML_HEADER);
+        out.write("<worksheet xmlns=\"" + MAIN_NS + "\"><sheetViews><sheetView workbookViewId=\"0\">"
+            + "<pane ySplit=\"1\" topLeftCell=\"A2\" activePane=\"bottomLeft\" state=\"frozen\"/>"
+            + "</sheetView></sheetViews><sheetData>\n");
+        out.write("<row>");
+        for (ReportColumn column : columns) {
+            writeText(column.label(), STYLE_HEADER);
+        }
+        out.write("</row>\n");
+        rowsInSheet = 1;
+    }
+
+    private void endSheet() throws IOException {
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            endSheet();
+            writeEntry("[Content_Types].xml", contentTypes());
+            writeEntry("_rels/.rels", "<Relationships xmlns=\"" + PKG_REL_NS + "\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+            writeEntry("xl/workbook.xml", workbook());
+            writeEntry("xl/_rels/workbook.xml.rels", workbookRels());
+            writeEntry("xl/styles.xml", STYLES);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeEntry(String name, String xml) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(XML_HEADER);
+        out.write(xml);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private String contentTypes() {
+        StringBuilder xml = new StringBuilder("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+            + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+            + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+            + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+            + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+        return xml.append("</Types>").toString();
+    }
+
+    private String workbook() {
+        StringBuilder xml = new StringBuilder("<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<sheet name=\"Sheet").append(i).append("\" sheetId=\"").append(i)
+                .append("\" r:id=\"rId").append(i).append("\"/>");
+        }
+        return xml.append("</sheets></workbook>").toString();
+    }
+
+    private String workbookRels() {
+        StringBuilder xml = new StringBuilder("<Relationships xmlns=\"" + PKG_REL_NS + "\">");
+        for (int i = 1; i <= sheetCount; i++) {
+            xml.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+        }
+        xml.append("<Relationship Id=\"rId").append(sheetCount + 1).append("\" Type=\"").append(REL_NS)
+            .append("/styles\" Target=\"styles.xml\"/>");
+        return xml.append("</Relationships>").toString();
+    }
+
+    private static final String STYLES = "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+        + "<numFmts count=\"1\"><numFmt numFmtId=\"164\" formatCode=\"yyyy-mm-dd hh:mm:ss\"/></numFmts>"
+        + "<fonts count=\"2\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font>"
+        + "<font><b/><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+        + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill>"
+        + "<fill><patternFill patternType=\"gray125\"/></fill></fills>"
+        + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+        + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+        + "<cellXfs count=\"5\">"
+        + "<xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>"
+        + "<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/>"
+        + "<xf numFmtId=\"4\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+        + "<xf numFmtId=\"14\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+        + "<xf numFmtId=\"164\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyNumberFormat=\"1\"/>"
+        + "</cellXfs></styleSheet>";
+}
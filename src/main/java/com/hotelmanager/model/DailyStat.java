@@ -0,0 +1,38 @@
+package com.hotelmanager.model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the daily_stats fact table, or a range total when date is null.
+ * ADR and RevPAR are derived so totals over a range stay exact.
+ */
+public record DailyStat(
+        LocalDate date,
+        int roomTypeId,
+        int roomsAvailable,
+        int roomsSold,
+        long roomRevenueCents,
+        long paymentsCents) {
+
+    /**
+     * Average daily rate - revenue per sold room night
+     */
+    public long adrCents() {
+        return divideRounded(roomRevenueCents, roomsSold);
+    }
+
+    /**
+     * Revenue per available room night
+     */
+    public long revparCents() {
+        return divideRounded(roomRevenueCents, roomsAvailable);
+    }
+
+    public double occupancyRate() {
+        return roomsAvailable > 0 ? roomsSold * 100.0 / roomsAvailable : 0;
+    }
+
+    private static long divideRounded(long cents, long divisor) {
+        return divisor > 0 ? Math.floorDiv(cents + divisor / 2, divisor) : 0L;
+    }
+}
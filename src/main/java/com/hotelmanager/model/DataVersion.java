@@ -0,0 +1,10 @@
+package com.hotelmanager.model;
+
+import java.util.List;
+
+/**
+ * Row count and last update (epoch second) of each table a view reads, in a fixed order.
+ * Equal versions mean the view would show the same data, so it need not be reloaded.
+ */
+public record DataVersion(List<Long> marks) {
+}
@@ -6,7 +6,7 @@ package com.hotelmanager.model;
 public class HotelService extends BaseEntity {
     private String serviceName;
     private String description;
-    private double price;
+    private long priceCents;
     private boolean isActive;
 
     public HotelService() {
@@ -35,12 +35,20 @@ public class HotelService extends BaseEntity {
         this.description = description;
     }
 
-    public double getPrice() {
-        return price;
+    public Money getPrice() {
+        return Money.ofCents(priceCents);
     }
 
-    public void setPrice(double price) {
-        this.price = price;
+    public void setPrice(Money price) {
+        this.priceCents = price != null ? price.getCents() : 0L;
+    }
+
+    public long getPriceCents() {
+        return priceCents;
+    }
+
+    public void setPriceCents(long priceCents) {
+        this.priceCents = priceCents;
     }
 
     public boolean isActive() {
@@ -53,6 +61,6 @@ public class HotelService extends BaseEntity {
 
     @Override
     public String toString() {
-        return serviceName + " ($" + price + ")";
+        return serviceName + " (" + Money.format(priceCents) + ")";
     }
 }
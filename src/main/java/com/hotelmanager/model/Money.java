@@ -0,0 +1,133 @@
+package com.hotelmanager.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money value stored as a long number of cents.
+ * Matches the DECIMAL(10, 2) amount columns exactly; the static helpers work
+ * on raw cents so hot loops can add and sum without allocating.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final int SCALE = 2;
+    public static final Money ZERO = new Money(0L);
+
+    private final long cents;
+
+    private Money(long cents) {
+        this.cents = cents;
+    }
+
+    public static Money ofCents(long cents) {
+        return cents == 0L ? ZERO : new Money(cents);
+    }
+
+    public static Money of(BigDecimal amount) {
+        return ofCents(centsOf(amount));
+    }
+
+    public long getCents() {
+        return cents;
+    }
+
+    public Money plus(Money other) {
+        return ofCents(add(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return toBigDecimal(cents);
+    }
+
+    /**
+     * Approximate value for display math (percentages, charts) only
+     */
+    public double toDouble() {
+        return toDouble(cents);
+    }
+
+    // ---- allocation-free helpers over raw cents ----
+
+    public static long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    public static long sum(long[] cents) {
+        return sum(cents, 0, cents.length);
+    }
+
+    public static long sum(long[] cents, int from, int to) {
+        long total = 0L;
+        for (int i = from; i < to; i++) {
+            total = Math.addExact(total, cents[i]);
+        }
+        return total;
+    }
+
+    /**
+     * Convert a DECIMAL amount to cents, rounding half-up beyond two places
+     */
+    public static long centsOf(BigDecimal amount) {
+        if (amount == null) {
+            return 0L;
+        }
+        return amount.setScale(SCALE, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long cents) {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public static double toDouble(long cents) {
+        return cents / 100.0;
+    }
+
+    /**
+     * Parse user input such as "120", "120.5" or "1,250.00" into cents
+     */
+    public static long parseCents(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new NumberFormatException("Amount is required");
+        }
+        String cleaned = text.trim().replace(",", "").replace("$", "");
+        return centsOf(new BigDecimal(cleaned));
+    }
+
+    /**
+     * Plain form for edit fields, e.g. "1250.00"
+     */
+    public static String toPlainString(long cents) {
+        return toBigDecimal(cents).toPlainString();
+    }
+
+    /**
+     * Display form with grouping, e.g. "$1,250.00"
+     */
+    public static String format(long cents) {
+        return String.format("$%,.2f", toBigDecimal(cents));
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return obj instanceof Money && ((Money) obj).cents == cents;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(cents);
+    }
+
+    @Override
+    public String toString() {
+        return format(cents);
+    }
+}
@@ -8,7 +8,7 @@ import java.time.LocalDateTime;
 public class Payment extends BaseEntity {
     private int reservationId;
     private String paymentMethod;
-    private double amount;
+    private long amountCents;
     private PaymentStatus paymentStatus;
     private String transactionId;
     private LocalDateTime paymentDate;
@@ -42,12 +42,20 @@ public class Payment extends BaseEntity {
         this.paymentMethod = paymentMethod;
     }
 
-    public double getAmount() {
-        return amount;
+    public Money getAmount() {
+        return Money.ofCents(amountCents);
     }
 
-    public void setAmount(double amount) {
-        this.amount = amount;
+    public void setAmount(Money amount) {
+        this.amountCents = amount != null ? amount.getCents() : 0L;
+    }
+
+    public long getAmountCents() {
+        return amountCents;
+    }
+
+    public void setAmountCents(long amountCents) {
+        this.amountCents = amountCents;
     }
 
     public PaymentStatus getPaymentStatus() {
@@ -92,6 +100,6 @@ public class Payment extends BaseEntity {
 
     @Override
     public String toString() {
-        return "Payment #" + id + " - $" + amount + " (" + (paymentStatus != null ? paymentStatus.getDisplayName() : "N/A") + ")";
+        return "Payment #" + id + " - " + Money.format(amountCents) + " (" + (paymentStatus != null ? paymentStatus.getDisplayName() : "N/A") + ")";
     }
 }
@@ -1,5 +1,7 @@
 package com.hotelmanager.model;
 
+import java.util.Locale;
+
 /**
  * Enum representing payment status
  */
@@ -9,6 +11,8 @@ public enum PaymentStatus {
     FAILED("FAILED", "Failed"),
     REFUNDED("REFUNDED", "Refunded");
 
+    private static final PaymentStatus[] VALUES = values();
+
     private final String code;
     private final String displayName;
 
@@ -25,13 +29,31 @@ public enum PaymentStatus {
         return displayName;
     }
 
+    /**
+     * Resolve a status by its ordinal, e.g. from a byte-packed column
+     */
+    public static PaymentStatus fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : PENDING;
+    }
+
     public static PaymentStatus fromCode(String code) {
-        for (PaymentStatus status : values()) {
-            if (status.code.equalsIgnoreCase(code)) {
-                return status;
-            }
+        if (code == null) {
+            return PENDING;
+        }
+        PaymentStatus status = lookup(code);
+        if (status == null) {
+            status = lookup(code.toUpperCase(Locale.ROOT));
         }
-        return PENDING;
+        return status != null ? status : PENDING;
     }
-}
 
+    private static PaymentStatus lookup(String code) {
+        switch (code) {
+            case "PENDING": return PENDING;
+            case "COMPLETED": return COMPLETED;
+            case "FAILED": return FAILED;
+            case "REFUNDED": return REFUNDED;
+            default: return null;
+        }
+    }
+}
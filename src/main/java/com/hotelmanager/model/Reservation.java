@@ -1,23 +1,20 @@
 package com.hotelmanager.model;
 
 import java.time.LocalDate;
-import java.time.LocalDateTime;
 
 /**
  * Reservation entity representing hotel bookings
  */
 public class Reservation extends BaseEntity {
-    private Customer customer;
-    private Room room;
-    private User user;
+    private int customerId;
+    private int roomId;
+    private int userId;
     private LocalDate checkInDate;
     private LocalDate checkOutDate;
     private int numberOfGuests;
-    private double totalAmount;
+    private long totalAmountCents;
     private ReservationStatus status;
     private String notes;
-    private LocalDateTime createdAt;
-    private LocalDateTime updatedAt;
 
     public Reservation() {
         super();
@@ -30,61 +27,28 @@ public class Reservation extends BaseEntity {
         this.status = ReservationStatus.PENDING;
     }
 
-    public Customer getCustomer() {
-        return customer;
-    }
-
-    public void setCustomer(Customer customer) {
-        this.customer = customer;
-    }
-
     public void setCustomerId(int customerId) {
-        if (this.customer == null) {
-            this.customer = new Customer();
-        }
-        this.customer.setId(customerId);
+        this.customerId = customerId;
     }
 
     public int getCustomerId() {
-        return customer != null ? customer.getId() : 0;
-    }
-
-    public Room getRoom() {
-        return room;
-    }
-
-    public void setRoom(Room room) {
-        this.room = room;
+        return customerId;
     }
 
     public void setRoomId(int roomId) {
-        if (this.room == null) {
-            this.room = new Room();
-        }
-        this.room.setId(roomId);
+        this.roomId = roomId;
     }
 
     public int getRoomId() {
-        return room != null ? room.getId() : 0;
-    }
-
-    public User getUser() {
-        return user;
-    }
-
-    public void setUser(User user) {
-        this.user = user;
+        return roomId;
     }
 
     public void setUserId(int userId) {
-        if (this.user == null) {
-            this.user = new User();
-        }
-        this.user.setId(userId);
+        this.userId = userId;
     }
 
     public int getUserId() {
-        return user != null ? user.getId() : 0;
+        return userId;
     }
 
     public LocalDate getCheckInDate() {
@@ -111,12 +75,20 @@ public class Reservation extends BaseEntity {
         this.numberOfGuests = numberOfGuests;
     }
 
-    public double getTotalAmount() {
-        return totalAmount;
+    public Money getTotalAmount() {
+        return Money.ofCents(totalAmountCents);
+    }
+
+    public void setTotalAmount(Money totalAmount) {
+        this.totalAmountCents = totalAmount != null ? totalAmount.getCents() : 0L;
+    }
+
+    public long getTotalAmountCents() {
+        return totalAmountCents;
     }
 
-    public void setTotalAmount(double totalAmount) {
-        this.totalAmount = totalAmount;
+    public void setTotalAmountCents(long totalAmountCents) {
+        this.totalAmountCents = totalAmountCents;
     }
 
     public ReservationStatus getStatus() {
@@ -152,6 +124,6 @@ public class Reservation extends BaseEntity {
 
     @Override
     public String toString() {
-        return "Reservation #" + id + " - " + (customer != null ? customer.getFullName() : "N/A");
+        return "Reservation #" + id + " - Customer #" + customerId;
     }
 }
@@ -0,0 +1,14 @@
+package com.hotelmanager.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * A reservation as the reservations table shows it: the row plus the customer name and room
+ * number, null when the customer or room no longer exists, and the row version edits start from.
+ */
+public record ReservationListRow(
+        ReservationRow reservation,
+        String customerName,
+        String roomNumber,
+        LocalDateTime updatedAt) {
+}
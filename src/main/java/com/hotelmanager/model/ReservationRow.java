@@ -0,0 +1,26 @@
+package com.hotelmanager.model;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Immutable read-only projection of a reservation row for list and report paths.
+ * Holds only primitive keys and the columns the tables actually display.
+ */
+public record ReservationRow(
+        int id,
+        int customerId,
+        int roomId,
+        LocalDate checkInDate,
+        LocalDate checkOutDate,
+        int numberOfGuests,
+        long totalAmountCents,
+        ReservationStatus status) {
+
+    public long numberOfNights() {
+        if (checkInDate != null && checkOutDate != null) {
+            return ChronoUnit.DAYS.between(checkInDate, checkOutDate);
+        }
+        return 0;
+    }
+}
@@ -1,5 +1,7 @@
 package com.hotelmanager.model;
 
+import java.util.Locale;
+
 /**
  * Enum representing reservation status
  */
@@ -10,6 +12,8 @@ public enum ReservationStatus {
     CHECKED_OUT("CHECKED_OUT", "Checked Out"),
     CANCELLED("CANCELLED", "Cancelled");
 
+    private static final ReservationStatus[] VALUES = values();
+
     private final String code;
     private final String displayName;
 
@@ -26,13 +30,32 @@ public enum ReservationStatus {
         return displayName;
     }
 
+    /**
+     * Resolve a status by its ordinal, e.g. from a byte-packed column
+     */
+    public static ReservationStatus fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : PENDING;
+    }
+
     public static ReservationStatus fromCode(String code) {
-        for (ReservationStatus status : values()) {
-            if (status.code.equalsIgnoreCase(code)) {
-                return status;
-            }
+        if (code == null) {
+            return PENDING;
+        }
+        ReservationStatus status = lookup(code);
+        if (status == null) {
+            status = lookup(code.toUpperCase(Locale.ROOT));
         }
-        return PENDING;
+        return status != null ? status : PENDING;
     }
-}
 
+    private static ReservationStatus lookup(String code) {
+        switch (code) {
+            case "PENDING": return PENDING;
+            case "CONFIRMED": return CONFIRMED;
+            case "CHECKED_IN": return CHECKED_IN;
+            case "CHECKED_OUT": return CHECKED_OUT;
+            case "CANCELLED": return CANCELLED;
+            default: return null;
+        }
+    }
+}
@@ -6,7 +6,7 @@ package com.hotelmanager.model;
 public class Room extends BaseEntity {
     private String roomNumber;
     private int floor;
-    private RoomType roomType;
+    private int roomTypeId;
     private RoomStatus status;
     private String description;
     private double price;
@@ -37,23 +37,12 @@ public class Room extends BaseEntity {
         this.floor = floor;
     }
 
-    public RoomType getRoomType() {
-        return roomType;
-    }
-
-    public void setRoomType(RoomType roomType) {
-        this.roomType = roomType;
-    }
-
     public void setRoomTypeId(int roomTypeId) {
-        if (this.roomType == null) {
-            this.roomType = new RoomType();
-        }
-        this.roomType.setId(roomTypeId);
+        this.roomTypeId = roomTypeId;
     }
 
     public int getRoomTypeId() {
-        return roomType != null ? roomType.getId() : 0;
+        return roomTypeId;
     }
 
     public RoomStatus getStatus() {
@@ -90,6 +79,6 @@ public class Room extends BaseEntity {
 
     @Override
     public String toString() {
-        return "Room " + roomNumber + " (" + (roomType != null ? roomType.getTypeName() : "N/A") + ")";
+        return "Room " + roomNumber + " (Type #" + roomTypeId + ")";
     }
 }
@@ -1,5 +1,7 @@
 package com.hotelmanager.model;
 
+import java.util.Locale;
+
 /**
  * Enum representing room status
  */
@@ -9,6 +11,8 @@ public enum RoomStatus {
     MAINTENANCE("MAINTENANCE", "Under Maintenance"),
     CLEANING("CLEANING", "Being Cleaned");
 
+    private static final RoomStatus[] VALUES = values();
+
     private final String code;
     private final String displayName;
 
@@ -25,13 +29,31 @@ public enum RoomStatus {
         return displayName;
     }
 
+    /**
+     * Resolve a status by its ordinal, e.g. from a byte-packed column
+     */
+    public static RoomStatus fromOrdinal(int ordinal) {
+        return ordinal >= 0 && ordinal < VALUES.length ? VALUES[ordinal] : AVAILABLE;
+    }
+
     public static RoomStatus fromCode(String code) {
-        for (RoomStatus status : values()) {
-            if (status.code.equalsIgnoreCase(code)) {
-                return status;
-            }
+        if (code == null) {
+            return AVAILABLE;
+        }
+        RoomStatus status = lookup(code);
+        if (status == null) {
+            status = lookup(code.toUpperCase(Locale.ROOT));
         }
-        return AVAILABLE;
+        return status != null ? status : AVAILABLE;
     }
-}
 
+    private static RoomStatus lookup(String code) {
+        switch (code) {
+            case "AVAILABLE": return AVAILABLE;
+            case "OCCUPIED": return OCCUPIED;
+            case "MAINTENANCE": return MAINTENANCE;
+            case "CLEANING": return CLEANING;
+            default: return null;
+        }
+    }
+}
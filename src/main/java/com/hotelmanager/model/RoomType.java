@@ -6,14 +6,14 @@ package com.hotelmanager.model;
 public class RoomType extends BaseEntity {
     private String typeName;
     private String description;
-    private double basePrice;
+    private long basePriceCents;
     private int maxOccupancy;
     private String amenities;
 
     public RoomType() {
         super();
         this.maxOccupancy = 2;
-        this.basePrice = 0.0;
+        this.basePriceCents = 0L;
     }
 
     public RoomType(int id) {
@@ -36,12 +36,20 @@ public class RoomType extends BaseEntity {
         this.description = description;
     }
 
-    public double getBasePrice() {
-        return basePrice;
+    public Money getBasePrice() {
+        return Money.ofCents(basePriceCents);
     }
 
-    public void setBasePrice(double basePrice) {
-        this.basePrice = basePrice;
+    public void setBasePrice(Money basePrice) {
+        this.basePriceCents = basePrice != null ? basePrice.getCents() : 0L;
+    }
+
+    public long getBasePriceCents() {
+        return basePriceCents;
+    }
+
+    public void setBasePriceCents(long basePriceCents) {
+        this.basePriceCents = basePriceCents;
     }
 
     public int getMaxOccupancy() {
@@ -62,6 +70,6 @@ public class RoomType extends BaseEntity {
 
     @Override
     public String toString() {
-        return typeName + " ($" + basePrice + ")";
+        return typeName + " (" + Money.format(basePriceCents) + ")";
     }
 }
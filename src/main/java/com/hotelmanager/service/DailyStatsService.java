@@ -0,0 +1,498 @@
+package com.hotelmanager.service;
+
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import com.hotelmanager.cache.OfflineJournal;
+import com.hotelmanager.model.DailyStat;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.model.ReservationRow;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Maintains the daily_stats fact table - one row per night and room type.
+ * Writes to reservations and payments queue the nights they touch, writes to the room
+ * inventory queue the nights from today on, and a background
+ * thread recomputes them with overlapping ranges merged, so the write itself never waits
+ * for the recompute; the backfill walks history in fixed-size chunks. Range reports then
+ * read O(days) pre-aggregated rows instead of scanning reservations.
+ */
+public class DailyStatsService {
+
+    private static DailyStatsService instance;
+
+    private static final int BACKFILL_CHUNK_DAYS = 31;
+    private static final int FETCH_SIZE = 1000;
+
+    private static final String OCCUPYING_STATUSES = "('CONFIRMED', 'CHECKED_IN', 'CHECKED_OUT')";
+
+    private static final String UPSERT_SQL =
+        "INSERT INTO daily_stats (stat_date, room_type_id, rooms_available, rooms_sold, room_revenue, adr, revpar, payments_collected) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?) "
+        + "ON DUPLICATE KEY UPDATE rooms_available = VALUES(rooms_available), rooms_sold = VALUES(rooms_sold), "
+        + "room_revenue = VALUES(room_revenue), adr = VALUES(adr), revpar = VALUES(revpar), "
+        + "payments_collected = VALUES(payments_collected)";
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+
+    // Nights waiting for a recompute, as disjoint [start, end) ranges keyed by start
+    private final TreeMap<LocalDate, LocalDate> pending = new TreeMap<>();
+    private boolean drainScheduled;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "daily-stats");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public static DailyStatsService getInstance() {
+        if (instance == null) {
+            synchronized (DailyStatsService.class) {
+                if (instance == null) {
+                    instance = new DailyStatsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    // ---- incremental maintenance ----
+
+    /**
+     * Queue the nights of a stay after a reservation write
+     */
+    public void staysChanged(LocalDate checkIn, LocalDate checkOut) {
+        if (checkIn == null || checkOut == null || !checkOut.isAfter(checkIn) || isOffline()) {
+            return;
+        }
+        enqueue(checkIn, checkOut);
+    }
+
+    public void staysChanged(ReservationRow stay) {
+        if (stay != null) {
+            staysChanged(stay.checkInDate(), stay.checkOutDate());
+        }
+    }
+
+    /**
+     * Queue single days after a payment write
+     */
+    public void paymentDaysChanged(List<LocalDate> days) {
+        if (isOffline()) {
+            return;
+        }
+        for (LocalDate day : days) {
+            if (day != null) {
+                enqueue(day, day.plusDays(1));
+            }
+        }
+    }
+
+    /**
+     * Queue the days of a payment after it was updated; the days are read in the background
+     */
+    public void paymentChanged(int paymentId) {
+        if (!isOffline()) {
+            executor.execute(() -> paymentDaysChanged(paymentDaysOf(paymentId, false)));
+        }
+    }
+
+    /**
+     * Queue the nights from today to the last stored night after rooms or room types were added,
+     * removed or moved between types; past nights keep the inventory they were computed with.
+     * Room status is not an input, every room counts as available inventory.
+     */
+    public void inventoryChanged() {
+        if (isOffline()) {
+            return;
+        }
+        executor.execute(() -> {
+            try (Connection conn = DBConnection.getInstance().getConnection();
+                 PreparedStatement ps = conn.prepareStatement("SELECT MAX(stat_date) FROM daily_stats");
+                 ResultSet rs = ps.executeQuery()) {
+                LocalDate last = rs.next() ? toLocalDate(rs.getDate(1)) : null;
+                LocalDate today = LocalDate.now();
+                if (last != null && !last.isBefore(today)) {
+                    enqueue(today, last.plusDays(1));
+                }
+            } catch (SQLException e) {
+                Logger.warn("Daily stats not updated after inventory change: " + e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Add [from, to) to the pending ranges, merging it with the ranges it overlaps or touches
+     */
+    private synchronized void enqueue(LocalDate from, LocalDate to) {
+        Map.Entry<LocalDate, LocalDate> before = pending.floorEntry(from);
+        if (before != null && !before.getValue().isBefore(from)) {
+            from = before.getKey();
+            to = later(to, before.getValue());
+        }
+        Map.Entry<LocalDate, LocalDate> next;
+        while ((next = pending.ceilingEntry(from)) != null && !next.getKey().isAfter(to)) {
+            to = later(to, next.getValue());
+            pending.remove(next.getKey());
+        }
+        pending.put(from, to);
+        if (!drainScheduled) {
+            drainScheduled = true;
+            executor.execute(this::drain);
+        }
+    }
+
+    /**
+     * Recompute the pending ranges until none are left; failures are logged, never thrown
+     */
+    private void drain() {
+        while (true) {
+            List<Map.Entry<LocalDate, LocalDate>> ranges;
+            synchronized (this) {
+                if (pending.isEmpty()) {
+                    drainScheduled = false;
+                    return;
+                }
+                ranges = new ArrayList<>(pending.entrySet());
+                pending.clear();
+            }
+            for (Map.Entry<LocalDate, LocalDate> range : ranges) {
+                try {
+                    recompute(range.getKey(), range.getValue());
+                } catch (SQLException e) {
+                    Logger.warn("Daily stats not updated for " + range.getKey() + " to " + range.getValue()
+                        + ": " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private static LocalDate later(LocalDate a, LocalDate b) {
+        return a.isAfter(b) ? a : b;
+    }
+
+    /**
+     * Current stay of a reservation, read before a write that may move or cancel it
+     */
+    public ReservationRow stayOf(int reservationId) {
+        if (isOffline()) {
+            return null;
+        }
+        String sql = "SELECT reservation_id, customer_id, room_id, check_in_date, check_out_date, number_of_guests, total_amount, status "
+            + "FROM reservations WHERE reservation_id = ?";
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, reservationId);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    return new ReservationRow(rs.getInt(1), rs.getInt(2), rs.getInt(3),
+                        toLocalDate(rs.getDate(4)), toLocalDate(rs.getDate(5)), rs.getInt(6),
+                        Money.centsOf(rs.getBigDecimal(7)), ReservationStatus.fromCode(rs.getString(8)));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.warn("Could not read stay of reservation #" + reservationId + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Payment days touched by a payment, or by all payments of a reservation when byReservation is set
+     */
+    public List<LocalDate> paymentDaysOf(int id, boolean byReservation) {
+        String sql = "SELECT DISTINCT DATE(payment_date) FROM payments WHERE "
+            + (byReservation ? "reservation_id" : "payment_id") + " = ?";
+        List<LocalDate> days = new ArrayList<>();
+        if (isOffline()) {
+            return days;
+        }
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setInt(1, id);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    days.add(toLocalDate(rs.getDate(1)));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.warn("Could not read payment days: " + e.getMessage());
+        }
+        return days;
+    }
+
+    /**
+     * Rebuild every (night, room type) row in [from, to) in one transaction
+     */
+    public void recompute(LocalDate from, LocalDate to) throws SQLException {
+        int days = (int) ChronoUnit.DAYS.between(from, to);
+        if (days <= 0) {
+            return;
+        }
+        try (Connection conn = DBConnection.getInstance().getConnection()) {
+            Map<Integer, Integer> inventory = loadInventory(conn);
+            Map<Integer, Integer> column = new HashMap<>();
+            int[] typeIds = new int[inventory.size()];
+            for (Integer typeId : inventory.keySet()) {
+                typeIds[column.size()] = typeId;
+                column.put(typeId, column.size());
+            }
+
+            int[][] sold = new int[typeIds.length][days];
+            long[][] revenue = new long[typeIds.length][days];
+            long[][] collected = new long[typeIds.length][days];
+            int fromDay = (int) from.toEpochDay();
+            int toDay = fromDay + days;
+
+            String staySql = "SELECT r.room_type_id, res.check_in_date, res.check_out_date, res.total_amount "
+                + "FROM reservations res JOIN rooms r ON r.room_id = res.room_id "
+                + "WHERE res.status IN " + OCCUPYING_STATUSES + " AND res.check_in_date < ? AND res.check_out_date > ?";
+            try (PreparedStatement ps = conn.prepareStatement(staySql)) {
+                ps.setFetchSize(FETCH_SIZE);
+                ps.setDate(1, Date.valueOf(to));
+                ps.setDate(2, Date.valueOf(from));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer col = column.get(rs.getInt(1));
+                        if (col == null) {
+                            continue;
+                        }
+                        int checkIn = (int) rs.getDate(2).toLocalDate().toEpochDay();
+                        int checkOut = (int) rs.getDate(3).toLocalDate().toEpochDay();
+                        int nights = checkOut - checkIn;
+                        if (nights <= 0) {
+                            continue;
+                        }
+                        // Spread the stay value evenly; the first night carries the remainder cents
+                        long total = Money.centsOf(rs.getBigDecimal(4));
+                        long perNight = total / nights;
+                        long remainder = total - perNight * nights;
+                        for (int day = Math.max(checkIn, fromDay); day < Math.min(checkOut, toDay); day++) {
+                            sold[col][day - fromDay]++;
+                            revenue[col][day - fromDay] += day == checkIn ? perNight + remainder : perNight;
+                        }
+                    }
+                }
+            }
+
+            String paymentSql = "SELECT r.room_type_id, DATE(p.payment_date), SUM(p.amount) "
+                + "FROM payments p JOIN reservations res ON res.reservation_id = p.reservation_id "
+                + "JOIN rooms r ON r.room_id = res.room_id "
+                + "WHERE p.payment_status = 'COMPLETED' AND p.payment_date >= ? AND p.payment_date < ? "
+                + "GROUP BY r.room_type_id, DATE(p.payment_date)";
+            try (PreparedStatement ps = conn.prepareStatement(paymentSql)) {
+                ps.setDate(1, Date.valueOf(from));
+                ps.setDate(2, Date.valueOf(to));
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        Integer col = column.get(rs.getInt(1));
+                        if (col != null) {
+                            int day = (int) rs.getDate(2).toLocalDate().toEpochDay();
+                            collected[col][day - fromDay] = Money.centsOf(rs.getBigDecimal(3));
+                        }
+                    }
+                }
+            }
+
+            conn.setAutoCommit(false);
+            try (PreparedStatement ps = conn.prepareStatement(UPSERT_SQL)) {
+                for (int col = 0; col < typeIds.length; col++) {
+                    int available = inventory.get(typeIds[col]);
+                    for (int d = 0; d < days; d++) {
+                        DailyStat stat = new DailyStat(null, typeIds[col], available, sold[col][d], revenue[col][d], collected[col][d]);
+                        ps.setDate(1, Date.valueOf(LocalDate.ofEpochDay(fromDay + d)));
+                        ps.setInt(2, typeIds[col]);
+                        ps.setInt(3, available);
+                        ps.setInt(4, stat.roomsSold());
+                        ps.setBigDecimal(5, Money.toBigDecimal(stat.roomRevenueCents()));
+                        ps.setBigDecimal(6, Money.toBigDecimal(stat.adrCents()));
+                        ps.setBigDecimal(7, Money.toBigDecimal(stat.revparCents()));
+                        ps.setBigDecimal(8, Money.toBigDecimal(stat.paymentsCents()));
+                        ps.addBatch();
+                    }
+                }
+                ps.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+        }
+    }
+
+    private Map<Integer, Integer> loadInventory(Connection conn) throws SQLException {
+        String sql = "SELECT rt.room_type_id, COUNT(r.room_id) FROM room_types rt "
+            + "LEFT JOIN rooms r ON r.room_type_id = rt.room_type_id GROUP BY rt.room_type_id ORDER BY rt.room_type_id";
+        Map<Integer, Integer> inventory = new LinkedHashMap<>();
+        try (PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                inventory.put(rs.getInt(1), rs.getInt(2));
+            }
+        }
+        return inventory;
+    }
+
+    // ---- backfill ----
+
+    /**
+     * Start a background backfill when the fact table is still empty
+     */
+    public void startBackfillIfEmpty() {
+        startBackfill(true);
+    }
+
+    /**
+     * Rebuild all history in the background, e.g. after journaled writes were replayed
+     */
+    public void startBackfill(boolean onlyIfEmpty) {
+        Thread thread = new Thread(() -> {
+            try {
+                if (!onlyIfEmpty || isEmpty()) {
+                    backfillAll();
+                }
+            } catch (SQLException e) {
+                Logger.warn("Daily stats backfill skipped: " + e.getMessage());
+            }
+        }, "daily-stats-backfill");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Rebuild the whole history covered by reservations and payments
+     */
+    public void backfillAll() throws SQLException {
+        String sql = "SELECT LEAST(COALESCE(MIN(res.check_in_date), CURDATE()), COALESCE((SELECT MIN(DATE(payment_date)) FROM payments), CURDATE())), "
+            + "GREATEST(COALESCE(MAX(res.check_out_date), CURDATE()), COALESCE((SELECT MAX(DATE(payment_date)) FROM payments), CURDATE())) "
+            + "FROM reservations res";
+        LocalDate from;
+        LocalDate to;
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                return;
+            }
+            from = rs.getDate(1).toLocalDate();
+            to = rs.getDate(2).toLocalDate().plusDays(1);
+        }
+        backfill(from, to);
+    }
+
+    /**
+     * Recompute [from, to) chunk by chunk so memory and lock time stay bounded
+     */
+    public void backfill(LocalDate from, LocalDate to) throws SQLException {
+        // The app start and a journal replay can both ask for a backfill
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            LocalDate chunkStart = from;
+            while (chunkStart.isBefore(to)) {
+                LocalDate chunkEnd = chunkStart.plusDays(BACKFILL_CHUNK_DAYS);
+                if (chunkEnd.isAfter(to)) {
+                    chunkEnd = to;
+                }
+                recompute(chunkStart, chunkEnd);
+                chunkStart = chunkEnd;
+            }
+            long days = ChronoUnit.DAYS.between(from, to);
+            Logger.info(String.format("Daily stats backfilled: %d days (%s to %s) in %d ms",
+                days, from, to, (System.nanoTime() - start) / 1_000_000));
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    private boolean isEmpty() throws SQLException {
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement("SELECT 1 FROM daily_stats LIMIT 1");
+             ResultSet rs = ps.executeQuery()) {
+            return !rs.next();
+        }
+    }
+
+    // ---- reads ----
+
+    /**
+     * Totals per room type name over [from, to)
+     */
+    public Map<String, DailyStat> summarizeByRoomType(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT rt.type_name, ds.room_type_id, SUM(ds.rooms_available), SUM(ds.rooms_sold), "
+            + "SUM(ds.room_revenue), SUM(ds.payments_collected) "
+            + "FROM daily_stats ds JOIN room_types rt ON rt.room_type_id = ds.room_type_id "
+            + "WHERE ds.stat_date >= ? AND ds.stat_date < ? "
+            + "GROUP BY ds.room_type_id, rt.type_name ORDER BY rt.type_name";
+        Map<String, DailyStat> totals = new LinkedHashMap<>();
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(rs.getString(1), new DailyStat(null, rs.getInt(2), rs.getInt(3), rs.getInt(4),
+                        Money.centsOf(rs.getBigDecimal(5)), Money.centsOf(rs.getBigDecimal(6))));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error reading daily stats", e);
+            throw e;
+        }
+        return totals;
+    }
+
+    /**
+     * Daily rows for [from, to), all room types combined per night
+     */
+    public List<DailyStat> findDailyTotals(LocalDate from, LocalDate to) throws SQLException {
+        String sql = "SELECT stat_date, SUM(rooms_available), SUM(rooms_sold), SUM(room_revenue), SUM(payments_collected) "
+            + "FROM daily_stats WHERE stat_date >= ? AND stat_date < ? GROUP BY stat_date ORDER BY stat_date";
+        List<DailyStat> rows = new ArrayList<>();
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setDate(1, Date.valueOf(from));
+            ps.setDate(2, Date.valueOf(to));
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new DailyStat(rs.getDate(1).toLocalDate(), 0, rs.getInt(2), rs.getInt(3),
+                        Money.centsOf(rs.getBigDecimal(4)), Money.centsOf(rs.getBigDecimal(5))));
+                }
+            }
+        } catch (SQLException e) {
+            Logger.error("Error reading daily stats", e);
+            throw e;
+        }
+        return rows;
+    }
+
+    /**
+     * Journaled writes are not applied yet, so there is nothing to recompute until replay
+     */
+    private static boolean isOffline() {
+        return OfflineJournal.getInstance().isOffline();
+    }
+
+    private static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toLocalDate() : null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.hotelmanager.service;
+
+/**
+ * Headline metrics shown on the dashboard and the reports summary
+ */
+public record HeadlineStats(
+        int totalRooms,
+        int availableRooms,
+        int totalReservations,
+        int totalCustomers,
+        long totalRevenueCents,
+        long loadedAtMillis) {
+
+    public int occupiedRooms() {
+        return totalRooms - availableRooms;
+    }
+
+    public double occupancyRate() {
+        return totalRooms > 0 ? occupiedRooms() * 100.0 / totalRooms : 0;
+    }
+}
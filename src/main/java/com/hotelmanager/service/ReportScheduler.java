@@ -0,0 +1,144 @@
+package com.hotelmanager.service;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import com.hotelmanager.analytics.MorningReportPack;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Runs the {@link MorningReportPack} once a day while the application is open, and at startup
+ * when today's pack is missing. Off unless enabled in config.properties with
+ * reports.morning.enabled=true, normally on one back-office machine; reports.morning.time (HH:mm)
+ * and reports.output.dir set when and where it runs. The desktop client starts it only after its
+ * window first painted.
+ */
+public class ReportScheduler {
+
+    private static ReportScheduler instance;
+
+    private final boolean enabled;
+    private final LocalTime runAt;
+    private final Path outputDir;
+    private ScheduledExecutorService executor;
+
+    private ReportScheduler() {
+        Properties props = new Properties();
+        try (FileInputStream fis = new FileInputStream(System.getProperty("user.dir") + "/config.properties")) {
+            props.load(fis);
+        } catch (IOException e) {
+            // Defaults below
+        }
+        enabled = Boolean.parseBoolean(props.getProperty("reports.morning.enabled", "false").trim());
+        LocalTime time;
+        try {
+            time = LocalTime.parse(props.getProperty("reports.morning.time", "06:00").trim());
+        } catch (DateTimeParseException e) {
+            Logger.warn("Invalid reports.morning.time, using 06:00");
+            time = LocalTime.of(6, 0);
+        }
+        runAt = time;
+        outputDir = Paths.get(props.getProperty("reports.output.dir", "reports").trim());
+    }
+
+    public static ReportScheduler getInstance() {
+        if (instance == null) {
+            synchronized (ReportScheduler.class) {
+                if (instance == null) {
+                    instance = new ReportScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Schedule the daily run; catches up immediately when today's pack is due but missing
+     */
+    public synchronized void start() {
+        if (!enabled || executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "morning-reports");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.execute(() -> {
+            if (!LocalTime.now().isBefore(runAt) && !hasRun(LocalDate.now())) {
+                runPack();
+            }
+            scheduleNext();
+        });
+    }
+
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private void scheduleNext() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime next = now.toLocalDate().atTime(runAt);
+        if (!next.isAfter(now)) {
+            next = next.plusDays(1);
+        }
+        long delay = Duration.between(now, next).toMillis();
+        synchronized (this) {
+            if (executor != null) {
+                executor.schedule(() -> {
+                    runPack();
+                    scheduleNext();
+                }, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private void runPack() {
+        try {
+            new MorningReportPack().run(LocalDate.now(), outputDir, null);
+        } catch (Exception e) {
+            Logger.error("Scheduled morning report pack failed", e);
+        }
+    }
+
+    /**
+     * Whether the pack for a business date already ran: its completion marker is in the output
+     * directory, or, for a pack run elsewhere, it is recorded in the reports table
+     */
+    private boolean hasRun(LocalDate businessDate) {
+        if (MorningReportPack.isComplete(businessDate, outputDir)) {
+            return true;
+        }
+        String sql = "SELECT COUNT(*) FROM reports WHERE report_type = 'MORNING_ARRIVALS' AND start_date = ?";
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(sql)) {
+            ps.setDate(1, Date.valueOf(businessDate));
+            try (ResultSet rs = ps.executeQuery()) {
+                return rs.next() && rs.getLong(1) > 0;
+            }
+        } catch (SQLException e) {
+            Logger.warn("Could not check for today's morning reports: " + e.getMessage());
+            return true;
+        }
+    }
+}
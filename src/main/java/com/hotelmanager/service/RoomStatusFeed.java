@@ -0,0 +1,65 @@
+package com.hotelmanager.service;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.hotelmanager.model.RoomStatus;
+
+/**
+ * Pushes room changes made through the DAOs to the views that show rooms, so they can update
+ * the rooms affected instead of reloading every room. Listeners are called on the writing
+ * thread, after the write succeeded, and must hand the work to their own thread.
+ */
+public class RoomStatusFeed {
+
+    private static RoomStatusFeed instance;
+
+    /**
+     * Receives room changes; implementations must be thread-safe
+     */
+    public interface Listener {
+
+        /**
+         * Only the status of a room changed
+         */
+        void roomStatusChanged(int roomId, RoomStatus status);
+
+        /**
+         * A room was added, edited or deleted, or its reservations changed
+         */
+        void roomsChanged(int... roomIds);
+    }
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+
+    public static RoomStatusFeed getInstance() {
+        if (instance == null) {
+            synchronized (RoomStatusFeed.class) {
+                if (instance == null) {
+                    instance = new RoomStatusFeed();
+                }
+            }
+        }
+        return instance;
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    public void roomStatusChanged(int roomId, RoomStatus status) {
+        for (Listener listener : listeners) {
+            listener.roomStatusChanged(roomId, status);
+        }
+    }
+
+    public void roomsChanged(int... roomIds) {
+        for (Listener listener : listeners) {
+            listener.roomsChanged(roomIds);
+        }
+    }
+}
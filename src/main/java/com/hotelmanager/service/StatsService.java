@@ -0,0 +1,96 @@
+package com.hotelmanager.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import com.hotelmanager.cache.OfflineJournal;
+import com.hotelmanager.dao.WriteEvents;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Headline statistics fetched in a single round trip and cached for a short TTL,
+ * so the dashboard and reports summary can be shown repeatedly without requerying.
+ */
+public class StatsService {
+
+    private static StatsService instance;
+
+    private static final long TTL_MS = 10_000L;
+
+    private static final String STATS_SQL =
+        "SELECT r.total_rooms, r.available_rooms, res.total_reservations, c.total_customers, p.revenue "
+        + "FROM (SELECT COUNT(*) AS total_rooms, COALESCE(SUM(status = 'AVAILABLE'), 0) AS available_rooms FROM rooms) r "
+        + "CROSS JOIN (SELECT COUNT(*) AS total_reservations FROM reservations) res "
+        + "CROSS JOIN (SELECT COUNT(*) AS total_customers FROM customers) c "
+        + "CROSS JOIN (SELECT COALESCE(SUM(amount), 0) AS revenue FROM payments WHERE payment_status = 'COMPLETED') p";
+
+    private HeadlineStats cached;
+
+    private StatsService() {
+        // Every write can move a headline figure
+        WriteEvents.subscribe((table, operation) -> invalidate());
+    }
+
+    public static StatsService getInstance() {
+        if (instance == null) {
+            synchronized (StatsService.class) {
+                if (instance == null) {
+                    instance = new StatsService();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Cached stats if younger than the TTL, otherwise one query; concurrent callers share the load
+     */
+    public synchronized HeadlineStats getStats() throws SQLException {
+        if (cached != null && System.currentTimeMillis() - cached.loadedAtMillis() < TTL_MS) {
+            return cached;
+        }
+        if (OfflineJournal.getInstance().isOffline()) {
+            // Last known values beat an error while the journal probe waits for the server
+            if (cached != null) {
+                return cached;
+            }
+            throw new SQLTransientConnectionException("Business database is offline", "08001");
+        }
+        return refresh();
+    }
+
+    public synchronized HeadlineStats refresh() throws SQLException {
+        long start = System.nanoTime();
+        try (Connection conn = DBConnection.getInstance().getConnection();
+             PreparedStatement ps = conn.prepareStatement(STATS_SQL);
+             ResultSet rs = ps.executeQuery()) {
+            if (!rs.next()) {
+                throw new SQLException("Statistics query returned no row");
+            }
+            cached = new HeadlineStats(
+                rs.getInt(1),
+                rs.getInt(2),
+                rs.getInt(3),
+                rs.getInt(4),
+                Money.centsOf(rs.getBigDecimal(5)),
+                System.currentTimeMillis());
+        } catch (SQLException e) {
+            Logger.error("Error loading headline statistics", e);
+            throw e;
+        }
+        Logger.info(String.format("Headline statistics loaded in %d ms", (System.nanoTime() - start) / 1_000_000));
+        return cached;
+    }
+
+    /**
+     * Drop the cached row after a write that changes a headline count
+     */
+    public synchronized void invalidate() {
+        cached = null;
+    }
+}
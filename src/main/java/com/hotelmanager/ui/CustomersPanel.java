@@ -7,13 +7,12 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -23,29 +22,37 @@ import javax.swing.JTable;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
-import javax.swing.table.DefaultTableModel;
 
 import com.hotelmanager.HotelManagerApp;
 import com.hotelmanager.dao.CustomerDAO;
+import com.hotelmanager.export.Exporter;
+import com.hotelmanager.export.TableExport;
 import com.hotelmanager.model.Customer;
+import com.hotelmanager.ui.PagedTableModel.Column;
 import com.hotelmanager.util.Logger;
 
 /**
  * Customers Panel - displays customer management interface with modern styling
  */
-public class CustomersPanel extends JPanel {
+public class CustomersPanel extends JPanel implements RefreshablePanel<TableIndex> {
+    
+    private static final long STALENESS_BUDGET_MS = 30_000;
     
     private final HotelManagerApp mainApp;
     private final CustomerDAO customerDAO;
     private JTable customersTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Customer> tableModel;
+    private List<Column<Customer>> columns;
+    private TableFilterBar filterBar;
     
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton refreshButton;
+    private JButton exportButton;
     
     // Stat card label
+    private JLabel loadingLabel;
     private JLabel totalCustomersLabel;
     
     // Color palette
@@ -55,7 +62,6 @@ public class CustomersPanel extends JPanel {
         this.mainApp = mainApp;
         this.customerDAO = new CustomerDAO();
         initializeUI();
-        refreshData();
     }
     
     private void initializeUI() {
@@ -78,17 +84,12 @@ public class CustomersPanel extends JPanel {
         // Right side - Logo
         JPanel logoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         logoPanel.setBackground(UIFactory.CARD_BG);
+        loadingLabel = UIFactory.createLoadingLabel();
+        logoPanel.add(loadingLabel);
         
-        try {
-            ImageIcon originalIcon = new ImageIcon(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (originalIcon.getImage() != null) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                JLabel logoLabel = new JLabel(scaledIcon);
-                logoPanel.add(logoLabel);
-            }
-        } catch (Exception e) {
-            Logger.warn("Could not load logo: " + e.getMessage());
+        Icon logo = UIFactory.createImageIcon(UIFactory.LOGO_RESOURCE, 40, 40);
+        if (logo != null) {
+            logoPanel.add(new JLabel(logo));
         }
         
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -124,22 +125,23 @@ public class CustomersPanel extends JPanel {
         editButton = UIFactory.createSecondaryButton("✏️ Edit");
         deleteButton = UIFactory.createDangerButton("🗑️ Delete");
         refreshButton = UIFactory.createSecondaryButton("🔄 Refresh");
+        exportButton = UIFactory.createSecondaryButton("⬇ Export");
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         
-        contentPanel.add(buttonPanel, BorderLayout.NORTH);
-        
-        // Table model
-        String[] columnNames = {"ID", "First Name", "Last Name", "Email", "Phone", "ID Type", "ID Number"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Table model - rows are paged in as they scroll into view
+        columns = List.of(
+            new Column<>("First Name", Customer::getFirstName),
+            new Column<>("Last Name", Customer::getLastName),
+            new Column<>("Email", Customer::getEmail),
+            new Column<>("Phone", Customer::getPhone),
+            new Column<>("ID Type", Customer::getIdType),
+            new Column<>("ID Number", Customer::getIdNumber));
+        tableModel = new PagedTableModel<>(this, "ID", columns, Customer::getId, customerDAO::findByIds);
         
         customersTable = new JTable(tableModel);
         customersTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -156,12 +158,14 @@ public class CustomersPanel extends JPanel {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                int modelColumn = table.convertColumnIndexToModel(column);
+                Component c = super.getTableCellRendererComponent(table, tableModel.format(value, modelColumn),
+                    isSelected, hasFocus, row, column);
                 if (!isSelected) {
                     c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(245, 245, 245));
                 }
                 // Highlight email column
-                if (column == 3 && value != null) {
+                if (modelColumn == 3 && value != null) {
                     c.setForeground(new Color(52, 152, 219));
                 }
                 return c;
@@ -175,6 +179,13 @@ public class CustomersPanel extends JPanel {
         customersTable.getColumnModel().getColumn(0).setMaxWidth(0);
         customersTable.getColumnModel().getColumn(0).setWidth(0);
         
+        // Search, filters and header sorting over the index built by loadData
+        filterBar = new TableFilterBar(customersTable, tableModel);
+        JPanel toolbar = new JPanel(new BorderLayout());
+        toolbar.add(buttonPanel, BorderLayout.NORTH);
+        toolbar.add(filterBar, BorderLayout.SOUTH);
+        contentPanel.add(toolbar, BorderLayout.NORTH);
+        
         JScrollPane scrollPane = new JScrollPane(customersTable);
         scrollPane.setBorder(BorderFactory.createCompoundBorder(
             new LineBorder(new Color(189, 195, 199), 1),
@@ -208,6 +219,9 @@ public class CustomersPanel extends JPanel {
         editButton.addActionListener(e -> showEditCustomerDialog());
         deleteButton.addActionListener(e -> deleteSelectedCustomer());
         refreshButton.addActionListener(e -> refreshData());
+        exportButton.addActionListener(e -> ExportDialog.export(this, "Customers",
+            () -> Exporter.countRows(TableExport.CUSTOMERS),
+            (path, format, progress) -> Exporter.exportTable(TableExport.CUSTOMERS, path, format, progress)));
         
         // Double-click to edit
         customersTable.addMouseListener(new java.awt.event.MouseAdapter() {
@@ -272,36 +286,48 @@ public class CustomersPanel extends JPanel {
     }
     
     /**
-     * Refresh customer data from database
+     * Reload customer data from the database in the background
      */
     public void refreshData() {
-        try {
-            List<Customer> customers = customerDAO.findAll();
-            tableModel.setRowCount(0);
-            
-            for (Customer customer : customers) {
-                Object[] rowData = {
-                    customer.getId(),
-                    customer.getFirstName(),
-                    customer.getLastName(),
-                    customer.getEmail(),
-                    customer.getPhone(),
-                    customer.getIdType(),
-                    customer.getIdNumber()
-                };
-                tableModel.addRow(rowData);
-            }
-            
-            // Update stat card
-            totalCustomersLabel.setText(String.valueOf(customers.size()));
-            
-            Logger.info("Customers data refreshed: " + customers.size() + " customers loaded");
-        } catch (Exception e) {
-            Logger.error("Error loading customers", e);
-            JOptionPane.showMessageDialog(this, 
-                "Error loading customers: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        RefreshScheduler.getInstance().refresh(this);
+    }
+    
+    @Override
+    public Object loadVersion() throws Exception {
+        return customerDAO.getDataVersion();
+    }
+    
+    @Override
+    public TableIndex loadData() throws Exception {
+        // Only the search and sort keys are kept; the rows on screen are paged in by the table model
+        TableIndex.Builder<Customer> index = TableIndex.builder(columns, Customer::getId);
+        customerDAO.streamListRows(index::add);
+        return index.build();
+    }
+    
+    @Override
+    public void applyData(TableIndex index) {
+        filterBar.setIndex(index);
+        
+        // Update stat card
+        totalCustomersLabel.setText(String.valueOf(index.size()));
+        
+        Logger.info("Customers data refreshed: " + index.size() + " customers");
+    }
+    
+    @Override
+    public String getDataName() {
+        return "customers";
+    }
+    
+    @Override
+    public long getStalenessBudgetMillis() {
+        return STALENESS_BUDGET_MS;
+    }
+    
+    @Override
+    public void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
     }
     
     private void showAddCustomerDialog() {
@@ -345,10 +371,11 @@ public class CustomersPanel extends JPanel {
                 customer.setIdNumber(idNumberField.getText());
                 customer.setAddress(addressField.getText());
                 
-                customerDAO.insert(customer);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Customer added successfully!");
-                Logger.info("Customer added: " + customer.getFirstName() + " " + customer.getLastName());
+                RefreshScheduler.getInstance().write(this, () -> customerDAO.insert(customer), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Customer added successfully!");
+                    Logger.info("Customer added: " + customer.getFirstName() + " " + customer.getLastName());
+                }, e -> writeFailed("Error adding customer", e));
             } catch (Exception e) {
                 Logger.error("Error adding customer", e);
                 JOptionPane.showMessageDialog(this, "Error adding customer: " + e.getMessage(),
@@ -365,15 +392,19 @@ public class CustomersPanel extends JPanel {
             return;
         }
         
-        int customerId = (Integer) tableModel.getValueAt(selectedRow, 0);
+        int customerId = tableModel.getIdAt(selectedRow);
+        RefreshScheduler.getInstance().fetch(this, () -> customerDAO.findById(customerId),
+            this::showEditCustomerDialog);
+    }
+    
+    private void showEditCustomerDialog(Customer customer) {
+        if (customer == null) {
+            JOptionPane.showMessageDialog(this, "Customer not found",
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         try {
-            Customer customer = customerDAO.findById(customerId);
-            if (customer == null) {
-                JOptionPane.showMessageDialog(this, "Customer not found",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
             
             JPanel panel = new JPanel(new java.awt.GridLayout(7, 2, 10, 10));
             panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -413,10 +444,11 @@ public class CustomersPanel extends JPanel {
                 customer.setIdNumber(idNumberField.getText());
                 customer.setAddress(addressField.getText());
                 
-                customerDAO.update(customer);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Customer updated successfully!");
-                Logger.info("Customer updated: " + customer.getFirstName() + " " + customer.getLastName());
+                RefreshScheduler.getInstance().write(this, () -> customerDAO.update(customer), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Customer updated successfully!");
+                    Logger.info("Customer updated: " + customer.getFirstName() + " " + customer.getLastName());
+                }, e -> writeFailed("Error editing customer", e));
             }
         } catch (Exception e) {
             Logger.error("Error editing customer", e);
@@ -438,18 +470,22 @@ public class CustomersPanel extends JPanel {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                int customerId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                customerDAO.delete(customerId);
+            int customerId = tableModel.getIdAt(selectedRow);
+            RefreshScheduler.getInstance().write(this, () -> customerDAO.delete(customerId), done -> {
                 refreshData();
                 JOptionPane.showMessageDialog(this, "Customer deleted successfully!");
                 Logger.info("Customer deleted: ID " + customerId);
-            } catch (Exception e) {
-                Logger.error("Error deleting customer", e);
-                JOptionPane.showMessageDialog(this, "Error deleting customer: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> writeFailed("Error deleting customer", e));
         }
     }
+    
+    /**
+     * Report a write that failed off the EDT
+     */
+    private void writeFailed(String message, Exception e) {
+        Logger.error(message, e);
+        JOptionPane.showMessageDialog(this, message + ": " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
 }
 
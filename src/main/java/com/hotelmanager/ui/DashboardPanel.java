@@ -7,14 +7,13 @@ import java.awt.Cursor;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
@@ -24,30 +23,27 @@ import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 
 import com.hotelmanager.HotelManagerApp;
-import com.hotelmanager.dao.CustomerDAO;
-import com.hotelmanager.dao.PaymentDAO;
-import com.hotelmanager.dao.ReservationDAO;
-import com.hotelmanager.dao.RoomDAO;
+import com.hotelmanager.cache.WarmStartSnapshot;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.service.HeadlineStats;
+import com.hotelmanager.service.StatsService;
 import com.hotelmanager.util.Logger;
 
 /**
  * Dashboard Panel - displays statistics and overview with modern styling
  */
-public class DashboardPanel extends JPanel {
+public class DashboardPanel extends JPanel implements RefreshablePanel<HeadlineStats> {
+    
+    private static final long STALENESS_BUDGET_MS = 15_000;
     
     private final HotelManagerApp mainApp;
+    private JLabel loadingLabel;
     private JLabel totalRoomsLabel;
     private JLabel availableRoomsLabel;
     private JLabel totalReservationsLabel;
     private JLabel totalCustomersLabel;
     private JLabel totalRevenueLabel;
     
-    // DAO instances
-    private final RoomDAO roomDAO;
-    private final ReservationDAO reservationDAO;
-    private final CustomerDAO customerDAO;
-    private final PaymentDAO paymentDAO;
-    
     // Color palette for stat cards
     private static final Color ROOMS_COLOR = new Color(52, 152, 219);      // Blue
     private static final Color AVAILABLE_COLOR = new Color(39, 174, 96);   // Green
@@ -58,12 +54,6 @@ public class DashboardPanel extends JPanel {
     public DashboardPanel(HotelManagerApp mainApp) {
         this.mainApp = mainApp;
         
-        // Initialize DAOs
-        this.roomDAO = new RoomDAO();
-        this.reservationDAO = new ReservationDAO();
-        this.customerDAO = new CustomerDAO();
-        this.paymentDAO = new PaymentDAO();
-        
         initializeUI();
     }
     
@@ -87,18 +77,13 @@ public class DashboardPanel extends JPanel {
         // Right side - Logo
         JPanel logoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         logoPanel.setBackground(UIFactory.CARD_BG);
+        loadingLabel = UIFactory.createLoadingLabel();
+        logoPanel.add(loadingLabel);
         
         // Load and scale the logo
-        try {
-            ImageIcon originalIcon = new ImageIcon(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (originalIcon.getImage() != null) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(50, 50, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                JLabel logoLabel = new JLabel(scaledIcon);
-                logoPanel.add(logoLabel);
-            }
-        } catch (Exception e) {
-            Logger.warn("Could not load logo: " + e.getMessage());
+        Icon logo = UIFactory.createImageIcon(UIFactory.LOGO_RESOURCE, 50, 50);
+        if (logo != null) {
+            logoPanel.add(new JLabel(logo));
         }
         
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -278,35 +263,56 @@ public class DashboardPanel extends JPanel {
     }
     
     /**
-     * Refresh dashboard data from database
+     * Show counters from a warm-start snapshot without touching the database
+     */
+    public void applySnapshot(WarmStartSnapshot snapshot) {
+        totalRoomsLabel.setText(String.valueOf(snapshot.getTotalRooms()));
+        availableRoomsLabel.setText(String.valueOf(snapshot.getAvailableRooms()));
+        totalReservationsLabel.setText(String.valueOf(snapshot.getTotalReservations()));
+        totalCustomersLabel.setText(String.valueOf(snapshot.getTotalCustomers()));
+        totalRevenueLabel.setText(Money.format(snapshot.getTotalRevenueCents()));
+    }
+    
+    /**
+     * Reload in the background - one statistics query, shared with the reports panel
      */
     public void refreshData() {
-        try {
-            // Get total rooms count
-            int totalRooms = roomDAO.getTotalCount();
-            totalRoomsLabel.setText(String.valueOf(totalRooms));
-            
-            // Get available rooms count
-            int availableRooms = roomDAO.getAvailableCount();
-            availableRoomsLabel.setText(String.valueOf(availableRooms));
-            
-            // Get total reservations count
-            int totalReservations = reservationDAO.getTotalCount();
-            totalReservationsLabel.setText(String.valueOf(totalReservations));
-            
-            // Get total customers count
-            int totalCustomers = customerDAO.getTotalCount();
-            totalCustomersLabel.setText(String.valueOf(totalCustomers));
-            
-            // Get total revenue
-            double totalRevenue = paymentDAO.getTotalRevenue();
-            totalRevenueLabel.setText(String.format("$%,.2f", totalRevenue));
-            
-            Logger.info("Dashboard data refreshed successfully");
-        } catch (Exception e) {
-            Logger.error("Error refreshing dashboard data", e);
-            // Keep existing values on error
-        }
+        RefreshScheduler.getInstance().refresh(this);
+    }
+    
+    @Override
+    public HeadlineStats loadData() throws Exception {
+        return StatsService.getInstance().getStats();
+    }
+    
+    @Override
+    public void applyData(HeadlineStats stats) {
+        totalRoomsLabel.setText(String.valueOf(stats.totalRooms()));
+        availableRoomsLabel.setText(String.valueOf(stats.availableRooms()));
+        totalReservationsLabel.setText(String.valueOf(stats.totalReservations()));
+        totalCustomersLabel.setText(String.valueOf(stats.totalCustomers()));
+        totalRevenueLabel.setText(Money.format(stats.totalRevenueCents()));
+    }
+    
+    @Override
+    public void loadFailed(Exception e, boolean userInitiated) {
+        // Keep existing values on error
+        Logger.error("Error refreshing dashboard data", e);
+    }
+    
+    @Override
+    public String getDataName() {
+        return "dashboard";
+    }
+    
+    @Override
+    public long getStalenessBudgetMillis() {
+        return STALENESS_BUDGET_MS;
+    }
+    
+    @Override
+    public void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
     }
 }
 
@@ -0,0 +1,175 @@
+package com.hotelmanager.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.File;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JDialog;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JOptionPane;
+import javax.swing.JPanel;
+import javax.swing.JProgressBar;
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.filechooser.FileNameExtensionFilter;
+
+import com.hotelmanager.export.ExportFormat;
+import com.hotelmanager.export.Exporter;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Asks for a target file, then runs an export in the background behind a progress bar
+ */
+public class ExportDialog extends JDialog {
+
+    /**
+     * The export itself, run on a worker thread
+     */
+    @FunctionalInterface
+    public interface ExportJob {
+        long export(Path path, ExportFormat format, Exporter.Progress progress) throws Exception;
+    }
+
+    /**
+     * Row total for a determinate progress bar, or -1 when unknown
+     */
+    @FunctionalInterface
+    public interface RowCounter {
+        long count() throws Exception;
+    }
+
+    private final JProgressBar progressBar = new JProgressBar(0, 100);
+    private final JLabel statusLabel = new JLabel("Preparing export...");
+    private SwingWorker<Long, Long> worker;
+
+    private ExportDialog(Component parent, String title) {
+        super(SwingUtilities.getWindowAncestor(parent), title, ModalityType.MODELESS);
+        setDefaultCloseOperation(DO_NOTHING_ON_CLOSE);
+
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+        content.setBackground(UIFactory.CARD_BG);
+
+        statusLabel.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        progressBar.setIndeterminate(true);
+        progressBar.setPreferredSize(new Dimension(360, 20));
+
+        JButton cancelButton = UIFactory.createSecondaryButton("Cancel");
+        cancelButton.addActionListener(e -> {
+            if (worker != null) {
+                worker.cancel(true);
+            }
+        });
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(cancelButton);
+
+        content.add(statusLabel, BorderLayout.NORTH);
+        content.add(progressBar, BorderLayout.CENTER);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+        setContentPane(content);
+        pack();
+        setLocationRelativeTo(parent);
+    }
+
+    /**
+     * Prompt for a CSV or XLSX file and start the export
+     */
+    public static void export(Component parent, String baseName, RowCounter counter, ExportJob job) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + baseName);
+        chooser.setAcceptAllFileFilterUsed(false);
+        FileNameExtensionFilter csvFilter = new FileNameExtensionFilter(ExportFormat.CSV.getDescription(),
+            ExportFormat.CSV.getExtension());
+        FileNameExtensionFilter xlsxFilter = new FileNameExtensionFilter(ExportFormat.XLSX.getDescription(),
+            ExportFormat.XLSX.getExtension());
+        chooser.addChoosableFileFilter(csvFilter);
+        chooser.addChoosableFileFilter(xlsxFilter);
+        chooser.setFileFilter(csvFilter);
+        chooser.setSelectedFile(new File(baseName.toLowerCase().replaceAll("[^a-z0-9]+", "_") + ".csv"));
+        if (chooser.showSaveDialog(parent) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+
+        ExportFormat format = chooser.getFileFilter() == xlsxFilter ? ExportFormat.XLSX : ExportFormat.CSV;
+        File file = chooser.getSelectedFile();
+        String name = file.getName();
+        int dot = name.lastIndexOf('.');
+        String stem = dot > 0 ? name.substring(0, dot) : name;
+        file = new File(file.getParentFile(), stem + "." + format.getExtension());
+        if (file.exists() && JOptionPane.showConfirmDialog(parent,
+                file.getName() + " already exists. Replace it?", "Confirm Export",
+                JOptionPane.YES_NO_OPTION) != JOptionPane.YES_OPTION) {
+            return;
+        }
+
+        ExportDialog dialog = new ExportDialog(parent, "Exporting " + baseName);
+        dialog.start(parent, file.toPath(), format, counter, job);
+        dialog.setVisible(true);
+    }
+
+    private void start(Component parent, Path path, ExportFormat format, RowCounter counter, ExportJob job) {
+        worker = new SwingWorker<Long, Long>() {
+            private long total = -1;
+
+            @Override
+            protected Long doInBackground() throws Exception {
+                total = counter != null ? counter.count() : -1;
+                publish(0L);
+                return job.export(path, format, this::publishRows);
+            }
+
+            private void publishRows(long rows) {
+                publish(rows);
+            }
+
+            @Override
+            protected void process(List<Long> chunks) {
+                long rows = chunks.get(chunks.size() - 1);
+                if (total > 0) {
+                    progressBar.setIndeterminate(false);
+                    progressBar.setValue((int) Math.min(100, rows * 100 / total));
+                    statusLabel.setText(String.format("Exported %,d of %,d rows", rows, total));
+                } else {
+                    statusLabel.setText(String.format("Exported %,d rows", rows));
+                }
+            }
+
+            @Override
+            protected void done() {
+                dispose();
+                if (isCancelled()) {
+                    Logger.info("Export cancelled: " + path);
+                    return;
+                }
+                try {
+                    long rows = get();
+                    JOptionPane.showMessageDialog(parent,
+                        String.format("Exported %,d rows to %s", rows, path),
+                        "Export Complete", JOptionPane.INFORMATION_MESSAGE);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof CancellationException) {
+                        return;
+                    }
+                    Logger.error("Error exporting to " + path, e.getCause());
+                    JOptionPane.showMessageDialog(parent,
+                        "Error exporting: " + e.getCause().getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        worker.execute();
+    }
+}
@@ -0,0 +1,170 @@
+package com.hotelmanager.ui;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.imageio.ImageIO;
+import javax.swing.Icon;
+
+import com.hotelmanager.util.Logger;
+
+/**
+ * Image resources decoded once and scaled once per pixel size, shared by every panel.
+ * Decoded images and scaled variants are held by soft references, so the JVM may drop them
+ * under memory pressure; they are decoded or scaled again on next use. Safe to use from any
+ * thread. Access through {@link UIFactory}.
+ */
+final class ImageAssets {
+
+    private static final Map<String, SoftReference<BufferedImage>> decoded = new ConcurrentHashMap<>();
+    // Keyed by resource and pixel size
+    private static final Map<String, SoftReference<BufferedImage>> scaled = new ConcurrentHashMap<>();
+    // One lock per resource so a second caller waits for a decode in progress instead of repeating it
+    private static final Map<String, Object> decodeLocks = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> missing = new ConcurrentHashMap<>();
+
+    private ImageAssets() {
+    }
+
+    /**
+     * The decoded resource, or null if it is missing or unreadable
+     */
+    static BufferedImage get(String resource) {
+        BufferedImage image = cached(decoded, resource);
+        if (image != null || missing.containsKey(resource)) {
+            return image;
+        }
+        synchronized (decodeLocks.computeIfAbsent(resource, k -> new Object())) {
+            image = cached(decoded, resource);
+            if (image == null && !missing.containsKey(resource)) {
+                image = decode(resource);
+                if (image != null) {
+                    decoded.put(resource, new SoftReference<>(image));
+                } else {
+                    missing.put(resource, Boolean.TRUE);
+                }
+            }
+        }
+        return image;
+    }
+
+    /**
+     * The resource scaled to a pixel size, or null if it is missing
+     */
+    static BufferedImage get(String resource, int width, int height) {
+        String key = resource + '@' + width + 'x' + height;
+        BufferedImage image = cached(scaled, key);
+        if (image == null) {
+            BufferedImage source = get(resource);
+            if (source == null) {
+                return null;
+            }
+            image = scale(source, width, height);
+            scaled.put(key, new SoftReference<>(image));
+        }
+        return image;
+    }
+
+    /**
+     * An icon of a logical size that paints the variant matching the screen scale, e.g. 2x on a
+     * 200% display; null if the resource is missing
+     */
+    static Icon icon(String resource, int width, int height) {
+        return get(resource) != null ? new ScaledIcon(resource, width, height) : null;
+    }
+
+    private static BufferedImage cached(Map<String, SoftReference<BufferedImage>> cache, String key) {
+        SoftReference<BufferedImage> reference = cache.get(key);
+        return reference != null ? reference.get() : null;
+    }
+
+    private static BufferedImage decode(String resource) {
+        try (InputStream in = ImageAssets.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                Logger.warn("Image resource not found: " + resource);
+                return null;
+            }
+            BufferedImage image = ImageIO.read(in);
+            if (image == null) {
+                Logger.warn("Unsupported image format: " + resource);
+            }
+            return image;
+        } catch (IOException e) {
+            Logger.warn("Could not load image " + resource + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Downscale by halving with bilinear filtering until within a factor of two, then one last
+     * bilinear step; a single bilinear or smooth pass skips source pixels and aliases fine detail
+     */
+    private static BufferedImage scale(BufferedImage source, int width, int height) {
+        BufferedImage image = source;
+        int w = source.getWidth();
+        int h = source.getHeight();
+        do {
+            w = w / 2 >= width ? w / 2 : width;
+            h = h / 2 >= height ? h / 2 : height;
+            image = draw(image, w, h);
+        } while (w != width || h != height);
+        return image;
+    }
+
+    private static BufferedImage draw(BufferedImage source, int width, int height) {
+        BufferedImage target = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = target.createGraphics();
+        try {
+            g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g2d.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g2d.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g2d.dispose();
+        }
+        return target;
+    }
+
+    /**
+     * Icon that picks its variant from the scale of the graphics it paints on
+     */
+    private static final class ScaledIcon implements Icon {
+
+        private final String resource;
+        private final int width;
+        private final int height;
+
+        ScaledIcon(String resource, int width, int height) {
+            this.resource = resource;
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public void paintIcon(Component c, Graphics g, int x, int y) {
+            double scale = g instanceof Graphics2D g2d ? g2d.getTransform().getScaleX() : 1;
+            BufferedImage image = get(resource,
+                Math.max(1, (int) Math.round(width * scale)), Math.max(1, (int) Math.round(height * scale)));
+            if (image != null) {
+                g.drawImage(image, x, y, width, height, null);
+            }
+        }
+
+        @Override
+        public int getIconWidth() {
+            return width;
+        }
+
+        @Override
+        public int getIconHeight() {
+            return height;
+        }
+    }
+}
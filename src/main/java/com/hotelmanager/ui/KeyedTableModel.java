@@ -0,0 +1,102 @@
+package com.hotelmanager.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.table.AbstractTableModel;
+
+/**
+ * Read-only table model whose rows are keyed by their first column, e.g. the primary key.
+ * A refresh is diffed against the rows on screen by key: removed, added and changed rows fire
+ * one event per contiguous run, so the table keeps its selection and scroll position and only
+ * repaints what changed. Refreshes that reorder rows or touch many scattered places are applied
+ * as one full change. All methods must be called on the EDT.
+ */
+public class KeyedTableModel extends AbstractTableModel {
+
+    private final String[] columnNames;
+    private List<Object[]> rows = new ArrayList<>();
+
+    public KeyedTableModel(String... columnNames) {
+        this.columnNames = columnNames;
+    }
+
+    /**
+     * Show a new snapshot of the rows, in display order
+     */
+    public void setRows(List<Object[]> newRows) {
+        Map<Object, Integer> newIndex = new HashMap<>(newRows.size() * 2);
+        for (int i = 0; i < newRows.size(); i++) {
+            newIndex.put(newRows.get(i)[0], i);
+        }
+        Map<Object, Object[]> oldRows = new HashMap<>(rows.size() * 2);
+        RowRuns deleted = new RowRuns();
+        int lastIndex = -1;
+        boolean sameOrder = true;
+        for (int i = 0; i < rows.size(); i++) {
+            Object[] row = rows.get(i);
+            oldRows.put(row[0], row);
+            Integer index = newIndex.get(row[0]);
+            if (index == null) {
+                deleted.add(i);
+            } else {
+                sameOrder &= index > lastIndex;
+                lastIndex = index;
+            }
+        }
+        RowRuns inserted = new RowRuns();
+        for (int i = 0; i < newRows.size(); i++) {
+            if (!oldRows.containsKey(newRows.get(i)[0])) {
+                inserted.add(i);
+            }
+        }
+        if (!sameOrder || deleted.size() + inserted.size() > RowRuns.MAX_STRUCTURAL_RUNS) {
+            rows = new ArrayList<>(newRows);
+            fireTableDataChanged();
+            return;
+        }
+
+        // Deletes from the bottom up keep the earlier indexes valid; inserts then land at their final index
+        for (int run = deleted.size() - 1; run >= 0; run--) {
+            rows.subList(deleted.first(run), deleted.last(run) + 1).clear();
+            fireTableRowsDeleted(deleted.first(run), deleted.last(run));
+        }
+        for (int run = 0; run < inserted.size(); run++) {
+            rows.addAll(inserted.first(run), newRows.subList(inserted.first(run), inserted.last(run) + 1));
+            fireTableRowsInserted(inserted.first(run), inserted.last(run));
+        }
+        RowRuns updated = new RowRuns();
+        for (int i = 0; i < newRows.size(); i++) {
+            if (!Arrays.equals(rows.get(i), newRows.get(i))) {
+                rows.set(i, newRows.get(i));
+                updated.add(i);
+            }
+        }
+        for (int run = 0; run < updated.size(); run++) {
+            fireTableRowsUpdated(updated.first(run), updated.last(run));
+        }
+    }
+
+    @Override
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columnNames.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return rows.get(row)[column];
+    }
+}
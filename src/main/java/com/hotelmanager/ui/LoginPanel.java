@@ -12,43 +12,42 @@ import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
 import java.awt.Window;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
 
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JPasswordField;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
-import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 
 import com.hotelmanager.HotelManagerApp;
 import com.hotelmanager.dao.AuthUserDAO;
 import com.hotelmanager.model.User;
 import com.hotelmanager.util.Logger;
+import com.hotelmanager.util.StartupTrace;
 
 /**
  * Modern Login Panel with FlatLaf styling
  */
 public class LoginPanel extends JPanel {
     
+    public static final String BACKGROUND_RESOURCE = "/backgrounds/upc_hotel.png";
+    
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JTextField visiblePasswordField;
     private JButton togglePasswordBtn;
     private JLabel errorLabel;
     private boolean passwordVisible = false;
-    private BufferedImage backgroundImage;
+    private ScaledBackground background;
     
-    // Neon effect variables
-    private float neonGlow = 0f;
-    private Timer neonTimer;
+    // Animated neon border of the card
+    private NeonGlow glow;
     
     // Password recovery dialog reference - prevents multiple windows
     private PasswordRecoveryDialog passwordRecoveryDialog;
@@ -60,60 +59,18 @@ public class LoginPanel extends JPanel {
         this.mainApp = mainApp;
         this.authUserDAO = new AuthUserDAO();
         loadBackgroundImage();
-        initializeNeonEffect();
         initializeUI();
     }
     
-    private void initializeNeonEffect() {
-        neonTimer = new Timer(50, e -> {
-            neonGlow += 0.1f;
-            if (neonGlow > 2 * Math.PI) {
-                neonGlow = 0;
-            }
-            repaint();
-        });
-        neonTimer.start();
-    }
-    
     private void loadBackgroundImage() {
-        try {
-            backgroundImage = ImageIO.read(getClass().getResource("/backgrounds/upc_hotel.png"));
-        } catch (IOException e) {
-            Logger.warn("Could not load background image: " + e.getMessage());
-            backgroundImage = null;
-        }
+        background = new ScaledBackground(UIFactory.getImage(BACKGROUND_RESOURCE),
+            new Color(10, 10, 20, 180), true);
     }
     
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(java.awt.RenderingHints.KEY_ANTIALIASING, java.awt.RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        if (backgroundImage != null) {
-            // Draw the background image scaled to fit the panel
-            g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
-            
-            // Add a semi-transparent dark overlay
-            g2d.setColor(new Color(10, 10, 20, 180));
-            g2d.fillRect(0, 0, getWidth(), getHeight());
-        } else {
-            // Modern dark gradient background - deep blue/purple
-            java.awt.GradientPaint gp = new java.awt.GradientPaint(
-                0, 0, new Color(15, 15, 35), 
-                0, getHeight(), new Color(25, 25, 50)
-            );
-            g2d.setPaint(gp);
-            g2d.fillRect(0, 0, getWidth(), getHeight());
-        }
-        
-        // Add subtle geometric pattern overlay
-        g2d.setColor(new Color(255, 255, 255, 3));
-        for (int i = 0; i < getWidth(); i += 40) {
-            for (int j = 0; j < getHeight(); j += 40) {
-                g2d.fillRect(i, j, 1, 1);
-            }
-        }
+        background.paint(g, this);
     }
     
     private void initializeUI() {
@@ -146,7 +103,7 @@ public class LoginPanel extends JPanel {
                 g2.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 25, 25);
                 
                 // Draw neon border effect with animation
-                int glowIntensity = (int) (120 + 80 * Math.sin(neonGlow));
+                int glowIntensity = glow.intensity();
                 Color neonColor = new Color(52, 180, 219, glowIntensity);
                 
                 // Outer glow
@@ -171,6 +128,7 @@ public class LoginPanel extends JPanel {
             }
         };
         card.setOpaque(false);
+        glow = new NeonGlow(card);
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
         card.setBorder(BorderFactory.createEmptyBorder(40, 45, 40, 45));
         card.setPreferredSize(new Dimension(420, 520));
@@ -246,30 +204,14 @@ public class LoginPanel extends JPanel {
         logoPanel.setLayout(new BoxLayout(logoPanel, BoxLayout.Y_AXIS));
         logoPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        // Load and display the UPC logo image
-        try {
-            BufferedImage logoImage = ImageIO.read(getClass().getResourceAsStream("/icons/UPC_BRAND.png"));
-            if (logoImage != null) {
-                // Scale the image to fit the logo area
-                int maxWidth = 120;
-                int maxHeight = 80;
-                double scale = Math.min((double) maxWidth / logoImage.getWidth(), 
-                                       (double) maxHeight / logoImage.getHeight());
-                int newWidth = (int) (logoImage.getWidth() * scale);
-                int newHeight = (int) (logoImage.getHeight() * scale);
-                
-                java.awt.Image scaledImage = logoImage.getScaledInstance(newWidth, newHeight, 
-                    java.awt.Image.SCALE_SMOOTH);
-                JLabel logoLabel = new JLabel(new javax.swing.ImageIcon(scaledImage));
-                logoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-                logoPanel.add(logoLabel);
-            } else {
-                // Fallback to icon if image not found
-                logoPanel.add(createLogoIcon());
-            }
-        } catch (IOException e) {
-            Logger.warn("Could not load UPC logo: " + e.getMessage());
-            // Fallback to icon if loading fails
+        // Load and display the UPC logo image, fitted to the logo area
+        Icon logo = UIFactory.createFittedImageIcon(UIFactory.LOGO_RESOURCE, 120, 80);
+        if (logo != null) {
+            JLabel logoLabel = new JLabel(logo);
+            logoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+            logoPanel.add(logoLabel);
+        } else {
+            // Fallback to icon if image not found
             logoPanel.add(createLogoIcon());
         }
         
@@ -674,6 +616,7 @@ public class LoginPanel extends JPanel {
         }
         
         setCursor(new Cursor(Cursor.WAIT_CURSOR));
+        StartupTrace.begin("login");
         
         try {
             User user = authUserDAO.authenticate(username, password);
@@ -711,12 +654,11 @@ public class LoginPanel extends JPanel {
     }
     
     /**
-     * Stop the neon animation timer to allow clean shutdown
+     * Stop the neon animation to allow clean shutdown
      */
     public void stopAnimation() {
-        if (neonTimer != null) {
-            neonTimer.stop();
-            neonTimer = null;
+        if (glow != null) {
+            glow.stop();
         }
     }
 }
@@ -0,0 +1,103 @@
+package com.hotelmanager.ui;
+
+import java.awt.Frame;
+import java.awt.Window;
+import java.awt.event.HierarchyEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+/**
+ * Pulsing neon border of the login and registration cards.
+ * Each frame repaints only the strips along the card edges where the border is drawn, and the
+ * timer runs only while the card is on screen in a window that is not minimized.
+ */
+final class NeonGlow {
+
+    private static final int FRAME_MS = 50;
+    // Width of the edge strips covering the glow strokes
+    private static final int BORDER = 8;
+
+    private final JComponent card;
+    private final Timer timer;
+    private final WindowAdapter windowListener = new WindowAdapter() {
+        @Override
+        public void windowIconified(WindowEvent e) {
+            updateRunning();
+        }
+
+        @Override
+        public void windowDeiconified(WindowEvent e) {
+            updateRunning();
+        }
+    };
+    private Window window;
+    private float phase;
+    private boolean stopped;
+
+    NeonGlow(JComponent card) {
+        this.card = card;
+        timer = new Timer(FRAME_MS, e -> nextFrame());
+        card.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & (HierarchyEvent.SHOWING_CHANGED | HierarchyEvent.PARENT_CHANGED)) != 0) {
+                watchWindow(SwingUtilities.getWindowAncestor(card));
+                updateRunning();
+            }
+        });
+    }
+
+    /**
+     * Alpha of the inner border for the current frame, 40 to 200
+     */
+    int intensity() {
+        return (int) (120 + 80 * Math.sin(phase));
+    }
+
+    /**
+     * Stop for good, e.g. on shutdown
+     */
+    void stop() {
+        stopped = true;
+        timer.stop();
+        watchWindow(null);
+    }
+
+    private void nextFrame() {
+        phase += 0.1f;
+        if (phase > 2 * Math.PI) {
+            phase = 0;
+        }
+        // One paint per strip: a single repaint request would be merged into the whole card
+        int width = card.getWidth();
+        int height = card.getHeight();
+        card.paintImmediately(0, 0, width, BORDER);
+        card.paintImmediately(0, height - BORDER, width, BORDER);
+        card.paintImmediately(0, BORDER, BORDER, height - 2 * BORDER);
+        card.paintImmediately(width - BORDER, BORDER, BORDER, height - 2 * BORDER);
+    }
+
+    private void watchWindow(Window ancestor) {
+        if (ancestor == window) {
+            return;
+        }
+        if (window != null) {
+            window.removeWindowListener(windowListener);
+        }
+        window = ancestor;
+        if (window != null) {
+            window.addWindowListener(windowListener);
+        }
+    }
+
+    private void updateRunning() {
+        boolean minimized = window instanceof Frame frame && (frame.getExtendedState() & Frame.ICONIFIED) != 0;
+        if (!stopped && card.isShowing() && !minimized) {
+            timer.start();
+        } else {
+            timer.stop();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.hotelmanager.ui;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+import javax.swing.table.AbstractTableModel;
+
+import com.hotelmanager.util.Logger;
+
+/**
+ * Read-only table model for tables too large to hold in memory.
+ * The model keeps the primary key of every row shown, in display order, and the first column
+ * shows it; the rows themselves are fetched a page at a time, by their keys, when the table first
+ * paints a row of the page, and only the most recently used pages are kept. Rows still loading show blank
+ * (or their previous values after a reload) and are repainted when the page arrives.
+ * Cells hold raw values; {@link #format} turns them into text when the renderer asks.
+ * All methods must be called on the EDT.
+ */
+public class PagedTableModel<T> extends AbstractTableModel {
+
+    public static final int PAGE_SIZE = 200;
+    private static final int MAX_PAGES = 25;
+
+    /**
+     * One column: its header, the raw cell value of a row and how the renderer shows that value
+     */
+    public record Column<T>(String name, Function<T, Object> value, Function<Object, String> format) {
+
+        public Column(String name, Function<T, Object> value) {
+            this(name, value, String::valueOf);
+        }
+    }
+
+    /**
+     * Loads the rows with the given keys, in any order; runs on a worker thread
+     */
+    @FunctionalInterface
+    public interface PageLoader<T> {
+        List<T> load(int[] ids) throws Exception;
+    }
+
+    private final RefreshablePanel<?> owner;
+    private final String idName;
+    private final List<Column<T>> columns;
+    private final ToIntFunction<T> idOf;
+    private final PageLoader<T> loader;
+
+    private int[] ids = new int[0];
+    // Equal to ids.length except while reset fires its events
+    private int rowCount;
+    // Loaded pages by page number, least recently used first; a row's slot is null if it was deleted
+    private final Map<Integer, Object[]> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+            if (size() <= MAX_PAGES) {
+                return false;
+            }
+            requested.remove(eldest.getKey());
+            return true;
+        }
+    };
+    private final Set<Integer> requested = new HashSet<>();
+    // Rows on screen before the last reset, shown by key until their page is reloaded
+    private Map<Integer, T> previous = Map.of();
+    // Bumped on every reset; pages fetched for older keys are dropped
+    private long generation;
+
+    public PagedTableModel(RefreshablePanel<?> owner, String idName, List<Column<T>> columns,
+                           ToIntFunction<T> idOf, PageLoader<T> loader) {
+        this.owner = owner;
+        this.idName = idName;
+        this.columns = columns;
+        this.idOf = idOf;
+        this.loader = loader;
+    }
+
+    /**
+     * Replace the keys, e.g. after a reload or a new sort or filter; loaded pages are dropped and
+     * refetched when painted
+     */
+    public void reset(int[] newIds) {
+        Map<Integer, T> onScreen = new HashMap<>();
+        for (Object[] page : pages.values()) {
+            for (Object row : page) {
+                if (row != null) {
+                    T item = rowOf(row);
+                    onScreen.put(idOf.applyAsInt(item), item);
+                }
+            }
+        }
+        previous = onScreen;
+        pages.clear();
+        requested.clear();
+        generation++;
+
+        // Diff keys in ascending order so the table keeps its selection: removed and added rows
+        // fire one event per run, with the row count stepping through the intermediate states
+        int[] oldIds = ids;
+        ids = newIds;
+        if (!isAscending(oldIds) || !isAscending(newIds)) {
+            rowCount = newIds.length;
+            fireTableDataChanged();
+            return;
+        }
+        RowRuns deleted = new RowRuns();
+        RowRuns inserted = new RowRuns();
+        int i = 0;
+        int j = 0;
+        while (i < oldIds.length || j < newIds.length) {
+            if (j == newIds.length || (i < oldIds.length && oldIds[i] < newIds[j])) {
+                deleted.add(i++);
+            } else if (i == oldIds.length || newIds[j] < oldIds[i]) {
+                inserted.add(j++);
+            } else {
+                i++;
+                j++;
+            }
+        }
+        if (deleted.size() + inserted.size() > RowRuns.MAX_STRUCTURAL_RUNS) {
+            rowCount = newIds.length;
+            fireTableDataChanged();
+            return;
+        }
+        for (int run = deleted.size() - 1; run >= 0; run--) {
+            rowCount -= deleted.last(run) - deleted.first(run) + 1;
+            fireTableRowsDeleted(deleted.first(run), deleted.last(run));
+        }
+        for (int run = 0; run < inserted.size(); run++) {
+            rowCount += inserted.last(run) - inserted.first(run) + 1;
+            fireTableRowsInserted(inserted.first(run), inserted.last(run));
+        }
+        // Repaint the rows on screen so their pages are fetched again
+        if (rowCount > 0) {
+            fireTableRowsUpdated(0, rowCount - 1);
+        }
+    }
+
+    public int getIdAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * The loaded row at an index, or null while its page is loading
+     */
+    public T getRow(int row) {
+        Object[] page = pages.get(row / PAGE_SIZE);
+        if (page == null) {
+            requestPage(row / PAGE_SIZE);
+            return previous.get(ids[row]);
+        }
+        Object item = page[row % PAGE_SIZE];
+        return item != null ? rowOf(item) : null;
+    }
+
+    /**
+     * Text for a raw cell value of a model column
+     */
+    public String format(Object value, int column) {
+        if (value == null) {
+            return "";
+        }
+        return column == 0 ? value.toString() : columns.get(column - 1).format().apply(value);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size() + 1;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return column == 0 ? idName : columns.get(column - 1).name();
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        if (column == 0) {
+            return ids[row];
+        }
+        T item = getRow(row);
+        return item != null ? columns.get(column - 1).value().apply(item) : null;
+    }
+
+    private void requestPage(int page) {
+        if (!requested.add(page)) {
+            return;
+        }
+        int first = page * PAGE_SIZE;
+        int[] pageIds = Arrays.copyOfRange(ids, first, Math.min(ids.length, first + PAGE_SIZE));
+        long requestedGeneration = generation;
+        RefreshScheduler.getInstance().fetch(owner, () -> loader.load(pageIds),
+            rows -> pageLoaded(requestedGeneration, page, rows),
+            e -> pageFailed(requestedGeneration, page, e));
+    }
+
+    private void pageLoaded(long loadedGeneration, int page, List<T> rows) {
+        if (loadedGeneration != generation) {
+            return;
+        }
+        // Place rows by key; rows deleted since the keys were read leave a blank slot
+        int first = page * PAGE_SIZE;
+        int last = Math.min(ids.length, first + PAGE_SIZE);
+        Map<Integer, T> byId = new HashMap<>();
+        for (T item : rows) {
+            byId.put(idOf.applyAsInt(item), item);
+        }
+        Object[] slots = new Object[last - first];
+        for (int row = first; row < last; row++) {
+            slots[row - first] = byId.get(ids[row]);
+        }
+        pages.put(page, slots);
+        fireTableRowsUpdated(first, last - 1);
+    }
+
+    private void pageFailed(long failedGeneration, int page, Exception e) {
+        if (failedGeneration != generation) {
+            return;
+        }
+        // A cancelled page is asked for again when next painted; a failed one stays blank until the
+        // next reload instead of retrying on every paint
+        if (e instanceof CancellationException) {
+            requested.remove(page);
+        } else {
+            Logger.error("Error loading " + owner.getDataName() + " rows " + page * PAGE_SIZE, e);
+        }
+    }
+
+    private static boolean isAscending(int[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] <= keys[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private T rowOf(Object item) {
+        return (T) item;
+    }
+}
@@ -7,14 +7,14 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -24,32 +24,42 @@ import javax.swing.JTable;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
-import javax.swing.table.DefaultTableModel;
 
 import com.hotelmanager.HotelManagerApp;
 import com.hotelmanager.dao.PaymentDAO;
 import com.hotelmanager.dao.ReservationDAO;
+import com.hotelmanager.export.Exporter;
+import com.hotelmanager.export.TableExport;
+import com.hotelmanager.model.Money;
 import com.hotelmanager.model.Payment;
+import com.hotelmanager.model.PaymentStatus;
 import com.hotelmanager.model.Reservation;
+import com.hotelmanager.ui.PagedTableModel.Column;
 import com.hotelmanager.util.Logger;
 
 /**
  * Payments Panel - displays payment management interface with modern styling
  */
-public class PaymentsPanel extends JPanel {
+public class PaymentsPanel extends JPanel implements RefreshablePanel<PaymentsPanel.PaymentsData> {
+    
+    private static final long STALENESS_BUDGET_MS = 10_000;
     
     private final HotelManagerApp mainApp;
     private final PaymentDAO paymentDAO;
     private final ReservationDAO reservationDAO;
     private JTable paymentsTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<Payment> tableModel;
+    private List<Column<Payment>> columns;
+    private TableFilterBar filterBar;
     
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton refreshButton;
+    private JButton exportButton;
     
     // Stat card labels
+    private JLabel loadingLabel;
     private JLabel totalPaymentsLabel;
     private JLabel completedPaymentsLabel;
     private JLabel pendingPaymentsLabel;
@@ -60,13 +70,13 @@ public class PaymentsPanel extends JPanel {
     private static final Color COMPLETED_COLOR = new Color(39, 174, 96);   // Green
     private static final Color PENDING_COLOR = new Color(243, 156, 18);    // Orange
     private static final Color FAILED_COLOR = new Color(231, 76, 60);      // Red
+    private static final Color REFUNDED_COLOR = new Color(155, 89, 182);   // Purple
     
     public PaymentsPanel(HotelManagerApp mainApp) {
         this.mainApp = mainApp;
         this.paymentDAO = new PaymentDAO();
         this.reservationDAO = new ReservationDAO();
         initializeUI();
-        refreshData();
     }
     
     private void initializeUI() {
@@ -89,17 +99,12 @@ public class PaymentsPanel extends JPanel {
         // Right side - Logo
         JPanel logoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         logoPanel.setBackground(UIFactory.CARD_BG);
+        loadingLabel = UIFactory.createLoadingLabel();
+        logoPanel.add(loadingLabel);
         
-        try {
-            ImageIcon originalIcon = new ImageIcon(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (originalIcon.getImage() != null) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                JLabel logoLabel = new JLabel(scaledIcon);
-                logoPanel.add(logoLabel);
-            }
-        } catch (Exception e) {
-            Logger.warn("Could not load logo: " + e.getMessage());
+        Icon logo = UIFactory.createImageIcon(UIFactory.LOGO_RESOURCE, 40, 40);
+        if (logo != null) {
+            logoPanel.add(new JLabel(logo));
         }
         
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -141,22 +146,25 @@ public class PaymentsPanel extends JPanel {
         editButton = UIFactory.createSecondaryButton("✏️ Edit");
         deleteButton = UIFactory.createDangerButton("🗑️ Delete");
         refreshButton = UIFactory.createSecondaryButton("🔄 Refresh");
+        exportButton = UIFactory.createSecondaryButton("⬇ Export");
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         
-        contentPanel.add(buttonPanel, BorderLayout.NORTH);
-        
-        // Table model
-        String[] columnNames = {"ID", "Reservation", "Amount", "Method", "Status", "Date", "Transaction ID"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Table model - rows are paged in as they scroll into view and formatted when painted
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
+        // payments.reservation_id cascades on delete, so the reservation always exists
+        columns = List.of(
+            new Column<>("Reservation", payment -> "Res #" + payment.getReservationId()),
+            new Column<>("Amount", Payment::getAmountCents, value -> Money.format((Long) value)),
+            new Column<>("Method", Payment::getPaymentMethod),
+            new Column<>("Status", Payment::getPaymentStatus, value -> ((PaymentStatus) value).getCode()),
+            new Column<>("Date", Payment::getPaymentDate, value -> ((LocalDateTime) value).format(dateFormatter)),
+            new Column<>("Transaction ID", Payment::getTransactionId));
+        tableModel = new PagedTableModel<>(this, "ID", columns, Payment::getId, paymentDAO::findByIds);
         
         paymentsTable = new JTable(tableModel);
         paymentsTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -173,25 +181,24 @@ public class PaymentsPanel extends JPanel {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                int modelColumn = table.convertColumnIndexToModel(column);
+                Component c = super.getTableCellRendererComponent(table, tableModel.format(value, modelColumn),
+                    isSelected, hasFocus, row, column);
                 if (!isSelected) {
                     c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(245, 245, 245));
                 }
                 // Color the Status column
-                if (column == 4 && value != null) {
-                    String status = value.toString();
-                    if ("COMPLETED".equals(status)) {
-                        c.setForeground(COMPLETED_COLOR);
-                    } else if ("PENDING".equals(status)) {
-                        c.setForeground(PENDING_COLOR);
-                    } else if ("FAILED".equals(status)) {
-                        c.setForeground(FAILED_COLOR);
-                    } else if ("REFUNDED".equals(status)) {
-                        c.setForeground(new Color(155, 89, 182));
-                    }
+                if (value == PaymentStatus.COMPLETED) {
+                    c.setForeground(COMPLETED_COLOR);
+                } else if (value == PaymentStatus.PENDING) {
+                    c.setForeground(PENDING_COLOR);
+                } else if (value == PaymentStatus.FAILED) {
+                    c.setForeground(FAILED_COLOR);
+                } else if (value == PaymentStatus.REFUNDED) {
+                    c.setForeground(REFUNDED_COLOR);
                 }
                 // Highlight amount column
-                if (column == 2 && value != null) {
+                if (modelColumn == 2 && value != null) {
                     c.setForeground(REVENUE_COLOR);
                 }
                 return c;
@@ -205,6 +212,16 @@ public class PaymentsPanel extends JPanel {
         paymentsTable.getColumnModel().getColumn(0).setMaxWidth(0);
         paymentsTable.getColumnModel().getColumn(0).setWidth(0);
         
+        // Search, filters and header sorting over the index built by loadData
+        filterBar = new TableFilterBar(paymentsTable, tableModel);
+        filterBar.addStatusChips(4, PaymentStatus.class,
+            PENDING_COLOR, COMPLETED_COLOR, FAILED_COLOR, REFUNDED_COLOR);
+        filterBar.addDateRange(5, "Paid:");
+        JPanel toolbar = new JPanel(new BorderLayout());
+        toolbar.add(buttonPanel, BorderLayout.NORTH);
+        toolbar.add(filterBar, BorderLayout.SOUTH);
+        contentPanel.add(toolbar, BorderLayout.NORTH);
+        
         JScrollPane scrollPane = new JScrollPane(paymentsTable);
         scrollPane.setBorder(BorderFactory.createCompoundBorder(
             new LineBorder(new Color(189, 195, 199), 1),
@@ -232,6 +249,9 @@ public class PaymentsPanel extends JPanel {
         editButton.addActionListener(e -> showEditPaymentDialog());
         deleteButton.addActionListener(e -> deleteSelectedPayment());
         refreshButton.addActionListener(e -> refreshData());
+        exportButton.addActionListener(e -> ExportDialog.export(this, "Payments",
+            () -> Exporter.countRows(TableExport.PAYMENTS),
+            (path, format, progress) -> Exporter.exportTable(TableExport.PAYMENTS, path, format, progress)));
     }
     
     /**
@@ -287,66 +307,61 @@ public class PaymentsPanel extends JPanel {
     }
     
     /**
-     * Refresh payment data from database
+     * Reload payment data from the database in the background
      */
     public void refreshData() {
-        try {
-            List<Payment> payments = paymentDAO.findAll();
-            tableModel.setRowCount(0);
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy HH:mm");
-            
-            int completedCount = 0;
-            int pendingCount = 0;
-            double totalRevenue = 0;
-            
-            for (Payment payment : payments) {
-                String reservationInfo = getReservationInfo(payment.getReservationId());
-                
-                Object[] rowData = {
-                    payment.getId(),
-                    reservationInfo,
-                    String.format("$%,.2f", payment.getAmount()),
-                    payment.getPaymentMethod(),
-                    payment.getPaymentStatusCode(),
-                    payment.getPaymentDate() != null ? payment.getPaymentDate().format(dateFormatter) : "",
-                    payment.getTransactionId()
-                };
-                tableModel.addRow(rowData);
-                
-                // Count stats
-                if ("COMPLETED".equals(payment.getPaymentStatusCode())) {
-                    completedCount++;
-                    totalRevenue += payment.getAmount();
-                } else if ("PENDING".equals(payment.getPaymentStatusCode())) {
-                    pendingCount++;
-                }
-            }
-            
-            // Update stat cards
-            totalPaymentsLabel.setText(String.valueOf(payments.size()));
-            completedPaymentsLabel.setText(String.valueOf(completedCount));
-            pendingPaymentsLabel.setText(String.valueOf(pendingCount));
-            totalRevenueLabel.setText(String.format("$%,.2f", totalRevenue));
-            
-            Logger.info("Payments data refreshed: " + payments.size() + " payments loaded");
-        } catch (Exception e) {
-            Logger.error("Error loading payments", e);
-            JOptionPane.showMessageDialog(this, 
-                "Error loading payments: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        RefreshScheduler.getInstance().refresh(this);
     }
     
-    private String getReservationInfo(int reservationId) {
-        try {
-            Reservation res = reservationDAO.findById(reservationId);
-            return res != null ? "Res #" + res.getId() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
+    @Override
+    public Object loadVersion() throws Exception {
+        return paymentDAO.getDataVersion();
+    }
+    
+    @Override
+    public PaymentsData loadData() throws Exception {
+        // Only the search and sort keys are kept; the rows on screen are paged in by the table model
+        TableIndex.Builder<Payment> index = TableIndex.builder(columns, Payment::getId, filterBar.filterColumns());
+        paymentDAO.streamListRows(index::add);
+        
+        int[] statusCounts = paymentDAO.countByStatus();
+        return new PaymentsData(index.build(), statusCounts[PaymentStatus.COMPLETED.ordinal()],
+            statusCounts[PaymentStatus.PENDING.ordinal()], paymentDAO.getTotalRevenueCents());
+    }
+    
+    @Override
+    public void applyData(PaymentsData data) {
+        filterBar.setIndex(data.index());
+        
+        // Update stat cards
+        totalPaymentsLabel.setText(String.valueOf(data.index().size()));
+        completedPaymentsLabel.setText(String.valueOf(data.completed()));
+        pendingPaymentsLabel.setText(String.valueOf(data.pending()));
+        totalRevenueLabel.setText(Money.format(data.revenueCents()));
+        
+        Logger.info("Payments data refreshed: " + data.index().size() + " payments");
+    }
+    
+    @Override
+    public String getDataName() {
+        return "payments";
+    }
+    
+    @Override
+    public long getStalenessBudgetMillis() {
+        return STALENESS_BUDGET_MS;
+    }
+    
+    @Override
+    public void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
     }
     
     private void showAddPaymentDialog() {
+        RefreshScheduler.getInstance().fetch(this, reservationDAO::findAll, this::showAddPaymentDialog);
+    }
+    
+    private void showAddPaymentDialog(List<Reservation> reservations) {
         JPanel panel = new JPanel(new java.awt.GridLayout(5, 2, 10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
@@ -356,13 +371,8 @@ public class PaymentsPanel extends JPanel {
         javax.swing.JComboBox<String> statusCombo = new javax.swing.JComboBox<>(new String[]{"PENDING", "COMPLETED", "FAILED", "REFUNDED"});
         javax.swing.JTextField transactionField = new javax.swing.JTextField();
         
-        try {
-            List<Reservation> reservations = reservationDAO.findAll();
-            for (Reservation r : reservations) {
-                reservationCombo.addItem(r);
-            }
-        } catch (Exception e) {
-            Logger.error("Error loading reservations", e);
+        for (Reservation r : reservations) {
+            reservationCombo.addItem(r);
         }
         
         panel.add(new JLabel("Reservation:"));
@@ -391,15 +401,16 @@ public class PaymentsPanel extends JPanel {
                 
                 Payment payment = new Payment();
                 payment.setReservationId(selectedReservation.getId());
-                payment.setAmount(Double.parseDouble(amountField.getText()));
+                payment.setAmountCents(Money.parseCents(amountField.getText()));
                 payment.setPaymentMethod((String) methodCombo.getSelectedItem());
                 payment.setPaymentStatusCode((String) statusCombo.getSelectedItem());
                 payment.setTransactionId(transactionField.getText());
                 
-                paymentDAO.insert(payment);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Payment recorded successfully!");
-                Logger.info("Payment recorded: $" + amountField.getText());
+                RefreshScheduler.getInstance().write(this, () -> paymentDAO.insert(payment), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Payment recorded successfully!");
+                    Logger.info("Payment recorded: $" + amountField.getText());
+                }, e -> writeFailed("Error recording payment", e));
             } catch (Exception e) {
                 Logger.error("Error recording payment", e);
                 JOptionPane.showMessageDialog(this, "Error recording payment: " + e.getMessage(),
@@ -416,20 +427,24 @@ public class PaymentsPanel extends JPanel {
             return;
         }
         
-        int paymentId = (Integer) tableModel.getValueAt(selectedRow, 0);
+        int paymentId = tableModel.getIdAt(selectedRow);
+        RefreshScheduler.getInstance().fetch(this, () -> paymentDAO.findById(paymentId),
+            this::showEditPaymentDialog);
+    }
+    
+    private void showEditPaymentDialog(Payment payment) {
+        if (payment == null) {
+            JOptionPane.showMessageDialog(this, "Payment not found",
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         try {
-            Payment payment = paymentDAO.findById(paymentId);
-            if (payment == null) {
-                JOptionPane.showMessageDialog(this, "Payment not found",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
             
             JPanel panel = new JPanel(new java.awt.GridLayout(4, 2, 10, 10));
             panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
             
-            javax.swing.JTextField amountField = new javax.swing.JTextField(String.valueOf(payment.getAmount()));
+            javax.swing.JTextField amountField = new javax.swing.JTextField(Money.toPlainString(payment.getAmountCents()));
             javax.swing.JComboBox<String> methodCombo = new javax.swing.JComboBox<>(new String[]{"CASH", "CREDIT_CARD", "DEBIT_CARD", "BANK_TRANSFER", "ONLINE"});
             javax.swing.JComboBox<String> statusCombo = new javax.swing.JComboBox<>(new String[]{"PENDING", "COMPLETED", "FAILED", "REFUNDED"});
             javax.swing.JTextField transactionField = new javax.swing.JTextField(payment.getTransactionId());
@@ -450,15 +465,16 @@ public class PaymentsPanel extends JPanel {
                 JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
             
             if (result == JOptionPane.OK_OPTION) {
-                payment.setAmount(Double.parseDouble(amountField.getText()));
+                payment.setAmountCents(Money.parseCents(amountField.getText()));
                 payment.setPaymentMethod((String) methodCombo.getSelectedItem());
                 payment.setPaymentStatusCode((String) statusCombo.getSelectedItem());
                 payment.setTransactionId(transactionField.getText());
                 
-                paymentDAO.update(payment);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Payment updated successfully!");
-                Logger.info("Payment updated: ID " + paymentId);
+                RefreshScheduler.getInstance().write(this, () -> paymentDAO.update(payment), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Payment updated successfully!");
+                    Logger.info("Payment updated: ID " + payment.getId());
+                }, e -> writeFailed("Error editing payment", e));
             }
         } catch (Exception e) {
             Logger.error("Error editing payment", e);
@@ -480,18 +496,27 @@ public class PaymentsPanel extends JPanel {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                int paymentId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                paymentDAO.delete(paymentId);
+            int paymentId = tableModel.getIdAt(selectedRow);
+            RefreshScheduler.getInstance().write(this, () -> paymentDAO.delete(paymentId), done -> {
                 refreshData();
                 JOptionPane.showMessageDialog(this, "Payment deleted successfully!");
                 Logger.info("Payment deleted: ID " + paymentId);
-            } catch (Exception e) {
-                Logger.error("Error deleting payment", e);
-                JOptionPane.showMessageDialog(this, "Error deleting payment: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> writeFailed("Error deleting payment", e));
         }
     }
+    
+    /**
+     * Report a write that failed off the EDT
+     */
+    private void writeFailed(String message, Exception e) {
+        Logger.error(message, e);
+        JOptionPane.showMessageDialog(this, message + ": " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Table index and stat card counts produced off the EDT
+     */
+    record PaymentsData(TableIndex index, int completed, int pending, long revenueCents) {
+    }
 }
-
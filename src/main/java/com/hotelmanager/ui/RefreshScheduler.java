@@ -0,0 +1,387 @@
+package com.hotelmanager.ui;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.hotelmanager.util.DBConnection;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Refreshes panels off the EDT.
+ * Every panel has a staleness budget: the visible panel is revalidated once its data is older than
+ * that, which for a panel with a data version is one cheap query and a reload only when the
+ * version moved; the view on screen stays until then. Repeated requests while a load is running
+ * collapse into one follow-up load, loads for panels that are no longer visible are cancelled, and
+ * finished loads are applied on the EDT together in a single batch. One-off fetches for a panel
+ * (the rows a dialog needs, a report) share the same workers and are cancelled with the panel's
+ * loads. Writes run one at a time on their own thread and are never cancelled. A panel is told
+ * when it has work in flight so it can show a loading state without blocking input.
+ * All methods except the worker bodies must be called on the EDT.
+ */
+public final class RefreshScheduler {
+
+    private static final int TICK_MS = 1000;
+    // Automatic retries after a failed load wait this long, doubling per failure up to the maximum
+    private static final long RETRY_MIN_MS = 2_000L;
+    private static final long RETRY_MAX_MS = 300_000L;
+
+    private static RefreshScheduler instance;
+
+    private final ExecutorService executor;
+    private final ExecutorService writer;
+    private final Map<RefreshablePanel<?>, Slot<?>> slots = new IdentityHashMap<>();
+    private final Queue<Runnable> completed = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final Timer ticker;
+    private RefreshablePanel<?> visible;
+
+    private RefreshScheduler() {
+        // Leave one pooled connection free for the writer
+        int workers = Math.max(1, DBConnection.getInstance().getPoolSize() - 1);
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "panel-refresh-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        writer = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "panel-write");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker = new Timer(TICK_MS, e -> refreshVisibleIfStale());
+    }
+
+    public static RefreshScheduler getInstance() {
+        if (instance == null) {
+            synchronized (RefreshScheduler.class) {
+                if (instance == null) {
+                    instance = new RefreshScheduler();
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Make the panel the visible one: cancel loads for the others and reload it if over budget.
+     * Null when the section shown has no refreshable panel.
+     */
+    public void show(RefreshablePanel<?> panel) {
+        visible = panel;
+        for (Slot<?> slot : slots.values()) {
+            if (slot.panel != panel) {
+                slot.cancel();
+            }
+        }
+        if (panel == null) {
+            return;
+        }
+        slotOf(panel).request(false, false);
+        if (!ticker.isRunning()) {
+            ticker.start();
+        }
+    }
+
+    /**
+     * Reload now, e.g. after a write or from the Refresh button.
+     * Other panels are marked stale so they reload the next time they are shown.
+     */
+    public void refresh(RefreshablePanel<?> panel) {
+        for (Slot<?> slot : slots.values()) {
+            slot.loadedAtNanos = 0L;
+        }
+        slotOf(panel).request(true, true);
+    }
+
+    /**
+     * Run a one-off query for the panel and hand the result to the EDT, e.g. the rows a dialog
+     * needs before it opens. Cancelled when another panel is shown; failures go to loadFailed.
+     */
+    public <R> void fetch(RefreshablePanel<?> owner, Callable<R> query, Consumer<R> onLoaded) {
+        fetch(owner, query, onLoaded, null);
+    }
+
+    /**
+     * As {@link #fetch(RefreshablePanel, Callable, Consumer)}, with the failure handled by the caller.
+     * A fetch cancelled with its panel fails with a CancellationException.
+     */
+    public <R> void fetch(RefreshablePanel<?> owner, Callable<R> query, Consumer<R> onLoaded,
+                          Consumer<Exception> onFailed) {
+        Slot<?> slot = slotOf(owner);
+        Fetch fetch = new Fetch(onFailed);
+        slot.fetches.add(fetch);
+        slot.loadingChanged();
+        fetch.future = executor.submit(() -> {
+            try {
+                R result = query.call();
+                publish(() -> slot.fetched(fetch, () -> onLoaded.accept(result)));
+            } catch (Exception e) {
+                publish(() -> slot.fetched(fetch, () -> {
+                    if (onFailed != null) {
+                        onFailed.accept(e);
+                    } else {
+                        owner.loadFailed(e, true);
+                    }
+                }));
+            }
+        });
+    }
+
+    /**
+     * Run a write for the panel, e.g. a dialog's save, off the EDT and hand the outcome to the EDT.
+     * Writes run in submission order and are not cancelled when another panel is shown, so a
+     * submitted write always completes and reports back.
+     */
+    public <R> void write(RefreshablePanel<?> owner, Callable<R> write, Consumer<R> onDone,
+                          Consumer<Exception> onFailed) {
+        Slot<?> slot = slotOf(owner);
+        slot.writes++;
+        slot.loadingChanged();
+        writer.execute(() -> {
+            try {
+                R result = write.call();
+                publish(() -> slot.written(() -> onDone.accept(result)));
+            } catch (Exception e) {
+                publish(() -> slot.written(() -> onFailed.accept(e)));
+            }
+        });
+    }
+
+    /**
+     * Forget all panels, e.g. on logout when they are discarded
+     */
+    public void clear() {
+        ticker.stop();
+        for (Slot<?> slot : slots.values()) {
+            slot.cancel();
+        }
+        slots.clear();
+        visible = null;
+    }
+
+    private void refreshVisibleIfStale() {
+        if (visible != null) {
+            slotOf(visible).request(false, false);
+        }
+    }
+
+    private <T> Slot<T> slotOf(RefreshablePanel<T> panel) {
+        @SuppressWarnings("unchecked")
+        Slot<T> slot = (Slot<T>) slots.get(panel);
+        if (slot == null) {
+            slot = new Slot<>(panel);
+            slots.put(panel, slot);
+        }
+        return slot;
+    }
+
+    /**
+     * Hand a finished load to the EDT; loads finishing close together share one EDT pass
+     */
+    private void publish(Runnable result) {
+        completed.add(result);
+        if (flushScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    private void flush() {
+        flushScheduled.set(false);
+        Runnable result;
+        while ((result = completed.poll()) != null) {
+            result.run();
+        }
+    }
+
+    /**
+     * Load state of one panel (EDT-confined except for the submitted task)
+     */
+    private final class Slot<T> {
+        final RefreshablePanel<T> panel;
+        // Start time of the load currently on screen, 0 when stale
+        long loadedAtNanos;
+        // Data version read with the load on screen, null if unknown
+        Object version;
+        // Failed loads in a row, and when the staleness check may retry after the last one
+        int failures;
+        long retryAtNanos;
+        // Bumped on every submit and cancel; results from older generations are dropped
+        long generation;
+        Future<?> inFlight;
+        boolean rerunRequested;
+        boolean userInitiated;
+        final List<Fetch> fetches = new ArrayList<>();
+        int writes;
+        boolean loadingShown;
+
+        Slot(RefreshablePanel<T> panel) {
+            this.panel = panel;
+        }
+
+        void request(boolean force, boolean userInitiated) {
+            if (inFlight != null) {
+                // Coalesce: the running load is followed by at most one more
+                if (force) {
+                    rerunRequested = true;
+                    this.userInitiated |= userInitiated;
+                }
+                return;
+            }
+            long now = System.nanoTime();
+            if (!force && loadedAtNanos != 0L
+                    && now - loadedAtNanos < panel.getStalenessBudgetMillis() * 1_000_000L) {
+                return;
+            }
+            if (!force && failures > 0 && now - retryAtNanos < 0) {
+                return;
+            }
+            submit(userInitiated, !force);
+        }
+
+        void cancel() {
+            if (inFlight != null) {
+                inFlight.cancel(true);
+                inFlight = null;
+                generation++;
+            }
+            rerunRequested = false;
+            List<Fetch> cancelled = new ArrayList<>(fetches);
+            fetches.clear();
+            loadingChanged();
+            for (Fetch fetch : cancelled) {
+                fetch.future.cancel(true);
+                if (fetch.onFailed != null) {
+                    fetch.onFailed.accept(new CancellationException("Cancelled with " + panel.getDataName()));
+                }
+            }
+        }
+
+        void fetched(Fetch fetch, Runnable outcome) {
+            if (!fetches.remove(fetch)) {
+                return; // cancelled
+            }
+            loadingChanged();
+            outcome.run();
+        }
+
+        void written(Runnable outcome) {
+            writes--;
+            loadingChanged();
+            outcome.run();
+        }
+
+        void loadingChanged() {
+            boolean loading = inFlight != null || !fetches.isEmpty() || writes > 0;
+            if (loading != loadingShown) {
+                loadingShown = loading;
+                panel.setLoading(loading);
+            }
+        }
+
+        /**
+         * Load the panel; when revalidating, first compare its data version with the one on screen
+         * and keep the view if it has not moved
+         */
+        private void submit(boolean userInitiated, boolean revalidate) {
+            long submitted = ++generation;
+            long startNanos = System.nanoTime();
+            Object shownVersion = revalidate ? version : null;
+            this.userInitiated = userInitiated;
+            inFlight = executor.submit(() -> {
+                // Read before the data, so a write in between shows as a moved version next time
+                Object newVersion = readVersion();
+                if (shownVersion != null && shownVersion.equals(newVersion)) {
+                    publish(() -> unchanged(submitted, startNanos));
+                    return;
+                }
+                try {
+                    T data = panel.loadData();
+                    publish(() -> complete(submitted, startNanos, newVersion, data, null));
+                } catch (Exception e) {
+                    publish(() -> complete(submitted, startNanos, null, null, e));
+                }
+            });
+            loadingChanged();
+        }
+
+        private Object readVersion() {
+            try {
+                return panel.loadVersion();
+            } catch (Exception e) {
+                // Unknown: fall through to a full load, which reports the failure if it persists
+                return null;
+            }
+        }
+
+        private void unchanged(long submitted, long startNanos) {
+            if (submitted != generation) {
+                return; // superseded or cancelled
+            }
+            inFlight = null;
+            failures = 0;
+            loadedAtNanos = startNanos;
+            Logger.debug(String.format("Revalidated %s in %d ms, unchanged", panel.getDataName(),
+                (System.nanoTime() - startNanos) / 1_000_000));
+            finished();
+        }
+
+        private void complete(long submitted, long startNanos, Object newVersion, T data, Exception error) {
+            if (submitted != generation) {
+                return; // superseded or cancelled
+            }
+            inFlight = null;
+            if (error != null) {
+                // Back off so a database that stays down is not queried and logged every tick
+                failures++;
+                long delayMillis = RETRY_MIN_MS << Math.min(failures - 1, 20);
+                retryAtNanos = System.nanoTime() + Math.min(delayMillis, RETRY_MAX_MS) * 1_000_000L;
+                panel.loadFailed(error, userInitiated);
+            } else {
+                failures = 0;
+                loadedAtNanos = startNanos;
+                version = newVersion;
+                panel.applyData(data);
+                Logger.info(String.format("Refreshed %s in %d ms", panel.getDataName(),
+                    (System.nanoTime() - startNanos) / 1_000_000));
+            }
+            finished();
+        }
+
+        private void finished() {
+            if (rerunRequested) {
+                rerunRequested = false;
+                submit(userInitiated, false);
+            } else {
+                loadingChanged();
+            }
+        }
+    }
+
+    /**
+     * A one-off query in flight for a panel (EDT-confined)
+     */
+    private static final class Fetch {
+        final Consumer<Exception> onFailed;
+        Future<?> future;
+
+        Fetch(Consumer<Exception> onFailed) {
+            this.onFailed = onFailed;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.hotelmanager.ui;
+
+import java.awt.Component;
+
+import javax.swing.JOptionPane;
+
+import com.hotelmanager.util.Logger;
+
+/**
+ * Panel whose data is loaded by the {@link RefreshScheduler}.
+ * Loading runs on a worker thread and must not touch Swing; applying runs on the EDT.
+ */
+public interface RefreshablePanel<T> {
+
+    /**
+     * Query everything the panel shows (worker thread, no Swing access)
+     */
+    T loadData() throws Exception;
+
+    /**
+     * Cheap fingerprint of the data the panel shows (worker thread, no Swing access). A due reload
+     * is skipped while it equals the version read with the data on screen; null always reloads.
+     */
+    default Object loadVersion() throws Exception {
+        return null;
+    }
+
+    /**
+     * Push a loaded result into the components (EDT)
+     */
+    void applyData(T data);
+
+    /**
+     * Name used in log and error messages, e.g. "rooms"
+     */
+    String getDataName();
+
+    /**
+     * How old the shown data may get while the panel is visible
+     */
+    long getStalenessBudgetMillis();
+
+    /**
+     * A load or fetch for the panel started or the last one finished (EDT)
+     */
+    default void setLoading(boolean loading) {
+    }
+
+    /**
+     * Report a failed load (EDT). Background refreshes only log so a dead
+     * database does not stack up a dialog every few seconds.
+     */
+    default void loadFailed(Exception e, boolean userInitiated) {
+        Logger.error("Error loading " + getDataName(), e);
+        if (userInitiated && this instanceof Component) {
+            JOptionPane.showMessageDialog((Component) this,
+                "Error loading " + getDataName() + ": " + e.getMessage(),
+                "Error", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
@@ -10,13 +10,11 @@ import java.awt.Graphics2D;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
 import java.awt.Insets;
-import java.awt.image.BufferedImage;
-import java.io.IOException;
 
-import javax.imageio.ImageIO;
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JComboBox;
 import javax.swing.JLabel;
@@ -27,7 +25,6 @@ import javax.swing.JScrollBar;
 import javax.swing.JScrollPane;
 import javax.swing.JTextField;
 import javax.swing.SwingConstants;
-import javax.swing.Timer;
 import javax.swing.border.EmptyBorder;
 import javax.swing.event.DocumentEvent;
 import javax.swing.event.DocumentListener;
@@ -44,6 +41,8 @@ import com.hotelmanager.util.PasswordUtil;
  */
 public class RegistrationPanel extends JPanel {
     
+    public static final String BACKGROUND_RESOURCE = "/backgrounds/registration/registration.png";
+    
     private JTextField usernameField;
     private JPasswordField passwordField;
     private JPasswordField confirmPasswordField;
@@ -84,9 +83,8 @@ public class RegistrationPanel extends JPanel {
     private boolean confirmPasswordVisible = false;
     
     // Background image and neon effect
-    private BufferedImage backgroundImage;
-    private float neonGlow = 0f;
-    private Timer neonTimer;
+    private ScaledBackground background;
+    private NeonGlow glow;
     
     private final HotelManagerApp mainApp;
     private final AuthUserDAO authUserDAO;
@@ -95,60 +93,18 @@ public class RegistrationPanel extends JPanel {
         this.mainApp = mainApp;
         this.authUserDAO = new AuthUserDAO();
         loadBackgroundImage();
-        initializeNeonEffect();
         initializeUI();
     }
     
-    private void initializeNeonEffect() {
-        neonTimer = new Timer(50, e -> {
-            neonGlow += 0.1f;
-            if (neonGlow > 2 * Math.PI) {
-                neonGlow = 0;
-            }
-            repaint();
-        });
-        neonTimer.start();
-    }
-    
     private void loadBackgroundImage() {
-        try {
-            backgroundImage = ImageIO.read(getClass().getResource("/backgrounds/registration/registration.png"));
-        } catch (IOException e) {
-            Logger.warn("Could not load background image: " + e.getMessage());
-            backgroundImage = null;
-        }
+        background = new ScaledBackground(UIFactory.getImage(BACKGROUND_RESOURCE),
+            new Color(0, 0, 0, 60), false);
     }
     
     @Override
     protected void paintComponent(Graphics g) {
         super.paintComponent(g);
-        Graphics2D g2d = (Graphics2D) g;
-        g2d.setRenderingHint(java.awt.RenderingHints.KEY_ANTIALIASING, java.awt.RenderingHints.VALUE_ANTIALIAS_ON);
-        
-        if (backgroundImage != null) {
-            // Draw the background image scaled to fit the panel
-            g2d.drawImage(backgroundImage, 0, 0, getWidth(), getHeight(), this);
-            
-// Add a semi-transparent overlay for better readability (matching login form transparency)
-            g2d.setColor(new Color(0, 0, 0, 60));
-            g2d.fillRect(0, 0, getWidth(), getHeight());
-        } else {
-            // Modern dark gradient background - deep blue/purple (matching LoginPanel)
-            java.awt.GradientPaint gp = new java.awt.GradientPaint(
-                0, 0, new Color(15, 15, 35), 
-                0, getHeight(), new Color(25, 25, 50)
-            );
-            g2d.setPaint(gp);
-            g2d.fillRect(0, 0, getWidth(), getHeight());
-            
-            // Add subtle geometric pattern overlay (matching LoginPanel)
-            g2d.setColor(new Color(255, 255, 255, 3));
-            for (int i = 0; i < getWidth(); i += 40) {
-                for (int j = 0; j < getHeight(); j += 40) {
-                    g2d.fillRect(i, j, 1, 1);
-                }
-            }
-        }
+        background.paint(g, this);
     }
     
     private void initializeUI() {
@@ -201,7 +157,7 @@ public class RegistrationPanel extends JPanel {
                 g2.drawRoundRect(0, 0, getWidth() - 1, getHeight() - 1, 25, 25);
                 
                 // Draw neon border effect with animation (matching LoginPanel)
-                int glowIntensity = (int) (120 + 80 * Math.sin(neonGlow));
+                int glowIntensity = glow.intensity();
                 Color neonColor = new Color(52, 180, 219, glowIntensity);
                 
                 // Outer glow
@@ -226,6 +182,7 @@ public class RegistrationPanel extends JPanel {
             }
         };
         card.setOpaque(false);
+        glow = new NeonGlow(card);
         card.setLayout(new BoxLayout(card, BoxLayout.Y_AXIS));
         card.setBorder(BorderFactory.createEmptyBorder(30, 40, 30, 40));
         card.setAlignmentX(Component.CENTER_ALIGNMENT);
@@ -327,34 +284,14 @@ public class RegistrationPanel extends JPanel {
         logoPanel.setLayout(new BoxLayout(logoPanel, BoxLayout.Y_AXIS));
         logoPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
-        // Load and display UPC logo image
-        try {
-            BufferedImage logoImage = ImageIO.read(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (logoImage != null) {
-                // Scale the image to fit the logo area
-                int maxWidth = 120;
-                int maxHeight = 80;
-                double scale = Math.min((double) maxWidth / logoImage.getWidth(), 
-                                       (double) maxHeight / logoImage.getHeight());
-                int newWidth = (int) (logoImage.getWidth() * scale);
-                int newHeight = (int) (logoImage.getHeight() * scale);
-                
-                BufferedImage scaledImage = new BufferedImage(newWidth, newHeight, BufferedImage.TYPE_INT_ARGB);
-                Graphics2D g2d = scaledImage.createGraphics();
-                g2d.setRenderingHint(java.awt.RenderingHints.KEY_INTERPOLATION, 
-                                    java.awt.RenderingHints.VALUE_INTERPOLATION_BILINEAR);
-                g2d.drawImage(logoImage, 0, 0, newWidth, newHeight, null);
-                g2d.dispose();
-                
-                JLabel logoLabel = new JLabel(new javax.swing.ImageIcon(scaledImage));
-                logoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-                logoPanel.add(logoLabel);
-            } else {
-                // Fallback to icon if image not found
-                logoPanel.add(createFallbackIcon());
-            }
-        } catch (IOException e) {
-            Logger.warn("Could not load UPC logo: " + e.getMessage());
+        // Load and display the UPC logo image, fitted to the logo area
+        Icon logo = UIFactory.createFittedImageIcon(UIFactory.LOGO_RESOURCE, 120, 80);
+        if (logo != null) {
+            JLabel logoLabel = new JLabel(logo);
+            logoLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
+            logoPanel.add(logoLabel);
+        } else {
+            // Fallback to icon if image not found
             logoPanel.add(createFallbackIcon());
         }
         
@@ -1221,12 +1158,11 @@ public class RegistrationPanel extends JPanel {
     }
     
     /**
-     * Stop the neon animation timer to allow clean shutdown
+     * Stop the neon animation to allow clean shutdown
      */
     public void stopAnimation() {
-        if (neonTimer != null) {
-            neonTimer.stop();
-            neonTimer = null;
+        if (glow != null) {
+            glow.stop();
         }
     }
 }
@@ -1,55 +1,106 @@
 package com.hotelmanager.ui;
 
 import java.awt.BorderLayout;
+import java.awt.CardLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
+import javax.swing.JComboBox;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.SwingConstants;
+import javax.swing.SwingWorker;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
 import javax.swing.table.DefaultTableModel;
 
 import com.hotelmanager.HotelManagerApp;
-import com.hotelmanager.dao.CustomerDAO;
-import com.hotelmanager.dao.PaymentDAO;
-import com.hotelmanager.dao.ReservationDAO;
-import com.hotelmanager.dao.RoomDAO;
+import com.hotelmanager.analytics.OccupancyForecaster;
+import com.hotelmanager.analytics.ReportColumn;
+import com.hotelmanager.analytics.ReportCache;
+import com.hotelmanager.analytics.ReportRun;
+import com.hotelmanager.analytics.ReservationSnapshot;
+import com.hotelmanager.analytics.RevenueCube;
+import com.hotelmanager.analytics.ServerReport;
+import com.hotelmanager.export.Exporter;
+import com.hotelmanager.model.DailyStat;
+import com.hotelmanager.model.Money;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.model.User;
+import com.hotelmanager.service.DailyStatsService;
+import com.hotelmanager.service.HeadlineStats;
+import com.hotelmanager.service.StatsService;
 import com.hotelmanager.util.Logger;
 
 /**
  * Reports Panel - displays reports and analytics interface with modern styling
  */
-public class ReportsPanel extends JPanel {
+public class ReportsPanel extends JPanel implements RefreshablePanel<HeadlineStats> {
+    
+    private static final long STALENESS_BUDGET_MS = 60_000;
     
     private final HotelManagerApp mainApp;
-    private final RoomDAO roomDAO;
-    private final ReservationDAO reservationDAO;
-    private final CustomerDAO customerDAO;
-    private final PaymentDAO paymentDAO;
     private JTable reportsTable;
     private DefaultTableModel tableModel;
     
     private JButton generateButton;
     private JButton refreshButton;
+    private JButton exportButton;
+    private JLabel loadingLabel;
     private JLabel summaryLabel;
+    private JLabel reportInfoLabel;
+    
+    private SwingWorker<ReportRun, Object[]> reportWorker;
+    // What the table currently shows, for export
+    private String lastReportTitle;
+    private ReportRun lastServerRun;
+    
+    // Revenue cube pivot: drill-down filters in the order they were applied
+    private static final String REVENUE_CUBE = "Revenue Cube (Pivot & Drill-down)";
+    private static final String NO_COLUMNS = "(none)";
+    private JPanel buttonPanel;
+    private JPanel pivotBar;
+    private JComboBox<RevenueCube.Dimension> pivotRowsCombo;
+    private JComboBox<Object> pivotColumnsCombo;
+    private JComboBox<RevenueCube.Measure> pivotMeasureCombo;
+    private JButton drillUpButton;
+    private boolean cubeMode;
+    private boolean updatingPivotControls;
+    private final Map<RevenueCube.Dimension, String> cubeFilters = new LinkedHashMap<>();
+    
+    // Trend charts share the table's place in the content area
+    private static final String TRENDS = "Trends: Occupancy, ADR & Revenue";
+    private static final String FORECAST = "Occupancy Forecast (next 90 days)";
+    private static final String ROOM_TYPE_REPORT = "Occupancy & Revenue by Room Type";
+    private static final String TABLE_VIEW = "TABLE";
+    private static final String CHART_VIEW = "CHARTS";
+    private JPanel resultCards;
+    private TrendChart occupancyChart;
+    private TrendChart adrChart;
+    private TrendChart revenueChart;
     
     // Stat card labels
     private JLabel totalRoomsLabel;
@@ -65,12 +116,7 @@ public class ReportsPanel extends JPanel {
     
     public ReportsPanel(HotelManagerApp mainApp) {
         this.mainApp = mainApp;
-        this.roomDAO = new RoomDAO();
-        this.reservationDAO = new ReservationDAO();
-        this.customerDAO = new CustomerDAO();
-        this.paymentDAO = new PaymentDAO();
         initializeUI();
-        refreshData();
     }
     
     private void initializeUI() {
@@ -93,17 +139,12 @@ public class ReportsPanel extends JPanel {
         // Right side - Logo
         JPanel logoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         logoPanel.setBackground(UIFactory.CARD_BG);
+        loadingLabel = UIFactory.createLoadingLabel();
+        logoPanel.add(loadingLabel);
         
-        try {
-            ImageIcon originalIcon = new ImageIcon(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (originalIcon.getImage() != null) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                JLabel logoLabel = new JLabel(scaledIcon);
-                logoPanel.add(logoLabel);
-            }
-        } catch (Exception e) {
-            Logger.warn("Could not load logo: " + e.getMessage());
+        Icon logo = UIFactory.createImageIcon(UIFactory.LOGO_RESOURCE, 40, 40);
+        if (logo != null) {
+            logoPanel.add(new JLabel(logo));
         }
         
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -134,7 +175,7 @@ public class ReportsPanel extends JPanel {
         contentPanel.setBorder(BorderFactory.createEmptyBorder(10, 30, 20, 30));
         
         // Button panel
-        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
+        buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 10, 10));
         buttonPanel.setBackground(Color.WHITE);
         buttonPanel.setBorder(BorderFactory.createCompoundBorder(
             new LineBorder(new Color(189, 195, 199), 1),
@@ -143,8 +184,10 @@ public class ReportsPanel extends JPanel {
         
         generateButton = UIFactory.createPrimaryButton("📊 Generate Report");
         refreshButton = UIFactory.createSecondaryButton("🔄 Refresh");
+        exportButton = UIFactory.createSecondaryButton("⬇ Export");
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(generateButton);
         
         contentPanel.add(buttonPanel, BorderLayout.NORTH);
@@ -177,8 +220,8 @@ public class ReportsPanel extends JPanel {
                 if (!isSelected) {
                     c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(245, 245, 245));
                 }
-                // Highlight value column
-                if (column == 1 && value != null) {
+                // Highlight value columns
+                if (column > 0 && value != null) {
                     String strValue = value.toString();
                     if (strValue.startsWith("$")) {
                         c.setForeground(REVENUE_COLOR);
@@ -190,13 +233,25 @@ public class ReportsPanel extends JPanel {
             }
         });
         
+        reportsTable.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (cubeMode && e.getClickCount() == 2) {
+                    drillDown(reportsTable.rowAtPoint(e.getPoint()));
+                }
+            }
+        });
+        
         JScrollPane scrollPane = new JScrollPane(reportsTable);
         scrollPane.setBorder(BorderFactory.createCompoundBorder(
             new LineBorder(new Color(189, 195, 199), 1),
             new EmptyBorder(0, 0, 0, 0)
         ));
         
-        contentPanel.add(scrollPane, BorderLayout.CENTER);
+        // The chart view and the pivot bar are built the first time they are used
+        resultCards = new JPanel(new CardLayout());
+        resultCards.add(scrollPane, TABLE_VIEW);
+        contentPanel.add(resultCards, BorderLayout.CENTER);
         
         // Summary panel at bottom
         JPanel summaryPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
@@ -208,6 +263,11 @@ public class ReportsPanel extends JPanel {
         summaryLabel.setForeground(UIFactory.TEXT_SECONDARY);
         summaryPanel.add(summaryLabel);
         
+        reportInfoLabel = new JLabel();
+        reportInfoLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
+        reportInfoLabel.setForeground(UIFactory.TEXT_SECONDARY);
+        summaryPanel.add(reportInfoLabel);
+        
         contentPanel.add(summaryPanel, BorderLayout.SOUTH);
         
         add(contentPanel, BorderLayout.SOUTH);
@@ -215,6 +275,52 @@ public class ReportsPanel extends JPanel {
         // Add button listeners
         generateButton.addActionListener(e -> generateReport());
         refreshButton.addActionListener(e -> refreshData());
+        exportButton.addActionListener(e -> exportReport());
+    }
+    
+    private void ensureChartView() {
+        if (occupancyChart != null) {
+            return;
+        }
+        occupancyChart = new TrendChart("Occupancy", RESERVATIONS_COLOR, TrendChart.Scale.PERCENT);
+        adrChart = new TrendChart("ADR (average daily rate)", ROOMS_COLOR, TrendChart.Scale.MONEY);
+        revenueChart = new TrendChart("Room revenue", REVENUE_COLOR, TrendChart.Scale.MONEY);
+        JPanel chartsPanel = new JPanel(new GridLayout(3, 1, 0, 8));
+        chartsPanel.setBackground(UIFactory.BG_COLOR);
+        chartsPanel.add(occupancyChart);
+        chartsPanel.add(adrChart);
+        chartsPanel.add(revenueChart);
+        chartsPanel.setPreferredSize(resultCards.getComponent(0).getPreferredSize());
+        resultCards.add(chartsPanel, CHART_VIEW);
+    }
+    
+    private JPanel createPivotBar() {
+        JPanel bar = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        bar.setOpaque(false);
+        
+        pivotRowsCombo = new JComboBox<>(RevenueCube.Dimension.values());
+        pivotColumnsCombo = new JComboBox<>();
+        pivotColumnsCombo.addItem(NO_COLUMNS);
+        for (RevenueCube.Dimension dimension : RevenueCube.Dimension.values()) {
+            pivotColumnsCombo.addItem(dimension);
+        }
+        pivotMeasureCombo = new JComboBox<>(RevenueCube.Measure.values());
+        drillUpButton = UIFactory.createSecondaryButton("⬆ Up");
+        drillUpButton.setEnabled(false);
+        
+        bar.add(new JLabel("Rows:"));
+        bar.add(pivotRowsCombo);
+        bar.add(new JLabel("Columns:"));
+        bar.add(pivotColumnsCombo);
+        bar.add(new JLabel("Measure:"));
+        bar.add(pivotMeasureCombo);
+        bar.add(drillUpButton);
+        
+        pivotRowsCombo.addActionListener(e -> pivotControlsChanged());
+        pivotColumnsCombo.addActionListener(e -> pivotControlsChanged());
+        pivotMeasureCombo.addActionListener(e -> pivotControlsChanged());
+        drillUpButton.addActionListener(e -> drillUp());
+        return bar;
     }
     
     /**
@@ -270,35 +376,48 @@ public class ReportsPanel extends JPanel {
     }
     
     /**
-     * Refresh report data from database
+     * Reload report data from the database in the background
      */
     public void refreshData() {
-        try {
-            // Load summary statistics
-            int totalRooms = roomDAO.getTotalCount();
-            int availableRooms = roomDAO.getAvailableCount();
-            int totalCustomers = customerDAO.getTotalCount();
-            int totalReservations = reservationDAO.getTotalCount();
-            double totalRevenue = paymentDAO.getTotalRevenue();
-            
-            // Update stat cards
-            totalRoomsLabel.setText(String.valueOf(totalRooms));
-            totalReservationsLabel.setText(String.valueOf(totalReservations));
-            totalCustomersLabel.setText(String.valueOf(totalCustomers));
-            totalRevenueLabel.setText(String.format("$%,.2f", totalRevenue));
-            
-            // Update summary
-            summaryLabel.setText(String.format(
-                "📈 Total Rooms: %d | Available: %d | Customers: %d | Reservations: %d | Revenue: $%,.2f",
-                totalRooms, availableRooms, totalCustomers, totalReservations, totalRevenue));
-            
-            Logger.info("Reports data refreshed");
-        } catch (Exception e) {
-            Logger.error("Error loading report data", e);
-            JOptionPane.showMessageDialog(this, 
-                "Error loading report data: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        RefreshScheduler.getInstance().refresh(this);
+    }
+    
+    @Override
+    public HeadlineStats loadData() throws Exception {
+        // Summary statistics are shared with the dashboard
+        return StatsService.getInstance().getStats();
+    }
+    
+    @Override
+    public void applyData(HeadlineStats stats) {
+        // Update stat cards
+        totalRoomsLabel.setText(String.valueOf(stats.totalRooms()));
+        totalReservationsLabel.setText(String.valueOf(stats.totalReservations()));
+        totalCustomersLabel.setText(String.valueOf(stats.totalCustomers()));
+        totalRevenueLabel.setText(Money.format(stats.totalRevenueCents()));
+        
+        // Update summary
+        summaryLabel.setText(String.format(
+            "📈 Total Rooms: %d | Available: %d | Customers: %d | Reservations: %d | Revenue: %s",
+            stats.totalRooms(), stats.availableRooms(), stats.totalCustomers(), stats.totalReservations(),
+            Money.format(stats.totalRevenueCents())));
+        
+        Logger.info("Reports data refreshed");
+    }
+    
+    @Override
+    public String getDataName() {
+        return "report data";
+    }
+    
+    @Override
+    public long getStalenessBudgetMillis() {
+        return STALENESS_BUDGET_MS;
+    }
+    
+    @Override
+    public void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
     }
     
     private void generateReport() {
@@ -308,7 +427,17 @@ public class ReportsPanel extends JPanel {
                 "Room Statistics", 
                 "Reservation Statistics", 
                 "Financial Summary", 
-                "Customer Statistics"
+                "Customer Statistics",
+                ROOM_TYPE_REPORT,
+                ServerReport.ROOM_REVENUE.getTitle(),
+                ServerReport.OCCUPANCY.getTitle(),
+                ServerReport.RESERVATIONS_BY_STATUS.getTitle(),
+                ServerReport.ARRIVALS_BY_DAY.getTitle(),
+                ServerReport.PAYMENTS_BY_METHOD.getTitle(),
+                ServerReport.TOP_CUSTOMERS.getTitle(),
+                REVENUE_CUBE,
+                TRENDS,
+                FORECAST
             };
             String selectedReport = (String) JOptionPane.showInputDialog(this,
                 "Select Report Type:",
@@ -320,24 +449,54 @@ public class ReportsPanel extends JPanel {
             
             if (selectedReport == null) return;
             
-            tableModel.setRowCount(0);
+            if (TRENDS.equals(selectedReport)) {
+                ensureChartView();
+            }
+            ((CardLayout) resultCards.getLayout()).show(resultCards,
+                TRENDS.equals(selectedReport) ? CHART_VIEW : TABLE_VIEW);
+            if (TRENDS.equals(selectedReport)) {
+                setCubeMode(false);
+                showTrends();
+                return;
+            }
+            if (REVENUE_CUBE.equals(selectedReport)) {
+                showRevenueCube();
+                return;
+            }
+            if (FORECAST.equals(selectedReport)) {
+                setCubeMode(false);
+                showForecast();
+                return;
+            }
+            setCubeMode(false);
+            ServerReport serverReport = ServerReport.fromTitle(selectedReport);
+            if (serverReport != null) {
+                runServerReport(serverReport);
+                return;
+            }
             
-            switch (selectedReport) {
-                case "Room Statistics":
-                    generateRoomReport();
-                    break;
-                case "Reservation Statistics":
-                    generateReservationReport();
-                    break;
-                case "Financial Summary":
-                    generateFinancialReport();
-                    break;
-                case "Customer Statistics":
-                    generateCustomerReport();
-                    break;
+            LocalDate[] range = null;
+            if (ROOM_TYPE_REPORT.equals(selectedReport)) {
+                range = promptDateRange();
+                if (range == null) return;
             }
             
-            Logger.info("Report generated: " + selectedReport);
+            reportInfoLabel.setText("");
+            lastReportTitle = selectedReport;
+            lastServerRun = null;
+            tableModel.setRowCount(0);
+            
+            LocalDate[] reportRange = range;
+            RefreshScheduler.getInstance().fetch(this, () -> buildSummaryReport(selectedReport, reportRange),
+                table -> {
+                    if (!selectedReport.equals(lastReportTitle)) return;
+                    tableModel.setColumnIdentifiers(table.columns());
+                    for (Object[] row : table.rows()) {
+                        tableModel.addRow(row);
+                    }
+                    Logger.info("Report generated: " + selectedReport);
+                },
+                e -> reportFailed("Error generating report", e));
         } catch (Exception e) {
             Logger.error("Error generating report", e);
             JOptionPane.showMessageDialog(this, 
@@ -346,57 +505,445 @@ public class ReportsPanel extends JPanel {
         }
     }
     
-    private void generateRoomReport() throws Exception {
-        int totalRooms = roomDAO.getTotalCount();
-        int availableRooms = roomDAO.getAvailableCount();
-        int occupiedRooms = totalRooms - availableRooms;
+    /**
+     * Compute one of the in-app summary reports (worker thread, no Swing access)
+     */
+    private SummaryTable buildSummaryReport(String report, LocalDate[] range) throws Exception {
+        List<Object[]> rows = new ArrayList<>();
+        switch (report) {
+            case "Room Statistics":
+                generateRoomReport(rows);
+                break;
+            case "Reservation Statistics":
+                generateReservationReport(rows);
+                break;
+            case "Financial Summary":
+                generateFinancialReport(rows);
+                break;
+            case "Customer Statistics":
+                generateCustomerReport(rows);
+                break;
+            case ROOM_TYPE_REPORT:
+                return generateRoomTypeReport(range);
+        }
+        return new SummaryTable(new String[]{"Metric", "Value"}, rows);
+    }
+    
+    private void generateRoomReport(List<Object[]> rows) throws Exception {
+        HeadlineStats stats = StatsService.getInstance().getStats();
+        
+        rows.add(new Object[]{"Total Rooms", stats.totalRooms()});
+        rows.add(new Object[]{"Available Rooms", stats.availableRooms()});
+        rows.add(new Object[]{"Occupied Rooms", stats.occupiedRooms()});
+        rows.add(new Object[]{"Occupancy Rate", String.format("%.1f%%", stats.occupancyRate())});
+    }
+    
+    private void generateReservationReport(List<Object[]> rows) throws Exception {
+        ReservationSnapshot snapshot = ReservationSnapshot.getInstance();
+        snapshot.refresh();
+        
+        int[] statusCounts = snapshot.countByStatus();
+        int pending = statusCounts[ReservationStatus.PENDING.ordinal()];
+        int confirmed = statusCounts[ReservationStatus.CONFIRMED.ordinal()];
+        int checkedIn = statusCounts[ReservationStatus.CHECKED_IN.ordinal()];
+        int checkedOut = statusCounts[ReservationStatus.CHECKED_OUT.ordinal()];
+        int cancelled = statusCounts[ReservationStatus.CANCELLED.ordinal()];
+        
+        LocalDate today = LocalDate.now();
+        LocalDate monthStart = today.withDayOfMonth(1);
+        
+        rows.add(new Object[]{"Total Reservations", snapshot.size()});
+        rows.add(new Object[]{"Pending", pending});
+        rows.add(new Object[]{"Confirmed", confirmed});
+        rows.add(new Object[]{"Checked In", checkedIn});
+        rows.add(new Object[]{"Checked Out", checkedOut});
+        rows.add(new Object[]{"Cancelled", cancelled});
+        rows.add(new Object[]{"Arrivals Today", snapshot.countArrivals(today)});
+        rows.add(new Object[]{"Departures Today", snapshot.countDepartures(today)});
+        rows.add(new Object[]{"Room Nights This Month", snapshot.roomNights(monthStart, monthStart.plusMonths(1))});
+        rows.add(new Object[]{"Booked Value This Month", Money.format(snapshot.sumBookedCents(monthStart, monthStart.plusMonths(1).minusDays(1)))});
+        rows.add(new Object[]{"Collected Payments", Money.format(snapshot.sumPaidCents())});
+    }
+    
+    private void generateFinancialReport(List<Object[]> rows) throws Exception {
+        long totalRevenueCents = StatsService.getInstance().getStats().totalRevenueCents();
         
-        tableModel.addRow(new Object[]{"Total Rooms", totalRooms});
-        tableModel.addRow(new Object[]{"Available Rooms", availableRooms});
-        tableModel.addRow(new Object[]{"Occupied Rooms", occupiedRooms});
-        tableModel.addRow(new Object[]{"Occupancy Rate", String.format("%.1f%%", 
-            totalRooms > 0 ? (occupiedRooms * 100.0 / totalRooms) : 0)});
+        rows.add(new Object[]{"Total Revenue", Money.format(totalRevenueCents)});
+        rows.add(new Object[]{"Report Date", LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy"))});
+    }
+    
+    private void generateCustomerReport(List<Object[]> rows) throws Exception {
+        int totalCustomers = StatsService.getInstance().getStats().totalCustomers();
+        
+        rows.add(new Object[]{"Total Customers", totalCustomers});
+    }
+    
+    /**
+     * Reads the pre-aggregated daily_stats rows, so the cost grows with days, not reservations
+     */
+    private SummaryTable generateRoomTypeReport(LocalDate[] range) throws Exception {
+        Map<String, DailyStat> totals = DailyStatsService.getInstance().summarizeByRoomType(range[0], range[1].plusDays(1));
+        
+        List<Object[]> rows = new ArrayList<>(totals.size());
+        for (Map.Entry<String, DailyStat> entry : totals.entrySet()) {
+            DailyStat stat = entry.getValue();
+            rows.add(new Object[]{
+                entry.getKey(),
+                stat.roomsSold(),
+                stat.roomsAvailable(),
+                String.format("%.1f%%", stat.occupancyRate()),
+                Money.format(stat.roomRevenueCents()),
+                Money.format(stat.adrCents()),
+                Money.format(stat.revparCents()),
+                Money.format(stat.paymentsCents())
+            });
+        }
+        return new SummaryTable(new String[]{
+            "Room Type", "Rooms Sold", "Rooms Available", "Occupancy", "Room Revenue", "ADR", "RevPAR", "Collected"
+        }, rows);
     }
     
-    private void generateReservationReport() throws Exception {
-        List<com.hotelmanager.model.Reservation> reservations = reservationDAO.findAll();
+    /**
+     * Run a server-side report in the background, appending rows to the table as they stream in
+     */
+    private void runServerReport(ServerReport report) {
+        LocalDate[] range = promptDateRange();
+        if (range == null) return;
         
-        int pending = 0;
-        int confirmed = 0;
-        int checkedIn = 0;
-        int checkedOut = 0;
-        int cancelled = 0;
+        if (reportWorker != null && !reportWorker.isDone()) {
+            reportWorker.cancel(true);
+        }
+        tableModel.setRowCount(0);
+        tableModel.setColumnIdentifiers(report.getColumnLabels());
+        lastReportTitle = report.getTitle();
+        lastServerRun = null;
+        reportInfoLabel.setText("| ⏳ Running " + report.getTitle() + "...");
+        
+        List<ReportColumn> columns = report.getColumns();
+        reportWorker = new SwingWorker<ReportRun, Object[]>() {
+            @Override
+            protected ReportRun doInBackground() throws Exception {
+                return ReportCache.getInstance().run(report, range[0], range[1], currentUsername(), row -> publish(row));
+            }
+            
+            @Override
+            protected void process(List<Object[]> rows) {
+                if (this != reportWorker) return;
+                for (Object[] row : rows) {
+                    Object[] formatted = new Object[row.length];
+                    for (int i = 0; i < row.length; i++) {
+                        formatted[i] = columns.get(i).format(row[i]);
+                    }
+                    tableModel.addRow(formatted);
+                }
+            }
+            
+            @Override
+            protected void done() {
+                if (this != reportWorker || isCancelled()) return;
+                try {
+                    ReportRun run = get();
+                    lastServerRun = run;
+                    reportInfoLabel.setText("| " + run.describe());
+                } catch (ExecutionException e) {
+                    reportInfoLabel.setText("");
+                    Logger.error("Error generating report", e.getCause());
+                    JOptionPane.showMessageDialog(ReportsPanel.this,
+                        "Error generating report: " + e.getCause().getMessage(),
+                        "Error", JOptionPane.ERROR_MESSAGE);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        reportWorker.execute();
+    }
+    
+    /**
+     * Daily series from daily_stats, charted; the rows also fill the table so they can be exported
+     */
+    private void showTrends() {
+        LocalDate[] range = promptDateRange();
+        if (range == null) return;
         
-        for (com.hotelmanager.model.Reservation res : reservations) {
-            String status = res.getStatusCode();
-            switch (status) {
-                case "PENDING": pending++; break;
-                case "CONFIRMED": confirmed++; break;
-                case "CHECKED_IN": checkedIn++; break;
-                case "CHECKED_OUT": checkedOut++; break;
-                case "CANCELLED": cancelled++; break;
+        if (reportWorker != null && !reportWorker.isDone()) {
+            reportWorker.cancel(true);
+        }
+        reportWorker = null;
+        lastReportTitle = TRENDS;
+        lastServerRun = null;
+        reportInfoLabel.setText("| ⏳ Loading daily series...");
+        RefreshScheduler.getInstance().fetch(this,
+            () -> DailyStatsService.getInstance().findDailyTotals(range[0], range[1].plusDays(1)),
+            daily -> {
+                if (TRENDS.equals(lastReportTitle)) {
+                    applyTrends(daily);
+                }
+            },
+            e -> reportFailed("Error loading trends", e));
+    }
+    
+    private void applyTrends(List<DailyStat> daily) {
+        int[] days = new int[daily.size()];
+        double[] occupancy = new double[days.length];
+        double[] adr = new double[days.length];
+        double[] revenue = new double[days.length];
+        tableModel.setRowCount(0);
+        tableModel.setColumnIdentifiers(new String[]{"Date", "Occupancy", "ADR", "Revenue"});
+        for (int i = 0; i < days.length; i++) {
+            DailyStat stat = daily.get(i);
+            days[i] = (int) stat.date().toEpochDay();
+            occupancy[i] = stat.occupancyRate();
+            adr[i] = stat.adrCents() / 100.0;
+            revenue[i] = stat.roomRevenueCents() / 100.0;
+            tableModel.addRow(new Object[]{stat.date().toString(), String.format("%.1f%%", occupancy[i]),
+                Money.format(stat.adrCents()), Money.format(stat.roomRevenueCents())});
+        }
+        occupancyChart.setSeries(days, occupancy);
+        adrChart.setSeries(days, adr);
+        revenueChart.setSeries(days, revenue);
+        reportInfoLabel.setText(String.format("| %,d days plotted at screen resolution", days.length));
+    }
+    
+    /**
+     * Forecast occupancy per room type; the first run builds the models in the background
+     */
+    private void showForecast() {
+        if (reportWorker != null && !reportWorker.isDone()) {
+            reportWorker.cancel(true);
+        }
+        reportWorker = null;
+        lastReportTitle = FORECAST;
+        lastServerRun = null;
+        tableModel.setRowCount(0);
+        tableModel.setColumnIdentifiers(new String[]{"Room Type", "Rooms", "Booked Nights (30 days)",
+            "Next 7 Days", "Next 30 Days", "Next 90 Days"});
+        reportInfoLabel.setText("| ⏳ Forecasting...");
+        RefreshScheduler.getInstance().fetch(this, () -> OccupancyForecaster.getInstance().forecast(),
+            forecast -> {
+                if (!FORECAST.equals(lastReportTitle)) return;
+                tableModel.setRowCount(0);
+                for (int t = 0; t < forecast.roomTypes().size(); t++) {
+                    tableModel.addRow(new Object[]{forecast.roomTypes().get(t), forecast.capacities()[t],
+                        forecast.bookedNights(t, 30),
+                        String.format("%.1f%%", forecast.occupancy(t, 7)),
+                        String.format("%.1f%%", forecast.occupancy(t, 30)),
+                        String.format("%.1f%%", forecast.occupancy(t, 90))});
+                }
+                reportInfoLabel.setText(String.format("| From %s, computed in %.2f ms", forecast.start(),
+                    forecast.elapsedNanos() / 1_000_000.0));
+            },
+            e -> reportFailed("Error forecasting occupancy", e));
+    }
+    
+    private void setCubeMode(boolean enabled) {
+        cubeMode = enabled;
+        if (pivotBar == null) {
+            if (!enabled) {
+                return;
             }
+            pivotBar = createPivotBar();
+            buttonPanel.add(pivotBar, 0);
+            buttonPanel.revalidate();
+        }
+        pivotBar.setVisible(enabled);
+    }
+    
+    /**
+     * Build the cube in the background the first time (or after a change), then pivot in memory
+     */
+    private void showRevenueCube() {
+        if (reportWorker != null && !reportWorker.isDone()) {
+            reportWorker.cancel(true);
+        }
+        reportWorker = null;
+        lastReportTitle = REVENUE_CUBE;
+        lastServerRun = null;
+        cubeFilters.clear();
+        setCubeMode(true);
+        RevenueCube cube = RevenueCube.getInstance();
+        if (cube.isReady()) {
+            renderPivot();
+            return;
         }
         
-        tableModel.addRow(new Object[]{"Total Reservations", reservations.size()});
-        tableModel.addRow(new Object[]{"Pending", pending});
-        tableModel.addRow(new Object[]{"Confirmed", confirmed});
-        tableModel.addRow(new Object[]{"Checked In", checkedIn});
-        tableModel.addRow(new Object[]{"Checked Out", checkedOut});
-        tableModel.addRow(new Object[]{"Cancelled", cancelled});
+        tableModel.setRowCount(0);
+        reportInfoLabel.setText("| ⏳ Building revenue cube...");
+        RefreshScheduler.getInstance().fetch(this,
+            () -> {
+                cube.ensureBuilt();
+                return cube;
+            },
+            built -> {
+                if (cubeMode) {
+                    renderPivot();
+                }
+            },
+            e -> reportFailed("Error building revenue cube", e));
+    }
+    
+    private void reportFailed(String message, Exception e) {
+        reportInfoLabel.setText("");
+        if (e instanceof CancellationException) {
+            return; // left the Reports section
+        }
+        Logger.error(message, e);
+        JOptionPane.showMessageDialog(this, message + ": " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE);
     }
     
-    private void generateFinancialReport() throws Exception {
-        double totalRevenue = paymentDAO.getTotalRevenue();
+    private void pivotControlsChanged() {
+        if (cubeMode && !updatingPivotControls) {
+            renderPivot();
+        }
+    }
+    
+    private void renderPivot() {
+        RevenueCube.Dimension rows = (RevenueCube.Dimension) pivotRowsCombo.getSelectedItem();
+        Object columnItem = pivotColumnsCombo.getSelectedItem();
+        RevenueCube.Dimension columns = columnItem instanceof RevenueCube.Dimension && columnItem != rows
+            ? (RevenueCube.Dimension) columnItem : null;
+        RevenueCube.Measure measure = (RevenueCube.Measure) pivotMeasureCombo.getSelectedItem();
+        RevenueCube.Pivot pivot = RevenueCube.getInstance().pivot(rows, columns, measure, cubeFilters);
+        
+        List<String> headers = new ArrayList<>();
+        headers.add(rows.toString());
+        headers.addAll(pivot.columns() != null ? pivot.columnLabels() : List.of(measure.toString()));
+        if (pivot.columns() != null) {
+            headers.add("Total");
+        }
+        tableModel.setRowCount(0);
+        tableModel.setColumnIdentifiers(headers.toArray());
+        for (int r = 0; r < pivot.rowLabels().size(); r++) {
+            Object[] row = new Object[headers.size()];
+            row[0] = pivot.rowLabels().get(r);
+            for (int c = 0; c < pivot.values()[r].length; c++) {
+                row[c + 1] = measure.format(pivot.values()[r][c]);
+            }
+            if (pivot.columns() != null) {
+                row[row.length - 1] = measure.format(pivot.rowTotals()[r]);
+            }
+            tableModel.addRow(row);
+        }
+        Object[] totals = new Object[headers.size()];
+        totals[0] = "Total";
+        for (int c = 0; c < pivot.columnTotals().length; c++) {
+            totals[c + 1] = measure.format(pivot.columnTotals()[c]);
+        }
+        if (pivot.columns() != null) {
+            totals[totals.length - 1] = measure.format(pivot.grandTotal());
+        }
+        tableModel.addRow(totals);
         
-        tableModel.addRow(new Object[]{"Total Revenue", String.format("$%,.2f", totalRevenue)});
-        tableModel.addRow(new Object[]{"Report Date", LocalDate.now().format(DateTimeFormatter.ofPattern("MMMM dd, yyyy"))});
+        StringBuilder path = new StringBuilder();
+        for (Map.Entry<RevenueCube.Dimension, String> filter : cubeFilters.entrySet()) {
+            path.append(filter.getKey()).append(" = ").append(filter.getValue()).append(" › ");
+        }
+        drillUpButton.setEnabled(!cubeFilters.isEmpty());
+        reportInfoLabel.setText(String.format("| %s%s by %s | pivot %.2f ms | double-click a row to drill down",
+            path, measure, rows, pivot.elapsedNanos() / 1_000_000.0));
+    }
+    
+    /**
+     * Filter on the clicked member and break it down by the next unused dimension
+     */
+    private void drillDown(int viewRow) {
+        if (viewRow < 0 || viewRow >= tableModel.getRowCount() - 1) return;
+        RevenueCube.Dimension rows = (RevenueCube.Dimension) pivotRowsCombo.getSelectedItem();
+        Object columns = pivotColumnsCombo.getSelectedItem();
+        RevenueCube.Dimension next = null;
+        for (RevenueCube.Dimension dimension : RevenueCube.Dimension.values()) {
+            if (dimension != rows && dimension != columns && !cubeFilters.containsKey(dimension)) {
+                next = dimension;
+                break;
+            }
+        }
+        if (next == null) return;
+        cubeFilters.put(rows, (String) tableModel.getValueAt(reportsTable.convertRowIndexToModel(viewRow), 0));
+        updatingPivotControls = true;
+        pivotRowsCombo.setSelectedItem(next);
+        updatingPivotControls = false;
+        renderPivot();
     }
     
-    private void generateCustomerReport() throws Exception {
-        int totalCustomers = customerDAO.getTotalCount();
+    private void drillUp() {
+        RevenueCube.Dimension last = null;
+        for (RevenueCube.Dimension dimension : cubeFilters.keySet()) {
+            last = dimension;
+        }
+        if (last == null) return;
+        cubeFilters.remove(last);
+        updatingPivotControls = true;
+        pivotRowsCombo.setSelectedItem(last);
+        updatingPivotControls = false;
+        renderPivot();
+    }
+    
+    /**
+     * Server-side reports are re-run straight into the file; summary reports are copied from the table
+     */
+    private void exportReport() {
+        if (lastReportTitle == null) {
+            JOptionPane.showMessageDialog(this, "Please generate a report first",
+                "No Report", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        ReportRun run = lastServerRun;
+        if (run != null) {
+            ExportDialog.export(this, lastReportTitle, null, (path, format, progress) ->
+                Exporter.exportReport(run.report(), run.from(), run.to(), currentUsername(), path, format, progress));
+            return;
+        }
         
-        tableModel.addRow(new Object[]{"Total Customers", totalCustomers});
+        List<ReportColumn> columns = new ArrayList<>();
+        for (int c = 0; c < tableModel.getColumnCount(); c++) {
+            columns.add(ReportColumn.text(tableModel.getColumnName(c)));
+        }
+        List<Object[]> rows = new ArrayList<>();
+        for (int r = 0; r < tableModel.getRowCount(); r++) {
+            Object[] row = new Object[columns.size()];
+            for (int c = 0; c < row.length; c++) {
+                row[c] = tableModel.getValueAt(r, c);
+            }
+            rows.add(row);
+        }
+        ExportDialog.export(this, lastReportTitle, null, (path, format, progress) ->
+            Exporter.exportRows(columns, rows, path, format, progress));
+    }
+    
+    private static String currentUsername() {
+        User user = HotelManagerApp.getCurrentUser();
+        return user != null ? user.getUsername() : null;
+    }
+    
+    /**
+     * Ask for an inclusive date range, defaulting to the current month so far
+     */
+    private LocalDate[] promptDateRange() {
+        LocalDate today = LocalDate.now();
+        String from = JOptionPane.showInputDialog(this, "From date (yyyy-MM-dd):", today.withDayOfMonth(1).toString());
+        if (from == null) return null;
+        String to = JOptionPane.showInputDialog(this, "To date (yyyy-MM-dd):", today.toString());
+        if (to == null) return null;
+        try {
+            LocalDate start = LocalDate.parse(from.trim());
+            LocalDate end = LocalDate.parse(to.trim());
+            if (end.isBefore(start)) {
+                JOptionPane.showMessageDialog(this, "The end date must not be before the start date",
+                    "Invalid Range", JOptionPane.WARNING_MESSAGE);
+                return null;
+            }
+            return new LocalDate[]{start, end};
+        } catch (DateTimeParseException e) {
+            JOptionPane.showMessageDialog(this, "Please enter dates as yyyy-MM-dd",
+                "Invalid Date", JOptionPane.WARNING_MESSAGE);
+            return null;
+        }
+    }
+    
+    /**
+     * Column labels and rows of a summary report, computed off the EDT
+     */
+    private record SummaryTable(String[] columns, List<Object[]> rows) {
     }
 }
-
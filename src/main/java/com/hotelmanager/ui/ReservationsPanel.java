@@ -7,15 +7,16 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.function.Function;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
@@ -25,35 +26,46 @@ import javax.swing.JTable;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
-import javax.swing.table.DefaultTableModel;
 
 import com.hotelmanager.HotelManagerApp;
 import com.hotelmanager.dao.CustomerDAO;
 import com.hotelmanager.dao.ReservationDAO;
 import com.hotelmanager.dao.RoomDAO;
+import com.hotelmanager.export.Exporter;
+import com.hotelmanager.export.TableExport;
 import com.hotelmanager.model.Customer;
+import com.hotelmanager.model.Money;
 import com.hotelmanager.model.Reservation;
+import com.hotelmanager.model.ReservationListRow;
+import com.hotelmanager.model.ReservationStatus;
 import com.hotelmanager.model.Room;
+import com.hotelmanager.ui.PagedTableModel.Column;
 import com.hotelmanager.util.Logger;
 
 /**
  * Reservations Panel - displays reservation management interface with modern styling
  */
-public class ReservationsPanel extends JPanel {
+public class ReservationsPanel extends JPanel implements RefreshablePanel<ReservationsPanel.ReservationsData> {
+    
+    private static final long STALENESS_BUDGET_MS = 10_000;
     
     private final HotelManagerApp mainApp;
     private final ReservationDAO reservationDAO;
     private final CustomerDAO customerDAO;
     private final RoomDAO roomDAO;
     private JTable reservationsTable;
-    private DefaultTableModel tableModel;
+    private PagedTableModel<ReservationListRow> tableModel;
+    private List<Column<ReservationListRow>> columns;
+    private TableFilterBar filterBar;
     
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton refreshButton;
+    private JButton exportButton;
     
     // Status labels for stat cards
+    private JLabel loadingLabel;
     private JLabel pendingLabel;
     private JLabel confirmedLabel;
     private JLabel checkedInLabel;
@@ -73,7 +85,6 @@ public class ReservationsPanel extends JPanel {
         this.customerDAO = new CustomerDAO();
         this.roomDAO = new RoomDAO();
         initializeUI();
-        refreshData();
     }
     
     private void initializeUI() {
@@ -96,17 +107,12 @@ public class ReservationsPanel extends JPanel {
         // Right side - Logo
         JPanel logoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         logoPanel.setBackground(UIFactory.CARD_BG);
+        loadingLabel = UIFactory.createLoadingLabel();
+        logoPanel.add(loadingLabel);
         
-        try {
-            ImageIcon originalIcon = new ImageIcon(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (originalIcon.getImage() != null) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                JLabel logoLabel = new JLabel(scaledIcon);
-                logoPanel.add(logoLabel);
-            }
-        } catch (Exception e) {
-            Logger.warn("Could not load logo: " + e.getMessage());
+        Icon logo = UIFactory.createImageIcon(UIFactory.LOGO_RESOURCE, 40, 40);
+        if (logo != null) {
+            logoPanel.add(new JLabel(logo));
         }
         
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -150,22 +156,27 @@ public class ReservationsPanel extends JPanel {
         editButton = UIFactory.createSecondaryButton("✏️ Edit");
         deleteButton = UIFactory.createDangerButton("❌ Cancel");
         refreshButton = UIFactory.createSecondaryButton("🔄 Refresh");
+        exportButton = UIFactory.createSecondaryButton("⬇ Export");
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         
-        contentPanel.add(buttonPanel, BorderLayout.NORTH);
-        
-        // Table model
-        String[] columnNames = {"ID", "Customer", "Room", "Check In", "Check Out", "Guests", "Total", "Status"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Table model - rows are paged in as they scroll into view and formatted when painted
+        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
+        Function<Object, String> date = value -> ((LocalDate) value).format(dateFormatter);
+        columns = List.of(
+            new Column<>("Customer", row -> row.customerName() != null ? row.customerName() : "Unknown"),
+            new Column<>("Room", row -> row.roomNumber() != null ? row.roomNumber() : "Unknown"),
+            new Column<>("Check In", row -> row.reservation().checkInDate(), date),
+            new Column<>("Check Out", row -> row.reservation().checkOutDate(), date),
+            new Column<>("Guests", row -> row.reservation().numberOfGuests()),
+            new Column<>("Total", row -> row.reservation().totalAmountCents(), value -> Money.format((Long) value)),
+            new Column<>("Status", row -> row.reservation().status(), value -> ((ReservationStatus) value).getCode()));
+        tableModel = new PagedTableModel<>(this, "ID", columns, row -> row.reservation().id(),
+            reservationDAO::findListRowsByIds);
         
         reservationsTable = new JTable(tableModel);
         reservationsTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -182,27 +193,28 @@ public class ReservationsPanel extends JPanel {
             @Override
             public Component getTableCellRendererComponent(JTable table, Object value,
                     boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                int modelColumn = table.convertColumnIndexToModel(column);
+                Component c = super.getTableCellRendererComponent(table, tableModel.format(value, modelColumn),
+                    isSelected, hasFocus, row, column);
                 if (!isSelected) {
                     c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(245, 245, 245));
                 }
                 // Color the status column
-                if (column == 7 && value != null) {
-                    String status = value.toString();
+                if (value instanceof ReservationStatus status) {
                     switch (status) {
-                        case "PENDING":
+                        case PENDING:
                             c.setForeground(PENDING_COLOR);
                             break;
-                        case "CONFIRMED":
+                        case CONFIRMED:
                             c.setForeground(CONFIRMED_COLOR);
                             break;
-                        case "CHECKED_IN":
+                        case CHECKED_IN:
                             c.setForeground(CHECKED_IN_COLOR);
                             break;
-                        case "CHECKED_OUT":
+                        case CHECKED_OUT:
                             c.setForeground(CHECKED_OUT_COLOR);
                             break;
-                        case "CANCELLED":
+                        case CANCELLED:
                             c.setForeground(CANCELLED_COLOR);
                             break;
                     }
@@ -218,6 +230,16 @@ public class ReservationsPanel extends JPanel {
         reservationsTable.getColumnModel().getColumn(0).setMaxWidth(0);
         reservationsTable.getColumnModel().getColumn(0).setWidth(0);
         
+        // Search, filters and header sorting over the index built by loadData
+        filterBar = new TableFilterBar(reservationsTable, tableModel);
+        filterBar.addStatusChips(7, ReservationStatus.class,
+            PENDING_COLOR, CONFIRMED_COLOR, CHECKED_IN_COLOR, CHECKED_OUT_COLOR, CANCELLED_COLOR);
+        filterBar.addDateRange(3, "Check in:");
+        JPanel toolbar = new JPanel(new BorderLayout());
+        toolbar.add(buttonPanel, BorderLayout.NORTH);
+        toolbar.add(filterBar, BorderLayout.SOUTH);
+        contentPanel.add(toolbar, BorderLayout.NORTH);
+        
         JScrollPane scrollPane = new JScrollPane(reservationsTable);
         scrollPane.setBorder(BorderFactory.createCompoundBorder(
             new LineBorder(new Color(189, 195, 199), 1),
@@ -251,6 +273,9 @@ public class ReservationsPanel extends JPanel {
         editButton.addActionListener(e -> showEditReservationDialog());
         deleteButton.addActionListener(e -> cancelSelectedReservation());
         refreshButton.addActionListener(e -> refreshData());
+        exportButton.addActionListener(e -> ExportDialog.export(this, "Reservations",
+            () -> Exporter.countRows(TableExport.RESERVATIONS),
+            (path, format, progress) -> Exporter.exportTable(TableExport.RESERVATIONS, path, format, progress)));
     }
     
     /**
@@ -306,93 +331,64 @@ public class ReservationsPanel extends JPanel {
     }
     
     /**
-     * Refresh reservation data from database
+     * Reload reservation data from the database in the background
      */
     public void refreshData() {
-        try {
-            List<Reservation> reservations = reservationDAO.findAll();
-            tableModel.setRowCount(0);
-            DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("MMM dd, yyyy");
-            
-            // Count reservations by status
-            int pending = 0;
-            int confirmed = 0;
-            int checkedIn = 0;
-            int checkedOut = 0;
-            int cancelled = 0;
-            
-            for (Reservation res : reservations) {
-                String customerName = getCustomerName(res.getCustomerId());
-                String roomNumber = getRoomNumber(res.getRoomId());
-                
-                Object[] rowData = {
-                    res.getId(),
-                    customerName,
-                    roomNumber,
-                    res.getCheckInDate() != null ? res.getCheckInDate().format(dateFormatter) : "",
-                    res.getCheckOutDate() != null ? res.getCheckOutDate().format(dateFormatter) : "",
-                    res.getNumberOfGuests(),
-                    String.format("$%.2f", res.getTotalAmount()),
-                    res.getStatusCode()
-                };
-                tableModel.addRow(rowData);
-                
-                // Count by status
-                String status = res.getStatusCode();
-                switch (status) {
-                    case "PENDING":
-                        pending++;
-                        break;
-                    case "CONFIRMED":
-                        confirmed++;
-                        break;
-                    case "CHECKED_IN":
-                        checkedIn++;
-                        break;
-                    case "CHECKED_OUT":
-                        checkedOut++;
-                        break;
-                    case "CANCELLED":
-                        cancelled++;
-                        break;
-                }
-            }
-            
-            // Update stat cards
-            pendingLabel.setText(String.valueOf(pending));
-            confirmedLabel.setText(String.valueOf(confirmed));
-            checkedInLabel.setText(String.valueOf(checkedIn));
-            checkedOutLabel.setText(String.valueOf(checkedOut));
-            cancelledLabel.setText(String.valueOf(cancelled));
-            
-            Logger.info("Reservations data refreshed: " + reservations.size() + " reservations loaded");
-        } catch (Exception e) {
-            Logger.error("Error loading reservations", e);
-            JOptionPane.showMessageDialog(this, 
-                "Error loading reservations: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
-        }
+        RefreshScheduler.getInstance().refresh(this);
     }
     
-    private String getCustomerName(int customerId) {
-        try {
-            Customer customer = customerDAO.findById(customerId);
-            return customer != null ? customer.getFirstName() + " " + customer.getLastName() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
+    @Override
+    public Object loadVersion() throws Exception {
+        // Rows show the customer name and room number
+        return reservationDAO.getDataVersion("customers", "rooms");
     }
     
-    private String getRoomNumber(int roomId) {
-        try {
-            Room room = roomDAO.findById(roomId);
-            return room != null ? room.getRoomNumber() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
+    @Override
+    public ReservationsData loadData() throws Exception {
+        // Only the search and sort keys are kept; the rows on screen are paged in by the table model
+        TableIndex.Builder<ReservationListRow> index = TableIndex.builder(columns, row -> row.reservation().id(),
+            filterBar.filterColumns());
+        reservationDAO.streamListRows(index::add);
+        return new ReservationsData(index.build(), reservationDAO.countByStatus());
+    }
+    
+    @Override
+    public void applyData(ReservationsData data) {
+        filterBar.setIndex(data.index());
+        
+        // Update stat cards
+        int[] statusCounts = data.statusCounts();
+        pendingLabel.setText(String.valueOf(statusCounts[ReservationStatus.PENDING.ordinal()]));
+        confirmedLabel.setText(String.valueOf(statusCounts[ReservationStatus.CONFIRMED.ordinal()]));
+        checkedInLabel.setText(String.valueOf(statusCounts[ReservationStatus.CHECKED_IN.ordinal()]));
+        checkedOutLabel.setText(String.valueOf(statusCounts[ReservationStatus.CHECKED_OUT.ordinal()]));
+        cancelledLabel.setText(String.valueOf(statusCounts[ReservationStatus.CANCELLED.ordinal()]));
+        
+        Logger.info("Reservations data refreshed: " + data.index().size() + " reservations");
+    }
+    
+    @Override
+    public String getDataName() {
+        return "reservations";
+    }
+    
+    @Override
+    public long getStalenessBudgetMillis() {
+        return STALENESS_BUDGET_MS;
+    }
+    
+    @Override
+    public void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
     }
     
     private void showAddReservationDialog() {
+        RefreshScheduler.getInstance().fetch(this,
+            () -> new ReservationChoices(customerDAO.findAll(), roomDAO.findAvailableRooms()),
+            choices -> showAddReservationDialog(choices.customers(), choices.rooms()));
+    }
+    
+    private void showAddReservationDialog(List<Customer> customers, List<Room> rooms) {
         JPanel panel = new JPanel(new java.awt.GridLayout(7, 2, 10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
@@ -404,18 +400,11 @@ public class ReservationsPanel extends JPanel {
         javax.swing.JTextField totalField = new javax.swing.JTextField();
         javax.swing.JComboBox<String> statusCombo = new javax.swing.JComboBox<>(new String[]{"PENDING", "CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED"});
         
-        try {
-            List<Customer> customers = customerDAO.findAll();
-            for (Customer c : customers) {
-                customerCombo.addItem(c);
-            }
-            
-            List<Room> rooms = roomDAO.findAvailableRooms();
-            for (Room r : rooms) {
-                roomCombo.addItem(r);
-            }
-        } catch (Exception e) {
-            Logger.error("Error loading data for dialog", e);
+        for (Customer c : customers) {
+            customerCombo.addItem(c);
+        }
+        for (Room r : rooms) {
+            roomCombo.addItem(r);
         }
         
         panel.add(new JLabel("Customer:"));
@@ -453,13 +442,14 @@ public class ReservationsPanel extends JPanel {
                 res.setCheckInDate(LocalDate.parse(checkInField.getText()));
                 res.setCheckOutDate(LocalDate.parse(checkOutField.getText()));
                 res.setNumberOfGuests((Integer) guestsSpinner.getValue());
-                res.setTotalAmount(Double.parseDouble(totalField.getText()));
+                res.setTotalAmountCents(Money.parseCents(totalField.getText()));
                 res.setStatusCode((String) statusCombo.getSelectedItem());
                 
-                reservationDAO.insert(res);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Reservation created successfully!");
-                Logger.info("Reservation created for customer: " + selectedCustomer.getFirstName());
+                RefreshScheduler.getInstance().write(this, () -> reservationDAO.insert(res), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Reservation created successfully!");
+                    Logger.info("Reservation created for customer: " + selectedCustomer.getFirstName());
+                }, e -> writeFailed("Error creating reservation", e));
             } catch (Exception e) {
                 Logger.error("Error creating reservation", e);
                 JOptionPane.showMessageDialog(this, "Error creating reservation: " + e.getMessage(),
@@ -476,15 +466,19 @@ public class ReservationsPanel extends JPanel {
             return;
         }
         
-        int reservationId = (Integer) tableModel.getValueAt(selectedRow, 0);
+        int reservationId = tableModel.getIdAt(selectedRow);
+        RefreshScheduler.getInstance().fetch(this, () -> reservationDAO.findById(reservationId),
+            this::showEditReservationDialog);
+    }
+    
+    private void showEditReservationDialog(Reservation res) {
+        if (res == null) {
+            JOptionPane.showMessageDialog(this, "Reservation not found",
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         try {
-            Reservation res = reservationDAO.findById(reservationId);
-            if (res == null) {
-                JOptionPane.showMessageDialog(this, "Reservation not found",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
             
             JPanel panel = new JPanel(new java.awt.GridLayout(7, 2, 10, 10));
             panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -494,7 +488,7 @@ public class ReservationsPanel extends JPanel {
             javax.swing.JTextField checkInField = new javax.swing.JTextField(res.getCheckInDate() != null ? res.getCheckInDate().format(dateFormatter) : "");
             javax.swing.JTextField checkOutField = new javax.swing.JTextField(res.getCheckOutDate() != null ? res.getCheckOutDate().format(dateFormatter) : "");
             javax.swing.JSpinner guestsSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(res.getNumberOfGuests(), 1, 10, 1));
-            javax.swing.JTextField totalField = new javax.swing.JTextField(String.valueOf(res.getTotalAmount()));
+            javax.swing.JTextField totalField = new javax.swing.JTextField(Money.toPlainString(res.getTotalAmountCents()));
             javax.swing.JComboBox<String> statusCombo = new javax.swing.JComboBox<>(new String[]{"PENDING", "CONFIRMED", "CHECKED_IN", "CHECKED_OUT", "CANCELLED"});
             statusCombo.setSelectedItem(res.getStatusCode());
             
@@ -516,13 +510,14 @@ public class ReservationsPanel extends JPanel {
                 res.setCheckInDate(LocalDate.parse(checkInField.getText()));
                 res.setCheckOutDate(LocalDate.parse(checkOutField.getText()));
                 res.setNumberOfGuests((Integer) guestsSpinner.getValue());
-                res.setTotalAmount(Double.parseDouble(totalField.getText()));
+                res.setTotalAmountCents(Money.parseCents(totalField.getText()));
                 res.setStatusCode((String) statusCombo.getSelectedItem());
                 
-                reservationDAO.update(res);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Reservation updated successfully!");
-                Logger.info("Reservation updated: ID " + reservationId);
+                RefreshScheduler.getInstance().write(this, () -> reservationDAO.update(res), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Reservation updated successfully!");
+                    Logger.info("Reservation updated: ID " + res.getId());
+                }, e -> writeFailed("Error editing reservation", e));
             }
         } catch (Exception e) {
             Logger.error("Error editing reservation", e);
@@ -544,18 +539,35 @@ public class ReservationsPanel extends JPanel {
             "Confirm Cancel", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                int reservationId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                reservationDAO.updateStatus(reservationId, "CANCELLED");
+            int reservationId = tableModel.getIdAt(selectedRow);
+            ReservationListRow row = tableModel.getRow(selectedRow);
+            LocalDateTime version = row != null ? row.updatedAt() : null;
+            RefreshScheduler.getInstance().write(this, () -> reservationDAO.updateStatus(reservationId, "CANCELLED", version), done -> {
                 refreshData();
                 JOptionPane.showMessageDialog(this, "Reservation cancelled successfully!");
                 Logger.info("Reservation cancelled: ID " + reservationId);
-            } catch (Exception e) {
-                Logger.error("Error cancelling reservation", e);
-                JOptionPane.showMessageDialog(this, "Error cancelling reservation: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> writeFailed("Error cancelling reservation", e));
         }
     }
+    
+    /**
+     * Report a write that failed off the EDT
+     */
+    private void writeFailed(String message, Exception e) {
+        Logger.error(message, e);
+        JOptionPane.showMessageDialog(this, message + ": " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Table index and stat card counts produced off the EDT
+     */
+    record ReservationsData(TableIndex index, int[] statusCounts) {
+    }
+    
+    /**
+     * Customers and free rooms to choose from, fetched before the add dialog opens
+     */
+    private record ReservationChoices(List<Customer> customers, List<Room> rooms) {
+    }
 }
-
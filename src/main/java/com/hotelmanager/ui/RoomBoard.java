@@ -0,0 +1,426 @@
+package com.hotelmanager.ui;
+
+import java.awt.Color;
+import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.FontMetrics;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JViewport;
+import javax.swing.Scrollable;
+import javax.swing.SwingConstants;
+import javax.swing.ToolTipManager;
+
+import com.hotelmanager.model.ReservationRow;
+import com.hotelmanager.model.ReservationStatus;
+import com.hotelmanager.model.RoomStatus;
+
+/**
+ * Floor plan of every room: one band per floor, one cell per room colored by its status, with
+ * marks for today's arrivals, guests in house and departures. The board is a single painted
+ * component; a changed room repaints only its cell and painting skips every cell outside the
+ * clip, so thousands of rooms stay cheap. Hovering a cell highlights it and shows its details.
+ * All methods must be called on the EDT.
+ */
+public class RoomBoard extends JComponent implements Scrollable {
+
+    // Today flags of a room, combined with |
+    public static final int ARRIVING = 1;
+    public static final int IN_HOUSE = 2;
+    public static final int DEPARTING = 4;
+
+    private static final int CELL_WIDTH = 64;
+    private static final int CELL_HEIGHT = 40;
+    private static final int GAP = 6;
+    private static final int LABEL_WIDTH = 72;
+    private static final int PADDING = 12;
+    private static final int FLOOR_GAP = 14;
+    private static final Font NUMBER_FONT = new Font("Segoe UI", Font.BOLD, 12);
+    private static final Font LABEL_FONT = new Font("Segoe UI", Font.BOLD, 13);
+
+    // Floors in order, then room numbers in numeric order for numeric numbers
+    private static final Comparator<Tile> ORDER = Comparator.comparingInt(Tile::floor)
+        .thenComparingInt(tile -> tile.number().length())
+        .thenComparing(Tile::number);
+
+    /**
+     * One room as the board shows it
+     */
+    public record Tile(int roomId, String number, int floor, String typeName, String price, RoomStatus status) {
+
+        public Tile {
+            number = number != null ? number : "";
+        }
+
+        Tile withStatus(RoomStatus newStatus) {
+            return new Tile(roomId, number, floor, typeName, price, newStatus);
+        }
+    }
+
+    private final Color[] statusColors;
+    private Tile[] tiles = new Tile[0];
+    private int[] today = new int[0];
+    private final Map<Integer, Integer> indexOf = new HashMap<>();
+    private int hovered = -1;
+
+    // Layout for the current width: cell corners, and per floor band its first tile and top edge,
+    // with one extra entry for the end of the board
+    private int layoutWidth = -1;
+    private int perRow = 1;
+    private int[] cellX = new int[0];
+    private int[] cellY = new int[0];
+    private int[] bandStart = {0};
+    private int[] bandTop = {0};
+    private int boardHeight;
+
+    /**
+     * @param statusColors cell color of each room status, in RoomStatus order
+     */
+    public RoomBoard(Color... statusColors) {
+        this.statusColors = statusColors;
+        setOpaque(true);
+        setBackground(Color.WHITE);
+        ToolTipManager.sharedInstance().registerComponent(this);
+        MouseAdapter hover = new MouseAdapter() {
+            @Override
+            public void mouseMoved(MouseEvent e) {
+                setHovered(tileAt(e.getPoint()));
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                setHovered(-1);
+            }
+        };
+        addMouseListener(hover);
+        addMouseMotionListener(hover);
+    }
+
+    /**
+     * Today flags of a room from its open stays touching today
+     */
+    public static int todayFlags(ReservationRow stay, LocalDate day) {
+        boolean checkedIn = stay.status() == ReservationStatus.CHECKED_IN;
+        if (checkedIn && day.equals(stay.checkOutDate())) {
+            return DEPARTING;
+        }
+        if (checkedIn) {
+            return IN_HOUSE;
+        }
+        return day.equals(stay.checkInDate()) ? ARRIVING : 0;
+    }
+
+    /**
+     * Show a full load. When the rooms and floors are the same as on screen only the changed
+     * cells are repainted; otherwise the board is laid out again.
+     */
+    public void setRooms(List<Tile> rooms, Map<Integer, Integer> todayFlags) {
+        Tile[] sorted = rooms.toArray(new Tile[0]);
+        Arrays.sort(sorted, ORDER);
+        if (sameLayout(sorted)) {
+            for (int i = 0; i < sorted.length; i++) {
+                update(i, sorted[i], todayFlags.getOrDefault(sorted[i].roomId(), 0));
+            }
+            return;
+        }
+        tiles = sorted;
+        today = new int[sorted.length];
+        indexOf.clear();
+        for (int i = 0; i < sorted.length; i++) {
+            today[i] = todayFlags.getOrDefault(sorted[i].roomId(), 0);
+            indexOf.put(sorted[i].roomId(), i);
+        }
+        hovered = -1;
+        layoutWidth = -1;
+        revalidate();
+        repaint();
+    }
+
+    /**
+     * Show a pushed change of one room; false if the room is not on the board or moved floor,
+     * which needs a full load
+     */
+    public boolean updateRoom(Tile tile, int todayFlags) {
+        Integer index = indexOf.get(tile.roomId());
+        if (index == null || tiles[index].floor() != tile.floor()) {
+            return false;
+        }
+        update(index, tile, todayFlags);
+        return true;
+    }
+
+    /**
+     * Show a pushed status change; ignored for a room not on the board
+     */
+    public void setStatus(int roomId, RoomStatus status) {
+        Integer index = indexOf.get(roomId);
+        if (index != null) {
+            update(index, tiles[index].withStatus(status), today[index]);
+        }
+    }
+
+    /**
+     * Key of the room under a point, or -1
+     */
+    public int roomAt(Point point) {
+        int index = tileAt(point);
+        return index >= 0 ? tiles[index].roomId() : -1;
+    }
+
+    /**
+     * A row of labels explaining the colors and marks
+     */
+    public JPanel createLegend() {
+        JPanel legend = new JPanel(new FlowLayout(FlowLayout.LEFT, 12, 6));
+        legend.setBackground(Color.WHITE);
+        RoomStatus[] statuses = RoomStatus.values();
+        for (int i = 0; i < statuses.length && i < statusColors.length; i++) {
+            JLabel label = UIFactory.createLabel("■ " + statuses[i].getDisplayName(), 12, true);
+            label.setForeground(statusColors[i]);
+            legend.add(label);
+        }
+        JLabel marks = UIFactory.createLabel("●  arriving today    ○  departing today    ▬  in house", 12, false);
+        marks.setForeground(UIFactory.TEXT_SECONDARY);
+        marks.setHorizontalAlignment(SwingConstants.LEFT);
+        legend.add(marks);
+        return legend;
+    }
+
+    @Override
+    public void setBounds(int x, int y, int width, int height) {
+        super.setBounds(x, y, width, height);
+        if (width != layoutWidth) {
+            int oldHeight = boardHeight;
+            layoutCells(width);
+            if (boardHeight != oldHeight) {
+                revalidate();
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int width = getParent() instanceof JViewport viewport ? viewport.getWidth() : getWidth();
+        if (width > 0 && width != layoutWidth) {
+            layoutCells(width);
+        }
+        return new Dimension(2 * PADDING + LABEL_WIDTH + CELL_WIDTH, boardHeight);
+    }
+
+    @Override
+    public String getToolTipText(MouseEvent e) {
+        int index = tileAt(e.getPoint());
+        if (index < 0) {
+            return null;
+        }
+        Tile tile = tiles[index];
+        StringBuilder text = new StringBuilder("<html><b>Room ").append(tile.number()).append("</b><br>")
+            .append("Floor ").append(tile.floor()).append(" · ").append(tile.typeName()).append("<br>")
+            .append(tile.status().getDisplayName()).append(" · ").append(tile.price());
+        int flags = today[index];
+        if ((flags & ARRIVING) != 0) {
+            text.append("<br>Arriving today");
+        }
+        if ((flags & IN_HOUSE) != 0) {
+            text.append("<br>Guest in house");
+        }
+        if ((flags & DEPARTING) != 0) {
+            text.append("<br>Departing today");
+        }
+        return text.append("</html>").toString();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (layoutWidth != getWidth()) {
+            layoutCells(getWidth());
+        }
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            Rectangle clip = g2.getClipBounds();
+            if (clip == null) {
+                clip = new Rectangle(0, 0, getWidth(), getHeight());
+            }
+            g2.setColor(getBackground());
+            g2.fillRect(clip.x, clip.y, clip.width, clip.height);
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+
+            FontMetrics labelMetrics = g2.getFontMetrics(LABEL_FONT);
+            FontMetrics numberMetrics = g2.getFontMetrics(NUMBER_FONT);
+            for (int band = 0; band < bandStart.length - 1; band++) {
+                // Bands are stacked, so the ones outside the clip are skipped whole
+                if (bandTop[band + 1] <= clip.y || bandTop[band] >= clip.y + clip.height) {
+                    continue;
+                }
+                int first = bandStart[band];
+                if (clip.intersects(PADDING, bandTop[band], LABEL_WIDTH, CELL_HEIGHT)) {
+                    g2.setFont(LABEL_FONT);
+                    g2.setColor(UIFactory.TEXT_SECONDARY);
+                    g2.drawString("Floor " + tiles[first].floor(), PADDING,
+                        bandTop[band] + (CELL_HEIGHT + labelMetrics.getAscent() - labelMetrics.getDescent()) / 2);
+                }
+                g2.setFont(NUMBER_FONT);
+                for (int i = first; i < bandStart[band + 1]; i++) {
+                    if (clip.intersects(cellX[i], cellY[i], CELL_WIDTH, CELL_HEIGHT)) {
+                        paintCell(g2, i, numberMetrics);
+                    }
+                }
+            }
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private void paintCell(Graphics2D g2, int index, FontMetrics metrics) {
+        Tile tile = tiles[index];
+        int x = cellX[index];
+        int y = cellY[index];
+        int ordinal = tile.status().ordinal();
+        Color color = ordinal < statusColors.length ? statusColors[ordinal] : UIFactory.TEXT_SECONDARY;
+        g2.setColor(index == hovered ? color.darker() : color);
+        g2.fillRoundRect(x, y, CELL_WIDTH, CELL_HEIGHT, 8, 8);
+
+        g2.setColor(Color.WHITE);
+        g2.drawString(tile.number(), x + (CELL_WIDTH - metrics.stringWidth(tile.number())) / 2,
+            y + (CELL_HEIGHT + metrics.getAscent() - metrics.getDescent()) / 2);
+        int flags = today[index];
+        if ((flags & ARRIVING) != 0) {
+            g2.fillOval(x + CELL_WIDTH - 10, y + 4, 6, 6);
+        }
+        if ((flags & DEPARTING) != 0) {
+            g2.drawOval(x + 4, y + 4, 6, 6);
+        }
+        if ((flags & IN_HOUSE) != 0) {
+            g2.fillRect(x + 10, y + CELL_HEIGHT - 6, CELL_WIDTH - 20, 2);
+        }
+    }
+
+    private void update(int index, Tile tile, int todayFlags) {
+        if (!tile.equals(tiles[index]) || todayFlags != today[index]) {
+            tiles[index] = tile;
+            today[index] = todayFlags;
+            repaintCell(index);
+        }
+    }
+
+    private boolean sameLayout(Tile[] sorted) {
+        if (sorted.length != tiles.length) {
+            return false;
+        }
+        for (int i = 0; i < sorted.length; i++) {
+            if (sorted[i].roomId() != tiles[i].roomId() || sorted[i].floor() != tiles[i].floor()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void setHovered(int index) {
+        if (index != hovered) {
+            repaintCell(hovered);
+            hovered = index;
+            repaintCell(hovered);
+            setCursor(index >= 0 ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+        }
+    }
+
+    private void repaintCell(int index) {
+        if (index >= 0 && index < tiles.length && layoutWidth == getWidth()) {
+            repaint(cellX[index], cellY[index], CELL_WIDTH, CELL_HEIGHT);
+        }
+    }
+
+    private int tileAt(Point point) {
+        if (layoutWidth != getWidth()) {
+            layoutCells(getWidth());
+        }
+        int bands = bandStart.length - 1;
+        int band = Arrays.binarySearch(bandTop, 0, bands, point.y);
+        band = band >= 0 ? band : -band - 2;
+        int left = point.x - PADDING - LABEL_WIDTH;
+        if (band < 0 || band >= bands || left < 0) {
+            return -1;
+        }
+        int top = point.y - bandTop[band];
+        int column = left / (CELL_WIDTH + GAP);
+        int row = top / (CELL_HEIGHT + GAP);
+        if (column >= perRow || left % (CELL_WIDTH + GAP) >= CELL_WIDTH || top % (CELL_HEIGHT + GAP) >= CELL_HEIGHT) {
+            return -1;
+        }
+        int index = bandStart[band] + row * perRow + column;
+        return index < bandStart[band + 1] ? index : -1;
+    }
+
+    private void layoutCells(int width) {
+        layoutWidth = width;
+        perRow = Math.max(1, (width - 2 * PADDING - LABEL_WIDTH + GAP) / (CELL_WIDTH + GAP));
+        cellX = new int[tiles.length];
+        cellY = new int[tiles.length];
+        int[] starts = new int[tiles.length + 1];
+        int[] tops = new int[tiles.length + 1];
+        int bands = 0;
+        int y = PADDING;
+        int i = 0;
+        while (i < tiles.length) {
+            int floor = tiles[i].floor();
+            starts[bands] = i;
+            tops[bands] = y;
+            bands++;
+            int k = 0;
+            for (; i < tiles.length && tiles[i].floor() == floor; i++, k++) {
+                cellX[i] = PADDING + LABEL_WIDTH + (k % perRow) * (CELL_WIDTH + GAP);
+                cellY[i] = y + (k / perRow) * (CELL_HEIGHT + GAP);
+            }
+            int rows = (k + perRow - 1) / perRow;
+            y += rows * (CELL_HEIGHT + GAP) - GAP + FLOOR_GAP;
+        }
+        starts[bands] = tiles.length;
+        tops[bands] = y;
+        bandStart = Arrays.copyOf(starts, bands + 1);
+        bandTop = Arrays.copyOf(tops, bands + 1);
+        boardHeight = tiles.length == 0 ? 0 : y - FLOOR_GAP + PADDING;
+    }
+
+    @Override
+    public Dimension getPreferredScrollableViewportSize() {
+        return new Dimension(450, 400);
+    }
+
+    @Override
+    public int getScrollableUnitIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return CELL_HEIGHT + GAP;
+    }
+
+    @Override
+    public int getScrollableBlockIncrement(Rectangle visibleRect, int orientation, int direction) {
+        return Math.max(CELL_HEIGHT + GAP, visibleRect.height - CELL_HEIGHT);
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportWidth() {
+        return true;
+    }
+
+    @Override
+    public boolean getScrollableTracksViewportHeight() {
+        return false;
+    }
+}
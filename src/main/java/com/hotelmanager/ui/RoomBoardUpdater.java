@@ -0,0 +1,177 @@
+package com.hotelmanager.ui;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.SwingUtilities;
+
+import com.hotelmanager.dao.ReservationDAO;
+import com.hotelmanager.dao.RoomDAO;
+import com.hotelmanager.model.ReservationRow;
+import com.hotelmanager.model.Room;
+import com.hotelmanager.model.RoomStatus;
+import com.hotelmanager.service.RoomStatusFeed;
+import com.hotelmanager.util.Logger;
+
+/**
+ * Applies pushed room changes to the rooms board while the rooms panel is showing.
+ * Pushes arriving together are coalesced into one EDT pass: a status change is painted as is,
+ * other changes refetch only the rooms concerned, in one query at a time, with the rooms changed
+ * meanwhile collected for the next one. A room the board cannot place (added, deleted, moved
+ * floor or of an unknown type) reloads the panel instead. Pushes while the panel is hidden are
+ * dropped; showing it again reloads it when the rooms or reservations changed.
+ */
+final class RoomBoardUpdater implements RoomStatusFeed.Listener {
+
+    private final RoomsPanel owner;
+    private final RoomBoard board;
+    private final RoomDAO roomDAO;
+    private final ReservationDAO reservationDAO;
+
+    // Written by any thread, drained on the EDT
+    private final Map<Integer, RoomStatus> pendingStatus = new ConcurrentHashMap<>();
+    private final Set<Integer> pendingRooms = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // EDT only: rooms waiting for the query in flight, and type names of the last full load
+    private final Set<Integer> waiting = new HashSet<>();
+    private boolean fetching;
+    private Map<Integer, String> typeNames = Map.of();
+
+    /**
+     * Changed rooms and their stays today, fetched off the EDT
+     */
+    private record Changes(List<Room> rooms, List<ReservationRow> stays) {
+    }
+
+    RoomBoardUpdater(RoomsPanel owner, RoomBoard board, RoomDAO roomDAO, ReservationDAO reservationDAO) {
+        this.owner = owner;
+        this.board = board;
+        this.roomDAO = roomDAO;
+        this.reservationDAO = reservationDAO;
+    }
+
+    /**
+     * A board cell for a room
+     */
+    static RoomBoard.Tile tileOf(Room room, String typeName) {
+        return new RoomBoard.Tile(room.getId(), room.getRoomNumber(), room.getFloor(), typeName,
+            String.format("$%.2f/night", room.getPrice()), room.getStatus());
+    }
+
+    /**
+     * Today flags by room of the open stays touching a day
+     */
+    static Map<Integer, Integer> todayFlags(List<ReservationRow> stays, LocalDate day) {
+        Map<Integer, Integer> flags = new HashMap<>();
+        for (ReservationRow stay : stays) {
+            flags.merge(stay.roomId(), RoomBoard.todayFlags(stay, day), (a, b) -> a | b);
+        }
+        return flags;
+    }
+
+    /**
+     * Type names of the last full load, for the rooms refetched after a push
+     */
+    void setTypeNames(Map<Integer, String> typeNames) {
+        this.typeNames = typeNames;
+    }
+
+    @Override
+    public void roomStatusChanged(int roomId, RoomStatus status) {
+        pendingStatus.put(roomId, status);
+        scheduleDrain();
+    }
+
+    @Override
+    public void roomsChanged(int... roomIds) {
+        for (int roomId : roomIds) {
+            if (roomId > 0) {
+                pendingRooms.add(roomId);
+            }
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drain);
+        }
+    }
+
+    private void drain() {
+        drainScheduled.set(false);
+        boolean showing = owner.isShowing();
+        for (Iterator<Map.Entry<Integer, RoomStatus>> it = pendingStatus.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Integer, RoomStatus> change = it.next();
+            it.remove();
+            if (showing) {
+                board.setStatus(change.getKey(), change.getValue());
+                // The query in flight may have read the room before this change
+                if (fetching) {
+                    waiting.add(change.getKey());
+                }
+            }
+        }
+        for (Iterator<Integer> it = pendingRooms.iterator(); it.hasNext(); ) {
+            int roomId = it.next();
+            it.remove();
+            if (showing) {
+                waiting.add(roomId);
+            }
+        }
+        if (!fetching && !waiting.isEmpty()) {
+            fetchWaiting();
+        }
+    }
+
+    private void fetchWaiting() {
+        int[] ids = waiting.stream().mapToInt(Integer::intValue).toArray();
+        waiting.clear();
+        fetching = true;
+        LocalDate today = LocalDate.now();
+        RefreshScheduler.getInstance().fetch(owner,
+            () -> new Changes(roomDAO.findByIds(ids), reservationDAO.findStaysOn(today, ids)),
+            changes -> {
+                fetching = false;
+                apply(ids, today, changes);
+                fetchNext();
+            },
+            e -> {
+                fetching = false;
+                // Cancelled with the panel, which reloads when shown again
+                if (!(e instanceof CancellationException)) {
+                    Logger.error("Error loading changed rooms", e);
+                }
+                fetchNext();
+            });
+    }
+
+    private void fetchNext() {
+        if (!waiting.isEmpty() && owner.isShowing()) {
+            fetchWaiting();
+        } else {
+            waiting.clear();
+        }
+    }
+
+    private void apply(int[] ids, LocalDate today, Changes changes) {
+        Map<Integer, Integer> flags = todayFlags(changes.stays(), today);
+        boolean reload = changes.rooms().size() != ids.length;
+        for (Room room : changes.rooms()) {
+            String typeName = typeNames.get(room.getRoomTypeId());
+            reload |= typeName == null || !board.updateRoom(tileOf(room, typeName), flags.getOrDefault(room.getId(), 0));
+        }
+        if (reload) {
+            RefreshScheduler.getInstance().refresh(owner);
+        }
+    }
+}
@@ -7,48 +7,65 @@ import java.awt.Dimension;
 import java.awt.FlowLayout;
 import java.awt.Font;
 import java.awt.GridLayout;
-import java.awt.Image;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import javax.swing.BorderFactory;
 import javax.swing.Box;
 import javax.swing.BoxLayout;
-import javax.swing.ImageIcon;
+import javax.swing.Icon;
 import javax.swing.JButton;
 import javax.swing.JLabel;
 import javax.swing.JOptionPane;
 import javax.swing.JPanel;
 import javax.swing.JScrollPane;
+import javax.swing.JTabbedPane;
 import javax.swing.JTable;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
-import javax.swing.table.DefaultTableModel;
 
 import com.hotelmanager.HotelManagerApp;
+import com.hotelmanager.dao.ReservationDAO;
 import com.hotelmanager.dao.RoomDAO;
 import com.hotelmanager.dao.RoomTypeDAO;
+import com.hotelmanager.export.Exporter;
+import com.hotelmanager.export.TableExport;
+import com.hotelmanager.model.DataVersion;
+import com.hotelmanager.model.ReservationRow;
 import com.hotelmanager.model.Room;
+import com.hotelmanager.model.RoomStatus;
 import com.hotelmanager.model.RoomType;
+import com.hotelmanager.service.RoomStatusFeed;
 import com.hotelmanager.util.Logger;
 
 /**
  * Rooms Panel - displays room management interface with modern styling
  */
-public class RoomsPanel extends JPanel {
+public class RoomsPanel extends JPanel implements RefreshablePanel<RoomsPanel.RoomsData> {
+    
+    private static final long STALENESS_BUDGET_MS = 5_000;
     
     private final HotelManagerApp mainApp;
     private final RoomDAO roomDAO;
     private final RoomTypeDAO roomTypeDAO;
+    private final ReservationDAO reservationDAO;
     private JTable roomsTable;
-    private DefaultTableModel tableModel;
+    private KeyedTableModel tableModel;
+    private RoomBoard roomBoard;
+    private RoomBoardUpdater boardUpdater;
     
     private JButton addButton;
     private JButton editButton;
     private JButton deleteButton;
     private JButton refreshButton;
+    private JButton exportButton;
     
     // Status labels for stat cards
+    private JLabel loadingLabel;
     private JLabel availableLabel;
     private JLabel occupiedLabel;
     private JLabel maintenanceLabel;
@@ -64,8 +81,8 @@ public class RoomsPanel extends JPanel {
         this.mainApp = mainApp;
         this.roomDAO = new RoomDAO();
         this.roomTypeDAO = new RoomTypeDAO();
+        this.reservationDAO = new ReservationDAO();
         initializeUI();
-        refreshData();
     }
     
     private void initializeUI() {
@@ -88,17 +105,12 @@ public class RoomsPanel extends JPanel {
         // Right side - Logo
         JPanel logoPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         logoPanel.setBackground(UIFactory.CARD_BG);
+        loadingLabel = UIFactory.createLoadingLabel();
+        logoPanel.add(loadingLabel);
         
-        try {
-            ImageIcon originalIcon = new ImageIcon(getClass().getResource("/icons/UPC_BRAND.png"));
-            if (originalIcon.getImage() != null) {
-                Image scaledImage = originalIcon.getImage().getScaledInstance(40, 40, Image.SCALE_SMOOTH);
-                ImageIcon scaledIcon = new ImageIcon(scaledImage);
-                JLabel logoLabel = new JLabel(scaledIcon);
-                logoPanel.add(logoLabel);
-            }
-        } catch (Exception e) {
-            Logger.warn("Could not load logo: " + e.getMessage());
+        Icon logo = UIFactory.createImageIcon(UIFactory.LOGO_RESOURCE, 40, 40);
+        if (logo != null) {
+            logoPanel.add(new JLabel(logo));
         }
         
         headerPanel.add(titlePanel, BorderLayout.WEST);
@@ -140,22 +152,18 @@ public class RoomsPanel extends JPanel {
         editButton = UIFactory.createSecondaryButton("✏️ Edit Room");
         deleteButton = UIFactory.createDangerButton("🗑️ Delete Room");
         refreshButton = UIFactory.createSecondaryButton("🔄 Refresh");
+        exportButton = UIFactory.createSecondaryButton("⬇ Export");
         
         buttonPanel.add(refreshButton);
+        buttonPanel.add(exportButton);
         buttonPanel.add(addButton);
         buttonPanel.add(editButton);
         buttonPanel.add(deleteButton);
         
         contentPanel.add(buttonPanel, BorderLayout.NORTH);
         
-        // Table model
-        String[] columnNames = {"ID", "Room Number", "Floor", "Room Type", "Status", "Price", "Description"};
-        tableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        // Table model - refreshes are diffed by room ID
+        tableModel = new KeyedTableModel("ID", "Room Number", "Floor", "Room Type", "Status", "Price", "Description");
         
         roomsTable = new JTable(tableModel);
         roomsTable.setFont(new Font("Segoe UI", Font.PLAIN, 13));
@@ -217,14 +225,31 @@ public class RoomsPanel extends JPanel {
             }
         });
         
-        contentPanel.add(scrollPane, BorderLayout.CENTER);
+        // Floor board - one cell per room, kept current by pushed room changes
+        roomBoard = new RoomBoard(AVAILABLE_COLOR, OCCUPIED_COLOR, MAINTENANCE_COLOR, RESERVED_COLOR);
+        boardUpdater = new RoomBoardUpdater(this, roomBoard, roomDAO, reservationDAO);
+        JScrollPane boardScrollPane = new JScrollPane(roomBoard);
+        boardScrollPane.setBorder(BorderFactory.createEmptyBorder());
+        boardScrollPane.getViewport().setBackground(Color.WHITE);
+        JPanel boardPanel = new JPanel(new BorderLayout());
+        boardPanel.setBackground(Color.WHITE);
+        boardPanel.setBorder(new LineBorder(new Color(189, 195, 199), 1));
+        boardPanel.add(roomBoard.createLegend(), BorderLayout.NORTH);
+        boardPanel.add(boardScrollPane, BorderLayout.CENTER);
+        
+        JTabbedPane viewTabs = new JTabbedPane();
+        viewTabs.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        viewTabs.addTab("📋 Table", scrollPane);
+        viewTabs.addTab("🗺 Board", boardPanel);
+        
+        contentPanel.add(viewTabs, BorderLayout.CENTER);
         
         // Status bar
         JPanel statusPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         statusPanel.setBackground(UIFactory.CARD_BG);
         statusPanel.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
         
-        JLabel statusLabel = new JLabel("💡 Double-click a row to edit | Room prices shown per night");
+        JLabel statusLabel = new JLabel("💡 Double-click a row or a board cell to edit | Room prices shown per night");
         statusLabel.setFont(new Font("Segoe UI", Font.ITALIC, 12));
         statusLabel.setForeground(UIFactory.TEXT_SECONDARY);
         statusPanel.add(statusLabel);
@@ -238,6 +263,9 @@ public class RoomsPanel extends JPanel {
         editButton.addActionListener(e -> showEditRoomDialog());
         deleteButton.addActionListener(e -> deleteSelectedRoom());
         refreshButton.addActionListener(e -> refreshData());
+        exportButton.addActionListener(e -> ExportDialog.export(this, "Rooms",
+            () -> Exporter.countRows(TableExport.ROOMS),
+            (path, format, progress) -> Exporter.exportTable(TableExport.ROOMS, path, format, progress)));
         
         // Double-click to edit
         roomsTable.addMouseListener(new java.awt.event.MouseAdapter() {
@@ -247,6 +275,26 @@ public class RoomsPanel extends JPanel {
                 }
             }
         });
+        roomBoard.addMouseListener(new java.awt.event.MouseAdapter() {
+            public void mouseClicked(java.awt.event.MouseEvent evt) {
+                int roomId = roomBoard.roomAt(evt.getPoint());
+                if (evt.getClickCount() == 2 && roomId > 0) {
+                    editRoom(roomId);
+                }
+            }
+        });
+    }
+    
+    @Override
+    public void addNotify() {
+        super.addNotify();
+        RoomStatusFeed.getInstance().addListener(boardUpdater);
+    }
+    
+    @Override
+    public void removeNotify() {
+        RoomStatusFeed.getInstance().removeListener(boardUpdater);
+        super.removeNotify();
     }
     
     /**
@@ -302,75 +350,100 @@ public class RoomsPanel extends JPanel {
     }
     
     /**
-     * Refresh room data from database
+     * Reload room data from the database in the background
      */
     public void refreshData() {
-        try {
-            List<Room> rooms = roomDAO.findAll();
-            tableModel.setRowCount(0);
-            
-            // Count rooms by status
-            int available = 0;
-            int occupied = 0;
-            int maintenance = 0;
-            int reserved = 0;
+        RefreshScheduler.getInstance().refresh(this);
+    }
+    
+    @Override
+    public Object loadVersion() throws Exception {
+        // Type names come from room_types, the board's today marks from reservations and the date
+        DataVersion version = roomDAO.getDataVersion("room_types", "reservations");
+        return version != null ? List.of(version, LocalDate.now()) : null;
+    }
+    
+    @Override
+    public RoomsData loadData() throws Exception {
+        List<Room> rooms = roomDAO.findAll();
+        LocalDate today = LocalDate.now();
+        List<ReservationRow> stays = reservationDAO.findStaysOn(today, null);
+        List<Object[]> rows = new ArrayList<>(rooms.size());
+        List<RoomBoard.Tile> tiles = new ArrayList<>(rooms.size());
+        // One query for the type names instead of one per room
+        Map<Integer, String> roomTypeNames = new HashMap<>();
+        for (RoomType roomType : roomTypeDAO.findAll()) {
+            roomTypeNames.put(roomType.getId(), roomType.getTypeName());
+        }
+        
+        // Count rooms by status
+        int available = 0;
+        int occupied = 0;
+        int maintenance = 0;
+        int reserved = 0; // RoomStatus has no RESERVED code yet
+        
+        for (Room room : rooms) {
+            String roomTypeName = roomTypeNames.getOrDefault(room.getRoomTypeId(), "Unknown");
+            rows.add(new Object[] {
+                room.getId(),
+                room.getRoomNumber(),
+                room.getFloor(),
+                roomTypeName,
+                room.getStatusCode(),
+                String.format("$%.2f/night", room.getPrice()),
+                room.getDescription()
+            });
+            tiles.add(RoomBoardUpdater.tileOf(room, roomTypeName));
             
-            for (Room room : rooms) {
-                String roomTypeName = getRoomTypeName(room.getRoomTypeId());
-                Object[] rowData = {
-                    room.getId(),
-                    room.getRoomNumber(),
-                    room.getFloor(),
-                    roomTypeName,
-                    room.getStatusCode(),
-                    String.format("$%.2f/night", room.getPrice()),
-                    room.getDescription()
-                };
-                tableModel.addRow(rowData);
-                
-                // Count by status
-                String status = room.getStatusCode();
-                switch (status) {
-                    case "AVAILABLE":
-                        available++;
-                        break;
-                    case "OCCUPIED":
-                        occupied++;
-                        break;
-                    case "MAINTENANCE":
-                        maintenance++;
-                        break;
-                    case "RESERVED":
-                        reserved++;
-                        break;
-                }
+            // Count by status
+            RoomStatus status = room.getStatus();
+            if (status == RoomStatus.AVAILABLE) {
+                available++;
+            } else if (status == RoomStatus.OCCUPIED) {
+                occupied++;
+            } else if (status == RoomStatus.MAINTENANCE) {
+                maintenance++;
             }
-            
-            // Update stat cards
-            availableLabel.setText(String.valueOf(available));
-            occupiedLabel.setText(String.valueOf(occupied));
-            maintenanceLabel.setText(String.valueOf(maintenance));
-            reservedLabel.setText(String.valueOf(reserved));
-            
-            Logger.info("Rooms data refreshed: " + rooms.size() + " rooms loaded");
-        } catch (Exception e) {
-            Logger.error("Error loading rooms", e);
-            JOptionPane.showMessageDialog(this, 
-                "Error loading rooms: " + e.getMessage(),
-                "Error", JOptionPane.ERROR_MESSAGE);
         }
+        return new RoomsData(rows, available, occupied, maintenance, reserved,
+            tiles, RoomBoardUpdater.todayFlags(stays, today), roomTypeNames);
     }
     
-    private String getRoomTypeName(int roomTypeId) {
-        try {
-            RoomType roomType = roomTypeDAO.findById(roomTypeId);
-            return roomType != null ? roomType.getTypeName() : "Unknown";
-        } catch (Exception e) {
-            return "Unknown";
-        }
+    @Override
+    public void applyData(RoomsData data) {
+        tableModel.setRows(data.rows());
+        boardUpdater.setTypeNames(data.typeNames());
+        roomBoard.setRooms(data.tiles(), data.todayFlags());
+        
+        // Update stat cards
+        availableLabel.setText(String.valueOf(data.available()));
+        occupiedLabel.setText(String.valueOf(data.occupied()));
+        maintenanceLabel.setText(String.valueOf(data.maintenance()));
+        reservedLabel.setText(String.valueOf(data.reserved()));
+        
+        Logger.info("Rooms data refreshed: " + data.rows().size() + " rooms loaded");
+    }
+    
+    @Override
+    public String getDataName() {
+        return "rooms";
+    }
+    
+    @Override
+    public long getStalenessBudgetMillis() {
+        return STALENESS_BUDGET_MS;
+    }
+    
+    @Override
+    public void setLoading(boolean loading) {
+        loadingLabel.setVisible(loading);
     }
     
     private void showAddRoomDialog() {
+        RefreshScheduler.getInstance().fetch(this, roomTypeDAO::findAll, this::showAddRoomDialog);
+    }
+    
+    private void showAddRoomDialog(List<RoomType> roomTypes) {
         JPanel panel = new JPanel(new java.awt.GridLayout(6, 2, 10, 10));
         panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
         
@@ -381,13 +454,8 @@ public class RoomsPanel extends JPanel {
         javax.swing.JTextField priceField = new javax.swing.JTextField();
         javax.swing.JTextField descriptionField = new javax.swing.JTextField();
         
-        try {
-            List<RoomType> roomTypes = roomTypeDAO.findAll();
-            for (RoomType rt : roomTypes) {
-                typeCombo.addItem(rt.getTypeName());
-            }
-        } catch (Exception e) {
-            typeCombo.addItem("Standard");
+        for (RoomType rt : roomTypes) {
+            typeCombo.addItem(rt.getTypeName());
         }
         
         panel.add(new JLabel("Room Number:"));
@@ -417,7 +485,6 @@ public class RoomsPanel extends JPanel {
                 
                 // Get room type ID
                 String selectedType = (String) typeCombo.getSelectedItem();
-                List<RoomType> roomTypes = roomTypeDAO.findAll();
                 for (RoomType rt : roomTypes) {
                     if (rt.getTypeName().equals(selectedType)) {
                         room.setRoomTypeId(rt.getId());
@@ -425,10 +492,11 @@ public class RoomsPanel extends JPanel {
                     }
                 }
                 
-                roomDAO.save(room);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Room added successfully!");
-                Logger.info("Room added: " + room.getRoomNumber());
+                RefreshScheduler.getInstance().write(this, () -> roomDAO.save(room), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Room added successfully!");
+                    Logger.info("Room added: " + room.getRoomNumber());
+                }, e -> writeFailed("Error adding room", e));
             } catch (Exception e) {
                 Logger.error("Error adding room", e);
                 JOptionPane.showMessageDialog(this, "Error adding room: " + e.getMessage(),
@@ -445,15 +513,23 @@ public class RoomsPanel extends JPanel {
             return;
         }
         
-        int roomId = (Integer) tableModel.getValueAt(selectedRow, 0);
+        editRoom((Integer) tableModel.getValueAt(selectedRow, 0));
+    }
+    
+    private void editRoom(int roomId) {
+        RefreshScheduler.getInstance().fetch(this,
+            () -> new RoomEdit(roomDAO.findById(roomId), roomTypeDAO.findAll()),
+            edit -> showEditRoomDialog(edit.room(), edit.roomTypes()));
+    }
+    
+    private void showEditRoomDialog(Room room, List<RoomType> roomTypes) {
+        if (room == null) {
+            JOptionPane.showMessageDialog(this, "Room not found",
+                "Error", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
         
         try {
-            Room room = roomDAO.findById(roomId);
-            if (room == null) {
-                JOptionPane.showMessageDialog(this, "Room not found",
-                    "Error", JOptionPane.ERROR_MESSAGE);
-                return;
-            }
             
             JPanel panel = new JPanel(new java.awt.GridLayout(6, 2, 10, 10));
             panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
@@ -465,19 +541,12 @@ public class RoomsPanel extends JPanel {
             javax.swing.JTextField priceField = new javax.swing.JTextField(String.valueOf(room.getPrice()));
             javax.swing.JTextField descriptionField = new javax.swing.JTextField(room.getDescription());
             
-            try {
-                List<RoomType> roomTypes = roomTypeDAO.findAll();
-                int index = 0;
-                for (int i = 0; i < roomTypes.size(); i++) {
-                    RoomType rt = roomTypes.get(i);
-                    typeCombo.addItem(rt.getTypeName());
-                    if (rt.getId() == room.getRoomTypeId()) {
-                        index = i;
-                    }
+            for (int i = 0; i < roomTypes.size(); i++) {
+                RoomType rt = roomTypes.get(i);
+                typeCombo.addItem(rt.getTypeName());
+                if (rt.getId() == room.getRoomTypeId()) {
+                    typeCombo.setSelectedIndex(i);
                 }
-                typeCombo.setSelectedIndex(index);
-            } catch (Exception e) {
-                typeCombo.addItem("Standard");
             }
             
             statusCombo.setSelectedItem(room.getStatusCode());
@@ -507,7 +576,6 @@ public class RoomsPanel extends JPanel {
                 
                 // Get room type ID
                 String selectedType = (String) typeCombo.getSelectedItem();
-                List<RoomType> roomTypes = roomTypeDAO.findAll();
                 for (RoomType rt : roomTypes) {
                     if (rt.getTypeName().equals(selectedType)) {
                         room.setRoomTypeId(rt.getId());
@@ -515,10 +583,11 @@ public class RoomsPanel extends JPanel {
                     }
                 }
                 
-                roomDAO.update(room);
-                refreshData();
-                JOptionPane.showMessageDialog(this, "Room updated successfully!");
-                Logger.info("Room updated: " + room.getRoomNumber());
+                RefreshScheduler.getInstance().write(this, () -> roomDAO.update(room), done -> {
+                    refreshData();
+                    JOptionPane.showMessageDialog(this, "Room updated successfully!");
+                    Logger.info("Room updated: " + room.getRoomNumber());
+                }, e -> writeFailed("Error editing room", e));
             }
         } catch (Exception e) {
             Logger.error("Error editing room", e);
@@ -540,18 +609,34 @@ public class RoomsPanel extends JPanel {
             "Confirm Delete", JOptionPane.YES_NO_OPTION);
         
         if (confirm == JOptionPane.YES_OPTION) {
-            try {
-                int roomId = (Integer) tableModel.getValueAt(selectedRow, 0);
-                roomDAO.delete(roomId);
+            int roomId = (Integer) tableModel.getValueAt(selectedRow, 0);
+            RefreshScheduler.getInstance().write(this, () -> roomDAO.delete(roomId), done -> {
                 refreshData();
                 JOptionPane.showMessageDialog(this, "Room deleted successfully!");
                 Logger.info("Room deleted: ID " + roomId);
-            } catch (Exception e) {
-                Logger.error("Error deleting room", e);
-                JOptionPane.showMessageDialog(this, "Error deleting room: " + e.getMessage(),
-                    "Error", JOptionPane.ERROR_MESSAGE);
-            }
+            }, e -> writeFailed("Error deleting room", e));
         }
     }
+    
+    /**
+     * Report a write that failed off the EDT
+     */
+    private void writeFailed(String message, Exception e) {
+        Logger.error(message, e);
+        JOptionPane.showMessageDialog(this, message + ": " + e.getMessage(),
+            "Error", JOptionPane.ERROR_MESSAGE);
+    }
+    
+    /**
+     * Table rows, stat card counts and board cells produced off the EDT
+     */
+    record RoomsData(List<Object[]> rows, int available, int occupied, int maintenance, int reserved,
+                     List<RoomBoard.Tile> tiles, Map<Integer, Integer> todayFlags, Map<Integer, String> typeNames) {
+    }
+    
+    /**
+     * A room and the room type choices, fetched before the edit dialog opens
+     */
+    private record RoomEdit(Room room, List<RoomType> roomTypes) {
+    }
 }
-
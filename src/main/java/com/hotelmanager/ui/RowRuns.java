@@ -0,0 +1,37 @@
+package com.hotelmanager.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row indexes collected in ascending order and merged into contiguous runs, so a table diff
+ * fires one event per run instead of one per row.
+ */
+final class RowRuns {
+
+    // Beyond this many inserted or deleted runs one full change is cheaper than shifting the rows run by run
+    static final int MAX_STRUCTURAL_RUNS = 64;
+
+    private final List<int[]> runs = new ArrayList<>();
+
+    void add(int index) {
+        int[] last = runs.isEmpty() ? null : runs.get(runs.size() - 1);
+        if (last != null && last[1] == index - 1) {
+            last[1] = index;
+        } else {
+            runs.add(new int[] {index, index});
+        }
+    }
+
+    int size() {
+        return runs.size();
+    }
+
+    int first(int run) {
+        return runs.get(run)[0];
+    }
+
+    int last(int run) {
+        return runs.get(run)[1];
+    }
+}
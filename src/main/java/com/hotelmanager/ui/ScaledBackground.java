@@ -0,0 +1,82 @@
+package com.hotelmanager.ui;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+
+import javax.swing.JComponent;
+
+/**
+ * Background of the login and registration screens: an image scaled to the panel and tinted, or
+ * a dark gradient without one, with a faint dot grid. It is rendered once per panel size, at the
+ * screen's pixel density, into an image compatible with the screen, so a repaint is a plain copy
+ * of the damaged area.
+ */
+final class ScaledBackground {
+
+    private static final int DOT_SPACING = 40;
+
+    private final BufferedImage source;
+    private final Color tint;
+    private final boolean dotsOverImage;
+    private BufferedImage rendered;
+
+    ScaledBackground(BufferedImage source, Color tint, boolean dotsOverImage) {
+        this.source = source;
+        this.tint = tint;
+        this.dotsOverImage = dotsOverImage;
+    }
+
+    void paint(Graphics g, JComponent panel) {
+        int width = panel.getWidth();
+        int height = panel.getHeight();
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        // On a HiDPI screen the graphics are scaled; render device pixels and draw them into the logical bounds
+        double scaleX = g instanceof Graphics2D g2d ? g2d.getTransform().getScaleX() : 1;
+        double scaleY = g instanceof Graphics2D g2d ? g2d.getTransform().getScaleY() : 1;
+        int deviceWidth = Math.max(1, (int) Math.round(width * scaleX));
+        int deviceHeight = Math.max(1, (int) Math.round(height * scaleY));
+        if (rendered == null || rendered.getWidth() != deviceWidth || rendered.getHeight() != deviceHeight) {
+            rendered = render(panel.getGraphicsConfiguration(), width, height, deviceWidth, deviceHeight);
+        }
+        g.drawImage(rendered, 0, 0, width, height, null);
+    }
+
+    private BufferedImage render(GraphicsConfiguration config, int width, int height, int deviceWidth,
+                                 int deviceHeight) {
+        BufferedImage image = config != null
+            ? config.createCompatibleImage(deviceWidth, deviceHeight)
+            : new BufferedImage(deviceWidth, deviceHeight, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.scale((double) deviceWidth / width, (double) deviceHeight / height);
+            if (source != null) {
+                g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g2d.drawImage(source, 0, 0, width, height, null);
+                g2d.setColor(tint);
+                g2d.fillRect(0, 0, width, height);
+            } else {
+                // Modern dark gradient background - deep blue/purple
+                g2d.setPaint(new GradientPaint(0, 0, new Color(15, 15, 35), 0, height, new Color(25, 25, 50)));
+                g2d.fillRect(0, 0, width, height);
+            }
+            if (source == null || dotsOverImage) {
+                g2d.setColor(new Color(255, 255, 255, 3));
+                for (int x = 0; x < width; x += DOT_SPACING) {
+                    for (int y = 0; y < height; y += DOT_SPACING) {
+                        g2d.fillRect(x, y, 1, 1);
+                    }
+                }
+            }
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+}
@@ -0,0 +1,324 @@
+package com.hotelmanager.ui;
+
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import javax.swing.BorderFactory;
+import javax.swing.JComboBox;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.JToggleButton;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.table.JTableHeader;
+import javax.swing.table.TableCellRenderer;
+
+/**
+ * Search, status and date filters and multi-column sorting for a paged table, answered from
+ * the table's {@link TableIndex} without querying the database.
+ * Typing is debounced; a search that only adds to the previous one narrows the previous
+ * matches instead of scanning every row again. Clicking a header sorts by that column, clicking
+ * again reverses it, Shift-click adds the column as a further sort key.
+ * All methods must be called on the EDT.
+ */
+public class TableFilterBar extends JPanel {
+
+    private static final int DEBOUNCE_MS = 150;
+
+    private final JTable table;
+    private final PagedTableModel<?> model;
+    private final JPanel filters;
+    private final JTextField searchField;
+    private final JLabel countLabel;
+    private final Timer debounce;
+
+    private TableIndex index;
+    // Every row position in sort order
+    private int[] order;
+    private final List<RowSorter.SortKey> sortKeys = new ArrayList<>();
+
+    // Status chips on one enum column, none selected showing every status
+    private int statusColumn = -1;
+    private final List<JToggleButton> statusChips = new ArrayList<>();
+
+    private int dateColumn = -1;
+    private JComboBox<DateRange> dateRange;
+
+    // Result of the last search, narrowed by the next one while the other filters are unchanged
+    private String[] lastTokens;
+    private int[] lastMatches;
+
+    /**
+     * Relative date windows offered for a date column
+     */
+    private enum DateRange {
+        ANY("Any date", 0, 0),
+        TODAY("Today", 0, 1),
+        NEXT_7_DAYS("Next 7 days", 0, 7),
+        NEXT_30_DAYS("Next 30 days", 0, 30),
+        LAST_7_DAYS("Last 7 days", -6, 1),
+        LAST_30_DAYS("Last 30 days", -29, 1),
+        LAST_90_DAYS("Last 90 days", -89, 1);
+
+        private final String label;
+        // Days from today: first included, first excluded
+        private final int fromDays;
+        private final int toDays;
+
+        DateRange(String label, int fromDays, int toDays) {
+            this.label = label;
+            this.fromDays = fromDays;
+            this.toDays = toDays;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public TableFilterBar(JTable table, PagedTableModel<?> model) {
+        super(new BorderLayout());
+        this.table = table;
+        this.model = model;
+        setBackground(Color.WHITE);
+        setBorder(BorderFactory.createMatteBorder(0, 0, 1, 0, UIFactory.BORDER_COLOR));
+        filters = new JPanel(new FlowLayout(FlowLayout.LEFT, 10, 8));
+        filters.setBackground(Color.WHITE);
+        add(filters, BorderLayout.CENTER);
+
+        searchField = UIFactory.createTextField(18);
+        searchField.setToolTipText("Search every column");
+        debounce = new Timer(DEBOUNCE_MS, e -> applyFilter());
+        debounce.setRepeats(false);
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounce.restart();
+            }
+        });
+        filters.add(UIFactory.createLabel("🔍", 14, false));
+        filters.add(searchField);
+
+        countLabel = UIFactory.createLabel("", 12, false);
+        countLabel.setForeground(UIFactory.TEXT_SECONDARY);
+        countLabel.setBorder(BorderFactory.createEmptyBorder(0, 10, 0, 15));
+        add(countLabel, BorderLayout.EAST);
+
+        installHeaderSorting();
+    }
+
+    /**
+     * Add one toggle chip per status of an enum column, colored in ordinal order
+     */
+    public <E extends Enum<E>> void addStatusChips(int column, Class<E> statusType, Color... colors) {
+        statusColumn = column;
+        E[] statuses = statusType.getEnumConstants();
+        for (int i = 0; i < statuses.length; i++) {
+            JToggleButton chip = UIFactory.createChip(displayName(statuses[i]), colors[i]);
+            chip.addActionListener(e -> filtersChanged());
+            statusChips.add(chip);
+            filters.add(chip);
+        }
+    }
+
+    /**
+     * Add a date window filter on a date or date-time column
+     */
+    public void addDateRange(int column, String label) {
+        dateColumn = column;
+        dateRange = new JComboBox<>(DateRange.values());
+        dateRange.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        dateRange.setBackground(Color.WHITE);
+        dateRange.addActionListener(e -> filtersChanged());
+        filters.add(UIFactory.createLabel(label, 13, false));
+        filters.add(dateRange);
+    }
+
+    /**
+     * Model columns the chips and the date window filter on, whose values the index must keep
+     */
+    public int[] filterColumns() {
+        return IntStream.of(statusColumn, dateColumn).filter(column -> column >= 0).toArray();
+    }
+
+    /**
+     * Show a newly loaded index with the current sort and filters
+     */
+    public void setIndex(TableIndex index) {
+        this.index = index;
+        order = index.order(sortKeys);
+        lastMatches = null;
+        applyFilter();
+    }
+
+    private void filtersChanged() {
+        lastMatches = null;
+        applyFilter();
+    }
+
+    private void applyFilter() {
+        debounce.stop();
+        if (index == null) {
+            return;
+        }
+        String[] tokens = TableIndex.tokens(searchField.getText());
+        int[] candidates = lastMatches != null && narrows(lastTokens, tokens) ? lastMatches : order;
+
+        boolean[] allowedStatus = allowedStatuses();
+        long from = Long.MIN_VALUE;
+        long to = Long.MAX_VALUE;
+        DateRange range = dateRange != null ? (DateRange) dateRange.getSelectedItem() : DateRange.ANY;
+        if (range != DateRange.ANY) {
+            LocalDate today = LocalDate.now();
+            from = index.dayKey(dateColumn, today.plusDays(range.fromDays));
+            to = index.dayKey(dateColumn, today.plusDays(range.toDays));
+        }
+
+        byte[][] needles = TableIndex.encode(tokens);
+        int[] matches = new int[candidates.length];
+        int count = 0;
+        for (int row : candidates) {
+            if (allowedStatus != null) {
+                long status = index.key(statusColumn, row);
+                if (status < 0 || status >= allowedStatus.length || !allowedStatus[(int) status]) {
+                    continue;
+                }
+            }
+            if (range != DateRange.ANY) {
+                long day = index.key(dateColumn, row);
+                if (day < from || day >= to) {
+                    continue;
+                }
+            }
+            if (tokens.length > 0 && !index.matches(row, needles)) {
+                continue;
+            }
+            matches[count++] = row;
+        }
+        lastTokens = tokens;
+        lastMatches = Arrays.copyOf(matches, count);
+
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = index.idAt(lastMatches[i]);
+        }
+        model.reset(ids);
+        countLabel.setText(count == index.size() ? count + " rows" : count + " of " + index.size() + " rows");
+    }
+
+    /**
+     * Every previous token is part of a new token, so the new matches are a subset of the old
+     */
+    private static boolean narrows(String[] previous, String[] tokens) {
+        for (String old : previous) {
+            boolean kept = false;
+            for (String token : tokens) {
+                if (token.contains(old)) {
+                    kept = true;
+                    break;
+                }
+            }
+            if (!kept) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean[] allowedStatuses() {
+        boolean[] allowed = new boolean[statusChips.size()];
+        boolean any = false;
+        for (int i = 0; i < allowed.length; i++) {
+            allowed[i] = statusChips.get(i).isSelected();
+            any |= allowed[i];
+        }
+        return any ? allowed : null;
+    }
+
+    private void installHeaderSorting() {
+        JTableHeader header = table.getTableHeader();
+        header.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int viewColumn = header.columnAtPoint(e.getPoint());
+                if (viewColumn >= 0) {
+                    sortBy(table.convertColumnIndexToModel(viewColumn), e.isShiftDown());
+                }
+            }
+        });
+        TableCellRenderer renderer = header.getDefaultRenderer();
+        header.setDefaultRenderer((t, value, isSelected, hasFocus, row, column) ->
+            renderer.getTableCellRendererComponent(t, value + sortMarker(t.convertColumnIndexToModel(column)),
+                isSelected, hasFocus, row, column));
+    }
+
+    /**
+     * Ascending, then descending, then (for an added key) off
+     */
+    private void sortBy(int column, boolean addKey) {
+        int position = -1;
+        for (int i = 0; i < sortKeys.size(); i++) {
+            if (sortKeys.get(i).getColumn() == column) {
+                position = i;
+            }
+        }
+        if (!addKey) {
+            SortOrder next = position == 0 && sortKeys.get(0).getSortOrder() == SortOrder.ASCENDING
+                ? SortOrder.DESCENDING : SortOrder.ASCENDING;
+            sortKeys.clear();
+            sortKeys.add(new RowSorter.SortKey(column, next));
+        } else if (position < 0) {
+            sortKeys.add(new RowSorter.SortKey(column, SortOrder.ASCENDING));
+        } else if (sortKeys.get(position).getSortOrder() == SortOrder.ASCENDING) {
+            sortKeys.set(position, new RowSorter.SortKey(column, SortOrder.DESCENDING));
+        } else {
+            sortKeys.remove(position);
+        }
+        table.getTableHeader().repaint();
+        if (index != null) {
+            order = index.order(sortKeys);
+            filtersChanged();
+        }
+    }
+
+    private String sortMarker(int column) {
+        for (int i = 0; i < sortKeys.size(); i++) {
+            RowSorter.SortKey key = sortKeys.get(i);
+            if (key.getColumn() == column) {
+                String arrow = key.getSortOrder() == SortOrder.ASCENDING ? " ▲" : " ▼";
+                return sortKeys.size() > 1 ? arrow + (i + 1) : arrow;
+            }
+        }
+        return "";
+    }
+
+    private static String displayName(Enum<?> status) {
+        String name = status.name().replace('_', ' ');
+        return name.charAt(0) + name.substring(1).toLowerCase();
+    }
+}
@@ -0,0 +1,433 @@
+package com.hotelmanager.ui;
+
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.ToIntFunction;
+import java.util.regex.Pattern;
+
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+
+import com.hotelmanager.ui.PagedTableModel.Column;
+
+/**
+ * Column-wise search and sort keys for every row of a paged table, built off the EDT when the
+ * table loads so that sorting and filtering never touch the database or the row objects.
+ * Rows are fed one at a time through a {@link Builder}, e.g. straight from a streamed narrow
+ * projection, and are not kept. Each row keeps its key, its normalized search text (the cells
+ * as displayed, lower case, accents removed) in one shared UTF-8 buffer, per column its sort
+ * rank (enum columns by their displayed text), and for the filter columns a long value (enum
+ * ordinal, epoch day or second). Sorting by
+ * ranks is a few primitive sorts, one per sort key. Columns are numbered as in the table model,
+ * 0 being the key.
+ */
+public final class TableIndex {
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+    private static final long NO_VALUE = Long.MIN_VALUE;
+
+    private final int[] ids;
+    // Search text of row r is text[textStart[r]] up to text[textStart[r + 1]]
+    private final byte[] text;
+    private final int[] textStart;
+    // Per model column: position of each row when sorted ascending by the column, ties equal;
+    // null for the key column when rows arrived in key order
+    private final int[][] ranks;
+    // Per model column: the long value of each row, null except for filter columns
+    private final long[][] values;
+    private final boolean[] timeColumn;
+
+    private TableIndex(int[] ids, byte[] text, int[] textStart, int[][] ranks, long[][] values,
+                       boolean[] timeColumn) {
+        this.ids = ids;
+        this.text = text;
+        this.textStart = textStart;
+        this.ranks = ranks;
+        this.values = values;
+        this.timeColumn = timeColumn;
+    }
+
+    /**
+     * Start an index over rows shown with the given columns; filter columns (enum or date
+     * columns a {@link TableFilterBar} filters on) keep their values after the build
+     */
+    public static <T> Builder<T> builder(List<Column<T>> columns, ToIntFunction<T> idOf, int... filterColumns) {
+        return new Builder<>(columns, idOf, filterColumns);
+    }
+
+    /**
+     * Lower case, accents removed and runs of white space collapsed, for searching and sorting
+     */
+    public static String normalize(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > 0x7F) {
+                value = MARKS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+                break;
+            }
+        }
+        StringBuilder out = new StringBuilder(value.length());
+        boolean space = false;
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (Character.isWhitespace(ch)) {
+                space = out.length() > 0;
+            } else {
+                if (space) {
+                    out.append(' ');
+                    space = false;
+                }
+                out.append(Character.toLowerCase(ch));
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Split a search into normalized tokens; a row matches when it contains every token
+     */
+    public static String[] tokens(String search) {
+        String normalized = normalize(search);
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    /**
+     * Tokens in the encoding of the search text, for {@link #matches}
+     */
+    public static byte[][] encode(String[] tokens) {
+        byte[][] encoded = new byte[tokens.length][];
+        for (int i = 0; i < tokens.length; i++) {
+            encoded[i] = tokens[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return encoded;
+    }
+
+    public int size() {
+        return ids.length;
+    }
+
+    public int idAt(int row) {
+        return ids[row];
+    }
+
+    /**
+     * Whether the row's search text contains every encoded token; UTF-8 is self-synchronizing,
+     * so a byte match is a character match
+     */
+    public boolean matches(int row, byte[][] tokens) {
+        int from = textStart[row];
+        int to = textStart[row + 1];
+        for (byte[] token : tokens) {
+            if (!contains(from, to, token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The long key of a row in a filter column, e.g. an enum ordinal; Long.MIN_VALUE for a blank cell
+     */
+    public long key(int column, int row) {
+        return values[column][row];
+    }
+
+    /**
+     * Key of the first moment of a day in a date or date-time column, for range filters
+     */
+    public long dayKey(int column, LocalDate day) {
+        return timeColumn[column] ? day.atStartOfDay().toEpochSecond(ZoneOffset.UTC) : day.toEpochDay();
+    }
+
+    /**
+     * Row positions ordered by the sort keys, ties broken by key; blank cells sort first
+     */
+    public int[] order(List<? extends RowSorter.SortKey> sortKeys) {
+        // Start from key order and apply the sort keys least significant first; each pass sorts
+        // (rank, previous position) pairs packed in a long, which keeps equal ranks in order
+        int[] order = new int[ids.length];
+        long[] packed = new long[ids.length];
+        int[] idRanks = ranks[0];
+        for (int row = 0; row < order.length; row++) {
+            order[idRanks != null ? idRanks[row] : row] = row;
+        }
+        for (int k = sortKeys.size() - 1; k >= 0; k--) {
+            RowSorter.SortKey sortKey = sortKeys.get(k);
+            if (sortKey.getSortOrder() == SortOrder.UNSORTED) {
+                continue;
+            }
+            int[] columnRanks = ranks[sortKey.getColumn()];
+            boolean descending = sortKey.getSortOrder() == SortOrder.DESCENDING;
+            for (int i = 0; i < order.length; i++) {
+                int row = order[i];
+                long rank = columnRanks != null ? columnRanks[row] : row;
+                packed[i] = (descending ? order.length - rank : rank) << 32 | i;
+            }
+            Arrays.sort(packed);
+            int[] sorted = new int[order.length];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = order[(int) packed[i]];
+            }
+            order = sorted;
+        }
+        return order;
+    }
+
+    private boolean contains(int from, int to, byte[] token) {
+        int last = to - token.length;
+        for (int i = from; i <= last; i++) {
+            if (text[i] == token[0] && regionMatches(i, token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean regionMatches(int offset, byte[] token) {
+        for (int k = 1; k < token.length; k++) {
+            if (text[offset + k] != token[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects rows one at a time; only primitive arrays and, until {@link #build}, the text
+     * cells of each column are kept
+     */
+    public static final class Builder<T> {
+
+        private final List<Column<T>> columns;
+        private final ToIntFunction<T> idOf;
+        private final boolean[] filterColumn;
+
+        private int size;
+        private int[] ids = new int[1024];
+        private byte[] text = new byte[64 * 1024];
+        private int textLength;
+        private int[] textStart = new int[1025];
+        // Per model column, chosen by the first non-blank cell: sort text or long value
+        private final String[][] strings;
+        private final long[][] values;
+        private final boolean[] timeColumn;
+        // Per enum column: normalized displayed text of each constant seen, by ordinal
+        private final String[][] enumTexts;
+        private final StringBuilder line = new StringBuilder();
+
+        private Builder(List<Column<T>> columns, ToIntFunction<T> idOf, int[] filterColumns) {
+            this.columns = columns;
+            this.idOf = idOf;
+            int columnCount = columns.size() + 1;
+            filterColumn = new boolean[columnCount];
+            for (int column : filterColumns) {
+                filterColumn[column] = true;
+            }
+            strings = new String[columnCount][];
+            values = new long[columnCount][];
+            timeColumn = new boolean[columnCount];
+            enumTexts = new String[columnCount][];
+        }
+
+        public void add(T item) {
+            if (size == ids.length) {
+                grow(size * 2);
+            }
+            int row = size++;
+            ids[row] = idOf.applyAsInt(item);
+            line.setLength(0);
+            for (int c = 1; c < strings.length; c++) {
+                Column<T> column = columns.get(c - 1);
+                Object value = column.value().apply(item);
+                String shown = null;
+                if (value != null) {
+                    shown = column.format().apply(value);
+                    line.append(shown).append(' ');
+                    if (strings[c] == null && values[c] == null) {
+                        startColumn(c, value);
+                    }
+                }
+                if (strings[c] != null) {
+                    strings[c][row] = value != null ? normalize(value.toString()) : "";
+                } else if (values[c] != null) {
+                    values[c][row] = longKey(value);
+                    timeColumn[c] |= value instanceof LocalDateTime;
+                    if (value instanceof Enum<?> constant) {
+                        rememberText(c, constant, shown);
+                    }
+                }
+            }
+            appendText(normalize(line.toString()).getBytes(StandardCharsets.UTF_8));
+            textStart[row + 1] = textLength;
+        }
+
+        public TableIndex build() {
+            int columnCount = strings.length;
+            int[][] ranks = new int[columnCount][];
+            long[][] kept = new long[columnCount][];
+            int[] rowIds = Arrays.copyOf(ids, size);
+            if (!isAscending(rowIds)) {
+                long[] keys = new long[size];
+                for (int row = 0; row < size; row++) {
+                    keys[row] = rowIds[row];
+                }
+                ranks[0] = rank(keys);
+            }
+            for (int c = 1; c < columnCount; c++) {
+                if (values[c] != null) {
+                    long[] columnValues = Arrays.copyOf(values[c], size);
+                    // Enum cells show a label, not the ordinal the filter chips match on
+                    ranks[c] = rank(enumTexts[c] != null ? textOrder(columnValues, enumTexts[c]) : columnValues);
+                    kept[c] = filterColumn[c] ? columnValues : null;
+                } else if (strings[c] != null) {
+                    ranks[c] = rank(Arrays.copyOf(strings[c], size));
+                } else {
+                    // Blank in every row
+                    ranks[c] = new int[size];
+                    if (filterColumn[c]) {
+                        kept[c] = new long[size];
+                        Arrays.fill(kept[c], NO_VALUE);
+                    }
+                }
+                strings[c] = null;
+                values[c] = null;
+                enumTexts[c] = null;
+            }
+            return new TableIndex(rowIds, Arrays.copyOf(text, textLength), Arrays.copyOf(textStart, size + 1),
+                ranks, kept, timeColumn);
+        }
+
+        /**
+         * Choose the kind of a column from its first non-blank cell; earlier rows were blank
+         */
+        private void startColumn(int c, Object value) {
+            if (value instanceof Number || value instanceof Enum || value instanceof LocalDate
+                    || value instanceof LocalDateTime) {
+                values[c] = new long[ids.length];
+                Arrays.fill(values[c], 0, size - 1, NO_VALUE);
+            } else {
+                strings[c] = new String[ids.length];
+                Arrays.fill(strings[c], 0, size - 1, "");
+            }
+        }
+
+        private void rememberText(int c, Enum<?> constant, String shown) {
+            if (enumTexts[c] == null) {
+                enumTexts[c] = new String[constant.getDeclaringClass().getEnumConstants().length];
+            }
+            if (enumTexts[c][constant.ordinal()] == null) {
+                enumTexts[c][constant.ordinal()] = normalize(shown);
+            }
+        }
+
+        private void grow(int capacity) {
+            ids = Arrays.copyOf(ids, capacity);
+            textStart = Arrays.copyOf(textStart, capacity + 1);
+            for (int c = 1; c < strings.length; c++) {
+                if (strings[c] != null) {
+                    strings[c] = Arrays.copyOf(strings[c], capacity);
+                }
+                if (values[c] != null) {
+                    values[c] = Arrays.copyOf(values[c], capacity);
+                }
+            }
+        }
+
+        private void appendText(byte[] bytes) {
+            if (textLength + bytes.length > text.length) {
+                text = Arrays.copyOf(text, Math.max(textLength + bytes.length, text.length * 2));
+            }
+            System.arraycopy(bytes, 0, text, textLength, bytes.length);
+            textLength += bytes.length;
+        }
+    }
+
+    /**
+     * Rank of every row: the number of rows with a smaller value, so equal values share a rank
+     */
+    private static int[] rank(long[] columnValues) {
+        long[] sorted = columnValues.clone();
+        Arrays.sort(sorted);
+        int[] ranks = new int[columnValues.length];
+        for (int row = 0; row < ranks.length; row++) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid] < columnValues[row]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            ranks[row] = low;
+        }
+        return ranks;
+    }
+
+    private static int[] rank(String[] columnStrings) {
+        String[] sorted = columnStrings.clone();
+        Arrays.sort(sorted);
+        int[] ranks = new int[columnStrings.length];
+        for (int row = 0; row < ranks.length; row++) {
+            int low = 0;
+            int high = sorted.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (sorted[mid].compareTo(columnStrings[row]) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            ranks[row] = low;
+        }
+        return ranks;
+    }
+
+    /**
+     * Replace each ordinal by the position of its constant's text among the texts seen, so
+     * constants shown alike share a position; blank cells keep NO_VALUE
+     */
+    private static long[] textOrder(long[] ordinals, String[] texts) {
+        long[] positions = new long[texts.length];
+        for (int o = 0; o < texts.length; o++) {
+            for (String other : texts) {
+                if (texts[o] != null && other != null && other.compareTo(texts[o]) < 0) {
+                    positions[o]++;
+                }
+            }
+        }
+        long[] keys = new long[ordinals.length];
+        for (int row = 0; row < keys.length; row++) {
+            keys[row] = ordinals[row] == NO_VALUE ? NO_VALUE : positions[(int) ordinals[row]];
+        }
+        return keys;
+    }
+
+    private static boolean isAscending(int[] keys) {
+        for (int i = 1; i < keys.length; i++) {
+            if (keys[i] <= keys[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long longKey(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        } else if (value instanceof Enum<?> constant) {
+            return constant.ordinal();
+        } else if (value instanceof LocalDate date) {
+            return date.toEpochDay();
+        } else if (value instanceof LocalDateTime time) {
+            return time.toEpochSecond(ZoneOffset.UTC);
+        }
+        return NO_VALUE;
+    }
+}
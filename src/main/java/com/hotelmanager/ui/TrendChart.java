@@ -0,0 +1,154 @@
+package com.hotelmanager.ui;
+
+import java.awt.BasicStroke;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.time.LocalDate;
+
+import javax.swing.JComponent;
+
+import com.hotelmanager.analytics.Downsampler;
+import com.hotelmanager.model.Money;
+
+/**
+ * Line chart of a daily series. The series is downsampled with LTTB to the plot width
+ * (a point every two pixels) and the result is kept until the width changes, so long
+ * ranges paint as a few hundred points and resizing redoes the downsampling once per width.
+ */
+public class TrendChart extends JComponent {
+
+    public enum Scale {
+        PERCENT, MONEY
+    }
+
+    private static final int LEFT = 78;
+    private static final int RIGHT = 16;
+    private static final int TOP = 30;
+    private static final int BOTTOM = 24;
+    private static final int GRID_LINES = 4;
+    // One kept point per two pixels is indistinguishable from one per pixel at this stroke width
+    private static final int PIXELS_PER_POINT = 2;
+
+    private final String title;
+    private final Color color;
+    private final Scale scale;
+
+    private int[] days = new int[0];
+    private double[] values = new double[0];
+    private double minValue;
+    private double maxValue;
+
+    private int sampledWidth = -1;
+    private int[] sampled;
+
+    public TrendChart(String title, Color color, Scale scale) {
+        this.title = title;
+        this.color = color;
+        this.scale = scale;
+        setOpaque(true);
+        setBackground(UIFactory.CARD_BG);
+        setPreferredSize(new Dimension(600, 150));
+    }
+
+    /**
+     * Replace the series; days are epoch days in ascending order
+     */
+    public void setSeries(int[] days, double[] values) {
+        this.days = days;
+        this.values = values;
+        minValue = 0;
+        maxValue = 0;
+        for (double value : values) {
+            minValue = Math.min(minValue, value);
+            maxValue = Math.max(maxValue, value);
+        }
+        if (scale == Scale.PERCENT) {
+            maxValue = Math.max(maxValue, 100);
+        }
+        if (maxValue == minValue) {
+            maxValue = minValue + 1;
+        }
+        sampledWidth = -1;
+        repaint();
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        Graphics2D g2 = (Graphics2D) g.create();
+        try {
+            g2.setColor(getBackground());
+            g2.fillRect(0, 0, getWidth(), getHeight());
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            g2.setFont(new Font("Segoe UI", Font.BOLD, 13));
+            g2.setColor(UIFactory.TEXT_COLOR);
+            g2.drawString(title, 10, 18);
+
+            int plotWidth = getWidth() - LEFT - RIGHT;
+            int plotHeight = getHeight() - TOP - BOTTOM;
+            if (plotWidth < 10 || plotHeight < 10) {
+                return;
+            }
+
+            g2.setFont(new Font("Segoe UI", Font.PLAIN, 11));
+            FontMetrics metrics = g2.getFontMetrics();
+            for (int i = 0; i <= GRID_LINES; i++) {
+                double value = minValue + (maxValue - minValue) * i / GRID_LINES;
+                int y = TOP + plotHeight - (int) Math.round((double) plotHeight * i / GRID_LINES);
+                g2.setColor(UIFactory.BG_COLOR);
+                g2.drawLine(LEFT, y, LEFT + plotWidth, y);
+                String label = format(value);
+                g2.setColor(UIFactory.TEXT_SECONDARY);
+                g2.drawString(label, LEFT - 6 - metrics.stringWidth(label), y + metrics.getAscent() / 2 - 1);
+            }
+
+            if (days.length == 0) {
+                g2.drawString("No data for this range", LEFT + 8, TOP + plotHeight / 2);
+                return;
+            }
+
+            if (sampledWidth != plotWidth) {
+                sampled = Downsampler.lttb(days, values, days.length, plotWidth / PIXELS_PER_POINT);
+                sampledWidth = plotWidth;
+            }
+            long span = Math.max(1, days[days.length - 1] - days[0]);
+            int[] xs = new int[sampled.length + 2];
+            int[] ys = new int[sampled.length + 2];
+            for (int i = 0; i < sampled.length; i++) {
+                int index = sampled[i];
+                xs[i] = LEFT + (int) ((days[index] - days[0]) * plotWidth / span);
+                ys[i] = TOP + plotHeight - (int) Math.round((values[index] - minValue) * plotHeight / (maxValue - minValue));
+            }
+
+            // Close the shape along the zero line for a light fill under the curve
+            int zeroY = TOP + plotHeight - (int) Math.round(-minValue * plotHeight / (maxValue - minValue));
+            xs[sampled.length] = xs[sampled.length - 1];
+            ys[sampled.length] = zeroY;
+            xs[sampled.length + 1] = xs[0];
+            ys[sampled.length + 1] = zeroY;
+            g2.setColor(new Color(color.getRed(), color.getGreen(), color.getBlue(), 40));
+            g2.fillPolygon(xs, ys, xs.length);
+            g2.setColor(color);
+            g2.setStroke(new BasicStroke(1.5f));
+            g2.drawPolyline(xs, ys, sampled.length);
+
+            g2.setColor(UIFactory.TEXT_SECONDARY);
+            String first = LocalDate.ofEpochDay(days[0]).toString();
+            String last = LocalDate.ofEpochDay(days[days.length - 1]).toString();
+            int labelY = TOP + plotHeight + metrics.getAscent() + 4;
+            g2.drawString(first, LEFT, labelY);
+            g2.drawString(last, LEFT + plotWidth - metrics.stringWidth(last), labelY);
+        } finally {
+            g2.dispose();
+        }
+    }
+
+    private String format(double value) {
+        return scale == Scale.PERCENT ? String.format("%.0f%%", value) : Money.format(Math.round(value * 100));
+    }
+}
@@ -6,6 +6,7 @@ import java.awt.Cursor;
 import java.awt.Font;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
 
 import javax.swing.BorderFactory;
 import javax.swing.Icon;
@@ -16,6 +17,7 @@ import javax.swing.JPasswordField;
 import javax.swing.JScrollPane;
 import javax.swing.JTable;
 import javax.swing.JTextField;
+import javax.swing.JToggleButton;
 import javax.swing.SwingConstants;
 import javax.swing.border.EmptyBorder;
 import javax.swing.border.LineBorder;
@@ -41,6 +43,9 @@ public class UIFactory {
     public static final Color SIDEBAR_BG = new Color(44, 62, 80);
     public static final Color SIDEBAR_HOVER = new Color(52, 73, 94);
     
+    // Brand logo shown in every panel header
+    public static final String LOGO_RESOURCE = "/icons/UPC_BRAND.png";
+    
     // Private constructor to prevent instantiation
     private UIFactory() {
         throw new UnsupportedOperationException("Utility class cannot be instantiated");
@@ -272,6 +277,39 @@ public class UIFactory {
         return createLabel(text, 14, false);
     }
     
+    /**
+     * Create a hidden "Loading..." label for a panel header, shown while data is in flight
+     */
+    public static JLabel createLoadingLabel() {
+        JLabel label = createLabel("⏳ Loading...", 12, false);
+        label.setForeground(TEXT_SECONDARY);
+        label.setVisible(false);
+        return label;
+    }
+    
+    /**
+     * Create a filter chip: outlined in its color, filled while selected
+     */
+    public static JToggleButton createChip(String text, Color color) {
+        JToggleButton chip = new JToggleButton(text);
+        chip.setFont(new Font("Segoe UI", Font.BOLD, 12));
+        chip.setFocusPainted(false);
+        chip.setContentAreaFilled(false);
+        chip.setOpaque(true);
+        chip.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        chip.setBorder(BorderFactory.createCompoundBorder(
+            new LineBorder(color, 1),
+            new EmptyBorder(5, 10, 5, 10)
+        ));
+        chip.setBackground(Color.WHITE);
+        chip.setForeground(color);
+        chip.addItemListener(e -> {
+            chip.setBackground(chip.isSelected() ? color : Color.WHITE);
+            chip.setForeground(chip.isSelected() ? Color.WHITE : color);
+        });
+        return chip;
+    }
+    
     /**
      * Create a card panel with shadow effect
      */
@@ -362,6 +400,33 @@ public class UIFactory {
         });
     }
     
+    /**
+     * A decoded image resource, shared and decoded only once; null if missing
+     */
+    public static BufferedImage getImage(String resource) {
+        return ImageAssets.get(resource);
+    }
+    
+    /**
+     * An image resource as an icon of the given size, sharp on scaled displays; null if missing
+     */
+    public static Icon createImageIcon(String resource, int width, int height) {
+        return ImageAssets.icon(resource, width, height);
+    }
+    
+    /**
+     * An image resource as an icon fitted within the given size, keeping its aspect ratio
+     */
+    public static Icon createFittedImageIcon(String resource, int maxWidth, int maxHeight) {
+        BufferedImage image = ImageAssets.get(resource);
+        if (image == null) {
+            return null;
+        }
+        double scale = Math.min((double) maxWidth / image.getWidth(), (double) maxHeight / image.getHeight());
+        return ImageAssets.icon(resource, Math.max(1, (int) (image.getWidth() * scale)),
+            Math.max(1, (int) (image.getHeight() * scale)));
+    }
+    
     /**
      * Create a toggle button for password visibility
      */
@@ -2,10 +2,16 @@ package com.hotelmanager.util;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Business Database Connection - MariaDB for all operations except authentication
@@ -13,7 +19,13 @@ import java.util.Properties;
  */
 public class DBConnection {
     private static DBConnection instance;
-    private Connection connection;
+    private static final long VALIDATE_AFTER_IDLE_MS = 30_000L;
+    private static final long ACQUIRE_TIMEOUT_SECONDS = 30L;
+    
+    // Small pool so background loaders and the EDT never share one physical connection
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private Semaphore permits;
+    private int poolSize;
     private String url;
     private String username;
     private String password;
@@ -59,6 +71,13 @@ public class DBConnection {
             username = props.getProperty("business.db.username", "root");
             password = props.getProperty("business.db.password", "");
         }
+        
+        try {
+            poolSize = Math.max(1, Integer.parseInt(props.getProperty("business.db.pool.size", "4").trim()));
+        } catch (NumberFormatException e) {
+            poolSize = 4;
+        }
+        permits = new Semaphore(poolSize, true);
     }
     
     /**
@@ -102,41 +121,150 @@ public class DBConnection {
         }
     }
     
+    /**
+     * Borrow a pooled connection - closing it returns it to the pool
+     */
     public Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            try {
-                if ("mariadb".equalsIgnoreCase(dbType)) {
-                    Class.forName("org.mariadb.jdbc.Driver");
-                } else {
-                    Class.forName("com.mysql.cj.jdbc.Driver");
+        try {
+            if (!permits.tryAcquire(ACQUIRE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                throw new SQLException("Timed out waiting for a database connection (pool size " + poolSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        try {
+            PooledConnection pooled = takeIdle();
+            Connection physical = pooled != null ? pooled.physical : openConnection();
+            return wrap(physical);
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+    
+    public int getPoolSize() {
+        return poolSize;
+    }
+    
+    private PooledConnection takeIdle() {
+        while (true) {
+            PooledConnection pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                return null;
+            }
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            closeQuietly(pooled.physical);
+        }
+    }
+    
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            if (pooled.physical.isClosed()) {
+                return false;
+            }
+            // Only pay for a round trip when the server may have dropped an idle session
+            return System.currentTimeMillis() - pooled.returnedAt < VALIDATE_AFTER_IDLE_MS
+                || pooled.physical.isValid(2);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+    
+    private Connection openConnection() throws SQLException {
+        try {
+            if ("mariadb".equalsIgnoreCase(dbType)) {
+                Class.forName("org.mariadb.jdbc.Driver");
+            } else {
+                Class.forName("com.mysql.cj.jdbc.Driver");
+            }
+            return DriverManager.getConnection(url, username, password);
+        } catch (ClassNotFoundException e) {
+            if ("mariadb".equalsIgnoreCase(dbType)) {
+                throw new SQLException("MariaDB JDBC Driver not found", e);
+            } else {
+                throw new SQLException("MySQL JDBC Driver not found", e);
+            }
+        }
+    }
+    
+    private Connection wrap(Connection physical) {
+        boolean[] closed = new boolean[1];
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] { Connection.class },
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close":
+                        if (!closed[0]) {
+                            closed[0] = true;
+                            release(physical);
+                        }
+                        return null;
+                    case "isClosed":
+                        return closed[0] || physical.isClosed();
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "toString":
+                        return "Pooled" + physical;
+                    default:
+                        if (closed[0]) {
+                            throw new SQLException("Connection is closed");
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
                 }
-                connection = DriverManager.getConnection(url, username, password);
-            } catch (ClassNotFoundException e) {
-                if ("mariadb".equalsIgnoreCase(dbType)) {
-                    throw new SQLException("MariaDB JDBC Driver not found", e);
-                } else {
-                    throw new SQLException("MySQL JDBC Driver not found", e);
+            });
+    }
+    
+    private void release(Connection physical) {
+        try {
+            if (!physical.isClosed()) {
+                if (!physical.getAutoCommit()) {
+                    physical.rollback();
+                    physical.setAutoCommit(true);
+                }
+                synchronized (idle) {
+                    idle.addFirst(new PooledConnection(physical, System.currentTimeMillis()));
                 }
             }
+        } catch (SQLException e) {
+            closeQuietly(physical);
+        } finally {
+            permits.release();
         }
-        return connection;
     }
     
+    /**
+     * Close every idle pooled connection
+     */
     public void closeConnection() {
-        if (connection != null) {
-            try {
-                if (!connection.isClosed()) {
-                    connection.close();
-                }
-            } catch (SQLException e) {
-                e.printStackTrace();
+        synchronized (idle) {
+            for (PooledConnection pooled : idle) {
+                closeQuietly(pooled.physical);
             }
+            idle.clear();
         }
     }
     
-    public boolean testConnection() {
+    private static void closeQuietly(Connection connection) {
         try {
-            Connection testConn = getConnection();
+            connection.close();
+        } catch (SQLException e) {
+            Logger.warn("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+    
+    public boolean testConnection() {
+        try (Connection testConn = getConnection()) {
             if (testConn != null && !testConn.isClosed()) {
                 return true;
             }
@@ -157,5 +285,14 @@ public class DBConnection {
     public boolean isMySQL() {
         return "mysql".equalsIgnoreCase(dbType);
     }
+    
+    private static final class PooledConnection {
+        final Connection physical;
+        final long returnedAt;
+        
+        PooledConnection(Connection physical, long returnedAt) {
+            this.physical = physical;
+            this.returnedAt = returnedAt;
+        }
+    }
 }
-
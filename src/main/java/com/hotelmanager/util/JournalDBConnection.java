@@ -0,0 +1,116 @@
+package com.hotelmanager.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Offline Journal Connection - local SQLite store for business writes made while MariaDB is unreachable
+ */
+public class JournalDBConnection {
+    private static JournalDBConnection instance;
+    private Connection connection;
+    private String url;
+
+    private JournalDBConnection() {
+        loadConfiguration();
+    }
+
+    public static JournalDBConnection getInstance() {
+        if (instance == null) {
+            synchronized (JournalDBConnection.class) {
+                if (instance == null) {
+                    instance = new JournalDBConnection();
+                }
+            }
+        }
+        return instance;
+    }
+
+    private void loadConfiguration() {
+        Properties props = new Properties();
+        try {
+            String configPath = System.getProperty("user.dir") + "/config.properties";
+            FileInputStream fis = new FileInputStream(configPath);
+            props.load(fis);
+            fis.close();
+        } catch (IOException e) {
+            System.out.println("Using default offline journal configuration");
+        }
+
+        String sqlitePath = props.getProperty("offline.journal.sqlite.path", "./hotel_manager_journal.db");
+        url = "jdbc:sqlite:" + new File(sqlitePath).getAbsolutePath();
+    }
+
+    /**
+     * Initialize the journal table (SQLite)
+     */
+    public void initializeDatabase() {
+        try (Statement stmt = getConnection().createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS journal (" +
+                "seq INTEGER PRIMARY KEY AUTOINCREMENT, " +
+                "created_at INTEGER NOT NULL, " +
+                "table_name TEXT NOT NULL, " +
+                "key_column TEXT NOT NULL, " +
+                "entity_id INTEGER NOT NULL, " +
+                "operation TEXT NOT NULL, " +
+                "sql_text TEXT NOT NULL, " +
+                "params BLOB, " +
+                "base_version INTEGER, " +
+                "state TEXT NOT NULL DEFAULT 'PENDING', " +
+                "message TEXT, " +
+                "replayed_at INTEGER, " +
+                "entry_id TEXT)");
+            stmt.execute("CREATE INDEX IF NOT EXISTS idx_journal_state ON journal (state, seq)");
+            // Journals written before entries carried a replay id
+            if (!hasColumn(stmt, "journal", "entry_id")) {
+                stmt.execute("ALTER TABLE journal ADD COLUMN entry_id TEXT");
+            }
+            stmt.execute("UPDATE journal SET entry_id = lower(hex(randomblob(16))) WHERE entry_id IS NULL");
+            Logger.info("Offline journal (SQLite) initialized successfully");
+        } catch (SQLException e) {
+            Logger.error("Error initializing offline journal", e);
+        }
+    }
+
+    private static boolean hasColumn(Statement stmt, String table, String column) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery("PRAGMA table_info(" + table + ")")) {
+            while (rs.next()) {
+                if (column.equalsIgnoreCase(rs.getString("name"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    public synchronized Connection getConnection() throws SQLException {
+        if (connection == null || connection.isClosed()) {
+            try {
+                Class.forName("org.sqlite.JDBC");
+                connection = DriverManager.getConnection(url);
+            } catch (ClassNotFoundException e) {
+                throw new SQLException("SQLite JDBC Driver not found", e);
+            }
+        }
+        return connection;
+    }
+
+    public void closeConnection() {
+        if (connection != null) {
+            try {
+                if (!connection.isClosed()) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.hotelmanager.util;
+
+/**
+ * Times a startup sequence, e.g. from pressing Login to the first paint of the main window.
+ * Each mark is logged with the time since the previous mark and since the start; the
+ * sequence ends at the first paint, after which marks are ignored until the next begin.
+ */
+public final class StartupTrace {
+
+    private static String name;
+    private static long startNanos;
+    private static long lastNanos;
+    private static boolean running;
+
+    private StartupTrace() {
+    }
+
+    public static synchronized void begin(String sequence) {
+        name = sequence;
+        startNanos = System.nanoTime();
+        lastNanos = startNanos;
+        running = true;
+    }
+
+    public static synchronized void mark(String step) {
+        if (!running) {
+            return;
+        }
+        long now = System.nanoTime();
+        Logger.info(String.format("Startup [%s] %s: +%d ms (%d ms total)", name, step,
+            (now - lastNanos) / 1_000_000, (now - startNanos) / 1_000_000));
+        lastNanos = now;
+    }
+
+    /**
+     * Call from paint; the first call after begin closes the sequence
+     */
+    public static synchronized void firstPaint() {
+        if (running) {
+            mark("first paint");
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.hotelmanager.analytics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Accuracy and speed harness for the occupancy forecast on synthetic history - no database.
+ * Demand per room type follows a yearly wave, a weekly pattern, a drift of a few points a
+ * year and noise; each sold room night gets a booking lead time. The models learn two years
+ * night by night exactly as the application feeds them, then a third year is forecast every
+ * morning and scored against what happened, next to two baselines: rooms on the books only,
+ * and the same night a year earlier. Usage: ForecastBenchmark [room types] [seed]
+ * <p>
+ * Kept out of src/main so it is not packaged with the application; compile it against the
+ * application classes, since it drives the package-private RoomTypeForecast directly.
+ */
+public final class ForecastBenchmark {
+
+    private static final int HISTORY_DAYS = 730;
+    private static final int EVALUATION_DAYS = 365;
+    private static final int MAX_LEAD = 180;
+    private static final double MEAN_LEAD = 21;
+    private static final double[] WEEKLY = {-0.10, -0.08, -0.05, 0.0, 0.10, 0.14, -0.01};
+    private static final int[][] LEAD_BUCKETS = {{0, 7}, {7, 30}, {30, 90}};
+
+    private ForecastBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int types = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        int days = HISTORY_DAYS + EVALUATION_DAYS + RoomTypeForecast.HORIZON;
+        Random random = new Random(seed);
+
+        // Synthetic history: sold[t][night] and, per type, bookings bucketed by the day they were made
+        int[] capacity = new int[types];
+        int[][] sold = new int[types][days];
+        int[][][] bookedOn = new int[types][days][];
+        int[][] bookedCount = new int[types][days];
+        int[][][] leadsOf = new int[types][days][];
+        for (int t = 0; t < types; t++) {
+            capacity[t] = 4 + random.nextInt(37);
+            double base = 0.45 + random.nextDouble() * 0.3;
+            double phase = random.nextDouble() * Math.PI * 2;
+            double drift = (random.nextDouble() - 0.5) * 0.1 / 365;
+            for (int night = 0; night < days; night++) {
+                double rate = base + 0.15 * Math.sin(2 * Math.PI * night / 365.0 + phase) + WEEKLY[night % 7]
+                    + drift * night + random.nextGaussian() * 0.06;
+                int rooms = (int) Math.round(Math.max(0, Math.min(1, rate)) * capacity[t]);
+                sold[t][night] = rooms;
+                leadsOf[t][night] = new int[rooms];
+                for (int r = 0; r < rooms; r++) {
+                    int lead = (int) Math.min(MAX_LEAD, -Math.log(1 - random.nextDouble()) * MEAN_LEAD);
+                    leadsOf[t][night][r] = lead;
+                    int madeOn = Math.max(0, night - lead);
+                    if (bookedOn[t][madeOn] == null) {
+                        bookedOn[t][madeOn] = new int[4];
+                    } else if (bookedCount[t][madeOn] == bookedOn[t][madeOn].length) {
+                        bookedOn[t][madeOn] = Arrays.copyOf(bookedOn[t][madeOn], bookedCount[t][madeOn] * 2);
+                    }
+                    bookedOn[t][madeOn][bookedCount[t][madeOn]++] = night;
+                }
+            }
+        }
+
+        RoomTypeForecast[] models = new RoomTypeForecast[types];
+        for (int t = 0; t < types; t++) {
+            models[t] = new RoomTypeForecast(capacity[t], 0);
+        }
+        double[][] forecast = new double[types][RoomTypeForecast.HORIZON];
+        double[][] error = new double[3][LEAD_BUCKETS.length];
+        double[] bias = new double[LEAD_BUCKETS.length];
+        long[] samples = new long[LEAD_BUCKETS.length];
+        long forecastNanos = 0;
+        long slowestForecast = 0;
+        long updateNanos = 0;
+        int forecasts = 0;
+
+        for (int today = 0; today < HISTORY_DAYS + EVALUATION_DAYS; today++) {
+            long updateStart = System.nanoTime();
+            for (int t = 0; t < types; t++) {
+                for (int i = 0; i < bookedCount[t][today]; i++) {
+                    models[t].book(bookedOn[t][today][i], 1);
+                }
+            }
+            updateNanos += System.nanoTime() - updateStart;
+
+            if (today >= HISTORY_DAYS) {
+                long start = System.nanoTime();
+                for (int t = 0; t < types; t++) {
+                    models[t].forecast(forecast[t]);
+                }
+                long elapsed = System.nanoTime() - start;
+                forecastNanos += elapsed;
+                slowestForecast = Math.max(slowestForecast, elapsed);
+                forecasts++;
+
+                for (int t = 0; t < types; t++) {
+                    for (int b = 0; b < LEAD_BUCKETS.length; b++) {
+                        for (int lead = LEAD_BUCKETS[b][0]; lead < LEAD_BUCKETS[b][1]; lead++) {
+                            int night = today + lead;
+                            double actual = sold[t][night];
+                            double scale = 100.0 / capacity[t];
+                            error[0][b] += Math.abs(forecast[t][lead] - actual) * scale;
+                            error[1][b] += Math.abs(models[t].onTheBooks(night) - actual) * scale;
+                            error[2][b] += Math.abs(sold[t][night - 364] - actual) * scale;
+                            bias[b] += (forecast[t][lead] - actual) * scale;
+                            samples[b]++;
+                        }
+                    }
+                }
+            }
+
+            updateStart = System.nanoTime();
+            for (int t = 0; t < types; t++) {
+                models[t].closeNight(sold[t][today], leadsOf[t][today], leadsOf[t][today].length);
+            }
+            updateNanos += System.nanoTime() - updateStart;
+        }
+
+        System.out.printf("Synthetic history: %d room types, %d days learned, %d days evaluated (seed %d)%n",
+            types, HISTORY_DAYS, EVALUATION_DAYS, seed);
+        System.out.println("Mean absolute error in occupancy points by lead time:");
+        System.out.printf("  %-12s %10s %10s %14s %10s%n", "lead (days)", "forecast", "on books", "year before", "bias");
+        for (int b = 0; b < LEAD_BUCKETS.length; b++) {
+            System.out.printf("  %-12s %10.2f %10.2f %14.2f %+10.2f%n",
+                LEAD_BUCKETS[b][0] + "-" + (LEAD_BUCKETS[b][1] - 1),
+                error[0][b] / samples[b], error[1][b] / samples[b], error[2][b] / samples[b], bias[b] / samples[b]);
+        }
+        System.out.printf("Forecast of %d types x %d nights: %.3f ms average, %.3f ms slowest over %d runs%n",
+            types, RoomTypeForecast.HORIZON, forecastNanos / 1e6 / forecasts, slowestForecast / 1e6, forecasts);
+        System.out.printf("Incremental updates (bookings + closing nights): %.3f ms per day%n",
+            updateNanos / 1e6 / (HISTORY_DAYS + EVALUATION_DAYS));
+    }
+}